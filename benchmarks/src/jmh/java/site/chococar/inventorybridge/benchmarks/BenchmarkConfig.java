@@ -0,0 +1,35 @@
+package site.chococar.inventorybridge.benchmarks;
+
+import site.chococar.inventorybridge.common.config.ConfigurationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 不讀取檔案的配置，預設連接 MySQL 相容模式的 H2 內存資料庫
+ */
+public class BenchmarkConfig extends ConfigurationManager {
+    private final Map<String, Object> values = new HashMap<>();
+
+    public BenchmarkConfig(String databaseName) {
+        super(null);
+        values.put("database.type", "h2");
+        values.put("database.host", "jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1");
+        values.put("database.username", "sa");
+        values.put("database.password", "");
+        values.put("database.tablePrefix", "bench_");
+        values.put("sync.serverId", "bench");
+    }
+
+    public BenchmarkConfig set(String path, Object value) {
+        values.put(path, value);
+        return this;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getValue(String path, T defaultValue) {
+        Object value = values.get(path);
+        return value != null ? (T) value : defaultValue;
+    }
+}
@@ -0,0 +1,135 @@
+package site.chococar.inventorybridge.benchmarks;
+
+import com.google.gson.stream.JsonReader;
+import site.chococar.inventorybridge.common.adapter.InventoryAdapter;
+import site.chococar.inventorybridge.common.adapter.PlayerAdapter;
+import site.chococar.inventorybridge.common.serialization.CommonItemSerializer;
+import site.chococar.inventorybridge.common.serialization.ItemRecord;
+import site.chococar.inventorybridge.common.serialization.ItemRecordJson;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * 以 ItemRecord 陣列模擬平台背包的玩家
+ */
+public class BenchmarkPlayer implements PlayerAdapter {
+    private final UUID uuid;
+    private final BenchmarkInventory inventory;
+    private final BenchmarkInventory enderChest;
+    private volatile int experience = 1395;
+    private volatile int level = 30;
+
+    public BenchmarkPlayer(UUID uuid, InventoryCorpus inventory, InventoryCorpus enderChest) {
+        this.uuid = uuid;
+        this.inventory = new BenchmarkInventory(inventory.items());
+        this.enderChest = new BenchmarkInventory(enderChest.items());
+    }
+
+    @Override
+    public UUID getUniqueId() {
+        return uuid;
+    }
+
+    @Override
+    public String getName() {
+        return uuid.toString().substring(0, 8);
+    }
+
+    @Override
+    public InventoryAdapter getInventory() {
+        return inventory;
+    }
+
+    @Override
+    public InventoryAdapter getEnderChest() {
+        return enderChest;
+    }
+
+    @Override
+    public int getTotalExperience() {
+        return experience;
+    }
+
+    @Override
+    public int getLevel() {
+        return level;
+    }
+
+    @Override
+    public double getHealth() {
+        return 20.0;
+    }
+
+    @Override
+    public int getFoodLevel() {
+        return 20;
+    }
+
+    @Override
+    public void setHealth(double health) {
+    }
+
+    @Override
+    public void setFoodLevel(int foodLevel) {
+    }
+
+    @Override
+    public void setExperience(int totalExperience, int level) {
+        this.experience = totalExperience;
+        this.level = level;
+    }
+
+    @Override
+    public void updateInventory() {
+    }
+
+    /**
+     * 保存時編碼語料庫中的物品，載入時將每個物品解碼為 ItemRecord
+     */
+    static class BenchmarkInventory implements InventoryAdapter, CommonItemSerializer.InventoryProvider {
+        private final CommonItemSerializer.ItemStackProvider[] items;
+        private final ItemRecord[] loaded = new ItemRecord[InventoryCorpus.SIZE];
+
+        BenchmarkInventory(CommonItemSerializer.ItemStackProvider[] items) {
+            this.items = items;
+        }
+
+        @Override
+        public int size() {
+            return InventoryCorpus.SIZE;
+        }
+
+        @Override
+        public void clear() {
+            Arrays.fill(loaded, null);
+        }
+
+        @Override
+        public String serialize() {
+            return CommonItemSerializer.serializeInventory(InventoryCorpus.SIZE, InventoryCorpus.VERSION,
+                InventoryCorpus.DATA_VERSION, items);
+        }
+
+        @Override
+        public void deserialize(String data) {
+            CommonItemSerializer.deserializeInventory(data, this);
+        }
+
+        @Override
+        public void setItem(int slot, String itemData) {
+            loaded[slot] = ItemRecordJson.parse(itemData);
+        }
+
+        @Override
+        public void readItem(int slot, JsonReader reader) throws IOException {
+            loaded[slot] = ItemRecordJson.read(reader);
+        }
+
+        @Override
+        public void readRecord(int slot, ItemRecord item) {
+            loaded[slot] = item;
+        }
+    }
+}
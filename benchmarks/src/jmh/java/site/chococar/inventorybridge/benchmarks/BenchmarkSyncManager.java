@@ -0,0 +1,73 @@
+package site.chococar.inventorybridge.benchmarks;
+
+import site.chococar.inventorybridge.common.config.ConfigurationManager;
+import site.chococar.inventorybridge.common.database.BaseDatabaseManager;
+import site.chococar.inventorybridge.common.database.CommonDatabaseManager;
+import site.chococar.inventorybridge.common.sync.BaseInventorySyncManager;
+
+/**
+ * 公開保存與載入流程的同步管理器，玩家執行緒即呼叫端執行緒
+ */
+public class BenchmarkSyncManager extends BaseInventorySyncManager<BenchmarkPlayer> {
+    private static final Logger QUIET = new Logger() {
+        @Override
+        public void info(String message) {
+        }
+
+        @Override
+        public void warning(String message) {
+            System.err.println("[WARN] " + message);
+        }
+
+        @Override
+        public void severe(String message) {
+            System.err.println("[ERROR] " + message);
+        }
+    };
+
+    public BenchmarkSyncManager(CommonDatabaseManager databaseManager, ConfigurationManager config) {
+        super(databaseManager, config);
+    }
+
+    public void save(BenchmarkPlayer player, boolean allowDelta) {
+        savePlayerInventory(player, allowDelta);
+    }
+
+    public void load(BenchmarkPlayer player) {
+        loadPlayerInventory(player);
+    }
+
+    @Override
+    protected String getServerId() {
+        return config.getString("sync.serverId", "bench");
+    }
+
+    @Override
+    protected String getCurrentVersion() {
+        return InventoryCorpus.VERSION;
+    }
+
+    @Override
+    protected int getCurrentDataVersion() {
+        return InventoryCorpus.DATA_VERSION;
+    }
+
+    @Override
+    protected Logger getLogger() {
+        return QUIET;
+    }
+
+    @Override
+    protected void logError(String message, Exception e) {
+        System.err.println("[ERROR] " + message + ": " + e);
+    }
+
+    /**
+     * 使用與平台相同 SQL 的資料庫管理器
+     */
+    public static class DatabaseManager extends BaseDatabaseManager {
+        public DatabaseManager(ConfigurationManager config) {
+            super(config);
+        }
+    }
+}
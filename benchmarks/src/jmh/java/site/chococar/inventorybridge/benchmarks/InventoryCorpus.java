@@ -0,0 +1,144 @@
+package site.chococar.inventorybridge.benchmarks;
+
+import site.chococar.inventorybridge.common.serialization.CommonItemSerializer;
+
+/**
+ * 基準測試使用的背包內容
+ * 物品以 Paper 格式的 JSON 表示，兩個平台都能讀取
+ */
+public enum InventoryCorpus {
+    /**
+     * 空背包
+     */
+    EMPTY,
+    /**
+     * 每個槽位都有帶名稱、附魔與耐久度的物品
+     */
+    FULL,
+    /**
+     * 快捷欄以外放滿裝滿物品的界伏盒
+     */
+    SHULKER_HEAVY,
+    /**
+     * 束包中放束包，且放在界伏盒內
+     */
+    BUNDLE_NESTED;
+
+    public static final int SIZE = 41;
+    public static final String VERSION = "1.21.4";
+    public static final int DATA_VERSION = 4189;
+
+    private static final String[] MATERIALS = {
+        "DIAMOND_SWORD", "NETHERITE_PICKAXE", "BOW", "GOLDEN_APPLE", "ENDER_PEARL",
+        "OAK_LOG", "COBBLESTONE", "TORCH", "COOKED_BEEF", "IRON_INGOT"
+    };
+
+    /**
+     * 建立背包內容，null 代表空槽位
+     */
+    public CommonItemSerializer.ItemStackProvider[] items() {
+        CommonItemSerializer.ItemStackProvider[] items = new CommonItemSerializer.ItemStackProvider[SIZE];
+        switch (this) {
+            case EMPTY -> {
+            }
+            case FULL -> {
+                for (int i = 0; i < SIZE; i++) {
+                    items[i] = new JsonItem(decoratedItem(i));
+                }
+            }
+            case SHULKER_HEAVY -> {
+                for (int i = 0; i < 9; i++) {
+                    items[i] = new JsonItem(decoratedItem(i));
+                }
+                for (int i = 9; i < 36; i++) {
+                    items[i] = new JsonItem(shulker(i));
+                }
+            }
+            case BUNDLE_NESTED -> {
+                for (int i = 0; i < 36; i++) {
+                    items[i] = new JsonItem(i % 2 == 0 ? nestedBundle(i, 3) : shulkerOfBundles(i));
+                }
+            }
+        }
+        return items;
+    }
+
+    private static String simpleItem(int seed, int amount) {
+        return "{\"material\":\"" + MATERIALS[seed % MATERIALS.length] + "\",\"amount\":" + amount
+            + ",\"minecraft_version\":\"" + VERSION + "\",\"data_version\":" + DATA_VERSION + "}";
+    }
+
+    private static String decoratedItem(int seed) {
+        return "{\"material\":\"" + MATERIALS[seed % MATERIALS.length] + "\",\"amount\":1"
+            + ",\"minecraft_version\":\"" + VERSION + "\",\"data_version\":" + DATA_VERSION
+            + ",\"meta\":{\"display_name\":\"Item " + seed + "\",\"lore\":[\"Line one\",\"Line two\"]"
+            + ",\"enchantments\":{\"minecraft:unbreaking\":3,\"minecraft:mending\":1}"
+            + ",\"damage\":" + (seed * 7 % 250) + "}}";
+    }
+
+    private static String shulker(int seed) {
+        StringBuilder items = new StringBuilder();
+        for (int slot = 0; slot < 27; slot++) {
+            if (slot > 0) {
+                items.append(',');
+            }
+            items.append('"').append(slot).append("\":").append(simpleItem(seed + slot, 64));
+        }
+        return "{\"material\":\"SHULKER_BOX\",\"amount\":1,\"minecraft_version\":\"" + VERSION
+            + "\",\"data_version\":" + DATA_VERSION
+            + ",\"meta\":{\"container\":{\"size\":27,\"items\":{" + items + "}}}}";
+    }
+
+    private static String nestedBundle(int seed, int depth) {
+        StringBuilder contents = new StringBuilder();
+        for (int i = 0; i < 4; i++) {
+            if (i > 0) {
+                contents.append(',');
+            }
+            String inner = depth > 1 && i == 0 ? nestedBundle(seed + 1, depth - 1) : simpleItem(seed + i, 16);
+            contents.append(quote(inner));
+        }
+        return "{\"material\":\"BUNDLE\",\"amount\":1,\"minecraft_version\":\"" + VERSION
+            + "\",\"data_version\":" + DATA_VERSION + ",\"meta\":{\"bundle_items\":[" + contents + "]}}";
+    }
+
+    private static String shulkerOfBundles(int seed) {
+        StringBuilder items = new StringBuilder();
+        for (int slot = 0; slot < 9; slot++) {
+            if (slot > 0) {
+                items.append(',');
+            }
+            items.append('"').append(slot).append("\":").append(nestedBundle(seed + slot, 2));
+        }
+        return "{\"material\":\"SHULKER_BOX\",\"amount\":1,\"minecraft_version\":\"" + VERSION
+            + "\",\"data_version\":" + DATA_VERSION
+            + ",\"meta\":{\"container\":{\"size\":27,\"items\":{" + items + "}}}}";
+    }
+
+    private static String quote(String json) {
+        return '"' + json.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+
+    /**
+     * 以 JSON 字串表示的物品
+     */
+    record JsonItem(String json) implements CommonItemSerializer.ItemStackProvider {
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public String serialize() {
+            return json;
+        }
+
+        /**
+         * 語料只使用物品紀錄的欄位，與平台物品相同以物品紀錄寫入二進位格式
+         */
+        @Override
+        public boolean hasExactRecord() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package site.chococar.inventorybridge.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import site.chococar.inventorybridge.common.compatibility.ItemMappings;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ItemMappings 查詢的基準
+ * 物品ID混合有映射與沒有映射的情況，與實際背包的分布相近
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ItemMappingsBenchmark {
+
+    private final String[] itemIds = {
+        "minecraft:diamond_sword", "minecraft:bundle", "minecraft:cobblestone", "minecraft:music_disc_tears",
+        "minecraft:oak_log", "minecraft:black_harness", "minecraft:ender_pearl", "minecraft:torch"
+    };
+
+    @Benchmark
+    public void getCompatibleItem(Blackhole blackhole) {
+        for (String itemId : itemIds) {
+            blackhole.consume(ItemMappings.getCompatibleItem(itemId));
+        }
+    }
+
+    @Benchmark
+    public void needsVersionConversion(Blackhole blackhole) {
+        for (String itemId : itemIds) {
+            blackhole.consume(ItemMappings.needsVersionConversion(itemId, "1.21.1"));
+        }
+    }
+
+    @Benchmark
+    public void isItemAvailableInVersion(Blackhole blackhole) {
+        for (String itemId : itemIds) {
+            blackhole.consume(ItemMappings.isItemAvailableInVersion(itemId, "1.21.4"));
+        }
+    }
+
+    @Benchmark
+    public boolean isVersionOlderThan() {
+        return ItemMappings.isVersionOlderThan("1.21.1", "1.21.4");
+    }
+}
@@ -0,0 +1,84 @@
+package site.chococar.inventorybridge.benchmarks;
+
+import com.google.gson.stream.JsonReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import site.chococar.inventorybridge.common.serialization.CommonItemSerializer;
+import site.chococar.inventorybridge.common.serialization.ItemRecord;
+import site.chococar.inventorybridge.common.serialization.ItemRecordJson;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CommonItemSerializer 的編碼與解碼基準
+ * 解碼端與平台實作相同，將每個物品讀為 ItemRecord
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializerBenchmark {
+
+    @Param({"EMPTY", "FULL", "SHULKER_HEAVY", "BUNDLE_NESTED"})
+    public InventoryCorpus corpus;
+
+    @Param({"JSON", "BINARY"})
+    public CommonItemSerializer.PayloadFormat format;
+
+    private CommonItemSerializer.ItemStackProvider[] items;
+    private String payload;
+
+    @Setup
+    public void setUp() {
+        items = corpus.items();
+        payload = serialize();
+    }
+
+    @Benchmark
+    public String serialize() {
+        return CommonItemSerializer.serializeInventory(format, InventoryCorpus.SIZE,
+            InventoryCorpus.VERSION, InventoryCorpus.DATA_VERSION, items);
+    }
+
+    @Benchmark
+    public void deserialize(Blackhole blackhole) {
+        CommonItemSerializer.deserializeInventory(payload, new RecordInventory(blackhole));
+    }
+
+    @Benchmark
+    public int readSize() {
+        return CommonItemSerializer.readInventorySize(payload, 0);
+    }
+
+    /**
+     * 將解碼的物品交給 Blackhole 的背包
+     */
+    private record RecordInventory(Blackhole blackhole) implements CommonItemSerializer.InventoryProvider {
+        @Override
+        public int size() {
+            return InventoryCorpus.SIZE;
+        }
+
+        @Override
+        public void setItem(int slot, String itemData) {
+            blackhole.consume(ItemRecordJson.parse(itemData));
+        }
+
+        @Override
+        public void readItem(int slot, JsonReader reader) throws IOException {
+            blackhole.consume(ItemRecordJson.read(reader));
+        }
+
+        @Override
+        public void readRecord(int slot, ItemRecord item) {
+            blackhole.consume(item);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package site.chococar.inventorybridge.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import site.chococar.inventorybridge.common.serialization.CommonItemSerializer;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BaseInventorySyncManager 保存與載入流程的基準，資料庫為 MySQL 相容模式的 H2 內存資料庫
+ * 數值包含編碼、壓縮、SQL 與解碼，但不含網路延遲，適合比較同一台機器上的變更
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SyncPipelineBenchmark {
+    private static final int PLAYERS = 256;
+
+    @Param({"FULL", "SHULKER_HEAVY"})
+    public InventoryCorpus corpus;
+
+    @Param({"JSON", "BINARY"})
+    public CommonItemSerializer.PayloadFormat format;
+
+    private BenchmarkSyncManager.DatabaseManager databaseManager;
+    private BenchmarkSyncManager syncManager;
+    private BenchmarkPlayer[] players;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        BenchmarkConfig config = new BenchmarkConfig("sync_" + corpus + "_" + format);
+        CommonItemSerializer.setPayloadFormat(format);
+        databaseManager = new BenchmarkSyncManager.DatabaseManager(config);
+        databaseManager.initialize();
+        if (databaseManager.isStandbyMode()) {
+            throw new IllegalStateException("H2 unavailable: " + databaseManager.getLastConnectionError());
+        }
+        syncManager = new BenchmarkSyncManager(databaseManager, config);
+
+        players = new BenchmarkPlayer[PLAYERS];
+        for (int i = 0; i < PLAYERS; i++) {
+            players[i] = new BenchmarkPlayer(UUID.randomUUID(), corpus, InventoryCorpus.FULL);
+            syncManager.save(players[i], false);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        databaseManager.close();
+        CommonItemSerializer.setPayloadFormat(CommonItemSerializer.PayloadFormat.JSON);
+    }
+
+    private BenchmarkPlayer nextPlayer() {
+        BenchmarkPlayer player = players[next];
+        next = (next + 1) % PLAYERS;
+        return player;
+    }
+
+    /**
+     * 內容未變更，只更新時間戳記
+     */
+    @Benchmark
+    public void saveUnchanged() {
+        syncManager.save(nextPlayer(), false);
+    }
+
+    /**
+     * 經驗值變更，重寫整列資料
+     */
+    @Benchmark
+    public void saveChanged() {
+        BenchmarkPlayer player = nextPlayer();
+        player.setExperience(player.getTotalExperience() + 1, player.getLevel());
+        syncManager.save(player, false);
+    }
+
+    @Benchmark
+    public void load() {
+        syncManager.load(nextPlayer());
+    }
+}
@@ -0,0 +1,48 @@
+package site.chococar.inventorybridge.benchmarks.load;
+
+import java.util.Arrays;
+
+/**
+ * 保存所有樣本的延遲記錄器，結束時排序計算百分位數
+ * 負載測試的樣本數在百萬以內，不需要近似的直方圖
+ */
+final class LatencyRecorder {
+    private long[] samples = new long[1024];
+    private int count;
+
+    synchronized void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    synchronized Summary summarize() {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        double total = 0;
+        for (long sample : sorted) {
+            total += sample;
+        }
+        return new Summary(count,
+            count > 0 ? total / count / 1e6 : 0,
+            percentile(sorted, 0.50),
+            percentile(sorted, 0.99),
+            percentile(sorted, 0.999),
+            count > 0 ? sorted[count - 1] / 1e6 : 0);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+    }
+
+    /**
+     * 以毫秒表示的延遲統計
+     */
+    record Summary(int count, double meanMillis, double p50Millis, double p99Millis, double p999Millis, double maxMillis) {
+    }
+}
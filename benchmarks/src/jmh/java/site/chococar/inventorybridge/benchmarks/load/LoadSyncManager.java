@@ -0,0 +1,96 @@
+package site.chococar.inventorybridge.benchmarks.load;
+
+import site.chococar.inventorybridge.benchmarks.BenchmarkPlayer;
+import site.chococar.inventorybridge.benchmarks.BenchmarkSyncManager;
+import site.chococar.inventorybridge.common.config.ConfigurationManager;
+import site.chococar.inventorybridge.common.database.CommonDatabaseManager;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 記錄每個事件從送出到寫入同步日誌所經過時間的同步管理器
+ * 事件到達時玩家仍在同步中會被基類略過，此處計為丟棄
+ */
+final class LoadSyncManager extends BenchmarkSyncManager {
+    private final Map<UUID, Long> pending = new ConcurrentHashMap<>();
+    private volatile PhaseStats phase;
+
+    LoadSyncManager(CommonDatabaseManager databaseManager, ConfigurationManager config) {
+        super(databaseManager, config);
+    }
+
+    void setPhase(PhaseStats phase) {
+        this.phase = phase;
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    @Override
+    public void onPlayerJoin(BenchmarkPlayer player) {
+        if (begin(player, "JOIN")) {
+            super.onPlayerJoin(player);
+        }
+    }
+
+    @Override
+    public void onPlayerLeave(BenchmarkPlayer player) {
+        if (begin(player, "LEAVE")) {
+            super.onPlayerLeave(player);
+        }
+    }
+
+    @Override
+    public void manualSync(BenchmarkPlayer player, boolean save) {
+        if (begin(player, "MANUAL")) {
+            super.manualSync(player, save);
+        }
+    }
+
+    private boolean begin(BenchmarkPlayer player, String operation) {
+        phase.submitted();
+        if (isSyncInProgress(player.getUniqueId())) {
+            phase.dropped(operation);
+            return false;
+        }
+        pending.put(player.getUniqueId(), System.nanoTime());
+        return true;
+    }
+
+    /**
+     * 基類在每個事件結束時寫入同步日誌
+     */
+    void completed(UUID playerUuid, String operation, boolean success) {
+        Long start = pending.remove(playerUuid);
+        if (start != null) {
+            phase.completed(operation, success, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 寫入同步日誌後通知管理器的資料庫管理器
+     */
+    static final class DatabaseManager extends BenchmarkSyncManager.DatabaseManager {
+        private volatile LoadSyncManager syncManager;
+
+        DatabaseManager(ConfigurationManager config) {
+            super(config);
+        }
+
+        void setSyncManager(LoadSyncManager syncManager) {
+            this.syncManager = syncManager;
+        }
+
+        @Override
+        public void logSync(UUID playerUuid, String serverId, String syncType, String status, String errorMessage) {
+            super.logSync(playerUuid, serverId, syncType, status, errorMessage);
+            LoadSyncManager manager = syncManager;
+            if (manager != null) {
+                manager.completed(playerUuid, syncType, "SUCCESS".equals(status));
+            }
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package site.chococar.inventorybridge.benchmarks.load;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import site.chococar.inventorybridge.benchmarks.BenchmarkConfig;
+import site.chococar.inventorybridge.benchmarks.BenchmarkPlayer;
+import site.chococar.inventorybridge.benchmarks.InventoryCorpus;
+import site.chococar.inventorybridge.common.serialization.CommonItemSerializer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * 以模擬玩家對 BaseInventorySyncManager 施加負載
+ *
+ * <p>流程：先為所有玩家寫入一次資料，接著讓 storm 名玩家同時重新連線（模擬伺服器重啟），
+ * 最後以固定速率隨機送出加入、離開與手動保存事件。事件由單一驅動執行緒送出，與伺服器主執行緒相同；
+ * 編碼與資料庫工作在共用執行緒池執行，與插件一致。</p>
+ *
+ * <pre>
+ * ./gradlew :benchmarks:loadTest --args="--players=2000 --storm=500 --seconds=60 --rate=300 --pool=10"
+ * </pre>
+ */
+public final class LoadTest {
+    private static final long TICK_NANOS = 50_000_000L;
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        CommonItemSerializer.setPayloadFormat(CommonItemSerializer.PayloadFormat.fromString(options.format));
+
+        BenchmarkConfig config = new BenchmarkConfig("loadtest_" + System.nanoTime())
+            .set("database.maxPoolSize", options.pool)
+            .set("database.connectionTimeout", options.connectionTimeoutMillis)
+            .set("sync.syncEnderChest", true)
+            .set("sync.writeBehindDelay", options.writeBehindDelayMillis)
+            .set("sync.groupCommitMaxBatch", options.groupCommitMaxBatch);
+        PoolWaitTracker poolWaits = new PoolWaitTracker();
+        LoadSyncManager.DatabaseManager databaseManager = new LoadSyncManager.DatabaseManager(config);
+        databaseManager.getDatabaseConnection().setMetricsTrackerFactory(poolWaits);
+        databaseManager.initialize();
+        if (databaseManager.isStandbyMode()) {
+            throw new IllegalStateException("H2 unavailable: " + databaseManager.getLastConnectionError());
+        }
+        LoadSyncManager syncManager = new LoadSyncManager(databaseManager, config);
+        databaseManager.setSyncManager(syncManager);
+
+        Random random = new Random(options.seed);
+        BenchmarkPlayer[] players = new BenchmarkPlayer[options.players];
+        for (int i = 0; i < players.length; i++) {
+            players[i] = new BenchmarkPlayer(new UUID(options.seed, i), options.pickCorpus(random), InventoryCorpus.FULL);
+        }
+
+        System.out.printf("寫入 %d 名玩家的初始資料...%n", players.length);
+        Arrays.stream(players).parallel().forEach(player -> syncManager.save(player, false));
+        poolWaits.reset();
+
+        List<PhaseStats.Report> reports = new ArrayList<>();
+        boolean[] online = new boolean[players.length];
+
+        // 重啟風暴：storm 名玩家在同一個 tick 內加入
+        PhaseStats storm = new PhaseStats("storm");
+        syncManager.setPhase(storm);
+        storm.start();
+        for (int i = 0; i < Math.min(options.storm, players.length); i++) {
+            syncManager.onPlayerJoin(players[i]);
+            online[i] = true;
+        }
+        reports.add(finish(storm, syncManager, poolWaits, options));
+
+        // 穩定負載：每個 tick 送出 rate / 20 個事件
+        PhaseStats steady = new PhaseStats("steady");
+        syncManager.setPhase(steady);
+        steady.start();
+        long end = System.nanoTime() + options.seconds * 1_000_000_000L;
+        double perTick = options.rate * (TICK_NANOS / 1e9);
+        double carry = 0;
+        while (System.nanoTime() < end) {
+            long tickStart = System.nanoTime();
+            carry += perTick;
+            for (; carry >= 1; carry--) {
+                int index = random.nextInt(players.length);
+                BenchmarkPlayer player = players[index];
+                if (!online[index]) {
+                    syncManager.onPlayerJoin(player);
+                    online[index] = true;
+                } else if (random.nextDouble() < options.manualRatio) {
+                    player.setExperience(player.getTotalExperience() + 1, player.getLevel());
+                    syncManager.manualSync(player, true);
+                } else {
+                    player.setExperience(player.getTotalExperience() + 1, player.getLevel());
+                    syncManager.onPlayerLeave(player);
+                    online[index] = false;
+                }
+            }
+            poolWaits.sample();
+            long sleep = TICK_NANOS - (System.nanoTime() - tickStart);
+            if (sleep > 0) {
+                Thread.sleep(sleep / 1_000_000L, (int) (sleep % 1_000_000L));
+            }
+        }
+        reports.add(finish(steady, syncManager, poolWaits, options));
+
+        databaseManager.close();
+        print(reports);
+        write(options, reports);
+    }
+
+    /**
+     * 等待階段內的事件完成，逾時仍未完成的事件計為未完成
+     */
+    private static PhaseStats.Report finish(PhaseStats phase, LoadSyncManager syncManager, PoolWaitTracker poolWaits,
+                                            Options options) throws InterruptedException {
+        long deadline = System.nanoTime() + options.drainSeconds * 1_000_000_000L;
+        while (syncManager.pendingCount() > 0 && System.nanoTime() < deadline) {
+            poolWaits.sample();
+            Thread.sleep(5);
+        }
+        phase.end();
+        return phase.report(poolWaits.reset(), syncManager.pendingCount());
+    }
+
+    private static void print(List<PhaseStats.Report> reports) {
+        for (PhaseStats.Report report : reports) {
+            System.out.printf("%n== %s: %.1f 秒，送出 %d，完成 %d，未完成 %d，吞吐量 %.1f ops/s%n",
+                report.phase(), report.seconds(), report.submitted(), report.completed(), report.unfinished(),
+                report.throughputPerSecond());
+            System.out.printf("%-8s %8s %6s %6s %9s %9s %9s %9s%n",
+                "op", "count", "fail", "drop", "p50 ms", "p99 ms", "p999 ms", "max ms");
+            for (Map.Entry<String, PhaseStats.OperationReport> entry : report.operations().entrySet()) {
+                LatencyRecorder.Summary latency = entry.getValue().latency();
+                System.out.printf("%-8s %8d %6d %6d %9.2f %9.2f %9.2f %9.2f%n", entry.getKey(), latency.count(),
+                    entry.getValue().failed(), entry.getValue().dropped(),
+                    latency.p50Millis(), latency.p99Millis(), latency.p999Millis(), latency.maxMillis());
+            }
+            LatencyRecorder.Summary acquire = report.pool().acquire();
+            System.out.printf("pool     取得連接 p50 %.3f ms，p99 %.3f ms，p999 %.3f ms，逾時 %d，最多等待執行緒 %d%n",
+                acquire.p50Millis(), acquire.p99Millis(), acquire.p999Millis(),
+                report.pool().timeouts(), report.pool().peakPendingThreads());
+        }
+    }
+
+    private static void write(Options options, List<PhaseStats.Report> reports) throws IOException {
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("options", options);
+        document.put("phases", reports);
+        Path output = Path.of(options.output);
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        Gson gson = new GsonBuilder().setPrettyPrinting().create();
+        try (Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            gson.toJson(document, writer);
+        }
+        System.out.printf("%n報告已寫入 %s%n", output.toAbsolutePath());
+    }
+
+    /**
+     * 命令列參數，格式為 --名稱=值
+     */
+    static final class Options {
+        int players = 2000;
+        int storm = 500;
+        int seconds = 30;
+        int rate = 200;
+        double manualRatio = 0.2;
+        String corpus = "FULL:6,SHULKER_HEAVY:3,BUNDLE_NESTED:1";
+        String format = "json";
+        int pool = 10;
+        int connectionTimeoutMillis = 5000;
+        int writeBehindDelayMillis = 0;
+        int groupCommitMaxBatch = 1;
+        int drainSeconds = 120;
+        long seed = 42;
+        String output = "build/results/loadtest/report.json";
+
+        private transient InventoryCorpus[] corpusTable;
+
+        static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>();
+            for (String arg : args) {
+                if (!arg.startsWith("--") || !arg.contains("=")) {
+                    throw new IllegalArgumentException("Expected --name=value but got " + arg);
+                }
+                int split = arg.indexOf('=');
+                values.put(arg.substring(2, split), arg.substring(split + 1));
+            }
+
+            Options options = new Options();
+            options.players = Integer.parseInt(values.getOrDefault("players", String.valueOf(options.players)));
+            options.storm = Integer.parseInt(values.getOrDefault("storm", String.valueOf(options.storm)));
+            options.seconds = Integer.parseInt(values.getOrDefault("seconds", String.valueOf(options.seconds)));
+            options.rate = Integer.parseInt(values.getOrDefault("rate", String.valueOf(options.rate)));
+            options.manualRatio = Double.parseDouble(values.getOrDefault("manualRatio", String.valueOf(options.manualRatio)));
+            options.corpus = values.getOrDefault("corpus", options.corpus);
+            options.format = values.getOrDefault("format", options.format);
+            options.pool = Integer.parseInt(values.getOrDefault("pool", String.valueOf(options.pool)));
+            options.connectionTimeoutMillis = Integer.parseInt(
+                values.getOrDefault("connectionTimeout", String.valueOf(options.connectionTimeoutMillis)));
+            options.writeBehindDelayMillis = Integer.parseInt(
+                values.getOrDefault("writeBehindDelay", String.valueOf(options.writeBehindDelayMillis)));
+            options.groupCommitMaxBatch = Integer.parseInt(
+                values.getOrDefault("groupCommit", String.valueOf(options.groupCommitMaxBatch)));
+            options.drainSeconds = Integer.parseInt(values.getOrDefault("drainSeconds", String.valueOf(options.drainSeconds)));
+            options.seed = Long.parseLong(values.getOrDefault("seed", String.valueOf(options.seed)));
+            options.output = values.getOrDefault("output", options.output);
+            options.corpusTable = parseCorpus(options.corpus);
+            return options;
+        }
+
+        /**
+         * 解析 名稱:權重 清單為加權抽樣表
+         */
+        private static InventoryCorpus[] parseCorpus(String spec) {
+            List<InventoryCorpus> table = new ArrayList<>();
+            for (String entry : spec.split(",")) {
+                String[] parts = entry.trim().split(":");
+                InventoryCorpus corpus = InventoryCorpus.valueOf(parts[0].trim().toUpperCase());
+                int weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+                for (int i = 0; i < weight; i++) {
+                    table.add(corpus);
+                }
+            }
+            if (table.isEmpty()) {
+                throw new IllegalArgumentException("Empty corpus: " + spec);
+            }
+            return table.toArray(new InventoryCorpus[0]);
+        }
+
+        InventoryCorpus pickCorpus(Random random) {
+            return corpusTable[random.nextInt(corpusTable.length)];
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package site.chococar.inventorybridge.benchmarks.load;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 單一測試階段內各操作類型的統計
+ */
+final class PhaseStats {
+    static final String[] OPERATIONS = {"JOIN", "LEAVE", "MANUAL"};
+
+    final String name;
+    private final Map<String, LatencyRecorder> latencies = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> failures = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> drops = new ConcurrentHashMap<>();
+    private final AtomicInteger submitted = new AtomicInteger();
+    private long startNanos;
+    private long endNanos;
+
+    PhaseStats(String name) {
+        this.name = name;
+        for (String operation : OPERATIONS) {
+            latencies.put(operation, new LatencyRecorder());
+            failures.put(operation, new AtomicInteger());
+            drops.put(operation, new AtomicInteger());
+        }
+    }
+
+    void start() {
+        startNanos = System.nanoTime();
+    }
+
+    void end() {
+        endNanos = System.nanoTime();
+    }
+
+    void submitted() {
+        submitted.incrementAndGet();
+    }
+
+    void dropped(String operation) {
+        drops.get(operation).incrementAndGet();
+    }
+
+    void completed(String operation, boolean success, long latencyNanos) {
+        latencies.get(operation).record(latencyNanos);
+        if (!success) {
+            failures.get(operation).incrementAndGet();
+        }
+    }
+
+    Report report(PoolWaitTracker.Report pool, int unfinished) {
+        Map<String, OperationReport> operations = new LinkedHashMap<>();
+        int completed = 0;
+        for (String operation : OPERATIONS) {
+            LatencyRecorder.Summary summary = latencies.get(operation).summarize();
+            completed += summary.count();
+            operations.put(operation, new OperationReport(summary, failures.get(operation).get(),
+                drops.get(operation).get()));
+        }
+        double seconds = (endNanos - startNanos) / 1e9;
+        return new Report(name, seconds, submitted.get(), completed, unfinished,
+            seconds > 0 ? completed / seconds : 0, operations, pool);
+    }
+
+    record OperationReport(LatencyRecorder.Summary latency, int failed, int dropped) {
+    }
+
+    record Report(String phase, double seconds, int submitted, int completed, int unfinished,
+                  double throughputPerSecond, Map<String, OperationReport> operations, PoolWaitTracker.Report pool) {
+    }
+}
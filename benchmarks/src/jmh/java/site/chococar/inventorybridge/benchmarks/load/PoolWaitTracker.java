@@ -0,0 +1,57 @@
+package site.chococar.inventorybridge.benchmarks.load;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 收集 HikariCP 取得連接的等待時間與逾時次數
+ */
+final class PoolWaitTracker implements MetricsTrackerFactory {
+    private volatile LatencyRecorder waits = new LatencyRecorder();
+    private final AtomicInteger timeouts = new AtomicInteger();
+    private volatile PoolStats stats;
+    private volatile int peakPending;
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.stats = poolStats;
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                waits.record(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.incrementAndGet();
+            }
+        };
+    }
+
+    /**
+     * 取樣目前等待連接的執行緒數，由驅動執行緒定期呼叫
+     */
+    void sample() {
+        PoolStats current = stats;
+        if (current != null) {
+            peakPending = Math.max(peakPending, current.getPendingThreads());
+        }
+    }
+
+    /**
+     * 結束目前階段的統計並開始新的階段
+     */
+    Report reset() {
+        LatencyRecorder finished = waits;
+        waits = new LatencyRecorder();
+        Report report = new Report(finished.summarize(), timeouts.getAndSet(0), peakPending);
+        peakPending = 0;
+        return report;
+    }
+
+    record Report(LatencyRecorder.Summary acquire, int timeouts, int peakPendingThreads) {
+    }
+}
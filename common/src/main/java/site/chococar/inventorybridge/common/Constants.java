@@ -5,7 +5,7 @@ public final class Constants {
     public static final String PLUGIN_NAME = "Chococar's Inventory Bridge";
     public static final String PLUGIN_AUTHOR = "chococar.site";
     public static final String CURRENT_MC_VERSION = "1.21.8";
-    public static final int CURRENT_DATA_VERSION = 4082;
+    public static final int CURRENT_DATA_VERSION = 4440;
     
     private Constants() {
         // Utility class - prevent instantiation
@@ -0,0 +1,13 @@
+package site.chococar.inventorybridge.common.adapter;
+
+/**
+ * 在玩家所屬執行緒擷取、尚未編碼的背包內容
+ * 擷取後與線上背包脫鉤，encode 可在任意執行緒呼叫
+ */
+@FunctionalInterface
+public interface CapturedInventory {
+    /**
+     * 以目前配置的負載格式編碼擷取的內容
+     */
+    String encode();
+}
@@ -0,0 +1,13 @@
+package site.chococar.inventorybridge.common.adapter;
+
+/**
+ * 已在背景執行緒解碼、尚未套用到玩家的背包內容
+ * 解碼結果不再變動，apply 必須在擁有該玩家的伺服器執行緒上呼叫
+ */
+@FunctionalInterface
+public interface DecodedInventory {
+    /**
+     * 以解碼結果取代背包內容
+     */
+    void apply();
+}
@@ -24,4 +24,23 @@ public interface InventoryAdapter {
      * 反序列化背包內容
      */
     void deserialize(String data);
+    
+    /**
+     * 複製目前的背包內容以便稍後編碼，必須在擁有該背包的執行緒呼叫
+     * 平台應覆寫此方法只複製物品；預設實作延後到 encode 時才讀取背包
+     */
+    default CapturedInventory capture() {
+        return this::serialize;
+    }
+    
+    /**
+     * 解碼背包內容但不修改背包，可在任意執行緒呼叫
+     * 平台應覆寫此方法在呼叫端執行緒完成解碼；預設實作延後到 apply 時才反序列化
+     */
+    default DecodedInventory decode(String data) {
+        return () -> {
+            clear();
+            deserialize(data);
+        };
+    }
 }
\ No newline at end of file
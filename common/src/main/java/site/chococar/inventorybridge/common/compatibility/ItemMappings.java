@@ -1,5 +1,7 @@
 package site.chococar.inventorybridge.common.compatibility;
 
+import site.chococar.inventorybridge.common.environment.ServerEnvironment;
+
 import java.util.Map;
 import java.util.HashMap;
 
@@ -145,6 +147,15 @@ public class ItemMappings {
         return ITEM_MAPPINGS.containsKey(itemId);
     }
     
+    /**
+     * 檢查物品在目前伺服器版本中是否可用
+     * @param itemId 物品ID
+     * @return 如果可用則返回true
+     */
+    public static boolean isItemAvailable(String itemId) {
+        return isItemAvailableInVersion(itemId, ServerEnvironment.current().minecraftVersion());
+    }
+    
     /**
      * 檢查物品在指定版本中是否可用
      * @param itemId 物品ID
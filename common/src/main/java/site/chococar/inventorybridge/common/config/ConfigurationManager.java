@@ -174,12 +174,15 @@ public class ConfigurationManager {
         database.put("maxPoolSize", 10);
         database.put("connectionTimeout", 30000);
         database.put("useSSL", false);
+        database.put("legacyUuidColumns", true); // 保留並同時寫入 VARCHAR 玩家 UUID 欄位，供舊版插件共用資料庫
+        database.put("dropLegacyUuidColumns", false); // legacyUuidColumns 為 false 時才會移除舊欄位，無法復原
         config.put("database", database);
         
         // Sync configuration
         Map<String, Object> sync = new LinkedHashMap<>();
         sync.put("enableAutoSync", true);
         sync.put("syncIntervalTicks", 200);
+        sync.put("autoSave", false); // 每 syncIntervalTicks 保存線上玩家，建議搭配 deltaSaves
         sync.put("syncOnJoin", true); // 玩家加入時自動同步
         sync.put("syncOnLeave", true); // 玩家離開時自動同步
         sync.put("syncEnderChest", true);
@@ -187,6 +190,23 @@ public class ConfigurationManager {
         sync.put("syncHealth", false);
         sync.put("syncHunger", false);
         sync.put("serverId", "server1");
+        sync.put("payloadFormat", "json"); // json、binary、record 或 native
+        sync.put("compression", "none"); // none、deflate 或 dictionary
+        sync.put("deltaSaves", false); // 自動保存只寫入變更的槽位
+        sync.put("deltaCompactAfter", 10); // 累積差異次數上限
+        sync.put("lazyContainers", false); // 延遲解碼界伏盒與束包內容
+        sync.put("dedupContainers", false); // 界伏盒與束包內容以內容雜湊共用儲存
+        sync.put("writeBehindDelay", 0); // 延遲寫入毫秒數，0 為停用
+        sync.put("writeBehindThreads", 2); // 背景寫入延遲保存的執行緒數
+        sync.put("recordCacheMegabytes", 0); // 背包記錄快取大小（MB），0 為停用
+        sync.put("prefetchOnLogin", false); // 登入階段預先載入背包
+        sync.put("prefetchTimeout", 3000); // 等待預載完成的毫秒數，逾時改為直接查詢
+        sync.put("groupCommitMaxBatch", 1); // 合併提交每批最多保存數，1 為停用
+        sync.put("groupCommitWindow", 2); // 合併提交等待其他保存的毫秒數
+        sync.put("syncLogFlushInterval", 1000); // 同步日誌批次寫入間隔毫秒數，0 為立即寫入
+        sync.put("syncLogBatchSize", 100);
+        sync.put("syncLogBufferSize", 4096);
+        sync.put("syncLogOverflow", "drop"); // drop、sample 或 block
         config.put("sync", sync);
         
         // Compatibility configuration
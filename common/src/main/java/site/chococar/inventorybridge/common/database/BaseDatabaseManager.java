@@ -0,0 +1,646 @@
+package site.chococar.inventorybridge.common.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import site.chococar.inventorybridge.common.config.ConfigurationManager;
+import site.chococar.inventorybridge.common.serialization.InventoryPatch;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 以 JDBC 實作的通用資料庫管理器基類
+ * SQL 與快取邏輯集中於此，平台子類只負責取得配置
+ */
+public abstract class BaseDatabaseManager implements CommonDatabaseManager {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BaseDatabaseManager.class);
+    private static final String INVENTORIES = "inventories";
+    private static final String SYNC_LOG = "sync_log";
+    /** 等待合併提交寫入一筆保存的最長秒數 */
+    private static final long UPSERT_TIMEOUT_SECONDS = 30;
+    protected final DatabaseConnection databaseConnection;
+    private final ConfigurationManager config;
+    private final PersistedStateCache persistedStates = new PersistedStateCache();
+    private final ContainerBlobStore containerBlobs;
+    private final WriteBehindQueue writeBehind = new WriteBehindQueue(this::writeInventory);
+    private final BatchWriter<InventoryUpsert> upserts =
+        new BatchWriter<>("InventoryBridge-GroupCommit", this::upsertInventories);
+    private final BatchWriter<SyncLogEntry> syncLog =
+        new BatchWriter<>("InventoryBridge-SyncLog", this::insertSyncLogs);
+    
+    protected BaseDatabaseManager(ConfigurationManager config) {
+        this.config = config;
+        this.databaseConnection = new DatabaseConnection(config);
+        this.containerBlobs = new ContainerBlobStore(databaseConnection);
+    }
+    
+    @Override
+    public void initialize() {
+        databaseConnection.initialize();
+        applyWriteSettings();
+        // 停用去重後舊參照會隨保存移除，仍需回收因此不再使用的內容
+        if (!databaseConnection.isStandbyMode()) {
+            CompletableFuture.runAsync(containerBlobs::collectGarbage);
+        }
+    }
+    
+    public Connection getConnection() throws SQLException {
+        return databaseConnection.getConnection();
+    }
+    
+    public String getTablePrefix() {
+        return databaseConnection.getTablePrefix();
+    }
+    
+    public DatabaseConnection getDatabaseConnection() {
+        return databaseConnection;
+    }
+    
+    @Override
+    public boolean isStandbyMode() {
+        return databaseConnection.isStandbyMode();
+    }
+    
+    @Override
+    public String getLastConnectionError() {
+        return databaseConnection.getLastConnectionError();
+    }
+    
+    @Override
+    public boolean reconnect() {
+        // 重新載入配置後也會呼叫此方法
+        applyWriteSettings();
+        boolean success = databaseConnection.reconnect();
+        if (!success) {
+            LOGGER.error("插件將繼續以待機模式運行，錯誤原因: {}", databaseConnection.getLastConnectionError());
+        }
+        return success;
+    }
+    
+    @Override
+    public void close() {
+        // 延遲保存經由合併提交寫入，依序關閉
+        writeBehind.close();
+        upserts.close();
+        syncLog.close();
+        databaseConnection.close();
+    }
+    
+    private void applyWriteSettings() {
+        writeBehind.configure(config.getInt("sync.writeBehindDelay", 0), config.getInt("sync.writeBehindThreads", 2));
+        
+        int groupCommitMaxBatch = config.getInt("sync.groupCommitMaxBatch", 1);
+        upserts.configure(groupCommitMaxBatch > 1, config.getInt("sync.groupCommitWindow", 2),
+            groupCommitMaxBatch, Math.max(256, groupCommitMaxBatch * 4), BatchWriter.OverflowPolicy.BLOCK);
+        
+        int syncLogFlushInterval = config.getInt("sync.syncLogFlushInterval", 1000);
+        syncLog.configure(syncLogFlushInterval > 0, syncLogFlushInterval,
+            config.getInt("sync.syncLogBatchSize", 100), config.getInt("sync.syncLogBufferSize", 4096),
+            BatchWriter.OverflowPolicy.fromString(config.getString("sync.syncLogOverflow", "drop")));
+    }
+    
+    @Override
+    public boolean flush(UUID playerUuid) {
+        return writeBehind.flush(playerUuid);
+    }
+    
+    /**
+     * 保存背包資料，啟用延遲寫入時只取代該玩家尚未寫入的保存
+     */
+    @Override
+    public boolean saveInventory(UUID playerUuid, String serverId, String inventoryData, 
+                            String enderChestData, int experience, int experienceLevel, 
+                            double health, int hunger, String minecraftVersion, int dataVersion) {
+        return writeBehind.submit(new WriteBehindQueue.PendingSave(playerUuid, serverId, inventoryData, enderChestData,
+            experience, experienceLevel, health, hunger, minecraftVersion, dataVersion));
+    }
+    
+    private boolean writeInventory(WriteBehindQueue.PendingSave save) {
+        return writeInventory(save.playerUuid(), save.serverId(), save.inventoryData(), save.enderChestData(),
+            save.experience(), save.experienceLevel(), save.health(), save.hunger(),
+            save.minecraftVersion(), save.dataVersion());
+    }
+    
+    private boolean writeInventory(UUID playerUuid, String serverId, String inventoryData,
+                                String enderChestData, int experience, int experienceLevel,
+                                double health, int hunger, String minecraftVersion, int dataVersion) {
+        long inventoryHash = ContentHash.hash(inventoryData);
+        long enderChestHash = ContentHash.hash(enderChestData);
+        long stateHash = ContentHash.stateHash(inventoryHash, enderChestHash, experience, experienceLevel,
+            health, hunger, minecraftVersion, dataVersion);
+        
+        // 內容與資料列相同時只更新時間戳記，不重寫負載
+        if (persistedStates.mayBeUnchanged(playerUuid, serverId, stateHash)
+                && touchUnchangedInventory(playerUuid, serverId, inventoryHash, enderChestHash, experience,
+                    experienceLevel, health, hunger, minecraftVersion, dataVersion)) {
+            persistedStates.record(playerUuid, serverId, stateHash);
+            return true;
+        }
+        
+        // 大型容器內容改存為共用的內容參照
+        ContainerBlobStore.Prepared prepared = containerBlobs.prepare(playerUuid, serverId, inventoryData,
+            enderChestData, minecraftVersion, dataVersion);
+        InventoryUpsert upsert = new InventoryUpsert(playerUuid, serverId, prepared.inventoryData(),
+            prepared.enderChestData(), experience, experienceLevel, health, hunger, minecraftVersion, dataVersion,
+            inventoryHash, enderChestHash, new CompletableFuture<>());
+        
+        // 啟用合併提交時與其他玩家的保存一起寫入，此處等待本次保存的結果
+        // 延遲寫入在玩家的鎖中呼叫此方法，等待必須有上限
+        try {
+            upserts.submit(upsert);
+            upsert.result().get(UPSERT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            persistedStates.record(playerUuid, serverId, stateHash);
+            containerBlobs.commit(prepared);
+            return true;
+        } catch (ExecutionException | RuntimeException e) {
+            persistedStates.invalidate(playerUuid, serverId);
+            containerBlobs.abort(prepared);
+            LOGGER.error("保存背包資料失敗 - 玩家: {}", playerUuid, e instanceof ExecutionException ? e.getCause() : e);
+            return false;
+        } catch (TimeoutException e) {
+            persistedStates.invalidate(playerUuid, serverId);
+            containerBlobs.abort(prepared);
+            LOGGER.error("保存背包資料逾時 - 玩家: {}", playerUuid);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            persistedStates.invalidate(playerUuid, serverId);
+            containerBlobs.abort(prepared);
+            return false;
+        }
+    }
+    
+    /**
+     * 在同一個交易中以批次寫入多位玩家的完整保存
+     * 批次失敗時逐筆重試，讓每個呼叫端取得自己的錯誤
+     */
+    private void upsertInventories(List<InventoryUpsert> batch) {
+        try {
+            writeUpserts(batch);
+        } catch (RuntimeException e) {
+            // 等待中的保存不能停在未完成的狀態
+            batch.forEach(upsert -> upsert.result().completeExceptionally(e));
+            throw e;
+        }
+    }
+    
+    private void writeUpserts(List<InventoryUpsert> batch) {
+        if (batch.size() > 1) {
+            // 固定鎖定順序，避免多台伺服器同時寫入時死鎖
+            List<InventoryUpsert> ordered = batch.stream()
+                .sorted(Comparator.comparing(InventoryUpsert::playerUuid).thenComparing(InventoryUpsert::serverId))
+                .toList();
+            try (Connection conn = getConnection()) {
+                conn.setAutoCommit(false);
+                try (PreparedStatement stmt = conn.prepareStatement(upsertSql())) {
+                    for (InventoryUpsert upsert : ordered) {
+                        bindUpsert(stmt, upsert);
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+                batch.forEach(upsert -> upsert.result().complete(null));
+                return;
+            } catch (SQLException e) {
+                LOGGER.warn("批次保存 {} 筆背包資料失敗，改為逐筆保存: {}", batch.size(), e.getMessage());
+            }
+        }
+        
+        batch.forEach(this::writeUpsert);
+    }
+    
+    private void writeUpsert(InventoryUpsert upsert) {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(upsertSql())) {
+            bindUpsert(stmt, upsert);
+            stmt.executeUpdate();
+            upsert.result().complete(null);
+        } catch (SQLException e) {
+            if (databaseConnection.refreshLegacyUuidColumns(e)) {
+                writeUpsert(upsert);
+                return;
+            }
+            upsert.result().completeExceptionally(e);
+        }
+    }
+    
+    private String insertSql(String insert) {
+        return String.format("""
+            %s INTO `%sinventories` (%s, `server_id`, `inventory_data`, `ender_chest_data`, 
+                                       `inventory_blob`, `ender_chest_blob`,
+                                       `experience`, `experience_level`, `health`, `hunger`, 
+                                       `minecraft_version`, `data_version`,
+                                       `inventory_hash`, `ender_chest_hash`)
+            VALUES (%s, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """, insert, getTablePrefix(), databaseConnection.playerColumns(INVENTORIES),
+            databaseConnection.playerPlaceholders(INVENTORIES));
+    }
+    
+    private String upsertSql() {
+        return insertSql("INSERT") + """
+            ON DUPLICATE KEY UPDATE
+                `player_key` = VALUES(`player_key`),
+                `inventory_data` = VALUES(`inventory_data`),
+                `ender_chest_data` = VALUES(`ender_chest_data`),
+                `inventory_blob` = VALUES(`inventory_blob`),
+                `ender_chest_blob` = VALUES(`ender_chest_blob`),
+                `inventory_patch` = NULL,
+                `ender_chest_patch` = NULL,
+                `experience` = VALUES(`experience`),
+                `experience_level` = VALUES(`experience_level`),
+                `health` = VALUES(`health`),
+                `hunger` = VALUES(`hunger`),
+                `minecraft_version` = VALUES(`minecraft_version`),
+                `data_version` = VALUES(`data_version`),
+                `inventory_hash` = VALUES(`inventory_hash`),
+                `ender_chest_hash` = VALUES(`ender_chest_hash`),
+                `last_updated` = CURRENT_TIMESTAMP
+            """;
+    }
+    
+    private void bindUpsert(PreparedStatement stmt, InventoryUpsert upsert) throws SQLException {
+        int index = databaseConnection.bindPlayer(stmt, 1, INVENTORIES, upsert.playerUuid());
+        stmt.setString(index, upsert.serverId());
+        PayloadCompression.bind(stmt, index + 1, index + 3, upsert.inventoryData());
+        PayloadCompression.bind(stmt, index + 2, index + 4, upsert.enderChestData());
+        stmt.setInt(index + 5, upsert.experience());
+        stmt.setInt(index + 6, upsert.experienceLevel());
+        stmt.setDouble(index + 7, upsert.health());
+        stmt.setInt(index + 8, upsert.hunger());
+        stmt.setString(index + 9, upsert.minecraftVersion());
+        stmt.setInt(index + 10, upsert.dataVersion());
+        stmt.setLong(index + 11, upsert.inventoryHash());
+        stmt.setLong(index + 12, upsert.enderChestHash());
+    }
+    
+    @Override
+    public boolean saveInventoryPatch(UUID playerUuid, String serverId, String inventoryPatch,
+                                      String enderChestPatch, long inventoryHash, long enderChestHash,
+                                      int experience, int experienceLevel, double health, int hunger) {
+        // 差異相對於最後一次完整保存，必須先寫入尚未寫入的完整保存
+        writeBehind.flush(playerUuid);
+        if (writeBehind.hasPending(playerUuid, serverId)) {
+            // 完整保存寫入失敗，資料列不是差異的基準
+            return false;
+        }
+        
+        String sql = String.format("""
+            UPDATE `%sinventories`
+            SET `inventory_patch` = ?, `ender_chest_patch` = ?,
+                `inventory_hash` = ?, `ender_chest_hash` = ?,
+                `experience` = ?, `experience_level` = ?, `health` = ?, `hunger` = ?,
+                `last_updated` = CURRENT_TIMESTAMP
+            WHERE %s AND `server_id` = ?
+            """, getTablePrefix(), databaseConnection.playerFilter(INVENTORIES));
+        
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, inventoryPatch);
+            stmt.setString(2, enderChestPatch);
+            stmt.setLong(3, inventoryHash);
+            stmt.setLong(4, enderChestHash);
+            stmt.setInt(5, experience);
+            stmt.setInt(6, experienceLevel);
+            stmt.setDouble(7, health);
+            stmt.setInt(8, hunger);
+            int index = databaseConnection.bindPlayer(stmt, 9, INVENTORIES, playerUuid);
+            stmt.setString(index, serverId);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            if (databaseConnection.refreshLegacyUuidColumns(e)) {
+                return saveInventoryPatch(playerUuid, serverId, inventoryPatch, enderChestPatch, inventoryHash,
+                    enderChestHash, experience, experienceLevel, health, hunger);
+            }
+            LOGGER.error("保存背包差異失敗 - 玩家: {}", playerUuid, e);
+            return false;
+        } finally {
+            // 資料列的負載已改為基準加上差異，不能再以雜湊略過之後的完整保存
+            // 在寫入後清除，避免寫入期間完成的保存重新記錄舊狀態
+            persistedStates.invalidate(playerUuid, serverId);
+        }
+    }
+    
+    /**
+     * 資料列的雜湊與玩家狀態都相符且沒有差異時只更新時間戳記
+     * 條件寫在 WHERE 中，記憶體紀錄過期時不會誤判
+     * 帶有差異的資料列必須完整重寫，之後的差異才會以這次保存為基準
+     *
+     * @return 資料列未變更且已更新時間戳記時返回 true
+     */
+    private boolean touchUnchangedInventory(UUID playerUuid, String serverId, long inventoryHash, long enderChestHash,
+                                            int experience, int experienceLevel, double health, int hunger,
+                                            String minecraftVersion, int dataVersion) {
+        String sql = String.format("""
+            UPDATE `%sinventories`
+            SET `last_updated` = CURRENT_TIMESTAMP
+            WHERE %s AND `server_id` = ?
+              AND `inventory_hash` = ? AND `ender_chest_hash` = ?
+              AND `experience` = ? AND `experience_level` = ? AND ABS(`health` - ?) < 0.001 AND `hunger` = ?
+              AND `minecraft_version` = ? AND `data_version` = ?
+              AND `inventory_patch` IS NULL AND `ender_chest_patch` IS NULL
+            """, getTablePrefix(), databaseConnection.playerFilter(INVENTORIES));
+        
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = databaseConnection.bindPlayer(stmt, 1, INVENTORIES, playerUuid);
+            stmt.setString(index, serverId);
+            stmt.setLong(index + 1, inventoryHash);
+            stmt.setLong(index + 2, enderChestHash);
+            stmt.setInt(index + 3, experience);
+            stmt.setInt(index + 4, experienceLevel);
+            stmt.setDouble(index + 5, health);
+            stmt.setInt(index + 6, hunger);
+            stmt.setString(index + 7, minecraftVersion);
+            stmt.setInt(index + 8, dataVersion);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            if (databaseConnection.refreshLegacyUuidColumns(e)) {
+                return touchUnchangedInventory(playerUuid, serverId, inventoryHash, enderChestHash, experience,
+                    experienceLevel, health, hunger, minecraftVersion, dataVersion);
+            }
+            LOGGER.warn("確認背包內容未變更失敗: {}", e.getMessage());
+            return false;
+        }
+    }
+    
+    @Override
+    public InventoryDataRecord loadInventory(UUID playerUuid, String serverId) {
+        writeBehind.flush(playerUuid);
+        
+        // 一次查詢取得所有伺服器中最新的資料，玩家切換伺服器後回到原伺服器時才能讀到新的內容
+        // 時間戳記相同時以當前伺服器的資料為準，排序直接沿用 idx_player_key_last_updated
+        String sql = String.format("""
+            SELECT `inventory_data`, `ender_chest_data`, `inventory_blob`, `ender_chest_blob`,
+                   `inventory_patch`, `ender_chest_patch`, `experience`, `experience_level`, 
+                   `health`, `hunger`, `minecraft_version`, `data_version`, `last_updated`, `server_id`
+            FROM `%sinventories`
+            WHERE %s
+            ORDER BY `last_updated` DESC, (`server_id` = ?) DESC
+            LIMIT 1
+            """, getTablePrefix(), databaseConnection.playerFilter(INVENTORIES));
+        
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = databaseConnection.bindPlayer(stmt, 1, INVENTORIES, playerUuid);
+            stmt.setString(index, serverId);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    String sourceServerId = rs.getString("server_id");
+                    if (serverId.equals(sourceServerId)) {
+                        LOGGER.info("從當前伺服器 {} 載入玩家 {} 的資料", serverId, playerUuid);
+                    } else {
+                        LOGGER.info("從其他伺服器 {} 載入玩家 {} 的資料至 {}", sourceServerId, playerUuid, serverId);
+                    }
+                    return new InventoryDataRecord(
+                        readPayload(conn, rs, "inventory_data", "inventory_blob", "inventory_patch"),
+                        readPayload(conn, rs, "ender_chest_data", "ender_chest_blob", "ender_chest_patch"),
+                        rs.getInt("experience"),
+                        rs.getInt("experience_level"),
+                        rs.getDouble("health"),
+                        rs.getInt("hunger"),
+                        rs.getString("minecraft_version"),
+                        rs.getInt("data_version"),
+                        rs.getTimestamp("last_updated")
+                    );
+                }
+            }
+        } catch (SQLException e) {
+            if (databaseConnection.refreshLegacyUuidColumns(e)) {
+                return loadInventory(playerUuid, serverId);
+            }
+            LOGGER.error("載入背包資料失敗 - 玩家: {}", playerUuid, e);
+        }
+        
+        return null;
+    }
+    
+    @Override
+    public InventoryFingerprint loadFingerprint(UUID playerUuid, String serverId) {
+        writeBehind.flush(playerUuid);
+        
+        // 與 loadInventory 選擇相同的資料列，只讀取雜湊與玩家狀態
+        String sql = String.format("""
+            SELECT `inventory_hash`, `ender_chest_hash`, `experience`, `experience_level`,
+                   `health`, `hunger`, `minecraft_version`, `data_version`
+            FROM `%sinventories`
+            WHERE %s
+            ORDER BY `last_updated` DESC, (`server_id` = ?) DESC
+            LIMIT 1
+            """, getTablePrefix(), databaseConnection.playerFilter(INVENTORIES));
+        
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = databaseConnection.bindPlayer(stmt, 1, INVENTORIES, playerUuid);
+            stmt.setString(index, serverId);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                // 差異保存會清除雜湊欄位
+                long inventoryHash = rs.getLong("inventory_hash");
+                if (rs.wasNull()) {
+                    return null;
+                }
+                long enderChestHash = rs.getLong("ender_chest_hash");
+                if (rs.wasNull()) {
+                    return null;
+                }
+                return new InventoryFingerprint(inventoryHash, enderChestHash,
+                    rs.getInt("experience"), rs.getInt("experience_level"), rs.getDouble("health"),
+                    rs.getInt("hunger"), rs.getString("minecraft_version"), rs.getInt("data_version"));
+            }
+        } catch (SQLException e) {
+            if (databaseConnection.refreshLegacyUuidColumns(e)) {
+                return loadFingerprint(playerUuid, serverId);
+            }
+            LOGGER.warn("讀取背包指紋失敗 - 玩家: {}: {}", playerUuid, e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * 讀取完整快照，還原容器參照後套用差異
+     */
+    private String readPayload(Connection conn, ResultSet rs, String dataColumn, String blobColumn,
+                               String patchColumn) throws SQLException {
+        String minecraftVersion = rs.getString("minecraft_version");
+        int dataVersion = rs.getInt("data_version");
+        String base = containerBlobs.resolve(conn, PayloadCompression.read(rs, dataColumn, blobColumn),
+            minecraftVersion, dataVersion);
+        return InventoryPatch.apply(base, rs.getString(patchColumn), minecraftVersion, dataVersion);
+    }
+    
+    @Override
+    public boolean hasPendingSave(UUID playerUuid, String serverId) {
+        return writeBehind.hasPending(playerUuid, serverId);
+    }
+    
+    /**
+     * 以 INSERT IGNORE 匯入，已有資料列時由唯一鍵略過，不需要先逐一查詢
+     */
+    @Override
+    public boolean importInventory(UUID playerUuid, String serverId, String inventoryData,
+                                   String enderChestData, int experience, int experienceLevel,
+                                   double health, int hunger, String minecraftVersion, int dataVersion) {
+        if (writeBehind.hasPending(playerUuid, serverId)) {
+            return false;
+        }
+        
+        InventoryUpsert upsert = new InventoryUpsert(playerUuid, serverId, inventoryData, enderChestData,
+            experience, experienceLevel, health, hunger, minecraftVersion, dataVersion,
+            ContentHash.hash(inventoryData), ContentHash.hash(enderChestData), new CompletableFuture<>());
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(insertSql("INSERT IGNORE"))) {
+            bindUpsert(stmt, upsert);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            if (databaseConnection.refreshLegacyUuidColumns(e)) {
+                return importInventory(playerUuid, serverId, inventoryData, enderChestData, experience,
+                    experienceLevel, health, hunger, minecraftVersion, dataVersion);
+            }
+            LOGGER.error("匯入背包資料失敗 - 玩家: {}", playerUuid, e);
+            return false;
+        }
+    }
+    
+    @Override
+    public boolean hasInventory(UUID playerUuid, String serverId) {
+        if (writeBehind.hasPending(playerUuid, serverId)) {
+            return true;
+        }
+        
+        String sql = String.format("""
+            SELECT 1 FROM `%sinventories` 
+            WHERE %s AND `server_id` = ? 
+            LIMIT 1
+            """, getTablePrefix(), databaseConnection.playerFilter(INVENTORIES));
+        
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = databaseConnection.bindPlayer(stmt, 1, INVENTORIES, playerUuid);
+            stmt.setString(index, serverId);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        } catch (SQLException e) {
+            if (databaseConnection.refreshLegacyUuidColumns(e)) {
+                return hasInventory(playerUuid, serverId);
+            }
+            LOGGER.warn("檢查背包資料失敗: {}", e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * 逐列讀取此伺服器的玩家鍵，尚未補上 player_key 的舊資料列改用 player_uuid
+     * 尚未寫入的延遲保存不包含在內，呼叫端對集合中沒有的玩家應再以 hasPendingSave 確認
+     */
+    @Override
+    public PlayerKeySet loadPlayerKeys(String serverId) {
+        boolean legacy = databaseConnection.hasLegacyUuidColumn(INVENTORIES);
+        String sql = String.format("SELECT %s FROM `%sinventories` WHERE `server_id` = ?",
+            legacy ? "`player_key`, `player_uuid`" : "`player_key`", getTablePrefix());
+        
+        PlayerKeySet keys = new PlayerKeySet();
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            databaseConnection.streamResults(stmt);
+            stmt.setString(1, serverId);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    byte[] key = rs.getBytes(1);
+                    if (key != null) {
+                        keys.add(UuidBytes.fromBytes(key));
+                    } else if (legacy) {
+                        addLegacyKey(keys, rs.getString(2));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            if (databaseConnection.refreshLegacyUuidColumns(e)) {
+                return loadPlayerKeys(serverId);
+            }
+            LOGGER.warn("載入玩家列表失敗: {}", e.getMessage());
+            return null;
+        }
+        return keys;
+    }
+    
+    private static void addLegacyKey(PlayerKeySet keys, String playerUuid) {
+        if (playerUuid == null) {
+            return;
+        }
+        try {
+            keys.add(UUID.fromString(playerUuid));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("略過無效的 player_uuid: {}", playerUuid);
+        }
+    }
+    
+    /**
+     * 記錄同步日誌，啟用時由背景執行緒分批寫入，不佔用保存與載入的時間
+     */
+    @Override
+    public void logSync(UUID playerUuid, String serverId, String syncType, String status, String errorMessage) {
+        syncLog.submit(new SyncLogEntry(playerUuid, serverId, syncType, status, errorMessage));
+    }
+    
+    private void insertSyncLogs(List<SyncLogEntry> entries) {
+        String sql = String.format("""
+            INSERT INTO `%ssync_log` (%s, `server_id`, `sync_type`, `status`, `error_message`)
+            VALUES (%s, ?, ?, ?, ?)
+            """, getTablePrefix(), databaseConnection.playerColumns(SYNC_LOG),
+            databaseConnection.playerPlaceholders(SYNC_LOG));
+        
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (SyncLogEntry entry : entries) {
+                int index = databaseConnection.bindPlayer(stmt, 1, SYNC_LOG, entry.playerUuid());
+                stmt.setString(index, entry.serverId());
+                stmt.setString(index + 1, entry.syncType());
+                stmt.setString(index + 2, entry.status());
+                stmt.setString(index + 3, entry.errorMessage());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        } catch (SQLException e) {
+            if (databaseConnection.refreshLegacyUuidColumns(e)) {
+                insertSyncLogs(entries);
+                return;
+            }
+            LOGGER.warn("記錄 {} 筆同步日誌失敗: {}", entries.size(), e.getMessage());
+        }
+    }
+    
+    /**
+     * 等待合併提交的一筆完整保存，負載已經過壓縮前處理
+     */
+    private record InventoryUpsert(UUID playerUuid, String serverId, String inventoryData, String enderChestData,
+                                   int experience, int experienceLevel, double health, int hunger,
+                                   String minecraftVersion, int dataVersion, long inventoryHash,
+                                   long enderChestHash, CompletableFuture<Void> result) {
+    }
+    
+    private record SyncLogEntry(UUID playerUuid, String serverId, String syncType, String status,
+                                String errorMessage) {
+    }
+}
@@ -0,0 +1,246 @@
+package site.chococar.inventorybridge.common.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 以背景執行緒分批寫入的有界環形緩衝區
+ * 第一筆項目到達後最多等待 linger 毫秒收集更多項目，滿 maxBatch 筆時立即寫入。
+ * 停用時項目在呼叫端執行緒立即寫入
+ *
+ * @param <T> 項目類型
+ */
+public class BatchWriter<T> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchWriter.class);
+    /** SAMPLE 策略下緩衝區已滿時，每幾筆溢出項目保留一筆 */
+    static final int SAMPLE_RATE = 10;
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final String name;
+    private final Consumer<List<T>> sink;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong overflowed = new AtomicLong();
+    private volatile Worker worker;
+
+    /**
+     * @param name 執行緒名稱
+     * @param sink 寫入一批項目，需自行處理錯誤
+     */
+    public BatchWriter(String name, Consumer<List<T>> sink) {
+        this.name = name;
+        this.sink = sink;
+    }
+
+    /**
+     * 套用設定，已啟用時會先寫入緩衝區中的所有項目
+     *
+     * @param enabled 是否以背景執行緒分批寫入
+     * @param lingerMillis 第一筆項目等待更多項目的最長毫秒數
+     * @param maxBatch 每批最多項目數
+     * @param capacity 緩衝區容量
+     * @param overflow 緩衝區已滿時的處理方式
+     */
+    public void configure(boolean enabled, long lingerMillis, int maxBatch, int capacity, OverflowPolicy overflow) {
+        lock.writeLock().lock();
+        try {
+            stopWorker();
+            if (enabled) {
+                worker = new Worker(Math.max(0, lingerMillis), Math.max(1, maxBatch),
+                    Math.max(1, capacity), overflow);
+                worker.thread.start();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isEnabled() {
+        return worker != null;
+    }
+
+    /**
+     * 加入項目，停用時立即寫入
+     *
+     * @return 項目因緩衝區已滿被丟棄時返回 false
+     */
+    public boolean submit(T item) {
+        lock.readLock().lock();
+        try {
+            Worker current = worker;
+            if (current == null) {
+                sink.accept(List.of(item));
+                return true;
+            }
+            return current.offer(item);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 緩衝區中尚未寫入的項目數
+     */
+    int bufferedCount() {
+        Worker current = worker;
+        return current == null ? 0 : current.buffer.size();
+    }
+
+    /**
+     * 返回並重設因緩衝區已滿而丟棄的項目數
+     */
+    public long takeDropped() {
+        return dropped.getAndSet(0);
+    }
+
+    /**
+     * 寫入緩衝區中的所有項目並停止背景執行緒
+     */
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            stopWorker();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void stopWorker() {
+        Worker current = worker;
+        if (current == null) {
+            return;
+        }
+        worker = null;
+        current.running = false;
+        try {
+            current.thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 執行緒被中斷而提早結束時，在此寫入剩餘項目
+        List<T> remaining = new ArrayList<>();
+        current.buffer.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            sink.accept(remaining);
+        }
+        long lost = takeDropped();
+        if (lost > 0) {
+            LOGGER.warn("{} 緩衝區已滿，共丟棄 {} 筆項目", name, lost);
+        }
+    }
+
+    private final class Worker implements Runnable {
+        private final ArrayBlockingQueue<T> buffer;
+        private final long lingerNanos;
+        private final int maxBatch;
+        private final OverflowPolicy overflow;
+        private final Thread thread;
+        private volatile boolean running = true;
+
+        Worker(long lingerMillis, int maxBatch, int capacity, OverflowPolicy overflow) {
+            this.buffer = new ArrayBlockingQueue<>(capacity);
+            this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+            this.maxBatch = maxBatch;
+            this.overflow = overflow;
+            this.thread = new Thread(this, name);
+            this.thread.setDaemon(true);
+        }
+
+        boolean offer(T item) {
+            if (buffer.offer(item)) {
+                return true;
+            }
+            switch (overflow) {
+                case BLOCK -> {
+                    try {
+                        buffer.put(item);
+                        return true;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                case SAMPLE -> {
+                    // 以新項目取代最舊的項目，保留部分近期紀錄
+                    if (overflowed.incrementAndGet() % SAMPLE_RATE == 0 && buffer.poll() != null) {
+                        dropped.incrementAndGet();
+                        if (buffer.offer(item)) {
+                            return true;
+                        }
+                    }
+                }
+                case DROP -> {
+                }
+            }
+            dropped.incrementAndGet();
+            return false;
+        }
+
+        @Override
+        public void run() {
+            List<T> batch = new ArrayList<>(maxBatch);
+            while (running || !buffer.isEmpty()) {
+                try {
+                    T first = buffer.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    long deadline = System.nanoTime() + lingerNanos;
+                    while (batch.size() < maxBatch) {
+                        long remaining = deadline - System.nanoTime();
+                        T next = remaining > 0 && running
+                            ? buffer.poll(remaining, TimeUnit.NANOSECONDS)
+                            : buffer.poll();
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                    sink.accept(batch);
+                } catch (InterruptedException e) {
+                    if (!batch.isEmpty()) {
+                        sink.accept(batch);
+                    }
+                    return;
+                } catch (RuntimeException e) {
+                    LOGGER.error("{} 寫入 {} 筆項目失敗", name, batch.size(), e);
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * 緩衝區已滿時的處理方式
+     */
+    public enum OverflowPolicy {
+        /** 丟棄新項目 */
+        DROP,
+        /** 每 {@link BatchWriter#SAMPLE_RATE} 筆溢出項目取代一筆最舊的項目，其餘丟棄 */
+        SAMPLE,
+        /** 等待緩衝區有空間 */
+        BLOCK;
+
+        public static OverflowPolicy fromString(String value) {
+            if (value == null) {
+                return DROP;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return DROP;
+            }
+        }
+    }
+}
@@ -38,18 +38,79 @@ public interface CommonDatabaseManager {
      */
     boolean hasInventory(UUID playerUuid, String serverId);
     
+    /**
+     * 以一次查詢載入此伺服器所有已有背包資料的玩家，供掃描玩家檔案時在記憶體中比對
+     * 尚未寫入的保存不包含在內，以 {@link #hasPendingSave} 確認；無法載入時返回 null，呼叫端改為逐一呼叫 hasInventory
+     */
+    default PlayerKeySet loadPlayerKeys(String serverId) {
+        return null;
+    }
+    
+    /**
+     * 是否有尚未寫入資料庫的保存，只檢查記憶體中的狀態
+     */
+    default boolean hasPendingSave(UUID playerUuid, String serverId) {
+        return false;
+    }
+    
+    /**
+     * 匯入玩家檔案的背包，資料列已存在時不覆蓋
+     * 掃描期間玩家可能已加入並保存，資料庫中的資料列優先
+     *
+     * @return 寫入新資料列時返回 true
+     */
+    default boolean importInventory(UUID playerUuid, String serverId, String inventoryData,
+                                    String enderChestData, int experience, int experienceLevel,
+                                    double health, int hunger, String minecraftVersion, int dataVersion) {
+        return !hasInventory(playerUuid, serverId) && saveInventory(playerUuid, serverId, inventoryData,
+            enderChestData, experience, experienceLevel, health, hunger, minecraftVersion, dataVersion);
+    }
+    
     /**
      * 保存背包資料
+     *
+     * @return 已寫入或已排入延遲寫入時返回 true，寫入失敗時返回 false
      */
-    void saveInventory(UUID playerUuid, String serverId, String inventoryData, 
+    boolean saveInventory(UUID playerUuid, String serverId, String inventoryData, 
                       String enderChestData, int experience, int experienceLevel,
                       double health, int hunger, String minecraftVersion, int dataVersion);
     
+    /**
+     * 保存相對最後完整快照的槽位差異
+     * 只更新差異欄位與玩家狀態；資料列不存在或不支援差異時返回 false，呼叫端應改為完整保存
+     *
+     * @param inventoryHash 套用差異後完整背包內容的雜湊，供指紋確認快取
+     * @param enderChestHash 套用差異後完整終界箱內容的雜湊
+     */
+    default boolean saveInventoryPatch(UUID playerUuid, String serverId, String inventoryPatch,
+                                       String enderChestPatch, long inventoryHash, long enderChestHash,
+                                       int experience, int experienceLevel, double health, int hunger) {
+        return false;
+    }
+    
+    /**
+     * 寫入玩家尚未寫入的延遲保存，返回時資料已寫入資料庫
+     * 離開伺服器與手動保存後呼叫，確保其他伺服器能讀到最新資料
+     *
+     * @return 有保存寫入失敗、其他伺服器可能讀到舊資料時返回 false
+     */
+    default boolean flush(UUID playerUuid) {
+        return true;
+    }
+    
     /**
      * 載入背包資料
      */
     InventoryDataRecord loadInventory(UUID playerUuid, String serverId);
     
+    /**
+     * 取得 loadInventory 會載入的資料列指紋，不讀取負載
+     * 沒有資料列、資料列含有差異或無法確認時返回 null
+     */
+    default InventoryFingerprint loadFingerprint(UUID playerUuid, String serverId) {
+        return null;
+    }
+    
     /**
      * 記錄同步日誌
      */
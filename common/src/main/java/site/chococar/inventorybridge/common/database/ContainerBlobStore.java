@@ -0,0 +1,324 @@
+package site.chococar.inventorybridge.common.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import site.chococar.inventorybridge.common.config.ConfigurationManager;
+import site.chococar.inventorybridge.common.serialization.ContainerDedup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 容器內容的內容定址儲存
+ * 背包負載只保留參照，內容依雜湊存放一次；每筆背包資料列的參照記錄在參照表中，
+ * 回收時刪除沒有任何參照且超過寬限期的內容（標記清除）
+ *
+ * <p>寫入順序為參照、缺少的內容、背包資料列，背包寫入成功後才移除舊參照，
+ * 任何一步失敗時參照只會多不會少；參照先於內容寫入，回收不會刪除正要使用的內容</p>
+ *
+ * <p>每個資料列已寫入的參照記錄在有上限的快取中，內容未變更時不再重送參照與內容</p>
+ */
+public final class ContainerBlobStore {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContainerBlobStore.class);
+
+    /**
+     * 未被參照的內容保留的時間，避免回收與其他伺服器同時進行的保存互相競爭
+     */
+    static final Duration GC_GRACE = Duration.ofHours(24);
+
+    private static final int QUERY_CHUNK = 100;
+    private static final int REFERENCE_CACHE_CAPACITY = 10_000;
+    private static final String REFS = "container_blob_refs";
+
+    private static volatile boolean enabled = false;
+
+    private final DatabaseConnection connection;
+
+    /**
+     * 本伺服器確認已存在於參照表的內容雜湊，以玩家與伺服器為鍵
+     */
+    private final Map<String, Set<String>> knownReferences;
+
+    public ContainerBlobStore(DatabaseConnection connection) {
+        this.connection = connection;
+        this.knownReferences = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Set<String>> eldest) {
+                return size() > REFERENCE_CACHE_CAPACITY;
+            }
+        };
+    }
+
+    /**
+     * 依伺服器配置決定是否在保存時抽出容器內容
+     * 讀取端永遠會解析參照，不受此設定影響
+     */
+    public static void configure(ConfigurationManager config) {
+        setEnabled(config.getBoolean("sync.dedupContainers", false));
+    }
+
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 抽出兩個負載中的容器內容並寫入內容與參照
+     * 只寫入尚未記錄的參照與資料庫中不存在的內容
+     * 未啟用時負載保持內嵌，保存成功後移除此資料列的舊參照；寫入內容失敗時同樣改以內嵌方式保存
+     */
+    public Prepared prepare(UUID playerUuid, String serverId, String inventoryData, String enderChestData,
+                            String minecraftVersion, int dataVersion) {
+        Prepared inline = new Prepared(playerUuid, serverId, inventoryData, enderChestData, Set.of());
+        if (!enabled) {
+            return inline;
+        }
+
+        ContainerDedup.Result inventory = ContainerDedup.externalize(inventoryData, minecraftVersion, dataVersion);
+        ContainerDedup.Result enderChest = ContainerDedup.externalize(enderChestData, minecraftVersion, dataVersion);
+        Map<String, String> blobs = new LinkedHashMap<>(inventory.blobs());
+        blobs.putAll(enderChest.blobs());
+
+        Set<String> known = knownReferences(playerUuid, serverId);
+        Map<String, String> added = new LinkedHashMap<>(blobs);
+        if (known != null) {
+            added.keySet().removeAll(known);
+        }
+        if (!added.isEmpty()) {
+            try (Connection conn = connection.getConnection()) {
+                addReferences(conn, playerUuid, serverId, added.keySet());
+                added.keySet().removeAll(loadExistingHashes(conn, added.keySet()));
+                storeBlobs(conn, added);
+            } catch (SQLException e) {
+                if (connection.refreshLegacyUuidColumns(e)) {
+                    return prepare(playerUuid, serverId, inventoryData, enderChestData, minecraftVersion, dataVersion);
+                }
+                LOGGER.warn("寫入容器內容失敗，改為內嵌保存 - 玩家: {}: {}", playerUuid, e.getMessage());
+                return inline;
+            }
+        }
+        return new Prepared(playerUuid, serverId, inventory.payload(), enderChest.payload(), blobs.keySet());
+    }
+
+    /**
+     * 背包資料列寫入成功後移除不再使用的參照
+     * 已知參照與本次相同時不需刪除
+     */
+    public void commit(Prepared prepared) {
+        Set<String> known = knownReferences(prepared.playerUuid(), prepared.serverId());
+        if (known != null && prepared.hashes().containsAll(known)) {
+            rememberReferences(prepared.playerUuid(), prepared.serverId(), prepared.hashes());
+            return;
+        }
+
+        StringBuilder sql = new StringBuilder(String.format(
+            "DELETE FROM `%scontainer_blob_refs` WHERE %s AND `server_id` = ?",
+            connection.getTablePrefix(), connection.playerFilter(REFS)));
+        if (!prepared.hashes().isEmpty()) {
+            sql.append(" AND `content_hash` NOT IN (")
+               .append(String.join(",", Collections.nCopies(prepared.hashes().size(), "?")))
+               .append(')');
+        }
+
+        try (Connection conn = connection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            int index = connection.bindPlayer(stmt, 1, REFS, prepared.playerUuid());
+            stmt.setString(index++, prepared.serverId());
+            for (String hash : prepared.hashes()) {
+                stmt.setString(index++, hash);
+            }
+            stmt.executeUpdate();
+            rememberReferences(prepared.playerUuid(), prepared.serverId(), prepared.hashes());
+        } catch (SQLException e) {
+            if (connection.refreshLegacyUuidColumns(e)) {
+                commit(prepared);
+                return;
+            }
+            // 多餘的參照只會延後回收，不影響資料正確性
+            forgetReferences(prepared.playerUuid(), prepared.serverId());
+            LOGGER.warn("移除舊的容器參照失敗: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 背包保存失敗時，參照表可能已多出本次寫入的參照，下次保存重新確認
+     */
+    public void abort(Prepared prepared) {
+        forgetReferences(prepared.playerUuid(), prepared.serverId());
+    }
+
+    /**
+     * 以儲存的內容取代負載中的參照
+     *
+     * @throws SQLException 讀取失敗或參照的內容不存在時
+     */
+    public String resolve(Connection conn, String payload, String minecraftVersion, int dataVersion) throws SQLException {
+        Set<String> hashes = ContainerDedup.references(payload);
+        if (hashes.isEmpty()) {
+            return payload;
+        }
+
+        Map<String, String> blobs = loadBlobs(conn, hashes);
+        try {
+            return ContainerDedup.resolve(payload, blobs, minecraftVersion, dataVersion);
+        } catch (IllegalStateException e) {
+            throw new SQLException("無法還原容器內容: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 刪除沒有任何參照且超過寬限期的內容
+     *
+     * @return 刪除的內容數量，失敗時為 -1
+     */
+    public int collectGarbage() {
+        String sql = String.format("""
+            DELETE FROM `%1$scontainer_blobs`
+            WHERE `last_referenced` < ?
+              AND NOT EXISTS (
+                  SELECT 1 FROM `%1$scontainer_blob_refs` r
+                  WHERE r.`content_hash` = `%1$scontainer_blobs`.`content_hash`
+              )
+            """, connection.getTablePrefix());
+
+        try (Connection conn = connection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setTimestamp(1, new Timestamp(System.currentTimeMillis() - GC_GRACE.toMillis()));
+            int removed = stmt.executeUpdate();
+            if (removed > 0) {
+                LOGGER.info("已回收 {} 筆未使用的容器內容", removed);
+            }
+            return removed;
+        } catch (SQLException e) {
+            LOGGER.warn("回收容器內容失敗: {}", e.getMessage());
+            return -1;
+        }
+    }
+
+    private Set<String> knownReferences(UUID playerUuid, String serverId) {
+        synchronized (knownReferences) {
+            return knownReferences.get(referenceKey(playerUuid, serverId));
+        }
+    }
+
+    private void rememberReferences(UUID playerUuid, String serverId, Set<String> hashes) {
+        synchronized (knownReferences) {
+            knownReferences.put(referenceKey(playerUuid, serverId), Set.copyOf(hashes));
+        }
+    }
+
+    private void forgetReferences(UUID playerUuid, String serverId) {
+        synchronized (knownReferences) {
+            knownReferences.remove(referenceKey(playerUuid, serverId));
+        }
+    }
+
+    private static String referenceKey(UUID playerUuid, String serverId) {
+        return playerUuid + "|" + serverId;
+    }
+
+    /**
+     * 查詢已儲存的內容雜湊，只需補寫其餘的內容
+     */
+    private Set<String> loadExistingHashes(Connection conn, Set<String> hashes) throws SQLException {
+        Set<String> existing = new HashSet<>();
+        String[] all = hashes.toArray(new String[0]);
+        for (int start = 0; start < all.length; start += QUERY_CHUNK) {
+            int count = Math.min(QUERY_CHUNK, all.length - start);
+            String sql = String.format("SELECT `content_hash` FROM `%scontainer_blobs` WHERE `content_hash` IN (%s)",
+                connection.getTablePrefix(), String.join(",", Collections.nCopies(count, "?")));
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < count; i++) {
+                    stmt.setString(i + 1, all[start + i]);
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        existing.add(rs.getString("content_hash"));
+                    }
+                }
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * 寫入缺少的內容；其他伺服器同時寫入相同內容時保留先寫入的一筆
+     */
+    private void storeBlobs(Connection conn, Map<String, String> blobs) throws SQLException {
+        if (blobs.isEmpty()) {
+            return;
+        }
+        String sql = String.format("""
+            INSERT IGNORE INTO `%scontainer_blobs` (`content_hash`, `content`)
+            VALUES (?, ?)
+            """, connection.getTablePrefix());
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (Map.Entry<String, String> blob : blobs.entrySet()) {
+                stmt.setString(1, blob.getKey());
+                stmt.setString(2, blob.getValue());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    private void addReferences(Connection conn, UUID playerUuid, String serverId, Set<String> hashes) throws SQLException {
+        String sql = String.format("""
+            INSERT INTO `%scontainer_blob_refs` (%s, `server_id`, `content_hash`)
+            VALUES (%s, ?, ?)
+            ON DUPLICATE KEY UPDATE `content_hash` = `content_hash`
+            """, connection.getTablePrefix(), connection.playerColumns(REFS), connection.playerPlaceholders(REFS));
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (String hash : hashes) {
+                int index = connection.bindPlayer(stmt, 1, REFS, playerUuid);
+                stmt.setString(index, serverId);
+                stmt.setString(index + 1, hash);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    private Map<String, String> loadBlobs(Connection conn, Set<String> hashes) throws SQLException {
+        Map<String, String> blobs = new HashMap<>();
+        String[] all = hashes.toArray(new String[0]);
+        for (int start = 0; start < all.length; start += QUERY_CHUNK) {
+            int count = Math.min(QUERY_CHUNK, all.length - start);
+            String sql = String.format("SELECT `content_hash`, `content` FROM `%scontainer_blobs` WHERE `content_hash` IN (%s)",
+                connection.getTablePrefix(), String.join(",", Collections.nCopies(count, "?")));
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < count; i++) {
+                    stmt.setString(i + 1, all[start + i]);
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        blobs.put(rs.getString("content_hash"), rs.getString("content"));
+                    }
+                }
+            }
+        }
+        return blobs;
+    }
+
+    /**
+     * 改寫後待寫入的負載與其參照的內容雜湊，內嵌保存時雜湊為空
+     */
+    public record Prepared(UUID playerUuid, String serverId, String inventoryData, String enderChestData,
+                           Set<String> hashes) {}
+}
@@ -0,0 +1,141 @@
+package site.chococar.inventorybridge.common.database;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 背包負載的 64 位元內容雜湊（XXH64）
+ * 用於判斷保存內容是否與資料庫中的資料列相同，不作為安全用途
+ */
+public final class ContentHash {
+    private static final long PRIME64_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME64_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME64_3 = 0x165667B19E3779F9L;
+    private static final long PRIME64_4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME64_5 = 0x27D4EB2F165667C5L;
+
+    /**
+     * 空負載（null）的雜湊值
+     */
+    public static final long NULL_HASH = 0L;
+
+    private ContentHash() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * 計算負載字串的雜湊，null 返回 NULL_HASH
+     */
+    public static long hash(String payload) {
+        if (payload == null) {
+            return NULL_HASH;
+        }
+        return xxh64(payload.getBytes(StandardCharsets.UTF_8), 0L);
+    }
+
+    /**
+     * 將背包雜湊與玩家狀態合併為單一狀態雜湊
+     */
+    public static long stateHash(long inventoryHash, long enderChestHash, int experience, int experienceLevel,
+                                 double health, int hunger, String minecraftVersion, int dataVersion) {
+        long h = PRIME64_5;
+        h = mix(h, inventoryHash);
+        h = mix(h, enderChestHash);
+        h = mix(h, ((long) experience << 32) | (experienceLevel & 0xFFFFFFFFL));
+        h = mix(h, Double.doubleToLongBits(health));
+        h = mix(h, ((long) hunger << 32) | (dataVersion & 0xFFFFFFFFL));
+        h = mix(h, hash(minecraftVersion));
+        return avalanche(h);
+    }
+
+    static long xxh64(byte[] data, long seed) {
+        int length = data.length;
+        int offset = 0;
+        long h;
+
+        if (length >= 32) {
+            long v1 = seed + PRIME64_1 + PRIME64_2;
+            long v2 = seed + PRIME64_2;
+            long v3 = seed;
+            long v4 = seed - PRIME64_1;
+            int limit = length - 32;
+            do {
+                v1 = round(v1, readLong(data, offset));
+                v2 = round(v2, readLong(data, offset + 8));
+                v3 = round(v3, readLong(data, offset + 16));
+                v4 = round(v4, readLong(data, offset + 24));
+                offset += 32;
+            } while (offset <= limit);
+
+            h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            h = mergeRound(h, v1);
+            h = mergeRound(h, v2);
+            h = mergeRound(h, v3);
+            h = mergeRound(h, v4);
+        } else {
+            h = seed + PRIME64_5;
+        }
+
+        h += length;
+
+        while (offset + 8 <= length) {
+            h ^= round(0, readLong(data, offset));
+            h = Long.rotateLeft(h, 27) * PRIME64_1 + PRIME64_4;
+            offset += 8;
+        }
+        if (offset + 4 <= length) {
+            h ^= (readInt(data, offset) & 0xFFFFFFFFL) * PRIME64_1;
+            h = Long.rotateLeft(h, 23) * PRIME64_2 + PRIME64_3;
+            offset += 4;
+        }
+        while (offset < length) {
+            h ^= (data[offset] & 0xFFL) * PRIME64_5;
+            h = Long.rotateLeft(h, 11) * PRIME64_1;
+            offset++;
+        }
+
+        return avalanche(h);
+    }
+
+    private static long mix(long h, long value) {
+        h ^= round(0, value);
+        return Long.rotateLeft(h, 27) * PRIME64_1 + PRIME64_4;
+    }
+
+    private static long round(long acc, long input) {
+        acc += input * PRIME64_2;
+        acc = Long.rotateLeft(acc, 31);
+        return acc * PRIME64_1;
+    }
+
+    private static long mergeRound(long acc, long value) {
+        acc ^= round(0, value);
+        return acc * PRIME64_1 + PRIME64_4;
+    }
+
+    private static long avalanche(long h) {
+        h ^= h >>> 33;
+        h *= PRIME64_2;
+        h ^= h >>> 29;
+        h *= PRIME64_3;
+        h ^= h >>> 32;
+        return h;
+    }
+
+    private static long readLong(byte[] data, int offset) {
+        return (data[offset] & 0xFFL)
+            | (data[offset + 1] & 0xFFL) << 8
+            | (data[offset + 2] & 0xFFL) << 16
+            | (data[offset + 3] & 0xFFL) << 24
+            | (data[offset + 4] & 0xFFL) << 32
+            | (data[offset + 5] & 0xFFL) << 40
+            | (data[offset + 6] & 0xFFL) << 48
+            | (data[offset + 7] & 0xFFL) << 56;
+    }
+
+    private static int readInt(byte[] data, int offset) {
+        return (data[offset] & 0xFF)
+            | (data[offset + 1] & 0xFF) << 8
+            | (data[offset + 2] & 0xFF) << 16
+            | (data[offset + 3] & 0xFF) << 24;
+    }
+}
@@ -2,13 +2,20 @@ package site.chococar.inventorybridge.common.database;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import site.chococar.inventorybridge.common.config.ConfigurationManager;
 
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DatabaseConnection {
     private static final Logger LOGGER = LoggerFactory.getLogger(DatabaseConnection.class);
@@ -16,7 +23,11 @@ public class DatabaseConnection {
     private HikariDataSource dataSource;
     private String tablePrefix;
     private boolean standbyMode = false;
+    private boolean h2 = false;
     private String lastConnectionError = null;
+    private MetricsTrackerFactory metricsTrackerFactory;
+    private final Map<String, Boolean> legacyUuidColumns = new ConcurrentHashMap<>();
+    private CompletableFuture<Void> playerKeyMigration = CompletableFuture.completedFuture(null);
     
     public DatabaseConnection(ConfigurationManager config) {
         this.config = config;
@@ -43,31 +54,23 @@ public class DatabaseConnection {
     
     private void attemptConnection() throws Exception {
         HikariConfig hikariConfig = new HikariConfig();
-        hikariConfig.setJdbcUrl(String.format("jdbc:mysql://%s:%d/%s?useSSL=%s&allowPublicKeyRetrieval=true&serverTimezone=UTC",
-                config.getString("database.host", "localhost"),
-                config.getInt("database.port", 3306),
-                config.getString("database.database", "inventory_bridge"),
-                config.getBoolean("database.useSSL", false)));
-        
         hikariConfig.setUsername(config.getString("database.username", "minecraft"));
         hikariConfig.setPassword(config.getString("database.password", "password"));
         hikariConfig.setMaximumPoolSize(config.getInt("database.maxPoolSize", 10));
         hikariConfig.setConnectionTimeout(config.getInt("database.connectionTimeout", 5000)); // 進一步縮短超時時間
         hikariConfig.setValidationTimeout(3000); // 驗證超時
         hikariConfig.setLeakDetectionThreshold(10000); // 洩漏檢測
-        hikariConfig.setDriverClassName("com.mysql.cj.jdbc.Driver");
         
-        // 連接池優化
-        hikariConfig.addDataSourceProperty("cachePrepStmts", "true");
-        hikariConfig.addDataSourceProperty("prepStmtCacheSize", "250");
-        hikariConfig.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
-        hikariConfig.addDataSourceProperty("useServerPrepStmts", "true");
-        hikariConfig.addDataSourceProperty("useLocalSessionState", "true");
-        hikariConfig.addDataSourceProperty("rewriteBatchedStatements", "true");
-        hikariConfig.addDataSourceProperty("cacheResultSetMetadata", "true");
-        hikariConfig.addDataSourceProperty("cacheServerConfiguration", "true");
-        hikariConfig.addDataSourceProperty("elideSetAutoCommits", "true");
-        hikariConfig.addDataSourceProperty("maintainTimeStats", "false");
+        if (metricsTrackerFactory != null) {
+            hikariConfig.setMetricsTrackerFactory(metricsTrackerFactory);
+        }
+        
+        h2 = "h2".equalsIgnoreCase(config.getString("database.type", "mysql"));
+        if (h2) {
+            configureH2(hikariConfig);
+        } else {
+            configureMySql(hikariConfig);
+        }
         
         // 關閉舊連接（如果存在）
         if (dataSource != null && !dataSource.isClosed()) {
@@ -86,21 +89,65 @@ public class DatabaseConnection {
         this.lastConnectionError = null;
     }
     
+    private void configureMySql(HikariConfig hikariConfig) {
+        hikariConfig.setJdbcUrl(String.format("jdbc:mysql://%s:%d/%s?useSSL=%s&allowPublicKeyRetrieval=true&serverTimezone=UTC",
+                config.getString("database.host", "localhost"),
+                config.getInt("database.port", 3306),
+                config.getString("database.database", "inventory_bridge"),
+                config.getBoolean("database.useSSL", false)));
+        hikariConfig.setDriverClassName("com.mysql.cj.jdbc.Driver");
+        
+        // 連接池優化
+        hikariConfig.addDataSourceProperty("cachePrepStmts", "true");
+        hikariConfig.addDataSourceProperty("prepStmtCacheSize", "250");
+        hikariConfig.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        hikariConfig.addDataSourceProperty("useServerPrepStmts", "true");
+        hikariConfig.addDataSourceProperty("useLocalSessionState", "true");
+        hikariConfig.addDataSourceProperty("rewriteBatchedStatements", "true");
+        hikariConfig.addDataSourceProperty("cacheResultSetMetadata", "true");
+        hikariConfig.addDataSourceProperty("cacheServerConfiguration", "true");
+        hikariConfig.addDataSourceProperty("elideSetAutoCommits", "true");
+        hikariConfig.addDataSourceProperty("maintainTimeStats", "false");
+    }
+    
+    /**
+     * 僅供測試與效能基準使用：database.host 為完整的 H2 JDBC URL，以 MySQL 相容模式執行相同的 SQL
+     * H2 驅動程式需由呼叫端提供，插件不會打包
+     */
+    private void configureH2(HikariConfig hikariConfig) {
+        String url = config.getString("database.host", "jdbc:h2:mem:inventory_bridge;DB_CLOSE_DELAY=-1");
+        if (!url.toUpperCase().contains(";MODE=")) {
+            url += ";MODE=MySQL";
+        }
+        hikariConfig.setJdbcUrl(url);
+    }
+    
     private void createTables() {
         createInventoriesTable();
+        migrateInventoriesTable();
+        createContainerBlobTables();
         createVersionMappingsTable();
         createSyncLogTable();
         migrateSyncLogTable();
+        boolean dropLegacyColumns = !config.getBoolean("database.legacyUuidColumns", true)
+                && config.getBoolean("database.dropLegacyUuidColumns", false);
+        playerKeyMigration = new PlayerKeyMigration(this).run(dropLegacyColumns);
     }
     
     private void createInventoriesTable() {
         String sql = String.format("""
             CREATE TABLE IF NOT EXISTS `%sinventories` (
                 `id` INT AUTO_INCREMENT PRIMARY KEY,
-                `player_uuid` VARCHAR(36) NOT NULL,
+                `player_key` BINARY(16) NOT NULL,
                 `server_id` VARCHAR(64) NOT NULL,
-                `inventory_data` LONGTEXT NOT NULL,
+                `inventory_data` LONGTEXT,
                 `ender_chest_data` LONGTEXT,
+                `inventory_blob` LONGBLOB,
+                `ender_chest_blob` LONGBLOB,
+                `inventory_patch` LONGTEXT,
+                `ender_chest_patch` LONGTEXT,
+                `inventory_hash` BIGINT,
+                `ender_chest_hash` BIGINT,
                 `experience` INT DEFAULT 0,
                 `experience_level` INT DEFAULT 0,
                 `health` FLOAT DEFAULT 20.0,
@@ -108,8 +155,8 @@ public class DatabaseConnection {
                 `minecraft_version` VARCHAR(16) NOT NULL,
                 `data_version` INT NOT NULL,
                 `last_updated` TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
-                UNIQUE KEY `unique_player_server` (`player_uuid`, `server_id`),
-                INDEX `idx_player_uuid` (`player_uuid`),
+                UNIQUE KEY `unique_player_key_server` (`player_key`, `server_id`),
+                INDEX `idx_player_key_last_updated` (`player_key`, `last_updated`),
                 INDEX `idx_last_updated` (`last_updated`)
             ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
             """, tablePrefix);
@@ -117,6 +164,144 @@ public class DatabaseConnection {
         executeUpdate(sql, "背包資料表");
     }
     
+    private void migrateInventoriesTable() {
+        migrateCompressionColumns();
+        migratePatchColumns();
+        migrateHashColumns();
+    }
+    
+    private void migrateCompressionColumns() {
+        // 為壓縮負載新增二進位欄位，文字欄位改為可為空
+        if (hasColumn("inventories", "inventory_blob")) {
+            return;
+        }
+        
+        String alterSql = String.format("""
+            ALTER TABLE `%sinventories`
+            MODIFY COLUMN `inventory_data` LONGTEXT NULL,
+            ADD COLUMN `inventory_blob` LONGBLOB NULL AFTER `ender_chest_data`,
+            ADD COLUMN `ender_chest_blob` LONGBLOB NULL AFTER `inventory_blob`
+            """, tablePrefix);
+        
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(alterSql)) {
+            stmt.executeUpdate();
+            LOGGER.info("背包資料表遷移成功，已新增壓縮負載欄位");
+        } catch (SQLException e) {
+            LOGGER.error("背包資料表壓縮欄位遷移失敗", e);
+        }
+    }
+    
+    private void migratePatchColumns() {
+        // 為差異保存新增槽位差異欄位
+        if (hasColumn("inventories", "inventory_patch")) {
+            return;
+        }
+        
+        String alterSql = String.format("""
+            ALTER TABLE `%sinventories`
+            ADD COLUMN `inventory_patch` LONGTEXT NULL AFTER `ender_chest_blob`,
+            ADD COLUMN `ender_chest_patch` LONGTEXT NULL AFTER `inventory_patch`
+            """, tablePrefix);
+        
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(alterSql)) {
+            stmt.executeUpdate();
+            LOGGER.info("背包資料表遷移成功，已新增差異保存欄位");
+        } catch (SQLException e) {
+            LOGGER.error("背包資料表差異欄位遷移失敗", e);
+        }
+    }
+    
+    private void migrateHashColumns() {
+        // 為略過未變更的保存新增內容雜湊欄位
+        if (hasColumn("inventories", "inventory_hash")) {
+            return;
+        }
+        
+        String alterSql = String.format("""
+            ALTER TABLE `%sinventories`
+            ADD COLUMN `inventory_hash` BIGINT NULL AFTER `ender_chest_patch`,
+            ADD COLUMN `ender_chest_hash` BIGINT NULL AFTER `inventory_hash`
+            """, tablePrefix);
+        
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(alterSql)) {
+            stmt.executeUpdate();
+            LOGGER.info("背包資料表遷移成功，已新增內容雜湊欄位");
+        } catch (SQLException e) {
+            LOGGER.error("背包資料表雜湊欄位遷移失敗", e);
+        }
+    }
+    
+    boolean hasIndex(String table, String index) {
+        try (Connection conn = getConnection()) {
+            DatabaseMetaData metaData = conn.getMetaData();
+            String tableName = tablePrefix + table;
+            for (String name : new String[] {tableName, tableName.toUpperCase()}) {
+                try (ResultSet rs = metaData.getIndexInfo(conn.getCatalog(), null, name, false, false)) {
+                    while (rs.next()) {
+                        String indexName = rs.getString("INDEX_NAME");
+                        // H2 以 名稱_INDEX_n 作為唯一鍵的索引名稱
+                        if (indexName != null && (indexName.equalsIgnoreCase(index)
+                                || indexName.toUpperCase().startsWith(index.toUpperCase() + "_INDEX_"))) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        } catch (SQLException e) {
+            LOGGER.warn("檢查索引 {} 失敗: {}", index, e.getMessage());
+            return false;
+        }
+    }
+    
+    boolean hasColumn(String table, String column) {
+        try (Connection conn = getConnection()) {
+            DatabaseMetaData metaData = conn.getMetaData();
+            String tableName = tablePrefix + table;
+            for (String name : new String[] {tableName, tableName.toUpperCase()}) {
+                for (String columnName : new String[] {column, column.toUpperCase()}) {
+                    try (ResultSet rs = metaData.getColumns(conn.getCatalog(), null, name, columnName)) {
+                        if (rs.next()) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        } catch (SQLException e) {
+            LOGGER.warn("檢查欄位 {} 失敗: {}", column, e.getMessage());
+            return false;
+        }
+    }
+    
+    private void createContainerBlobTables() {
+        // 以內容雜湊為鍵的容器內容，參照表供標記清除回收使用
+        String blobSql = String.format("""
+            CREATE TABLE IF NOT EXISTS `%scontainer_blobs` (
+                `content_hash` CHAR(64) NOT NULL PRIMARY KEY,
+                `content` LONGTEXT NOT NULL,
+                `created_at` TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                `last_referenced` TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                INDEX `idx_last_referenced` (`last_referenced`)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+            """, tablePrefix);
+        executeUpdate(blobSql, "容器內容表");
+        
+        String refSql = String.format("""
+            CREATE TABLE IF NOT EXISTS `%scontainer_blob_refs` (
+                `player_key` BINARY(16) NOT NULL,
+                `server_id` VARCHAR(64) NOT NULL,
+                `content_hash` CHAR(64) NOT NULL,
+                PRIMARY KEY (`player_key`, `server_id`, `content_hash`),
+                INDEX `idx_content_hash` (`content_hash`)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+            """, tablePrefix);
+        executeUpdate(refSql, "容器參照表");
+    }
+    
     private void createVersionMappingsTable() {
         String sql = String.format("""
             CREATE TABLE IF NOT EXISTS `%sversion_mappings` (
@@ -137,13 +322,13 @@ public class DatabaseConnection {
         String sql = String.format("""
             CREATE TABLE IF NOT EXISTS `%ssync_log` (
                 `id` INT AUTO_INCREMENT PRIMARY KEY,
-                `player_uuid` VARCHAR(36) NOT NULL,
+                `player_key` BINARY(16) NOT NULL,
                 `server_id` VARCHAR(64) NOT NULL,
                 `sync_type` ENUM('JOIN', 'LEAVE', 'MANUAL', 'AUTO', 'INITIAL_SYNC') NOT NULL,
                 `status` ENUM('SUCCESS', 'FAILED', 'PARTIAL') NOT NULL,
                 `error_message` TEXT,
                 `sync_time` TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                INDEX `idx_player_uuid` (`player_uuid`),
+                INDEX `idx_sync_player_key` (`player_key`),
                 INDEX `idx_sync_time` (`sync_time`)
             ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
             """, tablePrefix);
@@ -178,13 +363,13 @@ public class DatabaseConnection {
         String createSql = String.format("""
             CREATE TABLE `%ssync_log` (
                 `id` INT AUTO_INCREMENT PRIMARY KEY,
-                `player_uuid` VARCHAR(36) NOT NULL,
+                `player_key` BINARY(16) NOT NULL,
                 `server_id` VARCHAR(64) NOT NULL,
                 `sync_type` ENUM('JOIN', 'LEAVE', 'MANUAL', 'AUTO', 'INITIAL_SYNC') NOT NULL,
                 `status` ENUM('SUCCESS', 'FAILED') NOT NULL,
                 `error_message` TEXT,
                 `timestamp` TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                INDEX `idx_player_uuid` (`player_uuid`),
+                INDEX `idx_sync_player_key` (`player_key`),
                 INDEX `idx_timestamp` (`timestamp`)
             ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
             """, tablePrefix);
@@ -221,6 +406,90 @@ public class DatabaseConnection {
         return tablePrefix;
     }
     
+    /**
+     * 資料表是否仍有舊的 VARCHAR player_uuid 欄位，有時新舊欄位同時寫入與比對
+     */
+    public boolean hasLegacyUuidColumn(String table) {
+        return legacyUuidColumns.getOrDefault(table, true);
+    }
+    
+    void setLegacyUuidColumn(String table, boolean legacy) {
+        legacyUuidColumns.put(table, legacy);
+    }
+    
+    /**
+     * 其他伺服器移除舊欄位後，本機記錄的欄位狀態已過期
+     * 錯誤為欄位不存在時重新檢查仍標記為舊版的資料表
+     *
+     * @return 有資料表改為只以 player_key 讀寫、可以重試時返回 true
+     */
+    public boolean refreshLegacyUuidColumns(SQLException e) {
+        if (!"42S22".equals(e.getSQLState()) && e.getErrorCode() != 1054) {
+            return false;
+        }
+        boolean refreshed = false;
+        for (Map.Entry<String, Boolean> entry : legacyUuidColumns.entrySet()) {
+            if (entry.getValue() && !hasColumn(entry.getKey(), "player_uuid")) {
+                legacyUuidColumns.put(entry.getKey(), false);
+                LOGGER.info("{}{} 的 player_uuid 欄位已被移除，改為只以 player_key 讀寫", tablePrefix, entry.getKey());
+                refreshed = true;
+            }
+        }
+        return refreshed;
+    }
+    
+    /**
+     * 背景補上 player_key 並移除舊欄位的遷移，完成時完成
+     */
+    CompletableFuture<Void> getPlayerKeyMigration() {
+        return playerKeyMigration;
+    }
+    
+    /**
+     * 比對玩家的 WHERE 條件，以 {@link #bindPlayer} 綁定參數
+     */
+    public String playerFilter(String table) {
+        return hasLegacyUuidColumn(table) ? "(`player_key` = ? OR `player_uuid` = ?)" : "`player_key` = ?";
+    }
+    
+    /**
+     * INSERT 的玩家欄位，以 {@link #bindPlayer} 綁定參數
+     */
+    public String playerColumns(String table) {
+        return hasLegacyUuidColumn(table) ? "`player_key`, `player_uuid`" : "`player_key`";
+    }
+    
+    public String playerPlaceholders(String table) {
+        return hasLegacyUuidColumn(table) ? "?, ?" : "?";
+    }
+    
+    /**
+     * 逐列讀取大型結果集，MySQL 驅動在 fetch size 為 Integer.MIN_VALUE 時才不會一次載入整個結果
+     */
+    public void streamResults(PreparedStatement stmt) throws SQLException {
+        stmt.setFetchSize(h2 ? 1000 : Integer.MIN_VALUE);
+    }
+    
+    /**
+     * 綁定玩家參數
+     *
+     * @return 下一個參數位置
+     */
+    public int bindPlayer(PreparedStatement stmt, int index, String table, UUID playerUuid) throws SQLException {
+        stmt.setBytes(index++, UuidBytes.toBytes(playerUuid));
+        if (hasLegacyUuidColumn(table)) {
+            stmt.setString(index++, playerUuid.toString());
+        }
+        return index;
+    }
+    
+    /**
+     * 設定連接池指標的收集器，必須在 initialize 之前呼叫，重新連接時沿用
+     */
+    public void setMetricsTrackerFactory(MetricsTrackerFactory metricsTrackerFactory) {
+        this.metricsTrackerFactory = metricsTrackerFactory;
+    }
+    
     public boolean isStandbyMode() {
         return standbyMode;
     }
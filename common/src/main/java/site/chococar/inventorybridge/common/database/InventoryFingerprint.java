@@ -0,0 +1,43 @@
+package site.chococar.inventorybridge.common.database;
+
+import java.util.Objects;
+
+/**
+ * 背包資料列內容的指紋，不含負載本身
+ * 用於確認快取的資料與資料庫中的資料列相同
+ */
+public record InventoryFingerprint(
+    long inventoryHash,
+    long enderChestHash,
+    int experience,
+    int experienceLevel,
+    double health,
+    int hunger,
+    String minecraftVersion,
+    int dataVersion
+) {
+
+    /**
+     * 計算背包數據記錄的指紋，雜湊方式與保存時寫入的雜湊欄位相同
+     */
+    public static InventoryFingerprint of(InventoryDataRecord record) {
+        return new InventoryFingerprint(ContentHash.hash(record.inventoryData()),
+            ContentHash.hash(record.enderChestData()), record.experience(), record.experienceLevel(),
+            record.health(), record.hunger(), record.minecraftVersion(), record.dataVersion());
+    }
+
+    /**
+     * 內容是否相同，生命值欄位為 FLOAT，以容許誤差比對
+     */
+    public boolean matches(InventoryFingerprint other) {
+        return other != null
+            && inventoryHash == other.inventoryHash
+            && enderChestHash == other.enderChestHash
+            && experience == other.experience
+            && experienceLevel == other.experienceLevel
+            && Math.abs(health - other.health) < 0.001
+            && hunger == other.hunger
+            && dataVersion == other.dataVersion
+            && Objects.equals(minecraftVersion, other.minecraftVersion);
+    }
+}
@@ -0,0 +1,360 @@
+package site.chococar.inventorybridge.common.database;
+
+import site.chococar.inventorybridge.common.config.ConfigurationManager;
+import site.chococar.inventorybridge.common.environment.ServerEnvironment;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Locale;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 背包負載壓縮封裝
+ * 二進位欄位的第一個位元組標示壓縮方式，讀取時依標頭自動解壓
+ *
+ * <pre>
+ * 0x00 | UTF-8 負載
+ * 0x01 | deflate 資料
+ * 0x02 | 字典編號 | 使用預設字典的 deflate 資料
+ * </pre>
+ *
+ * 字典 2 依寫入時的伺服器版本產生，編號後接資料版本（4 位元組）、版本字串長度與版本字串，
+ * 讀取時以相同參數重建字典
+ */
+public final class PayloadCompression {
+    static final int HEADER_NONE = 0x00;
+    static final int HEADER_DEFLATE = 0x01;
+    static final int HEADER_DEFLATE_DICTIONARY = 0x02;
+
+    /**
+     * 目前使用的預設字典編號，字典內容變更時必須遞增並保留舊字典以供讀取
+     */
+    static final int DICTIONARY_ID = 2;
+
+    /**
+     * 舊版字典，僅用於讀取既有資料，內容不可再修改
+     */
+    static final int LEGACY_DICTIONARY_ID = 1;
+
+    static final byte[] DICTIONARY_V1 = buildDictionaryV1();
+
+    private static volatile VersionedDictionary currentDictionary;
+
+    private static volatile Mode mode = Mode.NONE;
+
+    private PayloadCompression() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * 依伺服器配置選擇壓縮方式
+     */
+    public static void configure(ConfigurationManager config) {
+        setMode(Mode.fromString(config.getString("sync.compression", "none")));
+    }
+
+    public static void setMode(Mode newMode) {
+        mode = newMode != null ? newMode : Mode.NONE;
+    }
+
+    public static Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * 將負載寫入文字欄位或二進位欄位
+     * 未啟用壓縮時沿用舊的文字欄位，讓尚未升級的伺服器仍可讀取
+     */
+    public static void bind(PreparedStatement stmt, int textIndex, int blobIndex, String payload) throws SQLException {
+        if (payload == null || mode == Mode.NONE) {
+            stmt.setString(textIndex, payload);
+            stmt.setNull(blobIndex, Types.BLOB);
+        } else {
+            stmt.setNull(textIndex, Types.LONGVARCHAR);
+            stmt.setBytes(blobIndex, encode(payload, mode));
+        }
+    }
+
+    /**
+     * 讀取負載，二進位欄位優先，否則回退到舊的文字欄位
+     */
+    public static String read(ResultSet rs, String textColumn, String blobColumn) throws SQLException {
+        byte[] blob = rs.getBytes(blobColumn);
+        if (blob != null) {
+            try {
+                return decode(blob);
+            } catch (IllegalArgumentException e) {
+                throw new SQLException("無法解壓欄位 " + blobColumn + ": " + e.getMessage(), e);
+            }
+        }
+        return rs.getString(textColumn);
+    }
+
+    /**
+     * 以指定方式壓縮負載並加上標頭
+     */
+    public static byte[] encode(String payload, Mode compression) {
+        byte[] raw = payload.getBytes(StandardCharsets.UTF_8);
+        return switch (compression) {
+            case NONE -> {
+                byte[] stored = new byte[raw.length + 1];
+                stored[0] = HEADER_NONE;
+                System.arraycopy(raw, 0, stored, 1, raw.length);
+                yield stored;
+            }
+            case DEFLATE -> deflate(new byte[] {HEADER_DEFLATE}, raw, null);
+            case DICTIONARY -> {
+                // Base64 編碼的二進位負載與 JSON 片段無共同字串，字典只會佔用標頭空間
+                if (!isJson(payload)) {
+                    yield deflate(new byte[] {HEADER_DEFLATE}, raw, null);
+                }
+                VersionedDictionary dictionary = currentDictionary();
+                yield deflate(dictionary.header(), raw, dictionary.content());
+            }
+        };
+    }
+
+    private static boolean isJson(String payload) {
+        return !payload.isEmpty() && payload.charAt(0) == '{';
+    }
+
+    /**
+     * 依標頭解壓並還原負載
+     */
+    public static String decode(byte[] data) {
+        if (data.length == 0) {
+            throw new IllegalArgumentException("Empty compressed payload");
+        }
+        return switch (data[0]) {
+            case HEADER_NONE -> new String(data, 1, data.length - 1, StandardCharsets.UTF_8);
+            case HEADER_DEFLATE -> inflate(data, 1, null);
+            case HEADER_DEFLATE_DICTIONARY -> {
+                if (data.length < 2) {
+                    throw new IllegalArgumentException("Missing dictionary id");
+                }
+                yield switch (data[1]) {
+                    case LEGACY_DICTIONARY_ID -> inflate(data, 2, DICTIONARY_V1);
+                    case DICTIONARY_ID -> {
+                        VersionedDictionary dictionary = VersionedDictionary.read(data);
+                        yield inflate(data, dictionary.header().length, dictionary.content());
+                    }
+                    default -> throw new IllegalArgumentException("Unknown payload dictionary: " + data[1]);
+                };
+            }
+            default -> throw new IllegalArgumentException("Unknown payload compression header: " + data[0]);
+        };
+    }
+
+    /**
+     * 取得目前伺服器版本的字典，版本變更時重新產生
+     */
+    private static VersionedDictionary currentDictionary() {
+        ServerEnvironment environment = ServerEnvironment.current();
+        VersionedDictionary dictionary = currentDictionary;
+        if (dictionary == null || dictionary.dataVersion() != environment.dataVersion()
+                || !dictionary.minecraftVersion().equals(environment.minecraftVersion())) {
+            dictionary = VersionedDictionary.of(environment.minecraftVersion(), environment.dataVersion());
+            currentDictionary = dictionary;
+        }
+        return dictionary;
+    }
+
+    private static byte[] deflate(byte[] header, byte[] raw, byte[] dictionary) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary);
+            }
+            deflater.setInput(raw);
+            deflater.finish();
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            out.write(header, 0, header.length);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static String inflate(byte[] data, int offset, byte[] dictionary) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, offset, data.length - offset);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(256, (data.length - offset) * 6));
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0) {
+                    if (inflater.needsDictionary()) {
+                        if (dictionary == null) {
+                            throw new IllegalArgumentException("Compressed payload requires a dictionary");
+                        }
+                        inflater.setDictionary(dictionary);
+                    } else if (inflater.needsInput()) {
+                        throw new IllegalArgumentException("Truncated compressed payload");
+                    }
+                }
+                out.write(buffer, 0, count);
+            }
+            return out.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt compressed payload", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * 字典 1 的內容，保留以讀取舊資料
+     */
+    private static byte[] buildDictionaryV1() {
+        String[] fragments = {
+            // Fabric 組件格式
+            "\"components\":{\"container\":{\"items\":{",
+            "\"custom_name\":\"", "\"max_damage\":", "\"bundle_contents\":{\"items\":[",
+            "{\"id\":\"minecraft:", "\",\"count\":",
+            // 常見物品
+            "NETHERITE_SWORD", "NETHERITE_PICKAXE", "NETHERITE_AXE", "NETHERITE_SHOVEL",
+            "NETHERITE_HELMET", "NETHERITE_CHESTPLATE", "NETHERITE_LEGGINGS", "NETHERITE_BOOTS",
+            "DIAMOND_SWORD", "DIAMOND_PICKAXE", "DIAMOND_AXE", "DIAMOND_SHOVEL",
+            "DIAMOND_HELMET", "DIAMOND_CHESTPLATE", "DIAMOND_LEGGINGS", "DIAMOND_BOOTS",
+            "ELYTRA", "SHIELD", "BOW", "CROSSBOW", "TRIDENT", "TOTEM_OF_UNDYING",
+            "GOLDEN_APPLE", "ENCHANTED_GOLDEN_APPLE", "GOLDEN_CARROT", "COOKED_BEEF",
+            "ENDER_PEARL", "FIREWORK_ROCKET", "TORCH", "COBBLESTONE", "STONE", "DIRT",
+            "OAK_LOG", "OAK_PLANKS", "IRON_INGOT", "GOLD_INGOT", "DIAMOND", "EMERALD",
+            "SHULKER_BOX", "BUNDLE", "ARROW",
+            // 常見附魔
+            "minecraft:protection\":", "minecraft:sharpness\":", "minecraft:efficiency\":",
+            "minecraft:fortune\":", "minecraft:looting\":", "minecraft:silk_touch\":",
+            "minecraft:feather_falling\":", "minecraft:power\":", "minecraft:infinity\":",
+            "minecraft:mending\":1", "minecraft:unbreaking\":3",
+            // Paper 物品格式
+            "\"bundle_items\":[", "\"custom_model_data\":", "\"display_name\":\"", "\"lore\":[\"",
+            "\"container\":{\"size\":27,\"items\":{",
+            "\"enchantments\":{\"", "\"damage\":",
+            "{\"size\":41,\"minecraft_version\":\"1.21.", "\",\"data_version\":40",
+            "\",\"amount\":1,\"minecraft_version\":\"1.21.4\",\"data_version\":4071,\"meta\":{",
+            "\",\"amount\":64,\"minecraft_version\":\"1.21.4\",\"data_version\":4071}",
+            "\"items\":{\"0\":{\"material\":\"",
+            ":{\"material\":\"",
+        };
+        return String.join("", fragments).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 以實際序列化格式的片段建立字典 2
+     * Fabric 與 JSON 負載使用命名空間ID，Paper 物品使用大寫材質名稱，兩者由同一份物品清單產生
+     * deflate 對字典尾端的內容使用較短的距離，因此最常出現的片段放在最後
+     */
+    static byte[] buildDictionary(String minecraftVersion, int dataVersion) {
+        String[] items = {
+            "netherite_sword", "netherite_pickaxe", "netherite_axe", "netherite_shovel",
+            "netherite_helmet", "netherite_chestplate", "netherite_leggings", "netherite_boots",
+            "diamond_sword", "diamond_pickaxe", "diamond_axe", "diamond_shovel",
+            "diamond_helmet", "diamond_chestplate", "diamond_leggings", "diamond_boots",
+            "elytra", "shield", "bow", "crossbow", "trident", "totem_of_undying",
+            "golden_apple", "enchanted_golden_apple", "golden_carrot", "cooked_beef",
+            "ender_pearl", "firework_rocket", "torch", "cobblestone", "stone", "dirt",
+            "oak_log", "oak_planks", "iron_ingot", "gold_ingot", "diamond", "emerald",
+            "shulker_box", "bundle", "arrow",
+        };
+        String[] enchantments = {
+            "protection", "sharpness", "efficiency", "fortune", "looting", "silk_touch",
+            "feather_falling", "power", "infinity", "mending", "unbreaking",
+        };
+        String itemVersion = ",\"minecraft_version\":\"" + minecraftVersion + "\",\"data_version\":" + dataVersion;
+
+        StringBuilder dictionary = new StringBuilder(4096);
+        // Fabric 組件格式
+        dictionary.append("\"components\":{\"container\":{\"items\":{")
+            .append("\"custom_name\":\"").append("\"max_damage\":").append("\"bundle_contents\":{\"items\":[")
+            .append("\"custom_model_data\":").append("\"damage\":").append("\"lore\":[\"");
+        for (String enchantment : enchantments) {
+            dictionary.append("\"minecraft:").append(enchantment).append("\":");
+        }
+        dictionary.append("\"enchantments\":{");
+        // Paper 物品格式
+        dictionary.append("\"bundle_items\":[").append("\"display_name\":\"")
+            .append("\"container\":{\"size\":27,\"items\":{").append("\"meta\":{");
+        for (String item : items) {
+            dictionary.append("\"material\":\"").append(item.toUpperCase(Locale.ROOT)).append('"');
+        }
+        dictionary.append("\",\"amount\":1").append(itemVersion).append(",\"meta\":{")
+            .append("\",\"amount\":64").append(itemVersion).append('}');
+        for (String item : items) {
+            dictionary.append("{\"id\":\"minecraft:").append(item).append('"');
+        }
+        dictionary.append("\",\"count\":1,\"components\":{").append("\",\"count\":64}")
+            .append("{\"size\":41").append(itemVersion).append(",\"items\":{\"0\":{");
+        return dictionary.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 依版本產生的字典與對應的標頭
+     */
+    private record VersionedDictionary(String minecraftVersion, int dataVersion, byte[] header, byte[] content) {
+        static VersionedDictionary of(String minecraftVersion, int dataVersion) {
+            byte[] version = minecraftVersion.getBytes(StandardCharsets.UTF_8);
+            if (version.length > 255) {
+                throw new IllegalArgumentException("Minecraft version too long: " + minecraftVersion);
+            }
+            byte[] header = new byte[7 + version.length];
+            header[0] = HEADER_DEFLATE_DICTIONARY;
+            header[1] = DICTIONARY_ID;
+            header[2] = (byte) (dataVersion >>> 24);
+            header[3] = (byte) (dataVersion >>> 16);
+            header[4] = (byte) (dataVersion >>> 8);
+            header[5] = (byte) dataVersion;
+            header[6] = (byte) version.length;
+            System.arraycopy(version, 0, header, 7, version.length);
+            return new VersionedDictionary(minecraftVersion, dataVersion, header, buildDictionary(minecraftVersion, dataVersion));
+        }
+
+        /**
+         * 由已儲存的標頭重建字典
+         */
+        static VersionedDictionary read(byte[] data) {
+            if (data.length < 7 || data.length < 7 + (data[6] & 0xFF)) {
+                throw new IllegalArgumentException("Truncated payload dictionary header");
+            }
+            int dataVersion = (data[2] & 0xFF) << 24 | (data[3] & 0xFF) << 16 | (data[4] & 0xFF) << 8 | (data[5] & 0xFF);
+            String minecraftVersion = new String(data, 7, data[6] & 0xFF, StandardCharsets.UTF_8);
+            VersionedDictionary current = currentDictionary;
+            if (current != null && current.dataVersion() == dataVersion && current.minecraftVersion().equals(minecraftVersion)) {
+                return current;
+            }
+            return of(minecraftVersion, dataVersion);
+        }
+    }
+
+    /**
+     * 負載壓縮方式
+     */
+    public enum Mode {
+        NONE,
+        DEFLATE,
+        DICTIONARY;
+
+        public static Mode fromString(String value) {
+            if (value == null) {
+                return NONE;
+            }
+            return switch (value.toLowerCase()) {
+                case "deflate" -> DEFLATE;
+                case "dictionary", "deflate_dictionary" -> DICTIONARY;
+                default -> NONE;
+            };
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package site.chococar.inventorybridge.common.database;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 記錄本伺服器最後寫入每個資料列的狀態雜湊
+ * 只作為提示：判定為未變更時仍以帶雜湊條件的 UPDATE 向資料庫確認
+ */
+public final class PersistedStateCache {
+    private static final int DEFAULT_CAPACITY = 10_000;
+
+    private final Map<String, Long> states;
+
+    public PersistedStateCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public PersistedStateCache(int capacity) {
+        this.states = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * 狀態可能與資料列相同時返回 true；沒有紀錄時也返回 true，交由資料庫確認
+     */
+    public boolean mayBeUnchanged(UUID playerUuid, String serverId, long stateHash) {
+        Long persisted;
+        synchronized (states) {
+            persisted = states.get(key(playerUuid, serverId));
+        }
+        return persisted == null || persisted == stateHash;
+    }
+
+    /**
+     * 寫入成功後記錄資料列目前的狀態
+     */
+    public void record(UUID playerUuid, String serverId, long stateHash) {
+        synchronized (states) {
+            states.put(key(playerUuid, serverId), stateHash);
+        }
+    }
+
+    /**
+     * 資料列以其他方式變更或寫入失敗時移除紀錄
+     */
+    public void invalidate(UUID playerUuid, String serverId) {
+        synchronized (states) {
+            states.remove(key(playerUuid, serverId));
+        }
+    }
+
+    private static String key(UUID playerUuid, String serverId) {
+        return playerUuid + "|" + serverId;
+    }
+}
@@ -0,0 +1,222 @@
+package site.chococar.inventorybridge.common.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 將舊版插件建立的資料表由 VARCHAR(36) 的 player_uuid 遷移為 BINARY(16) 的 player_key
+ *
+ * <p>新建立的資料表只有 player_key，不需要遷移。既有資料表先新增 player_key 與其索引，
+ * 遷移期間兩個欄位同時寫入，讀取時兩者皆比對。背景執行緒分段補上 player_key 並保留舊欄位，
+ * 供舊版插件繼續共用資料庫。所有伺服器都已更新後，將 database.legacyUuidColumns 設為 false
+ * 並將 database.dropLegacyUuidColumns 設為 true，確認沒有遺漏後改為只以 player_key 讀寫並移除
+ * 舊欄位與其索引。</p>
+ */
+final class PlayerKeyMigration {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PlayerKeyMigration.class);
+    private static final int BACKFILL_CHUNK = 500;
+    private static final String[] TABLES = {"inventories", "sync_log", "container_blob_refs"};
+
+    private final DatabaseConnection connection;
+    private final String prefix;
+
+    PlayerKeyMigration(DatabaseConnection connection) {
+        this.connection = connection;
+        this.prefix = connection.getTablePrefix();
+    }
+
+    /**
+     * 同步新增欄位與索引，補上 player_key 與移除舊欄位在背景執行
+     *
+     * @param dropLegacyColumns 是否在補上 player_key 後移除舊欄位
+     * @return 背景遷移完成時完成
+     */
+    CompletableFuture<Void> run(boolean dropLegacyColumns) {
+        List<String> pending = new ArrayList<>();
+        for (String table : TABLES) {
+            boolean legacy = connection.hasColumn(table, "player_uuid");
+            connection.setLegacyUuidColumn(table, legacy);
+            if (legacy) {
+                addKeyColumn(table);
+                createKeyIndexes(table);
+                pending.add(table);
+            }
+        }
+        if (pending.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> {
+            for (String table : pending) {
+                backfill(table);
+                if (dropLegacyColumns) {
+                    dropLegacyColumn(table);
+                }
+            }
+        });
+    }
+
+    private void createKeyIndexes(String table) {
+        switch (table) {
+            case "inventories" -> {
+                createIndex(table, "unique_player_key_server", "UNIQUE INDEX", "`player_key`, `server_id`");
+                createIndex(table, "idx_player_key_last_updated", "INDEX", "`player_key`, `last_updated`");
+                // unique_player_server 的前綴已涵蓋 idx_player_uuid
+                dropIndex(table, "idx_player_uuid");
+                dropIndex(table, "idx_player_last_updated");
+            }
+            case "sync_log" -> createIndex(table, "idx_sync_player_key", "INDEX", "`player_key`");
+            default -> createIndex(table, "idx_ref_player_key", "INDEX", "`player_key`, `server_id`");
+        }
+    }
+
+    private void addKeyColumn(String table) {
+        if (!connection.hasColumn(table, "player_key")) {
+            execute(table, "ADD COLUMN `player_key` BINARY(16) NULL AFTER `player_uuid`");
+            LOGGER.info("{}{} 已新增 player_key 欄位", prefix, table);
+        }
+    }
+
+    /**
+     * 確認所有資料列都已補上 player_key 後改為只以 player_key 讀寫，再移除舊欄位與其索引
+     * 切換前先讓舊欄位可為空，切換後的寫入不再提供 player_uuid
+     */
+    private void dropLegacyColumn(String table) {
+        if (hasMissingKeys(table)) {
+            LOGGER.warn("{}{} 仍有無法轉換的 player_uuid，保留舊欄位", prefix, table);
+            return;
+        }
+        if (!execute(table, "MODIFY COLUMN `player_key` BINARY(16) NOT NULL")) {
+            return;
+        }
+        switch (table) {
+            case "inventories" -> {
+                // 先移除含 player_uuid 的索引，否則刪除欄位時 MySQL 會將其縮減為僅含 server_id 的唯一鍵
+                if (!dropIndex(table, "unique_player_server")) {
+                    return;
+                }
+            }
+            case "container_blob_refs" -> {
+                // 主鍵改以 player_key 開頭後 idx_ref_player_key 即為多餘
+                if (!execute(table, "DROP PRIMARY KEY")
+                        || !execute(table, "ADD PRIMARY KEY (`player_key`, `server_id`, `content_hash`)")) {
+                    return;
+                }
+            }
+            default -> {
+            }
+        }
+        if (!execute(table, "MODIFY COLUMN `player_uuid` VARCHAR(36) NULL")) {
+            return;
+        }
+
+        connection.setLegacyUuidColumn(table, false);
+        dropIndex(table, "idx_sync_player_uuid");
+        dropIndex(table, "idx_ref_player_key");
+        if (execute(table, "DROP COLUMN `player_uuid`")) {
+            LOGGER.info("{}{} 已移除 player_uuid 欄位", prefix, table);
+        }
+    }
+
+    /**
+     * 依 player_uuid 排序分段補上 player_key，每段各自提交，遷移期間資料表保持可用
+     */
+    private void backfill(String table) {
+        String selectSql = String.format("""
+            SELECT DISTINCT `player_uuid` FROM `%s%s`
+            WHERE `player_key` IS NULL AND `player_uuid` > ?
+            ORDER BY `player_uuid`
+            LIMIT %d
+            """, prefix, table, BACKFILL_CHUNK);
+        String updateSql = String.format(
+            "UPDATE `%s%s` SET `player_key` = ? WHERE `player_uuid` = ? AND `player_key` IS NULL",
+            prefix, table);
+
+        String cursor = "";
+        int updated = 0;
+        try (Connection conn = connection.getConnection()) {
+            while (true) {
+                List<String> uuids = new ArrayList<>(BACKFILL_CHUNK);
+                try (PreparedStatement stmt = conn.prepareStatement(selectSql)) {
+                    stmt.setString(1, cursor);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            uuids.add(rs.getString(1));
+                        }
+                    }
+                }
+                if (uuids.isEmpty()) {
+                    break;
+                }
+
+                try (PreparedStatement stmt = conn.prepareStatement(updateSql)) {
+                    for (String uuid : uuids) {
+                        try {
+                            stmt.setBytes(1, UuidBytes.toBytes(UUID.fromString(uuid)));
+                        } catch (IllegalArgumentException e) {
+                            LOGGER.warn("{}{} 略過無效的 player_uuid: {}", prefix, table, uuid);
+                            continue;
+                        }
+                        stmt.setString(2, uuid);
+                        stmt.addBatch();
+                    }
+                    for (int count : stmt.executeBatch()) {
+                        updated += Math.max(count, 0);
+                    }
+                }
+                cursor = uuids.get(uuids.size() - 1);
+            }
+        } catch (SQLException e) {
+            LOGGER.warn("{}{} 補上 player_key 失敗: {}", prefix, table, e.getMessage());
+            return;
+        }
+        if (updated > 0) {
+            LOGGER.info("{}{} 已為 {} 筆資料列補上 player_key", prefix, table, updated);
+        }
+    }
+
+    private boolean hasMissingKeys(String table) {
+        String sql = String.format("SELECT 1 FROM `%s%s` WHERE `player_key` IS NULL LIMIT 1", prefix, table);
+        try (Connection conn = connection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next();
+        } catch (SQLException e) {
+            LOGGER.warn("檢查 {}{} 的 player_key 失敗: {}", prefix, table, e.getMessage());
+            return true;
+        }
+    }
+
+    private void createIndex(String table, String index, String type, String columns) {
+        if (!connection.hasIndex(table, index)) {
+            execute(table, String.format("ADD %s `%s` (%s)", type, index, columns));
+        }
+    }
+
+    /**
+     * @return 索引不存在或已移除時返回 true
+     */
+    private boolean dropIndex(String table, String index) {
+        return !connection.hasIndex(table, index) || execute(table, String.format("DROP INDEX `%s`", index));
+    }
+
+    private boolean execute(String table, String alteration) {
+        String sql = String.format("ALTER TABLE `%s%s` %s", prefix, table, alteration);
+        try (Connection conn = connection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            LOGGER.error("{}{} 遷移失敗: {}", prefix, table, alteration, e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package site.chococar.inventorybridge.common.database;
+
+import java.util.UUID;
+
+/**
+ * 以兩個 long 保存 UUID 的開放定址雜湊集合
+ * 每個項目只佔 16 位元組，不建立 UUID 物件，供掃描大量玩家檔案時在記憶體中比對
+ */
+public final class PlayerKeySet {
+    private static final int MIN_CAPACITY = 16;
+
+    /** 依序交錯存放最高與最低 64 位元，(0, 0) 代表空位 */
+    private long[] slots;
+    private int size;
+    private boolean containsZero;
+
+    public PlayerKeySet() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expected 預期的項目數量，避免載入時反覆擴充
+     */
+    public PlayerKeySet(int expected) {
+        slots = new long[2 * tableSize(expected)];
+    }
+
+    /**
+     * @return 集合原本沒有該 UUID 時返回 true
+     */
+    public boolean add(UUID uuid) {
+        long most = uuid.getMostSignificantBits();
+        long least = uuid.getLeastSignificantBits();
+        if (most == 0 && least == 0) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+
+        int slot = find(slots, most, least);
+        if (slots[slot] == most && slots[slot + 1] == least) {
+            return false;
+        }
+        slots[slot] = most;
+        slots[slot + 1] = least;
+        size++;
+        // 維持最多一半的負載
+        if (size * 4L > slots.length) {
+            grow();
+        }
+        return true;
+    }
+
+    public boolean contains(UUID uuid) {
+        long most = uuid.getMostSignificantBits();
+        long least = uuid.getLeastSignificantBits();
+        if (most == 0 && least == 0) {
+            return containsZero;
+        }
+        int slot = find(slots, most, least);
+        return slots[slot] == most && slots[slot + 1] == least;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 返回該 UUID 所在或應放入的位置
+     */
+    private static int find(long[] table, long most, long least) {
+        int mask = table.length / 2 - 1;
+        int index = mix(most, least) & mask;
+        while (true) {
+            int slot = index * 2;
+            long storedMost = table[slot];
+            long storedLeast = table[slot + 1];
+            if ((storedMost == 0 && storedLeast == 0) || (storedMost == most && storedLeast == least)) {
+                return slot;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private void grow() {
+        long[] old = slots;
+        long[] table = new long[old.length * 2];
+        for (int i = 0; i < old.length; i += 2) {
+            if (old[i] != 0 || old[i + 1] != 0) {
+                int slot = find(table, old[i], old[i + 1]);
+                table[slot] = old[i];
+                table[slot + 1] = old[i + 1];
+            }
+        }
+        slots = table;
+    }
+
+    /**
+     * 版本 4 UUID 的位元已經隨機，仍以 murmur3 的最終混合處理其他版本的規律
+     */
+    private static int mix(long most, long least) {
+        long h = most * 0x9E3779B97F4A7C15L ^ least;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private static int tableSize(int expected) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expected * 2L && capacity < (1 << 29)) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
@@ -0,0 +1,234 @@
+package site.chococar.inventorybridge.common.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * 每位玩家最多保留一筆待寫入保存的延遲寫入佇列
+ * 新的快照直接取代尚未寫入的舊快照，延遲到期、離開伺服器或關閉時才寫入資料庫。
+ * 寫入失敗的保存放回佇列，之後再重試。延遲為 0 時停用，保存在呼叫端執行緒立即寫入
+ * 同一筆保存鍵同時只有一個寫入，寫入期間不持有鎖，其他玩家的寫入不會被阻擋
+ */
+public class WriteBehindQueue {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WriteBehindQueue.class);
+    private static final int DEFAULT_THREADS = 2;
+
+    private final Predicate<PendingSave> writer;
+    private final Map<Key, PendingSave> pending = new ConcurrentHashMap<>();
+    private final Map<Key, CompletableFuture<Void>> writing = new ConcurrentHashMap<>();
+    private final AtomicInteger threadIds = new AtomicInteger();
+    private volatile long delayMillis;
+    private volatile ScheduledThreadPoolExecutor scheduler;
+
+    /**
+     * @param writer 寫入一筆保存，成功時返回 true
+     */
+    public WriteBehindQueue(Predicate<PendingSave> writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * 設定延遲毫秒數，0 代表停用
+     * 停用時會先寫入所有待寫入的保存
+     */
+    public void setDelayMillis(long delayMillis) {
+        configure(delayMillis, DEFAULT_THREADS);
+    }
+
+    /**
+     * 設定延遲毫秒數與寫入執行緒數，延遲 0 代表停用
+     * 寫入會等待資料庫連線，執行緒數不應超過連接池大小
+     */
+    public synchronized void configure(long delayMillis, int threads) {
+        this.delayMillis = Math.max(0, delayMillis);
+        int poolSize = Math.max(1, threads);
+        if (this.delayMillis == 0) {
+            flushAll();
+        } else if (scheduler == null) {
+            scheduler = new ScheduledThreadPoolExecutor(poolSize, runnable -> {
+                Thread thread = new Thread(runnable, "InventoryBridge-WriteBehind-" + threadIds.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            // 關閉時不等待尚未到期的排程，由 close 直接寫入
+            scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        } else {
+            scheduler.setCorePoolSize(poolSize);
+        }
+    }
+
+    public boolean isEnabled() {
+        return delayMillis > 0;
+    }
+
+    /**
+     * 排入保存，取代同一玩家在同一伺服器尚未寫入的保存
+     *
+     * @return 已寫入或已排入時返回 true，停用延遲寫入且寫入失敗時返回 false
+     */
+    public boolean submit(PendingSave save) {
+        Key key = new Key(save.playerUuid(), save.serverId());
+        long delay = delayMillis;
+        ScheduledThreadPoolExecutor executor = scheduler;
+        if (delay <= 0 || executor == null) {
+            return write(key, save);
+        }
+
+        if (pending.put(key, save) == null) {
+            schedule(executor, key, delay);
+        }
+        return true;
+    }
+
+    /**
+     * 是否有尚未寫入或正在寫入的保存
+     */
+    public boolean hasPending(UUID playerUuid, String serverId) {
+        Key key = new Key(playerUuid, serverId);
+        return pending.containsKey(key) || writing.containsKey(key);
+    }
+
+    /**
+     * 寫入玩家在所有伺服器尚未寫入的保存，並等待進行中的寫入結束
+     * 用於離開伺服器與跨伺服器交接前的寫入屏障
+     *
+     * @return 所有保存都已寫入資料庫時返回 true，有保存寫入失敗而留在佇列時返回 false
+     */
+    public boolean flush(UUID playerUuid) {
+        Set<Key> keys = new HashSet<>(pending.keySet());
+        keys.addAll(writing.keySet());
+        boolean written = true;
+        for (Key key : keys) {
+            if (key.playerUuid().equals(playerUuid)) {
+                written &= flush(key);
+            }
+        }
+        return written;
+    }
+
+    /**
+     * 寫入所有尚未寫入的保存，寫入失敗的保存留在佇列中
+     */
+    public void flushAll() {
+        List<Key> keys = new ArrayList<>(pending.keySet());
+        int written = 0;
+        for (Key key : keys) {
+            if (flush(key)) {
+                written++;
+            }
+        }
+        if (!keys.isEmpty()) {
+            LOGGER.info("已寫入 {} 筆延遲保存", written);
+        }
+    }
+
+    /**
+     * 等待進行中的寫入完成並停止排程執行緒，再寫入所有尚未寫入的保存
+     */
+    public synchronized void close() {
+        ScheduledThreadPoolExecutor executor = scheduler;
+        if (executor != null) {
+            // 不中斷進行中的寫入，尚未到期的排程由下方 flushAll 直接寫入
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                    LOGGER.warn("等待延遲寫入執行緒結束逾時");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            scheduler = null;
+        }
+        flushAll();
+        if (!pending.isEmpty()) {
+            LOGGER.error("關閉時仍有 {} 筆延遲保存寫入失敗", pending.size());
+        }
+    }
+
+    /**
+     * @return 沒有待寫入的保存或寫入成功時返回 true
+     */
+    private boolean flush(Key key) {
+        return write(key, null);
+    }
+
+    /**
+     * 等待同一鍵進行中的寫入結束後取出並寫入保存
+     * 寫入期間不持有鎖，其他鍵的寫入與新的排入不受影響
+     *
+     * @param direct 停用延遲寫入時立即寫入的保存，取代尚未寫入的保存；null 代表寫入佇列中的保存
+     * @return 沒有待寫入的保存或寫入成功時返回 true
+     */
+    private boolean write(Key key, PendingSave direct) {
+        while (true) {
+            CompletableFuture<Void> claim = new CompletableFuture<>();
+            CompletableFuture<Void> running = writing.putIfAbsent(key, claim);
+            if (running != null) {
+                // 進行中的寫入失敗時保存會放回佇列，結束後重新確認
+                running.join();
+                continue;
+            }
+            try {
+                PendingSave queued = pending.remove(key);
+                PendingSave save = direct != null ? direct : queued;
+                if (save == null) {
+                    return true;
+                }
+                boolean written = test(save);
+                // 放回佇列稍後重試，期間排入的較新保存優先
+                if (!written && direct == null && pending.putIfAbsent(key, save) == null) {
+                    ScheduledThreadPoolExecutor executor = scheduler;
+                    if (executor != null && delayMillis > 0) {
+                        schedule(executor, key, delayMillis);
+                    }
+                }
+                return written;
+            } finally {
+                writing.remove(key, claim);
+                claim.complete(null);
+            }
+        }
+    }
+
+    private boolean test(PendingSave save) {
+        try {
+            return writer.test(save);
+        } catch (RuntimeException e) {
+            LOGGER.error("寫入延遲保存失敗 - 玩家: {}", save.playerUuid(), e);
+            return false;
+        }
+    }
+
+    private void schedule(ScheduledThreadPoolExecutor executor, Key key, long delay) {
+        try {
+            executor.schedule(() -> flush(key), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // 關閉中，由 close 寫入
+        }
+    }
+
+    private record Key(UUID playerUuid, String serverId) {
+    }
+
+    /**
+     * 一次完整保存的所有欄位
+     */
+    public record PendingSave(UUID playerUuid, String serverId, String inventoryData, String enderChestData,
+                              int experience, int experienceLevel, double health, int hunger,
+                              String minecraftVersion, int dataVersion) {
+    }
+}
@@ -0,0 +1,101 @@
+package site.chococar.inventorybridge.common.environment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Minecraft 版本到資料版本的對照表
+ * 內容來自 data-versions.properties 資源檔，只在啟動時載入一次
+ */
+public final class DataVersionTable {
+    private static final String RESOURCE = "/data-versions.properties";
+
+    private final TreeMap<int[], Integer> entries = new TreeMap<>(DataVersionTable::compareVersions);
+
+    DataVersionTable(Map<String, Integer> versions) {
+        versions.forEach((version, dataVersion) -> {
+            int[] parsed = parseVersion(version);
+            if (parsed != null) {
+                entries.put(parsed, dataVersion);
+            }
+        });
+    }
+
+    /**
+     * 載入隨插件發佈的對照表
+     */
+    public static DataVersionTable load() {
+        Properties properties = new Properties();
+        try (InputStream in = DataVersionTable.class.getResourceAsStream(RESOURCE)) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("無法讀取資料版本對照表: " + RESOURCE, e);
+        }
+
+        Map<String, Integer> versions = new TreeMap<>();
+        for (String version : properties.stringPropertyNames()) {
+            try {
+                versions.put(version, Integer.parseInt(properties.getProperty(version).trim()));
+            } catch (NumberFormatException e) {
+                // 忽略格式錯誤的項目
+            }
+        }
+        return new DataVersionTable(versions);
+    }
+
+    /**
+     * 查詢版本的資料版本，未列出的版本使用最接近的較舊版本
+     *
+     * @return 資料版本，版本無法解析或早於所有已知版本時返回 defaultValue
+     */
+    public int lookup(String version, int defaultValue) {
+        int[] parsed = parseVersion(version);
+        if (parsed == null) {
+            return defaultValue;
+        }
+        Map.Entry<int[], Integer> entry = entries.floorEntry(parsed);
+        return entry != null ? entry.getValue() : defaultValue;
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * 解析形如 1.21.4 或 1.21.4-R0.1-SNAPSHOT 的版本號
+     */
+    static int[] parseVersion(String version) {
+        if (version == null || version.isEmpty()) {
+            return null;
+        }
+        int end = 0;
+        while (end < version.length() && (Character.isDigit(version.charAt(end)) || version.charAt(end) == '.')) {
+            end++;
+        }
+        String[] parts = version.substring(0, end).split("\\.");
+        int[] parsed = new int[3];
+        try {
+            for (int i = 0; i < parts.length && i < parsed.length; i++) {
+                parsed[i] = Integer.parseInt(parts[i]);
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return parsed;
+    }
+
+    private static int compareVersions(int[] a, int[] b) {
+        for (int i = 0; i < a.length; i++) {
+            int cmp = Integer.compare(a[i], b[i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+}
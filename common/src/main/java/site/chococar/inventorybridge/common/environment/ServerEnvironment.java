@@ -0,0 +1,55 @@
+package site.chococar.inventorybridge.common.environment;
+
+import site.chococar.inventorybridge.common.Constants;
+
+/**
+ * 啟動時解析一次的伺服器環境描述
+ * 序列化器、同步管理器與物品映射共用，避免每個物品重新查詢版本
+ *
+ * @param platform 伺服器平台
+ * @param minecraftVersion Minecraft 版本
+ * @param dataVersion 世界資料版本
+ */
+public record ServerEnvironment(Platform platform, String minecraftVersion, int dataVersion) {
+    private static final DataVersionTable DATA_VERSIONS = DataVersionTable.load();
+
+    private static volatile ServerEnvironment current =
+        new ServerEnvironment(Platform.UNKNOWN, Constants.CURRENT_MC_VERSION, Constants.CURRENT_DATA_VERSION);
+
+    /**
+     * 依平台回報的版本號建立環境描述，資料版本由對照表決定
+     */
+    public static ServerEnvironment resolve(Platform platform, String minecraftVersion) {
+        String version = minecraftVersion != null && !minecraftVersion.isEmpty()
+            ? minecraftVersion : Constants.CURRENT_MC_VERSION;
+        return new ServerEnvironment(platform, version, DATA_VERSIONS.lookup(version, Constants.CURRENT_DATA_VERSION));
+    }
+
+    /**
+     * 設定目前的伺服器環境，由平台在啟動時呼叫一次
+     */
+    public static void initialize(ServerEnvironment environment) {
+        current = environment;
+    }
+
+    /**
+     * 取得目前的伺服器環境，尚未初始化時使用預設版本
+     */
+    public static ServerEnvironment current() {
+        return current;
+    }
+
+    @Override
+    public String toString() {
+        return platform + " " + minecraftVersion + " (data version " + dataVersion + ")";
+    }
+
+    /**
+     * 伺服器平台
+     */
+    public enum Platform {
+        PAPER,
+        FABRIC,
+        UNKNOWN
+    }
+}
@@ -0,0 +1,551 @@
+package site.chococar.inventorybridge.common.serialization;
+
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 二進位背包編碼器
+ * 以 varint 長度、槽位位圖與字串表取代重複的 JSON 鍵名與物品ID
+ *
+ * <pre>
+ * 'I' 'B' 版本
+ * varint 背包大小 | 字串 minecraft_version | varint data_version
+ * varint 字串數量 | 字串...
+ * varint 位圖長度 | 位圖
+ * 每個佔用槽位一個標記值，或 TAG_RECORD 後接物品紀錄：varint 旗標 | varint ID | varint 數量 | 依旗標出現的欄位
+ * </pre>
+ *
+ * 平台物品以物品紀錄寫入，不需要鍵名；已編碼的 JSON 物品（例如含有容器參照）保留為標記值
+ */
+public final class BinaryInventoryCodec {
+    /**
+     * 二進位負載存放於文字欄位時使用的前綴
+     */
+    public static final String PREFIX = "IBB1:";
+
+    /**
+     * 版本 2 加入物品紀錄，版本 1 的負載仍可讀取
+     */
+    static final int FORMAT_VERSION = 2;
+    static final int FORMAT_VERSION_JSON_ONLY = 1;
+
+    static final int TAG_END = 0;
+    static final int TAG_NULL = 1;
+    static final int TAG_FALSE = 2;
+    static final int TAG_TRUE = 3;
+    static final int TAG_INT = 4;
+    static final int TAG_DOUBLE = 5;
+    static final int TAG_DOUBLE_INT = 6;
+    static final int TAG_STRING = 7;
+    static final int TAG_ARRAY = 8;
+    static final int TAG_OBJECT = 9;
+    static final int TAG_RECORD = 10;
+
+    static final int FLAG_VERSION = 1;
+    static final int FLAG_DATA_VERSION = 1 << 1;
+    static final int FLAG_DAMAGE = 1 << 2;
+    static final int FLAG_MAX_DAMAGE = 1 << 3;
+    static final int FLAG_CUSTOM_MODEL_DATA = 1 << 4;
+    static final int FLAG_NAME = 1 << 5;
+    static final int FLAG_LORE = 1 << 6;
+    static final int FLAG_ENCHANTMENTS = 1 << 7;
+    static final int FLAG_CONTAINER = 1 << 8;
+    static final int FLAG_BUNDLE = 1 << 9;
+    static final int FLAG_PENDING_CONTAINER = 1 << 10;
+    static final int FLAG_PENDING_BUNDLE = 1 << 11;
+    static final int FLAG_NAME_COMPONENT = 1 << 12;
+
+    private BinaryInventoryCodec() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * 檢查負載是否為二進位格式
+     */
+    public static boolean isBinary(String data) {
+        return data != null && data.startsWith(PREFIX);
+    }
+
+    /**
+     * 編碼背包並包裝為可存入文字欄位的字串
+     */
+    public static String encodeToString(int size, String version, int dataVersion, CommonItemSerializer.ItemStackProvider[] items) {
+        return PREFIX + Base64.getEncoder().encodeToString(encode(size, version, dataVersion, items));
+    }
+
+    /**
+     * 編碼背包為二進位資料
+     */
+    public static byte[] encode(int size, String version, int dataVersion, CommonItemSerializer.ItemStackProvider[] items) {
+        Output body = new Output(1024);
+        byte[] bitmap = new byte[(items.length + 7) >>> 3];
+        BinaryJsonWriter writer = new BinaryJsonWriter(body);
+
+        try {
+            for (int i = 0; i < items.length; i++) {
+                if (items[i] != null && !items[i].isEmpty()) {
+                    ItemRecord record = items[i].hasExactRecord() ? items[i].toRecord() : null;
+                    if (record != null) {
+                        body.writeByte(TAG_RECORD);
+                        writeRecord(record, body);
+                    } else {
+                        items[i].writeTo(writer);
+                    }
+                    bitmap[i >>> 3] |= (byte) (1 << (i & 7));
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to encode inventory", e);
+        }
+
+        Output out = new Output(body.length() + 256);
+        out.writeByte('I');
+        out.writeByte('B');
+        out.writeByte(FORMAT_VERSION);
+        out.writeVarInt(size);
+        out.writeString(version);
+        out.writeVarLong(zigzag(dataVersion));
+
+        List<String> strings = body.strings();
+        out.writeVarInt(strings.size());
+        for (String s : strings) {
+            out.writeString(s);
+        }
+
+        out.writeVarInt(bitmap.length);
+        out.writeBytes(bitmap, 0, bitmap.length);
+        out.writeBytes(body.buffer(), 0, body.length());
+        return out.toByteArray();
+    }
+
+    /**
+     * 解碼二進位負載並將物品以讀取器事件交給平台背包
+     */
+    public static void decode(String data, CommonItemSerializer.InventoryProvider inventory) {
+        decode(unwrap(data), inventory);
+    }
+
+    /**
+     * 解碼二進位資料並將物品以讀取器事件交給平台背包
+     */
+    public static void decode(byte[] data, CommonItemSerializer.InventoryProvider inventory) {
+        try {
+            Input in = new Input(data);
+            readHeader(in);
+            String[] strings = readStringTable(in);
+            byte[] bitmap = in.readBytes(in.readVarInt());
+            BinaryJsonReader reader = new BinaryJsonReader(in, strings);
+
+            int slotCount = bitmap.length << 3;
+            for (int slot = 0; slot < slotCount; slot++) {
+                if ((bitmap[slot >>> 3] & (1 << (slot & 7))) == 0) {
+                    continue;
+                }
+                if (in.peekByte() == TAG_RECORD) {
+                    in.readByte();
+                    ItemRecord item = readRecord(in, strings);
+                    if (slot < inventory.size()) {
+                        inventory.readRecord(slot, item);
+                    }
+                    continue;
+                }
+                if (reader.peek() == JsonToken.NULL || slot >= inventory.size()) {
+                    reader.skipValue();
+                    continue;
+                }
+                inventory.readItem(slot, reader);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to deserialize binary inventory", e);
+        }
+    }
+
+    /**
+     * 僅讀取標頭中的背包大小
+     */
+    public static int readSize(String data) {
+        Input in = new Input(unwrap(data));
+        return readHeader(in).size();
+    }
+
+    /**
+     * 檢查字串表是否包含指定字串，只讀取標頭與字串表
+     */
+    public static boolean containsString(String data, String value) {
+        Input in = new Input(unwrap(data));
+        readHeader(in);
+        for (String s : readStringTable(in)) {
+            if (value.equals(s)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 移除文字前綴並還原二進位資料
+     */
+    public static byte[] unwrap(String data) {
+        if (!isBinary(data)) {
+            throw new IllegalArgumentException("Not a binary inventory payload");
+        }
+        return Base64.getDecoder().decode(data.substring(PREFIX.length()));
+    }
+
+    private static Header readHeader(Input in) {
+        if (in.readByte() != 'I' || in.readByte() != 'B') {
+            throw new IllegalArgumentException("Invalid binary inventory magic");
+        }
+        int formatVersion = in.readByte();
+        if (formatVersion != FORMAT_VERSION && formatVersion != FORMAT_VERSION_JSON_ONLY) {
+            throw new IllegalArgumentException("Unsupported binary inventory version: " + formatVersion);
+        }
+        int size = in.readVarInt();
+        String version = in.readString();
+        int dataVersion = (int) unzigzag(in.readVarLong());
+        return new Header(size, version, dataVersion);
+    }
+
+    private static String[] readStringTable(Input in) {
+        int count = in.readVarInt();
+        String[] strings = new String[count];
+        for (int i = 0; i < count; i++) {
+            strings[i] = in.readString();
+        }
+        return strings;
+    }
+
+    /**
+     * 寫入物品紀錄，欄位依旗標位元出現，物品ID、名稱與附魔ID放入字串表
+     */
+    static void writeRecord(ItemRecord item, Output out) {
+        int flags = (item.getVersion() != null ? FLAG_VERSION : 0)
+            | (item.getDataVersion() != null ? FLAG_DATA_VERSION : 0)
+            | (item.getDamage() != null ? FLAG_DAMAGE : 0)
+            | (item.getMaxDamage() != null ? FLAG_MAX_DAMAGE : 0)
+            | (item.getCustomModelData() != null ? FLAG_CUSTOM_MODEL_DATA : 0)
+            | (item.getName() != null ? FLAG_NAME : 0)
+            | (item.getLore() != null ? FLAG_LORE : 0)
+            | (item.getEnchantments() != null ? FLAG_ENCHANTMENTS : 0)
+            | (item.hasContainer() ? FLAG_CONTAINER : 0)
+            | (item.hasBundle() ? FLAG_BUNDLE : 0)
+            | (item.getPendingContainer() != null ? FLAG_PENDING_CONTAINER : 0)
+            | (item.getPendingBundle() != null ? FLAG_PENDING_BUNDLE : 0)
+            | (item.getNameComponent() != null ? FLAG_NAME_COMPONENT : 0);
+
+        out.writeVarInt(flags);
+        out.writeVarInt(out.intern(item.getId()));
+        out.writeVarInt(item.getCount());
+
+        if ((flags & FLAG_VERSION) != 0) {
+            out.writeVarInt(out.intern(item.getVersion()));
+        }
+        if ((flags & FLAG_DATA_VERSION) != 0) {
+            out.writeVarLong(zigzag(item.getDataVersion()));
+        }
+        if ((flags & FLAG_DAMAGE) != 0) {
+            out.writeVarLong(zigzag(item.getDamage()));
+        }
+        if ((flags & FLAG_MAX_DAMAGE) != 0) {
+            out.writeVarLong(zigzag(item.getMaxDamage()));
+        }
+        if ((flags & FLAG_CUSTOM_MODEL_DATA) != 0) {
+            out.writeVarLong(zigzag(item.getCustomModelData()));
+        }
+        if ((flags & FLAG_NAME) != 0) {
+            out.writeVarInt(out.intern(item.getName()));
+        }
+        if ((flags & FLAG_LORE) != 0) {
+            out.writeVarInt(item.getLore().size());
+            for (String line : item.getLore()) {
+                out.writeVarInt(out.intern(line));
+            }
+        }
+        if ((flags & FLAG_ENCHANTMENTS) != 0) {
+            out.writeVarInt(item.getEnchantments().size());
+            for (Map.Entry<String, Integer> entry : item.getEnchantments().entrySet()) {
+                out.writeVarInt(out.intern(entry.getKey()));
+                out.writeVarLong(zigzag(entry.getValue()));
+            }
+        }
+        if ((flags & FLAG_CONTAINER) != 0) {
+            out.writeVarInt(item.getContainerSize());
+            out.writeVarInt(item.getContainerItems().size());
+            for (Map.Entry<Integer, ItemRecord> entry : item.getContainerItems().entrySet()) {
+                out.writeVarInt(entry.getKey());
+                writeRecord(entry.getValue(), out);
+            }
+        }
+        if ((flags & FLAG_BUNDLE) != 0) {
+            out.writeVarInt(item.getBundleItems().size());
+            for (ItemRecord bundleItem : item.getBundleItems()) {
+                writeRecord(bundleItem, out);
+            }
+        }
+        // 尚未解碼的內容通常各不相同，直接寫入而不放進字串表
+        if ((flags & FLAG_PENDING_CONTAINER) != 0) {
+            out.writeString(item.getPendingContainer());
+        }
+        if ((flags & FLAG_PENDING_BUNDLE) != 0) {
+            out.writeString(item.getPendingBundle());
+        }
+        if ((flags & FLAG_NAME_COMPONENT) != 0) {
+            out.writeVarInt(out.intern(item.getNameComponent()));
+        }
+    }
+
+    static ItemRecord readRecord(Input in, String[] strings) {
+        int flags = in.readVarInt();
+        ItemRecord item = new ItemRecord(string(strings, in.readVarInt()), in.readVarInt());
+
+        if ((flags & FLAG_VERSION) != 0) {
+            item.setVersion(string(strings, in.readVarInt()));
+        }
+        if ((flags & FLAG_DATA_VERSION) != 0) {
+            item.setDataVersion(readInt(in));
+        }
+        if ((flags & FLAG_DAMAGE) != 0) {
+            item.setDamage(readInt(in));
+        }
+        if ((flags & FLAG_MAX_DAMAGE) != 0) {
+            item.setMaxDamage(readInt(in));
+        }
+        if ((flags & FLAG_CUSTOM_MODEL_DATA) != 0) {
+            item.setCustomModelData(readInt(in));
+        }
+        if ((flags & FLAG_NAME) != 0) {
+            item.setName(string(strings, in.readVarInt()));
+        }
+        if ((flags & FLAG_LORE) != 0) {
+            int count = in.readVarInt();
+            List<String> lore = new ArrayList<>(Math.min(count, 64));
+            for (int i = 0; i < count; i++) {
+                lore.add(string(strings, in.readVarInt()));
+            }
+            item.setLore(lore);
+        }
+        if ((flags & FLAG_ENCHANTMENTS) != 0) {
+            int count = in.readVarInt();
+            for (int i = 0; i < count; i++) {
+                item.addEnchantment(string(strings, in.readVarInt()), readInt(in));
+            }
+        }
+        if ((flags & FLAG_CONTAINER) != 0) {
+            item.setContainer(in.readVarInt());
+            int count = in.readVarInt();
+            for (int i = 0; i < count; i++) {
+                int slot = in.readVarInt();
+                item.setContainerItem(slot, readRecord(in, strings));
+            }
+        }
+        if ((flags & FLAG_BUNDLE) != 0) {
+            int count = in.readVarInt();
+            for (int i = 0; i < count; i++) {
+                item.addBundleItem(readRecord(in, strings));
+            }
+        }
+        if ((flags & FLAG_PENDING_CONTAINER) != 0) {
+            item.setPendingContainer(in.readString());
+        }
+        if ((flags & FLAG_PENDING_BUNDLE) != 0) {
+            item.setPendingBundle(in.readString());
+        }
+        if ((flags & FLAG_NAME_COMPONENT) != 0) {
+            item.setNameComponent(string(strings, in.readVarInt()));
+        }
+        return item;
+    }
+
+    private static int readInt(Input in) {
+        return (int) unzigzag(in.readVarLong());
+    }
+
+    private static String string(String[] strings, int index) {
+        if (index < 0 || index >= strings.length) {
+            throw new IllegalArgumentException("Invalid string index: " + index);
+        }
+        return strings[index];
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private record Header(int size, String version, int dataVersion) {}
+
+    /**
+     * 可增長的位元組緩衝區，附帶字串表
+     */
+    static final class Output {
+        private byte[] buffer;
+        private int length;
+        private final Map<String, Integer> stringIndex = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+
+        Output(int initialCapacity) {
+            this.buffer = new byte[Math.max(16, initialCapacity)];
+        }
+
+        int intern(String value) {
+            Integer index = stringIndex.get(value);
+            if (index == null) {
+                index = strings.size();
+                strings.add(value);
+                stringIndex.put(value, index);
+            }
+            return index;
+        }
+
+        List<String> strings() {
+            return strings;
+        }
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[length++] = (byte) value;
+        }
+
+        void writeBytes(byte[] bytes, int offset, int count) {
+            ensureCapacity(count);
+            System.arraycopy(bytes, offset, buffer, length, count);
+            length += count;
+        }
+
+        void writeVarInt(int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[length++] = (byte) value;
+        }
+
+        void writeDouble(double value) {
+            long bits = Double.doubleToRawLongBits(value);
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[length++] = (byte) (bits >>> shift);
+            }
+        }
+
+        /**
+         * 寫入字串，長度以 +1 儲存，0 代表 null
+         */
+        void writeString(String value) {
+            if (value == null) {
+                writeVarInt(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length + 1);
+            writeBytes(bytes, 0, bytes.length);
+        }
+
+        byte[] buffer() {
+            return buffer;
+        }
+
+        int length() {
+            return length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, length);
+        }
+
+        private void ensureCapacity(int extra) {
+            if (length + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, length + extra));
+            }
+        }
+    }
+
+    /**
+     * 位元組讀取游標
+     */
+    static final class Input {
+        private final byte[] data;
+        private int position;
+
+        Input(byte[] data) {
+            this.data = data;
+        }
+
+        int readByte() {
+            if (position >= data.length) {
+                throw new IllegalArgumentException("Unexpected end of binary inventory");
+            }
+            return data[position++] & 0xFF;
+        }
+
+        int peekByte() {
+            if (position >= data.length) {
+                throw new IllegalArgumentException("Unexpected end of binary inventory");
+            }
+            return data[position] & 0xFF;
+        }
+
+        byte[] readBytes(int count) {
+            if (count < 0 || position + count > data.length) {
+                throw new IllegalArgumentException("Unexpected end of binary inventory");
+            }
+            byte[] bytes = Arrays.copyOfRange(data, position, position + count);
+            position += count;
+            return bytes;
+        }
+
+        int readVarInt() {
+            return (int) readVarLong();
+        }
+
+        long readVarLong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        double readDouble() {
+            long bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits = (bits << 8) | readByte();
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        String readString() {
+            int length = readVarInt();
+            if (length == 0) {
+                return null;
+            }
+            length--;
+            if (length < 0 || position + length > data.length) {
+                throw new IllegalArgumentException("Unexpected end of binary inventory");
+            }
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
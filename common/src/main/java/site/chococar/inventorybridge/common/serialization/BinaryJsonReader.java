@@ -0,0 +1,305 @@
+package site.chococar.inventorybridge.common.serialization;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * 將二進位標記還原為 JSON 讀取事件的讀取器
+ * 讓平台解碼器以同一套 JsonReader 程式碼讀取 JSON 與二進位負載
+ */
+final class BinaryJsonReader extends JsonReader {
+    private static final int NO_KEY = -1;
+
+    private final BinaryInventoryCodec.Input in;
+    private final String[] strings;
+    private boolean[] objectStack = new boolean[8];
+    private int depth = 0;
+    // 物件內已預讀但尚未取用的鍵索引（+1 儲存，0 代表物件結束）
+    private int pendingKey = NO_KEY;
+    // 物件內已讀取鍵名，下一個標記為值
+    private boolean afterName = false;
+
+    BinaryJsonReader(BinaryInventoryCodec.Input in, String[] strings) {
+        super(Reader.nullReader());
+        this.in = in;
+        this.strings = strings;
+    }
+
+    @Override
+    public void beginArray() throws IOException {
+        expectValue(JsonToken.BEGIN_ARRAY);
+        push(false);
+    }
+
+    @Override
+    public void endArray() throws IOException {
+        if (peek() != JsonToken.END_ARRAY) {
+            throw unexpected(JsonToken.END_ARRAY);
+        }
+        in.readByte();
+        depth--;
+        valueConsumed();
+    }
+
+    @Override
+    public void beginObject() throws IOException {
+        expectValue(JsonToken.BEGIN_OBJECT);
+        push(true);
+    }
+
+    @Override
+    public void endObject() throws IOException {
+        if (peek() != JsonToken.END_OBJECT) {
+            throw unexpected(JsonToken.END_OBJECT);
+        }
+        pendingKey = NO_KEY;
+        depth--;
+        valueConsumed();
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        JsonToken token = peek();
+        return token != JsonToken.END_OBJECT && token != JsonToken.END_ARRAY;
+    }
+
+    @Override
+    public JsonToken peek() throws IOException {
+        if (inObject() && !afterName) {
+            if (pendingKey == NO_KEY) {
+                pendingKey = in.readVarInt();
+            }
+            return pendingKey == 0 ? JsonToken.END_OBJECT : JsonToken.NAME;
+        }
+        return switch (in.peekByte()) {
+            case BinaryInventoryCodec.TAG_END -> {
+                if (depth == 0 || objectStack[depth - 1]) {
+                    throw new IOException("Unexpected end marker");
+                }
+                yield JsonToken.END_ARRAY;
+            }
+            case BinaryInventoryCodec.TAG_NULL -> JsonToken.NULL;
+            case BinaryInventoryCodec.TAG_FALSE, BinaryInventoryCodec.TAG_TRUE -> JsonToken.BOOLEAN;
+            case BinaryInventoryCodec.TAG_INT, BinaryInventoryCodec.TAG_DOUBLE, BinaryInventoryCodec.TAG_DOUBLE_INT -> JsonToken.NUMBER;
+            case BinaryInventoryCodec.TAG_STRING -> JsonToken.STRING;
+            case BinaryInventoryCodec.TAG_ARRAY -> JsonToken.BEGIN_ARRAY;
+            case BinaryInventoryCodec.TAG_OBJECT -> JsonToken.BEGIN_OBJECT;
+            default -> throw new IOException("Unknown binary tag: " + in.peekByte());
+        };
+    }
+
+    @Override
+    public String nextName() throws IOException {
+        if (peek() != JsonToken.NAME) {
+            throw unexpected(JsonToken.NAME);
+        }
+        String name = string(pendingKey - 1);
+        pendingKey = NO_KEY;
+        afterName = true;
+        return name;
+    }
+
+    @Override
+    public String nextString() throws IOException {
+        JsonToken token = peek();
+        requireScalar(JsonToken.STRING, token);
+        String value = switch (in.peekByte()) {
+            case BinaryInventoryCodec.TAG_STRING -> {
+                in.readByte();
+                yield string(in.readVarInt());
+            }
+            case BinaryInventoryCodec.TAG_INT -> {
+                in.readByte();
+                yield Long.toString(BinaryInventoryCodec.unzigzag(in.readVarLong()));
+            }
+            case BinaryInventoryCodec.TAG_DOUBLE_INT -> {
+                in.readByte();
+                yield Double.toString(BinaryInventoryCodec.unzigzag(in.readVarLong()));
+            }
+            case BinaryInventoryCodec.TAG_DOUBLE -> {
+                in.readByte();
+                yield Double.toString(in.readDouble());
+            }
+            default -> throw unexpectedActual(JsonToken.STRING, token);
+        };
+        valueConsumed();
+        return value;
+    }
+
+    @Override
+    public boolean nextBoolean() throws IOException {
+        JsonToken token = peek();
+        if (token != JsonToken.BOOLEAN) {
+            throw unexpectedActual(JsonToken.BOOLEAN, token);
+        }
+        boolean value = in.readByte() == BinaryInventoryCodec.TAG_TRUE;
+        valueConsumed();
+        return value;
+    }
+
+    @Override
+    public void nextNull() throws IOException {
+        JsonToken token = peek();
+        if (token != JsonToken.NULL) {
+            throw unexpectedActual(JsonToken.NULL, token);
+        }
+        in.readByte();
+        valueConsumed();
+    }
+
+    @Override
+    public double nextDouble() throws IOException {
+        JsonToken token = peek();
+        requireScalar(JsonToken.NUMBER, token);
+        double value = switch (in.peekByte()) {
+            case BinaryInventoryCodec.TAG_INT, BinaryInventoryCodec.TAG_DOUBLE_INT -> {
+                in.readByte();
+                yield BinaryInventoryCodec.unzigzag(in.readVarLong());
+            }
+            case BinaryInventoryCodec.TAG_DOUBLE -> {
+                in.readByte();
+                yield in.readDouble();
+            }
+            case BinaryInventoryCodec.TAG_STRING -> {
+                in.readByte();
+                yield Double.parseDouble(string(in.readVarInt()));
+            }
+            default -> throw unexpectedActual(JsonToken.NUMBER, token);
+        };
+        valueConsumed();
+        return value;
+    }
+
+    @Override
+    public long nextLong() throws IOException {
+        JsonToken token = peek();
+        requireScalar(JsonToken.NUMBER, token);
+        long value = switch (in.peekByte()) {
+            case BinaryInventoryCodec.TAG_INT, BinaryInventoryCodec.TAG_DOUBLE_INT -> {
+                in.readByte();
+                yield BinaryInventoryCodec.unzigzag(in.readVarLong());
+            }
+            case BinaryInventoryCodec.TAG_DOUBLE -> {
+                in.readByte();
+                yield exactLong(in.readDouble());
+            }
+            case BinaryInventoryCodec.TAG_STRING -> {
+                in.readByte();
+                yield Long.parseLong(string(in.readVarInt()));
+            }
+            default -> throw unexpectedActual(JsonToken.NUMBER, token);
+        };
+        valueConsumed();
+        return value;
+    }
+
+    @Override
+    public int nextInt() throws IOException {
+        long value = nextLong();
+        if ((int) value != value) {
+            throw new NumberFormatException("Expected an int but was " + value);
+        }
+        return (int) value;
+    }
+
+    @Override
+    public void skipValue() throws IOException {
+        int skipDepth = 0;
+        do {
+            switch (peek()) {
+                case BEGIN_ARRAY -> {
+                    beginArray();
+                    skipDepth++;
+                }
+                case BEGIN_OBJECT -> {
+                    beginObject();
+                    skipDepth++;
+                }
+                case END_ARRAY -> {
+                    endArray();
+                    skipDepth--;
+                }
+                case END_OBJECT -> {
+                    endObject();
+                    skipDepth--;
+                }
+                case NAME -> nextName();
+                case BOOLEAN -> nextBoolean();
+                case NULL -> nextNull();
+                default -> nextString();
+            }
+        } while (skipDepth > 0);
+    }
+
+    @Override
+    public String getPath() {
+        return "$";
+    }
+
+    @Override
+    public String toString() {
+        return "BinaryJsonReader";
+    }
+
+    @Override
+    public void close() {
+        // 資料來自記憶體緩衝區，無需關閉
+    }
+
+    private boolean inObject() {
+        return depth > 0 && objectStack[depth - 1];
+    }
+
+    private void expectValue(JsonToken expected) throws IOException {
+        JsonToken token = peek();
+        if (token != expected) {
+            throw unexpectedActual(expected, token);
+        }
+        in.readByte();
+        afterName = false;
+    }
+
+    private static void requireScalar(JsonToken expected, JsonToken actual) {
+        if (actual != JsonToken.STRING && actual != JsonToken.NUMBER) {
+            throw unexpectedActual(expected, actual);
+        }
+    }
+
+    private void valueConsumed() {
+        afterName = false;
+    }
+
+    private void push(boolean isObject) {
+        if (depth == objectStack.length) {
+            objectStack = java.util.Arrays.copyOf(objectStack, depth * 2);
+        }
+        objectStack[depth++] = isObject;
+        pendingKey = NO_KEY;
+    }
+
+    private String string(int index) throws IOException {
+        if (index < 0 || index >= strings.length) {
+            throw new IOException("Invalid string index: " + index);
+        }
+        return strings[index];
+    }
+
+    private static long exactLong(double value) {
+        long result = (long) value;
+        if (result != value) {
+            throw new NumberFormatException("Expected a long but was " + value);
+        }
+        return result;
+    }
+
+    private IllegalStateException unexpected(JsonToken expected) throws IOException {
+        return unexpectedActual(expected, peek());
+    }
+
+    private static IllegalStateException unexpectedActual(JsonToken expected, JsonToken actual) {
+        return new IllegalStateException("Expected " + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,172 @@
+package site.chococar.inventorybridge.common.serialization;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * 將 JSON 寫入事件轉換為二進位標記的寫入器
+ * 物件鍵與字串值統一寫入字串表，數值以 zigzag varint 編碼
+ */
+final class BinaryJsonWriter extends JsonWriter {
+    private final BinaryInventoryCodec.Output out;
+    private boolean[] objectStack = new boolean[8];
+    private int depth = 0;
+
+    BinaryJsonWriter(BinaryInventoryCodec.Output out) {
+        super(Writer.nullWriter());
+        this.out = out;
+    }
+
+    @Override
+    public JsonWriter beginArray() {
+        out.writeByte(BinaryInventoryCodec.TAG_ARRAY);
+        push(false);
+        return this;
+    }
+
+    @Override
+    public JsonWriter endArray() {
+        pop(false);
+        out.writeByte(BinaryInventoryCodec.TAG_END);
+        return this;
+    }
+
+    @Override
+    public JsonWriter beginObject() {
+        out.writeByte(BinaryInventoryCodec.TAG_OBJECT);
+        push(true);
+        return this;
+    }
+
+    @Override
+    public JsonWriter endObject() {
+        pop(true);
+        // 鍵索引以 +1 儲存，0 代表物件結束
+        out.writeVarInt(0);
+        return this;
+    }
+
+    @Override
+    public JsonWriter name(String name) {
+        if (depth == 0 || !objectStack[depth - 1]) {
+            throw new IllegalStateException("name() called outside of an object");
+        }
+        out.writeVarInt(out.intern(name) + 1);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(String value) {
+        if (value == null) {
+            return nullValue();
+        }
+        out.writeByte(BinaryInventoryCodec.TAG_STRING);
+        out.writeVarInt(out.intern(value));
+        return this;
+    }
+
+    @Override
+    public JsonWriter jsonValue(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        JsonStreams.copy(value, this);
+        return this;
+    }
+
+    @Override
+    public JsonWriter nullValue() {
+        out.writeByte(BinaryInventoryCodec.TAG_NULL);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(boolean value) {
+        out.writeByte(value ? BinaryInventoryCodec.TAG_TRUE : BinaryInventoryCodec.TAG_FALSE);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(Boolean value) {
+        return value == null ? nullValue() : value(value.booleanValue());
+    }
+
+    @Override
+    public JsonWriter value(float value) {
+        return value((double) value);
+    }
+
+    @Override
+    public JsonWriter value(double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value)
+                && Math.abs(value) < (1L << 53) && !isNegativeZero(value)) {
+            out.writeByte(BinaryInventoryCodec.TAG_DOUBLE_INT);
+            out.writeVarLong(BinaryInventoryCodec.zigzag((long) value));
+        } else {
+            out.writeByte(BinaryInventoryCodec.TAG_DOUBLE);
+            out.writeDouble(value);
+        }
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(long value) {
+        out.writeByte(BinaryInventoryCodec.TAG_INT);
+        out.writeVarLong(BinaryInventoryCodec.zigzag(value));
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(Number value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return value(value.longValue());
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return value(value.doubleValue());
+        }
+        if (value instanceof BigInteger || value instanceof BigDecimal) {
+            JsonStreams.writeNumber(value.toString(), this);
+            return this;
+        }
+        // 其他 Number 實作（例如 Gson 的延遲解析數字）依字面值判斷
+        JsonStreams.writeNumber(value.toString(), this);
+        return this;
+    }
+
+    @Override
+    public void flush() {
+        // 資料保留在記憶體緩衝區中，無需刷新
+    }
+
+    @Override
+    public void close() {
+        if (depth != 0) {
+            throw new IllegalStateException("Incomplete document");
+        }
+    }
+
+    private void push(boolean isObject) {
+        if (depth == objectStack.length) {
+            objectStack = java.util.Arrays.copyOf(objectStack, depth * 2);
+        }
+        objectStack[depth++] = isObject;
+    }
+
+    private void pop(boolean isObject) {
+        if (depth == 0 || objectStack[depth - 1] != isObject) {
+            throw new IllegalStateException("Nesting problem");
+        }
+        depth--;
+    }
+
+    private static boolean isNegativeZero(double value) {
+        return value == 0.0 && Double.doubleToRawLongBits(value) != 0L;
+    }
+}
@@ -1,78 +1,230 @@
 package site.chococar.inventorybridge.common.serialization;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import site.chococar.inventorybridge.common.config.ConfigurationManager;
+import site.chococar.inventorybridge.common.environment.ServerEnvironment;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
 
 /**
  * 通用的物品和背包序列化器
  * 提供平台無關的序列化邏輯
  */
 public class CommonItemSerializer {
-    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static volatile PayloadFormat payloadFormat = PayloadFormat.JSON;
+    private static volatile boolean lazyContainers = false;
     
     /**
-     * 序列化背包數據為統一的JSON格式
+     * 依伺服器配置選擇背包負載格式
+     */
+    public static void configure(ConfigurationManager config) {
+        setPayloadFormat(PayloadFormat.fromString(config.getString("sync.payloadFormat", "json")));
+        setLazyContainers(config.getBoolean("sync.lazyContainers", false));
+    }
+    
+    public static void setPayloadFormat(PayloadFormat format) {
+        payloadFormat = format != null ? format : PayloadFormat.JSON;
+    }
+    
+    public static PayloadFormat getPayloadFormat() {
+        return payloadFormat;
+    }
+    
+    public static void setLazyContainers(boolean enabled) {
+        lazyContainers = enabled;
+    }
+    
+    /**
+     * 是否將界伏盒與束包內容保留為已編碼的 JSON，直到實際使用時才解碼
+     */
+    public static boolean isLazyContainers() {
+        return lazyContainers;
+    }
+    
+    /**
+     * 以目前配置的格式序列化背包數據
      */
     public static String serializeInventory(int size, String version, int dataVersion, ItemStackProvider[] items) {
-        JsonObject json = new JsonObject();
-        json.addProperty("size", size);
-        json.addProperty("minecraft_version", version);
-        json.addProperty("data_version", dataVersion);
-        
-        JsonObject itemsJson = new JsonObject();
+        return serializeInventory(payloadFormat, size, version, dataVersion, items);
+    }
+    
+    /**
+     * 以指定格式序列化背包數據
+     */
+    public static String serializeInventory(PayloadFormat format, int size, String version, int dataVersion, ItemStackProvider[] items) {
+        return switch (format) {
+            case BINARY -> BinaryInventoryCodec.encodeToString(size, version, dataVersion, items);
+            case NATIVE -> {
+                // 平台不支援原生格式時退回 JSON
+                String encoded = NativeInventoryCodec.encodeToString(size, version, dataVersion, items);
+                yield encoded != null ? encoded : serializeInventoryJson(size, version, dataVersion, items);
+            }
+            default -> serializeInventoryJson(size, version, dataVersion, items);
+        };
+    }
+    
+    /**
+     * 序列化背包數據為統一的JSON格式
+     * 物品直接寫入共享的 JsonWriter，不經過字串與樹狀結構中轉
+     */
+    public static String serializeInventoryJson(int size, String version, int dataVersion, ItemStackProvider[] items) {
+        try {
+            return JsonStreams.write(writer -> {
+                writer.beginObject();
+                writer.name("size").value(size);
+                writer.name("minecraft_version").value(version);
+                writer.name("data_version").value(dataVersion);
+                writer.name("items");
+                writeItems(writer, items);
+                writer.endObject();
+            });
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to serialize inventory", e);
+        }
+    }
+    
+    /**
+     * 將非空槽位以 {"槽位": 物品} 的形式寫入
+     */
+    public static void writeItems(JsonWriter writer, ItemStackProvider[] items) throws IOException {
+        writer.beginObject();
         for (int i = 0; i < items.length; i++) {
             if (items[i] != null && !items[i].isEmpty()) {
-                String serializedItem = items[i].serialize();
-                if (serializedItem != null) {
-                    JsonObject itemObj = JsonParser.parseString(serializedItem).getAsJsonObject();
-                    itemsJson.add(String.valueOf(i), itemObj);
-                }
+                writer.name(String.valueOf(i));
+                items[i].writeTo(writer);
             }
         }
-        json.add("items", itemsJson);
-        
-        return GSON.toJson(json);
+        writer.endObject();
+    }
+    
+    /**
+     * 以串流方式寫入容器內容 {"size": n, "items": {...}}
+     */
+    public static void writeContainerContent(JsonWriter writer, int containerSize, ItemStackProvider[] containerItems) throws IOException {
+        writer.beginObject();
+        writer.name("size").value(containerSize);
+        writer.name("items");
+        writeItems(writer, containerItems);
+        writer.endObject();
     }
     
     /**
      * 反序列化背包數據
+     * 以 JsonReader 逐一讀取槽位，物品內容直接交給平台解碼器，不建立 JSON 樹
      */
     public static void deserializeInventory(String data, InventoryProvider inventory) {
         if (data == null || data.isEmpty()) {
             return;
         }
         
+        if (BinaryInventoryCodec.isBinary(data)) {
+            BinaryInventoryCodec.decode(data, inventory);
+            return;
+        }
+        if (ItemRecordCodec.isRecordPayload(data)) {
+            ItemRecordCodec.decode(data, inventory);
+            return;
+        }
+        if (NativeInventoryCodec.isNativePayload(data)) {
+            NativeInventoryCodec.decode(data, inventory);
+            return;
+        }
+        
         try {
-            JsonObject json = JsonParser.parseString(data).getAsJsonObject();
-            
-            if (json.has("items")) {
-                JsonObject itemsJson = json.getAsJsonObject("items");
-                itemsJson.entrySet().forEach(entry -> {
-                    try {
-                        int slot = Integer.parseInt(entry.getKey());
-                        if (slot < inventory.size()) {
-                            // 處理兩種格式：新的JSON對象格式和舊的字符串格式
-                            String itemData;
-                            if (entry.getValue().isJsonObject()) {
-                                itemData = GSON.toJson(entry.getValue());
-                            } else {
-                                itemData = entry.getValue().getAsString();
-                            }
-                            inventory.setItem(slot, itemData);
-                        }
-                    } catch (NumberFormatException e) {
-                        // Log warning but continue processing
-                    }
-                });
+            JsonReader reader = new JsonReader(new StringReader(data));
+            reader.setLenient(true);
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.nextName().equals("items")) {
+                    readItems(reader, inventory);
+                } else {
+                    reader.skipValue();
+                }
             }
-            
+            reader.endObject();
         } catch (Exception e) {
             throw new RuntimeException("Failed to deserialize inventory", e);
         }
     }
     
+    /**
+     * 讀取 {"槽位": 物品} 物件並逐一交給背包提供者
+     * 無效或超出範圍的槽位會被略過
+     */
+    public static void readItems(JsonReader reader, InventoryProvider inventory) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            int slot;
+            try {
+                slot = Integer.parseInt(key);
+            } catch (NumberFormatException e) {
+                reader.skipValue();
+                continue;
+            }
+            if (slot < 0 || slot >= inventory.size() || reader.peek() == JsonToken.NULL) {
+                reader.skipValue();
+                continue;
+            }
+            inventory.readItem(slot, reader);
+        }
+        reader.endObject();
+    }
+    
+    /**
+     * 將讀取器中的下一個物品還原為 JSON 字串
+     * 舊格式以字串儲存的物品會原樣返回
+     */
+    public static String readItemJson(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.STRING) {
+            return reader.nextString();
+        }
+        StringWriter out = new StringWriter(128);
+        JsonWriter writer = new JsonWriter(out);
+        JsonStreams.copy(reader, writer);
+        writer.flush();
+        return out.toString();
+    }
+    
+    /**
+     * 讀取負載中記錄的背包大小，支援所有負載格式
+     */
+    public static int readInventorySize(String data, int defaultSize) {
+        if (data == null || data.isEmpty()) {
+            return defaultSize;
+        }
+        
+        try {
+            if (BinaryInventoryCodec.isBinary(data)) {
+                return BinaryInventoryCodec.readSize(data);
+            }
+            if (ItemRecordCodec.isRecordPayload(data)) {
+                return ItemRecordCodec.readSize(data);
+            }
+            if (NativeInventoryCodec.isNativePayload(data)) {
+                return NativeInventoryCodec.readSize(data);
+            }
+            JsonReader reader = new JsonReader(new StringReader(data));
+            reader.setLenient(true);
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.nextName().equals("size")) {
+                    return reader.nextInt();
+                }
+                reader.skipValue();
+            }
+            return defaultSize;
+        } catch (Exception e) {
+            return defaultSize;
+        }
+    }
+    
     /**
      * 創建標準的物品JSON結構
      */
@@ -140,12 +292,78 @@ public class CommonItemSerializer {
         }
     }
     
+    /**
+     * 背包負載格式
+     */
+    public enum PayloadFormat {
+        JSON,
+        /**
+         * 二進位格式，平台物品以 ItemRecord 欄位編碼，Paper 與 Fabric 寫入的物品可互相讀取
+         */
+        BINARY,
+        /**
+         * 平台原生的物品位元組，保留所有組件；只有相同平台且資料版本相容的伺服器可讀取
+         */
+        NATIVE;
+        
+        public static PayloadFormat fromString(String value) {
+            if (value == null) {
+                return JSON;
+            }
+            return switch (value.toLowerCase()) {
+                // 舊的 record 格式已併入二進位格式
+                case "binary", "record" -> BINARY;
+                case "native" -> NATIVE;
+                default -> JSON;
+            };
+        }
+    }
+    
     /**
      * 平台特定的物品堆疊提供者介面
      */
     public interface ItemStackProvider {
         boolean isEmpty();
         String serialize();
+        
+        /**
+         * 將物品直接寫入共享的寫入器
+         * 平台應覆寫此方法以避免先產生字串；預設實作會串流複製 serialize() 的結果
+         */
+        default void writeTo(JsonWriter writer) throws IOException {
+            String serialized = serialize();
+            if (serialized == null) {
+                writer.nullValue();
+            } else {
+                JsonStreams.copy(serialized, writer);
+            }
+        }
+        
+        /**
+         * 將物品轉為平台無關的中介表示
+         * 平台應覆寫此方法直接從原生物品轉換；預設實作會解析 serialize() 的結果
+         */
+        default ItemRecord toRecord() {
+            String serialized = serialize();
+            return serialized != null ? ItemRecordJson.parse(serialized) : null;
+        }
+        
+        /**
+         * toRecord() 是否保留物品的所有欄位
+         * 二進位格式只對這類物品寫入物品紀錄，其餘物品（例如已編碼且可能含有容器參照的 JSON）原樣保留
+         */
+        default boolean hasExactRecord() {
+            return false;
+        }
+        
+        /**
+         * 以平台原生格式序列化物品
+         *
+         * @return 原生位元組，平台不支援時返回 null
+         */
+        default byte[] toNativeBytes() {
+            return null;
+        }
     }
     
     /**
@@ -154,6 +372,44 @@ public class CommonItemSerializer {
     public interface InventoryProvider {
         int size();
         void setItem(int slot, String itemData);
+        
+        /**
+         * 從讀取器解碼單一物品，讀取器位於該物品的值上，必須完整讀取該值
+         * 平台應覆寫此方法直接解碼；預設實作會先還原為 JSON 字串再呼叫 setItem
+         */
+        default void readItem(int slot, JsonReader reader) throws IOException {
+            setItem(slot, readItemJson(reader));
+        }
+        
+        /**
+         * 接收以中介表示解碼的物品
+         * 平台應覆寫此方法直接轉為原生物品；預設實作會轉為組件格式的 JSON 再呼叫 readItem
+         */
+        default void readRecord(int slot, ItemRecord item) throws IOException {
+            JsonReader reader = new JsonReader(new StringReader(ItemRecordJson.toJson(item, ItemRecordJson.Dialect.FABRIC)));
+            readItem(slot, reader);
+        }
+        
+        /**
+         * 是否能讀取指定平台與資料版本寫入的原生位元組
+         */
+        default boolean acceptsNative(ServerEnvironment.Platform platform, int dataVersion) {
+            return false;
+        }
+        
+        /**
+         * 接收平台原生格式的物品位元組，只有 acceptsNative 返回 true 時才會被呼叫
+         */
+        default void readNative(int slot, byte[] data) throws IOException {
+            throw new UnsupportedOperationException("Native item data is not supported on this platform");
+        }
+        
+        /**
+         * 接收平台一次序列化的整個背包，只有 acceptsNative 返回 true 時才會被呼叫
+         */
+        default void readNativeInventory(byte[] data) throws IOException {
+            throw new UnsupportedOperationException("Native inventory data is not supported on this platform");
+        }
     }
     
     /**
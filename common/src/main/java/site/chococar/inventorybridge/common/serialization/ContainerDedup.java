@@ -0,0 +1,246 @@
+package site.chococar.inventorybridge.common.serialization;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 界伏盒與束包內容的內容定址去重
+ * 較大的容器內容以 {"$blob":"SHA-256"} 參照取代，內容另外存放並以雜湊共用
+ * 只處理最外層的容器值，參照內容本身不會再包含參照
+ */
+public final class ContainerDedup {
+    /**
+     * 參照物件使用的鍵名
+     */
+    public static final String REF_KEY = "$blob";
+
+    /**
+     * 小於此長度的容器內容保留在負載中，參照本身約 80 個字元
+     */
+    public static final int MIN_EXTERNAL_LENGTH = 256;
+
+    private static final int DEFAULT_SIZE = 41;
+
+    private static final Set<String> CONTAINER_KEYS = Set.of("container", "bundle_items", "bundle_contents");
+
+    // 參照以緊湊 JSON 寫出；字串值中的引號必定被跳脫，因此不會與使用者文字混淆
+    private static final Pattern REF_PATTERN = Pattern.compile("\\{\"\\$blob\":\"([0-9a-f]{64})\"}");
+
+    private ContainerDedup() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * 將負載中的大型容器內容抽出為參照
+     * 沒有可抽出的內容時原樣返回負載
+     */
+    public static Result externalize(String payload, String version, int dataVersion) {
+        // 原生負載為不透明位元組，無法抽出容器內容
+        if (payload == null || payload.isEmpty() || NativeInventoryCodec.isNativePayload(payload)) {
+            return new Result(payload, Map.of());
+        }
+
+        Map<String, String> blobs = new LinkedHashMap<>();
+        Map<Integer, String> slots = InventoryPatch.slots(payload);
+        boolean changed = false;
+        for (Map.Entry<Integer, String> entry : slots.entrySet()) {
+            String rewritten = externalizeItem(entry.getValue(), blobs);
+            if (rewritten != null) {
+                entry.setValue(rewritten);
+                changed = true;
+            }
+        }
+        if (!changed) {
+            return new Result(payload, Map.of());
+        }
+        return new Result(encode(payload, slots, version, dataVersion), blobs);
+    }
+
+    /**
+     * 列出負載引用的內容雜湊
+     */
+    public static Set<String> references(String payload) {
+        Set<String> hashes = new LinkedHashSet<>();
+        if (!mayContainReferences(payload)) {
+            return hashes;
+        }
+        if (BinaryInventoryCodec.isBinary(payload)) {
+            for (String item : InventoryPatch.slots(payload).values()) {
+                collectReferences(item, hashes);
+            }
+        } else {
+            collectReferences(payload, hashes);
+        }
+        return hashes;
+    }
+
+    /**
+     * 以內容取代負載中的參照
+     *
+     * @throws IllegalStateException 參照的內容不存在時
+     */
+    public static String resolve(String payload, Map<String, String> blobs, String version, int dataVersion) {
+        if (!mayContainReferences(payload)) {
+            return payload;
+        }
+        if (!BinaryInventoryCodec.isBinary(payload)) {
+            return resolveText(payload, blobs);
+        }
+
+        Map<Integer, String> slots = InventoryPatch.slots(payload);
+        slots.replaceAll((slot, item) -> resolveText(item, blobs));
+        return encode(payload, slots, version, dataVersion);
+    }
+
+    /**
+     * 快速檢查負載是否可能包含參照，二進位負載只讀取字串表
+     */
+    public static boolean mayContainReferences(String payload) {
+        if (payload == null || payload.isEmpty()) {
+            return false;
+        }
+        if (BinaryInventoryCodec.isBinary(payload)) {
+            return BinaryInventoryCodec.containsString(payload, REF_KEY);
+        }
+        return payload.contains("\"" + REF_KEY + "\"");
+    }
+
+    /**
+     * 內容的 SHA-256 雜湊，以小寫十六進位表示
+     */
+    public static String hash(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * 改寫單一物品，沒有抽出任何內容時返回 null
+     */
+    private static String externalizeItem(String item, Map<String, String> blobs) {
+        if (item.length() < MIN_EXTERNAL_LENGTH) {
+            return null;
+        }
+        try {
+            boolean[] changed = new boolean[1];
+            String rewritten = JsonStreams.write(writer -> {
+                JsonReader reader = new JsonReader(new StringReader(item));
+                reader.setLenient(true);
+                copyExternalizing(reader, writer, blobs, changed);
+            });
+            return changed[0] ? rewritten : null;
+        } catch (IOException | RuntimeException e) {
+            // 無法解析的物品保持原樣，由平台解碼器處理
+            return null;
+        }
+    }
+
+    private static void copyExternalizing(JsonReader in, JsonWriter out, Map<String, String> blobs,
+                                          boolean[] changed) throws IOException {
+        switch (in.peek()) {
+            case BEGIN_OBJECT -> {
+                in.beginObject();
+                out.beginObject();
+                while (in.hasNext()) {
+                    String name = in.nextName();
+                    out.name(name);
+                    if (CONTAINER_KEYS.contains(name) && isStructure(in.peek())) {
+                        String content = CommonItemSerializer.readItemJson(in);
+                        if (content.length() >= MIN_EXTERNAL_LENGTH && !content.contains("\"" + REF_KEY + "\"")) {
+                            String hash = hash(content);
+                            blobs.putIfAbsent(hash, content);
+                            out.beginObject().name(REF_KEY).value(hash).endObject();
+                            changed[0] = true;
+                        } else {
+                            out.jsonValue(content);
+                        }
+                    } else {
+                        copyExternalizing(in, out, blobs, changed);
+                    }
+                }
+                in.endObject();
+                out.endObject();
+            }
+            case BEGIN_ARRAY -> {
+                in.beginArray();
+                out.beginArray();
+                while (in.hasNext()) {
+                    copyExternalizing(in, out, blobs, changed);
+                }
+                in.endArray();
+                out.endArray();
+            }
+            default -> JsonStreams.copy(in, out);
+        }
+    }
+
+    private static boolean isStructure(JsonToken token) {
+        return token == JsonToken.BEGIN_OBJECT || token == JsonToken.BEGIN_ARRAY;
+    }
+
+    private static void collectReferences(String text, Set<String> hashes) {
+        Matcher matcher = REF_PATTERN.matcher(text);
+        while (matcher.find()) {
+            hashes.add(matcher.group(1));
+        }
+    }
+
+    private static String resolveText(String text, Map<String, String> blobs) {
+        Matcher matcher = REF_PATTERN.matcher(text);
+        if (!matcher.find()) {
+            return text;
+        }
+        StringBuilder out = new StringBuilder(text.length() + 1024);
+        int last = 0;
+        do {
+            String content = blobs.get(matcher.group(1));
+            if (content == null) {
+                throw new IllegalStateException("Missing container blob: " + matcher.group(1));
+            }
+            out.append(text, last, matcher.start()).append(content);
+            last = matcher.end();
+        } while (matcher.find());
+        return out.append(text, last, text.length()).toString();
+    }
+
+    /**
+     * 以原負載的格式重新編碼槽位，舊版物品紀錄負載改寫為二進位格式
+     * 槽位以 JSON 物品寫入，二進位格式會原樣保留其中的參照
+     */
+    private static String encode(String original, Map<Integer, String> slots, String version, int dataVersion) {
+        int size = CommonItemSerializer.readInventorySize(original, DEFAULT_SIZE);
+        CommonItemSerializer.ItemStackProvider[] items = new CommonItemSerializer.ItemStackProvider[size];
+        for (Map.Entry<Integer, String> entry : slots.entrySet()) {
+            if (entry.getKey() < size) {
+                items[entry.getKey()] = new InventoryPatch.JsonItem(entry.getValue());
+            }
+        }
+        CommonItemSerializer.PayloadFormat format =
+            BinaryInventoryCodec.isBinary(original) || ItemRecordCodec.isRecordPayload(original)
+            ? CommonItemSerializer.PayloadFormat.BINARY
+            : CommonItemSerializer.PayloadFormat.JSON;
+        return CommonItemSerializer.serializeInventory(format, size, version, dataVersion, items);
+    }
+
+    /**
+     * 改寫後的負載與新抽出的內容（雜湊到內容）
+     */
+    public record Result(String payload, Map<String, String> blobs) {}
+}
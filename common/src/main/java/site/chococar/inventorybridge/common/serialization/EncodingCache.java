@@ -0,0 +1,102 @@
+package site.chococar.inventorybridge.common.serialization;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * 有上限的物品編碼快取
+ * 以相等性比對物品，未變更的物品直接重用上次的編碼結果
+ *
+ * @param <K> 平台物品類型，必須提供與內容一致的 equals/hashCode
+ */
+public final class EncodingCache<K> {
+    private final int capacity;
+    private final UnaryOperator<K> snapshot;
+    private final Map<K, String> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param capacity 最多保留的項目數
+     * @param snapshot 存入快取前複製可變的物品，避免之後的修改污染快取鍵
+     */
+    public EncodingCache(int capacity, UnaryOperator<K> snapshot) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.snapshot = snapshot;
+        this.entries = new LinkedHashMap<>(Math.min(capacity, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, String> eldest) {
+                return size() > EncodingCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * 取得物品的編碼，未命中時呼叫編碼器並存入快取
+     * 編碼在鎖外執行，同一物品並行未命中時可能重複編碼，但結果相同
+     */
+    public String get(K item, Function<K, String> encoder) {
+        String cached;
+        synchronized (entries) {
+            cached = entries.get(item);
+        }
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        misses.incrementAndGet();
+        String encoded = encoder.apply(item);
+        if (encoded != null) {
+            K key = snapshot.apply(item);
+            synchronized (entries) {
+                entries.put(key, encoded);
+            }
+        }
+        return encoded;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * 命中率，尚無查詢時為 0
+     */
+    public double getHitRate() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * 清空快取並重設計數器
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+        hits.set(0);
+        misses.set(0);
+    }
+}
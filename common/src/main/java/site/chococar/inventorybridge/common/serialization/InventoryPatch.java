@@ -0,0 +1,154 @@
+package site.chococar.inventorybridge.common.serialization;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * 槽位層級的背包差異
+ * 差異格式為 {"items": {"槽位": 物品 | null}}，null 代表該槽位已清空
+ * 差異永遠相對於最後一次完整快照，因此套用時不需要依序重播
+ */
+public final class InventoryPatch {
+    private static final int DEFAULT_SIZE = 41;
+
+    private InventoryPatch() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * 將背包負載（JSON 或二進位）展開為槽位到物品 JSON 的對應
+     */
+    public static Map<Integer, String> slots(String payload) {
+        Map<Integer, String> slots = new TreeMap<>();
+        if (payload == null || payload.isEmpty()) {
+            return slots;
+        }
+        CommonItemSerializer.deserializeInventory(payload, new CommonItemSerializer.InventoryProvider() {
+            @Override
+            public int size() {
+                return Integer.MAX_VALUE;
+            }
+
+            @Override
+            public void setItem(int slot, String itemData) {
+                slots.put(slot, itemData);
+            }
+        });
+        return slots;
+    }
+
+    /**
+     * 計算目前狀態相對於基準快照的差異，沒有變更時返回 null
+     */
+    public static String diff(Map<Integer, String> base, Map<Integer, String> current) {
+        Map<Integer, String> changed = new TreeMap<>();
+        for (Map.Entry<Integer, String> entry : current.entrySet()) {
+            if (!Objects.equals(base.get(entry.getKey()), entry.getValue())) {
+                changed.put(entry.getKey(), entry.getValue());
+            }
+        }
+        for (Integer slot : base.keySet()) {
+            if (!current.containsKey(slot)) {
+                changed.put(slot, null);
+            }
+        }
+        if (changed.isEmpty()) {
+            return null;
+        }
+
+        StringWriter out = new StringWriter(changed.size() * 96 + 16);
+        try {
+            JsonWriter writer = new JsonWriter(out);
+            writer.beginObject();
+            writer.name("items");
+            writer.beginObject();
+            for (Map.Entry<Integer, String> entry : changed.entrySet()) {
+                writer.name(String.valueOf(entry.getKey()));
+                if (entry.getValue() == null) {
+                    writer.nullValue();
+                } else {
+                    writer.jsonValue(entry.getValue());
+                }
+            }
+            writer.endObject();
+            writer.endObject();
+            writer.flush();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write inventory patch", e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * 將差異套用到完整快照，還原目前的背包負載
+     * 沒有差異時原樣返回快照
+     */
+    public static String apply(String basePayload, String patch, String version, int dataVersion) {
+        if (patch == null || patch.isEmpty()) {
+            return basePayload;
+        }
+
+        Map<Integer, String> slots = slots(basePayload);
+        try {
+            JsonReader reader = new JsonReader(new StringReader(patch));
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!reader.nextName().equals("items")) {
+                    reader.skipValue();
+                    continue;
+                }
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    int slot = Integer.parseInt(reader.nextName());
+                    if (reader.peek() == JsonToken.NULL) {
+                        reader.nextNull();
+                        slots.remove(slot);
+                    } else {
+                        slots.put(slot, CommonItemSerializer.readItemJson(reader));
+                    }
+                }
+                reader.endObject();
+            }
+            reader.endObject();
+        } catch (IOException | RuntimeException e) {
+            throw new RuntimeException("Failed to apply inventory patch", e);
+        }
+
+        int size = CommonItemSerializer.readInventorySize(basePayload, DEFAULT_SIZE);
+        CommonItemSerializer.ItemStackProvider[] items = new CommonItemSerializer.ItemStackProvider[size];
+        for (Map.Entry<Integer, String> entry : slots.entrySet()) {
+            if (entry.getKey() < size) {
+                items[entry.getKey()] = new JsonItem(entry.getValue());
+            }
+        }
+        return CommonItemSerializer.serializeInventoryJson(size, version, dataVersion, items);
+    }
+
+    /**
+     * 以已編碼的物品 JSON 作為物品提供者
+     */
+    record JsonItem(String json) implements CommonItemSerializer.ItemStackProvider {
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public String serialize() {
+            return json;
+        }
+
+        @Override
+        public void writeTo(JsonWriter writer) throws IOException {
+            writer.jsonValue(json);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package site.chococar.inventorybridge.common.serialization;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * 平台無關的物品中介表示
+ * Paper 與 Fabric 只需在原生物品與此表示之間轉換，JSON 與二進位編碼由 common 模組統一處理
+ *
+ * <p>物品ID一律使用命名空間格式（例如 minecraft:diamond_sword）。
+ * 尚未解碼的界伏盒與束包內容以原始 JSON 保存在 pending 欄位中，寫出時原樣寫回</p>
+ */
+public final class ItemRecord {
+    private static final String DEFAULT_NAMESPACE = "minecraft:";
+
+    private String id;
+    private int count;
+    private String version;
+    private Integer dataVersion;
+    private Integer damage;
+    private Integer maxDamage;
+    private Integer customModelData;
+    private String name;
+    private String nameComponent;
+    private List<String> lore;
+    private Map<String, Integer> enchantments;
+    private int containerSize;
+    private Map<Integer, ItemRecord> containerItems;
+    private List<ItemRecord> bundleItems;
+    private String pendingContainer;
+    private String pendingBundle;
+
+    public ItemRecord(String id, int count) {
+        this.id = normalizeId(id);
+        this.count = count;
+    }
+
+    /**
+     * 將 Paper 的材質名稱或缺少命名空間的ID轉為命名空間格式
+     */
+    public static String normalizeId(String id) {
+        if (id == null) {
+            return null;
+        }
+        if (id.indexOf(':') >= 0) {
+            return id.toLowerCase(Locale.ROOT);
+        }
+        return DEFAULT_NAMESPACE + id.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 以 Paper 材質名稱表示物品ID（例如 DIAMOND_SWORD）
+     */
+    public String getMaterialName() {
+        if (id == null) {
+            return null;
+        }
+        String path = id.startsWith(DEFAULT_NAMESPACE) ? id.substring(DEFAULT_NAMESPACE.length()) : id;
+        return path.toUpperCase(Locale.ROOT);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = normalizeId(id);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    /**
+     * 寫入此物品的伺服器版本，可能為 null
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    public Integer getDataVersion() {
+        return dataVersion;
+    }
+
+    public void setDataVersion(Integer dataVersion) {
+        this.dataVersion = dataVersion;
+    }
+
+    public Integer getDamage() {
+        return damage;
+    }
+
+    public void setDamage(Integer damage) {
+        this.damage = damage;
+    }
+
+    public Integer getMaxDamage() {
+        return maxDamage;
+    }
+
+    public void setMaxDamage(Integer maxDamage) {
+        this.maxDamage = maxDamage;
+    }
+
+    public Integer getCustomModelData() {
+        return customModelData;
+    }
+
+    public void setCustomModelData(Integer customModelData) {
+        this.customModelData = customModelData;
+    }
+
+    /**
+     * 純文字的顯示名稱
+     */
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * 顯示名稱的文字組件 JSON，保留顏色與格式；讀取端無法解析時使用純文字名稱
+     */
+    public String getNameComponent() {
+        return nameComponent;
+    }
+
+    public void setNameComponent(String nameComponent) {
+        this.nameComponent = nameComponent;
+    }
+
+    public List<String> getLore() {
+        return lore;
+    }
+
+    public void setLore(List<String> lore) {
+        this.lore = lore;
+    }
+
+    /**
+     * 附魔ID到等級的對應，保留寫入順序
+     */
+    public Map<String, Integer> getEnchantments() {
+        return enchantments;
+    }
+
+    public void addEnchantment(String enchantmentId, int level) {
+        if (enchantments == null) {
+            enchantments = new LinkedHashMap<>();
+        }
+        enchantments.put(enchantmentId, level);
+    }
+
+    public boolean hasContainer() {
+        return containerItems != null;
+    }
+
+    public int getContainerSize() {
+        return containerSize;
+    }
+
+    /**
+     * 容器槽位到物品的對應，依槽位排序；沒有容器時為 null
+     */
+    public Map<Integer, ItemRecord> getContainerItems() {
+        return containerItems;
+    }
+
+    /**
+     * 標記物品為容器並設定大小，既有的內容會被清除
+     */
+    public void setContainer(int size) {
+        this.containerSize = size;
+        this.containerItems = new TreeMap<>();
+    }
+
+    public void setContainerItem(int slot, ItemRecord item) {
+        if (containerItems == null) {
+            setContainer(27);
+        }
+        containerItems.put(slot, item);
+    }
+
+    public boolean hasBundle() {
+        return bundleItems != null;
+    }
+
+    /**
+     * 束包內的物品，沒有束包內容時為 null
+     */
+    public List<ItemRecord> getBundleItems() {
+        return bundleItems;
+    }
+
+    public void addBundleItem(ItemRecord item) {
+        if (bundleItems == null) {
+            bundleItems = new ArrayList<>();
+        }
+        bundleItems.add(item);
+    }
+
+    /**
+     * 尚未解碼的容器內容 {"size": n, "items": {...}}
+     */
+    public String getPendingContainer() {
+        return pendingContainer;
+    }
+
+    public void setPendingContainer(String pendingContainer) {
+        this.pendingContainer = pendingContainer;
+    }
+
+    /**
+     * 尚未解碼的束包物品陣列 [...]
+     */
+    public String getPendingBundle() {
+        return pendingBundle;
+    }
+
+    public void setPendingBundle(String pendingBundle) {
+        this.pendingBundle = pendingBundle;
+    }
+
+    /**
+     * 是否帶有名稱、耐久度、附魔或內容等附加屬性
+     */
+    public boolean hasProperties() {
+        return damage != null || maxDamage != null || customModelData != null || name != null
+            || nameComponent != null || lore != null || enchantments != null || containerItems != null || bundleItems != null
+            || pendingContainer != null || pendingBundle != null;
+    }
+
+    /**
+     * 比較物品內容，寫入來源的版本資訊不列入比較
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ItemRecord other)) {
+            return false;
+        }
+        return count == other.count
+            && containerSize == other.containerSize
+            && Objects.equals(id, other.id)
+            && Objects.equals(damage, other.damage)
+            && Objects.equals(maxDamage, other.maxDamage)
+            && Objects.equals(customModelData, other.customModelData)
+            && Objects.equals(name, other.name)
+            && Objects.equals(nameComponent, other.nameComponent)
+            && Objects.equals(lore, other.lore)
+            && Objects.equals(enchantments, other.enchantments)
+            && Objects.equals(containerItems, other.containerItems)
+            && Objects.equals(bundleItems, other.bundleItems)
+            && Objects.equals(pendingContainer, other.pendingContainer)
+            && Objects.equals(pendingBundle, other.pendingBundle);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, count, damage, name, containerItems, bundleItems);
+    }
+
+    @Override
+    public String toString() {
+        return "ItemRecord{" + id + " x" + count + "}";
+    }
+}
@@ -0,0 +1,131 @@
+package site.chococar.inventorybridge.common.serialization;
+
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 舊版物品紀錄格式（IBR1）的讀取器
+ * 物品紀錄已併入二進位格式（IBB1 版本 2），此格式不再寫入，只保留讀取既有資料
+ *
+ * <pre>
+ * 'I' 'R' 版本
+ * varint 背包大小 | 字串 minecraft_version | varint data_version
+ * varint 字串數量 | 字串...
+ * varint 位圖長度 | 位圖
+ * 每個佔用槽位一筆物品紀錄，欄位與二進位格式的物品紀錄相同
+ * </pre>
+ */
+public final class ItemRecordCodec {
+    /**
+     * 負載存放於文字欄位時使用的前綴
+     */
+    public static final String PREFIX = "IBR1:";
+
+    static final int FORMAT_VERSION = 1;
+
+    private ItemRecordCodec() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * 檢查負載是否為物品紀錄格式
+     */
+    public static boolean isRecordPayload(String data) {
+        return data != null && data.startsWith(PREFIX);
+    }
+
+    /**
+     * 編碼物品陣列，null 代表空槽位；僅供測試建立舊格式資料
+     */
+    static byte[] encode(int size, String version, int dataVersion, ItemRecord[] items) {
+        BinaryInventoryCodec.Output body = new BinaryInventoryCodec.Output(1024);
+        byte[] bitmap = new byte[(items.length + 7) >>> 3];
+        for (int i = 0; i < items.length; i++) {
+            if (items[i] != null) {
+                BinaryInventoryCodec.writeRecord(items[i], body);
+                bitmap[i >>> 3] |= (byte) (1 << (i & 7));
+            }
+        }
+
+        BinaryInventoryCodec.Output out = new BinaryInventoryCodec.Output(body.length() + 256);
+        out.writeByte('I');
+        out.writeByte('R');
+        out.writeByte(FORMAT_VERSION);
+        out.writeVarInt(size);
+        out.writeString(version);
+        out.writeVarLong(BinaryInventoryCodec.zigzag(dataVersion));
+
+        List<String> strings = body.strings();
+        out.writeVarInt(strings.size());
+        for (String s : strings) {
+            out.writeString(s);
+        }
+
+        out.writeVarInt(bitmap.length);
+        out.writeBytes(bitmap, 0, bitmap.length);
+        out.writeBytes(body.buffer(), 0, body.length());
+        return out.toByteArray();
+    }
+
+    /**
+     * 解碼負載並將物品逐一交給平台背包
+     */
+    public static void decode(String data, CommonItemSerializer.InventoryProvider inventory) {
+        try {
+            BinaryInventoryCodec.Input in = new BinaryInventoryCodec.Input(unwrap(data));
+            readHeader(in);
+            String[] strings = readStringTable(in);
+            byte[] bitmap = in.readBytes(in.readVarInt());
+
+            int slotCount = bitmap.length << 3;
+            for (int slot = 0; slot < slotCount; slot++) {
+                if ((bitmap[slot >>> 3] & (1 << (slot & 7))) == 0) {
+                    continue;
+                }
+                ItemRecord item = BinaryInventoryCodec.readRecord(in, strings);
+                if (slot < inventory.size()) {
+                    inventory.readRecord(slot, item);
+                }
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to deserialize item records", e);
+        }
+    }
+
+    /**
+     * 僅讀取標頭中的背包大小
+     */
+    public static int readSize(String data) {
+        return readHeader(new BinaryInventoryCodec.Input(unwrap(data)));
+    }
+
+    private static byte[] unwrap(String data) {
+        if (!isRecordPayload(data)) {
+            throw new IllegalArgumentException("Not an item record payload");
+        }
+        return Base64.getDecoder().decode(data.substring(PREFIX.length()));
+    }
+
+    private static int readHeader(BinaryInventoryCodec.Input in) {
+        if (in.readByte() != 'I' || in.readByte() != 'R') {
+            throw new IllegalArgumentException("Invalid item record magic");
+        }
+        int formatVersion = in.readByte();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported item record version: " + formatVersion);
+        }
+        int size = in.readVarInt();
+        in.readString();
+        in.readVarLong();
+        return size;
+    }
+
+    private static String[] readStringTable(BinaryInventoryCodec.Input in) {
+        int count = in.readVarInt();
+        String[] strings = new String[count];
+        for (int i = 0; i < count; i++) {
+            strings[i] = in.readString();
+        }
+        return strings;
+    }
+}
@@ -0,0 +1,389 @@
+package site.chococar.inventorybridge.common.serialization;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * ItemRecord 與物品 JSON 之間的轉換
+ * 讀取時同時接受 Paper（material/amount/meta）與 Fabric（id/count/components）格式，
+ * 因此任一平台都能讀取另一平台寫入的資料列；寫出時依指定的格式輸出
+ */
+public final class ItemRecordJson {
+
+    private ItemRecordJson() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * 物品 JSON 的欄位格式
+     */
+    public enum Dialect {
+        /**
+         * {"material", "amount", "minecraft_version", "data_version", "meta": {...}}
+         */
+        PAPER,
+        /**
+         * {"id", "count", "components": {...}}
+         */
+        FABRIC
+    }
+
+    /**
+     * 解析物品 JSON 字串
+     */
+    public static ItemRecord parse(String json) {
+        try {
+            JsonReader reader = new JsonReader(new StringReader(json));
+            reader.setLenient(true);
+            return read(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 從讀取器讀取一個物品並完整讀取該值
+     * 延遲解碼啟用時界伏盒與束包內容保留為原始 JSON
+     *
+     * @return 物品，值為 null 或缺少物品ID時返回 null
+     */
+    public static ItemRecord read(JsonReader reader) throws IOException {
+        return read(reader, CommonItemSerializer.isLazyContainers());
+    }
+
+    public static ItemRecord read(JsonReader reader, boolean lazyContainers) throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        if (token == JsonToken.STRING) {
+            // 舊格式以字串儲存的物品
+            JsonReader nested = new JsonReader(new StringReader(reader.nextString()));
+            nested.setLenient(true);
+            return read(nested, lazyContainers);
+        }
+
+        ItemRecord item = new ItemRecord(null, 1);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "material", "id" -> item.setId(reader.nextString());
+                case "amount", "count" -> item.setCount(reader.nextInt());
+                case "minecraft_version" -> item.setVersion(reader.nextString());
+                case "data_version" -> item.setDataVersion(reader.nextInt());
+                case "meta", "components" -> readProperties(reader, item, lazyContainers);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return item.getId() != null ? item : null;
+    }
+
+    private static void readProperties(JsonReader reader, ItemRecord item, boolean lazyContainers) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "custom_model_data" -> item.setCustomModelData(reader.nextInt());
+                case "display_name", "custom_name" -> item.setName(reader.nextString());
+                case "display_name_component", "custom_name_component" -> item.setNameComponent(reader.nextString());
+                case "lore" -> {
+                    List<String> lore = new ArrayList<>();
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        lore.add(reader.nextString());
+                    }
+                    reader.endArray();
+                    item.setLore(lore);
+                }
+                case "enchantments" -> {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        item.addEnchantment(reader.nextName(), reader.nextInt());
+                    }
+                    reader.endObject();
+                }
+                case "damage" -> item.setDamage(reader.nextInt());
+                case "max_damage" -> item.setMaxDamage(reader.nextInt());
+                case "bundle_items" -> readBundle(reader, item, lazyContainers);
+                case "bundle_contents" -> {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        if (reader.nextName().equals("items")) {
+                            readBundle(reader, item, lazyContainers);
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                }
+                case "container" -> {
+                    if (lazyContainers) {
+                        item.setPendingContainer(CommonItemSerializer.readItemJson(reader));
+                    } else {
+                        readContainer(reader, item, false);
+                    }
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private static void readBundle(JsonReader reader, ItemRecord item, boolean lazyContainers) throws IOException {
+        if (lazyContainers) {
+            item.setPendingBundle(CommonItemSerializer.readItemJson(reader));
+            return;
+        }
+        for (ItemRecord bundleItem : readBundleItems(reader, false)) {
+            item.addBundleItem(bundleItem);
+        }
+    }
+
+    /**
+     * 讀取束包物品陣列，內層界伏盒依目前的延遲設定處理
+     */
+    public static List<ItemRecord> readBundleItems(JsonReader reader) throws IOException {
+        return readBundleItems(reader, CommonItemSerializer.isLazyContainers());
+    }
+
+    private static List<ItemRecord> readBundleItems(JsonReader reader, boolean lazyContainers) throws IOException {
+        List<ItemRecord> items = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            ItemRecord bundleItem = read(reader, lazyContainers);
+            if (bundleItem != null) {
+                items.add(bundleItem);
+            }
+        }
+        reader.endArray();
+        return items;
+    }
+
+    /**
+     * 讀取容器內容 {"size": n, "items": {...}} 並設定到物品上
+     * 內層界伏盒依目前的延遲設定處理，無效的槽位會被略過
+     */
+    public static void readContainer(JsonReader reader, ItemRecord item) throws IOException {
+        readContainer(reader, item, CommonItemSerializer.isLazyContainers());
+    }
+
+    private static void readContainer(JsonReader reader, ItemRecord item, boolean lazyContainers) throws IOException {
+        int size = 27;
+        Map<Integer, ItemRecord> items = new TreeMap<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "size" -> size = reader.nextInt();
+                case "items" -> {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        String key = reader.nextName();
+                        int slot;
+                        try {
+                            slot = Integer.parseInt(key);
+                        } catch (NumberFormatException e) {
+                            reader.skipValue();
+                            continue;
+                        }
+                        ItemRecord containerItem = read(reader, lazyContainers);
+                        if (slot >= 0 && containerItem != null) {
+                            items.put(slot, containerItem);
+                        }
+                    }
+                    reader.endObject();
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        item.setContainer(size);
+        items.forEach(item::setContainerItem);
+    }
+
+    /**
+     * 以指定格式將物品轉為 JSON 字串
+     */
+    public static String toJson(ItemRecord item, Dialect dialect) {
+        try {
+            return JsonStreams.write(writer -> write(item, writer, dialect));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 以指定格式寫出物品，內層物品使用相同格式
+     */
+    public static void write(ItemRecord item, JsonWriter writer, Dialect dialect) throws IOException {
+        if (item == null) {
+            writer.nullValue();
+            return;
+        }
+        if (dialect == Dialect.PAPER) {
+            writePaper(item, writer);
+        } else {
+            writeFabric(item, writer);
+        }
+    }
+
+    private static void writePaper(ItemRecord item, JsonWriter writer) throws IOException {
+        writer.beginObject();
+        writer.name("material").value(item.getMaterialName());
+        writer.name("amount").value(item.getCount());
+        if (item.getVersion() != null) {
+            writer.name("minecraft_version").value(item.getVersion());
+        }
+        if (item.getDataVersion() != null) {
+            writer.name("data_version").value(item.getDataVersion());
+        }
+
+        if (item.hasProperties()) {
+            writer.name("meta");
+            writer.beginObject();
+            if (item.getCustomModelData() != null) {
+                writer.name("custom_model_data").value(item.getCustomModelData());
+            }
+            if (item.getName() != null) {
+                writer.name("display_name").value(item.getName());
+            }
+            if (item.getNameComponent() != null) {
+                writer.name("display_name_component").value(item.getNameComponent());
+            }
+            writeLore(item, writer);
+            writeEnchantments(item, writer);
+
+            // 束包內容維持字串陣列格式，以便舊版伺服器仍可讀取
+            if (item.getPendingBundle() != null) {
+                writer.name("bundle_items").jsonValue(item.getPendingBundle());
+            } else if (item.hasBundle()) {
+                writer.name("bundle_items");
+                writer.beginArray();
+                for (ItemRecord bundleItem : item.getBundleItems()) {
+                    writer.value(toJson(bundleItem, Dialect.PAPER));
+                }
+                writer.endArray();
+            }
+
+            if (item.getPendingContainer() != null) {
+                writer.name("container").jsonValue(item.getPendingContainer());
+            } else if (item.hasContainer()) {
+                writer.name("container");
+                writer.beginObject();
+                writer.name("size").value(item.getContainerSize());
+                writeContainerItems(item, writer, Dialect.PAPER);
+                writer.endObject();
+            }
+
+            if (item.getDamage() != null) {
+                writer.name("damage").value(item.getDamage());
+            }
+            if (item.getMaxDamage() != null) {
+                writer.name("max_damage").value(item.getMaxDamage());
+            }
+            writer.endObject();
+        }
+        writer.endObject();
+    }
+
+    private static void writeFabric(ItemRecord item, JsonWriter writer) throws IOException {
+        writer.beginObject();
+        writer.name("id").value(item.getId());
+        writer.name("count").value(item.getCount());
+
+        if (item.hasProperties()) {
+            writer.name("components");
+            writer.beginObject();
+
+            if (item.getPendingBundle() != null || item.hasBundle()) {
+                writer.name("bundle_contents");
+                writer.beginObject();
+                writer.name("items");
+                if (item.getPendingBundle() != null) {
+                    writer.jsonValue(item.getPendingBundle());
+                } else {
+                    writer.beginArray();
+                    for (ItemRecord bundleItem : item.getBundleItems()) {
+                        writeFabric(bundleItem, writer);
+                    }
+                    writer.endArray();
+                }
+                writer.endObject();
+            }
+
+            if (item.getPendingContainer() != null) {
+                writer.name("container").jsonValue(item.getPendingContainer());
+            } else if (item.hasContainer()) {
+                writer.name("container");
+                writer.beginObject();
+                writeContainerItems(item, writer, Dialect.FABRIC);
+                writer.name("size").value(item.getContainerSize());
+                writer.endObject();
+            }
+
+            if (item.getDamage() != null) {
+                writer.name("damage").value(item.getDamage());
+            }
+            if (item.getMaxDamage() != null) {
+                writer.name("max_damage").value(item.getMaxDamage());
+            }
+            if (item.getName() != null) {
+                writer.name("custom_name").value(item.getName());
+            }
+            if (item.getNameComponent() != null) {
+                writer.name("custom_name_component").value(item.getNameComponent());
+            }
+            writeLore(item, writer);
+            if (item.getCustomModelData() != null) {
+                writer.name("custom_model_data").value(item.getCustomModelData());
+            }
+            writeEnchantments(item, writer);
+            writer.endObject();
+        }
+        writer.endObject();
+    }
+
+    private static void writeContainerItems(ItemRecord item, JsonWriter writer, Dialect dialect) throws IOException {
+        writer.name("items");
+        writer.beginObject();
+        for (Map.Entry<Integer, ItemRecord> entry : item.getContainerItems().entrySet()) {
+            writer.name(String.valueOf(entry.getKey()));
+            write(entry.getValue(), writer, dialect);
+        }
+        writer.endObject();
+    }
+
+    private static void writeLore(ItemRecord item, JsonWriter writer) throws IOException {
+        if (item.getLore() == null) {
+            return;
+        }
+        writer.name("lore");
+        writer.beginArray();
+        for (String line : item.getLore()) {
+            writer.value(line);
+        }
+        writer.endArray();
+    }
+
+    private static void writeEnchantments(ItemRecord item, JsonWriter writer) throws IOException {
+        if (item.getEnchantments() == null) {
+            return;
+        }
+        writer.name("enchantments");
+        writer.beginObject();
+        for (Map.Entry<String, Integer> entry : item.getEnchantments().entrySet()) {
+            writer.name(entry.getKey()).value(entry.getValue());
+        }
+        writer.endObject();
+    }
+}
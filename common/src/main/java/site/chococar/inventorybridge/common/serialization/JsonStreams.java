@@ -0,0 +1,176 @@
+package site.chococar.inventorybridge.common.serialization;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+
+/**
+ * JSON 串流工具
+ * 在 JsonReader 與 JsonWriter 之間直接複製標記，不建立中間樹狀結構
+ */
+public final class JsonStreams {
+    /**
+     * 超過此容量的緩衝區不保留，避免單次大型背包長期佔用記憶體
+     */
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<BuilderWriter> BUFFERS = ThreadLocal.withInitial(BuilderWriter::new);
+
+    private JsonStreams() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * 以執行緒專用的緩衝區產生 JSON 字串
+     * 緩衝區在同一執行緒的呼叫之間重複使用；巢狀呼叫時改用新的緩衝區
+     */
+    public static String write(JsonBody body) throws IOException {
+        BuilderWriter buffer = BUFFERS.get();
+        if (buffer.inUse) {
+            BuilderWriter nested = new BuilderWriter();
+            nested.inUse = true;
+            return writeTo(nested, body);
+        }
+
+        buffer.inUse = true;
+        try {
+            return writeTo(buffer, body);
+        } finally {
+            buffer.inUse = false;
+            if (buffer.builder.capacity() > MAX_RETAINED_CAPACITY) {
+                BUFFERS.remove();
+            }
+        }
+    }
+
+    private static String writeTo(BuilderWriter buffer, JsonBody body) throws IOException {
+        buffer.builder.setLength(0);
+        JsonWriter writer = new JsonWriter(buffer);
+        body.write(writer);
+        writer.flush();
+        return buffer.builder.toString();
+    }
+
+    /**
+     * 將原始 JSON 字串的內容寫入目標寫入器
+     */
+    public static void copy(String json, JsonWriter out) throws IOException {
+        JsonReader in = new JsonReader(new StringReader(json));
+        copy(in, out);
+    }
+
+    /**
+     * 從讀取器複製下一個完整的值到寫入器
+     */
+    public static void copy(JsonReader in, JsonWriter out) throws IOException {
+        int depth = 0;
+        do {
+            switch (in.peek()) {
+                case BEGIN_ARRAY -> {
+                    in.beginArray();
+                    out.beginArray();
+                    depth++;
+                }
+                case END_ARRAY -> {
+                    in.endArray();
+                    out.endArray();
+                    depth--;
+                }
+                case BEGIN_OBJECT -> {
+                    in.beginObject();
+                    out.beginObject();
+                    depth++;
+                }
+                case END_OBJECT -> {
+                    in.endObject();
+                    out.endObject();
+                    depth--;
+                }
+                case NAME -> out.name(in.nextName());
+                case STRING -> out.value(in.nextString());
+                case NUMBER -> writeNumber(in.nextString(), out);
+                case BOOLEAN -> out.value(in.nextBoolean());
+                case NULL -> {
+                    in.nextNull();
+                    out.nullValue();
+                }
+                default -> throw new IOException("Unexpected JSON token: " + in.peek());
+            }
+        } while (depth > 0);
+    }
+
+    /**
+     * 以整數優先的方式寫入數字字面值
+     */
+    static void writeNumber(String literal, JsonWriter out) throws IOException {
+        if (isIntegral(literal)) {
+            try {
+                out.value(Long.parseLong(literal));
+                return;
+            } catch (NumberFormatException e) {
+                // 超出 long 範圍，改用浮點數
+            }
+        }
+        out.value(Double.parseDouble(literal));
+    }
+
+    private static boolean isIntegral(String literal) {
+        for (int i = 0; i < literal.length(); i++) {
+            char c = literal.charAt(i);
+            if ((c < '0' || c > '9') && !(i == 0 && c == '-')) {
+                return false;
+            }
+        }
+        return !literal.isEmpty();
+    }
+
+    /**
+     * 寫入 JSON 內容的回呼
+     */
+    @FunctionalInterface
+    public interface JsonBody {
+        void write(JsonWriter writer) throws IOException;
+    }
+
+    /**
+     * 直接寫入 StringBuilder 的 Writer，不像 StringWriter 需要同步
+     */
+    private static final class BuilderWriter extends Writer {
+        private final StringBuilder builder = new StringBuilder(1024);
+        private boolean inUse;
+
+        @Override
+        public void write(int c) {
+            builder.append((char) c);
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            builder.append(buffer, offset, length);
+        }
+
+        @Override
+        public void write(String value, int offset, int length) {
+            builder.append(value, offset, offset + length);
+        }
+
+        @Override
+        public Writer append(CharSequence value) {
+            builder.append(value);
+            return this;
+        }
+
+        @Override
+        public void flush() {
+            // 資料直接寫入記憶體，無需刷新
+        }
+
+        @Override
+        public void close() {
+            // 緩衝區由執行緒重複使用，不關閉
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package site.chococar.inventorybridge.common.serialization;
+
+import site.chococar.inventorybridge.common.environment.ServerEnvironment;
+
+import java.util.Base64;
+
+/**
+ * 平台原生物品位元組的背包編碼器
+ * 物品由平台自行序列化（Paper 的 ItemStack.serializeAsBytes 或 Fabric 的 NBT），此處只負責加上長度前綴與來源標記。
+ * 只有相同平台且資料版本相容的伺服器才能讀取，其他情況必須改用 JSON 格式
+ *
+ * <pre>
+ * 'I' 'N' 版本
+ * 字串 平台 | varint 背包大小 | 字串 minecraft_version | varint data_version
+ * 版本 1（逐槽位）：varint 位圖長度 | 位圖 | 每個佔用槽位一筆 varint 長度 | 原生位元組
+ * 版本 2（整個背包）：varint 長度 | 原生位元組
+ * </pre>
+ */
+public final class NativeInventoryCodec {
+    /**
+     * 負載存放於文字欄位時使用的前綴
+     */
+    public static final String PREFIX = "IBN1:";
+
+    static final int FORMAT_SLOTS = 1;
+    static final int FORMAT_INVENTORY = 2;
+
+    private NativeInventoryCodec() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * 檢查負載是否為原生格式
+     */
+    public static boolean isNativePayload(String data) {
+        return data != null && data.startsWith(PREFIX);
+    }
+
+    /**
+     * 以目前平台的原生格式編碼背包並包裝為可存入文字欄位的字串
+     *
+     * @return 負載，任一物品無法以原生格式序列化時返回 null
+     */
+    public static String encodeToString(int size, String version, int dataVersion, CommonItemSerializer.ItemStackProvider[] items) {
+        byte[][] encoded = new byte[items.length][];
+        for (int i = 0; i < items.length; i++) {
+            if (items[i] != null && !items[i].isEmpty()) {
+                encoded[i] = items[i].toNativeBytes();
+                if (encoded[i] == null) {
+                    return null;
+                }
+            }
+        }
+        ServerEnvironment.Platform platform = ServerEnvironment.current().platform();
+        return PREFIX + Base64.getEncoder().encodeToString(encode(platform, size, version, dataVersion, encoded));
+    }
+
+    /**
+     * 編碼各槽位的原生位元組，null 代表空槽位
+     */
+    public static byte[] encode(ServerEnvironment.Platform platform, int size, String version, int dataVersion, byte[][] items) {
+        int bodyLength = 0;
+        byte[] bitmap = new byte[(items.length + 7) >>> 3];
+        for (int i = 0; i < items.length; i++) {
+            if (items[i] != null) {
+                bodyLength += items[i].length + 5;
+                bitmap[i >>> 3] |= (byte) (1 << (i & 7));
+            }
+        }
+
+        BinaryInventoryCodec.Output out = new BinaryInventoryCodec.Output(bodyLength + bitmap.length + 64);
+        out.writeByte('I');
+        out.writeByte('N');
+        writeHeader(out, FORMAT_SLOTS, platform, size, version, dataVersion);
+        out.writeVarInt(bitmap.length);
+        out.writeBytes(bitmap, 0, bitmap.length);
+        for (byte[] item : items) {
+            if (item != null) {
+                out.writeVarInt(item.length);
+                out.writeBytes(item, 0, item.length);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 將平台一次序列化的整個背包包裝為可存入文字欄位的字串
+     */
+    public static String encodeInventoryToString(int size, String version, int dataVersion, byte[] inventory) {
+        BinaryInventoryCodec.Output out = new BinaryInventoryCodec.Output(inventory.length + 64);
+        out.writeByte('I');
+        out.writeByte('N');
+        writeHeader(out, FORMAT_INVENTORY, ServerEnvironment.current().platform(), size, version, dataVersion);
+        out.writeVarInt(inventory.length);
+        out.writeBytes(inventory, 0, inventory.length);
+        return PREFIX + Base64.getEncoder().encodeToString(out.toByteArray());
+    }
+
+    private static void writeHeader(BinaryInventoryCodec.Output out, int format, ServerEnvironment.Platform platform,
+                                    int size, String version, int dataVersion) {
+        out.writeByte(format);
+        out.writeString(platform.name());
+        out.writeVarInt(size);
+        out.writeString(version);
+        out.writeVarLong(BinaryInventoryCodec.zigzag(dataVersion));
+    }
+
+    /**
+     * 解碼負載並將原生位元組交給平台背包
+     *
+     * @throws IllegalStateException 背包無法讀取此平台或資料版本的原生位元組時
+     */
+    public static void decode(String data, CommonItemSerializer.InventoryProvider inventory) {
+        BinaryInventoryCodec.Input in = new BinaryInventoryCodec.Input(unwrap(data));
+        Header header = readHeader(in);
+        if (!inventory.acceptsNative(header.platform(), header.dataVersion())) {
+            throw new IllegalStateException("Native payload written by " + header.platform()
+                + " (data version " + header.dataVersion() + ") cannot be read here; use payloadFormat json");
+        }
+
+        try {
+            if (header.format() == FORMAT_INVENTORY) {
+                inventory.readNativeInventory(in.readBytes(in.readVarInt()));
+                return;
+            }
+            byte[] bitmap = in.readBytes(in.readVarInt());
+            int slotCount = bitmap.length << 3;
+            for (int slot = 0; slot < slotCount; slot++) {
+                if ((bitmap[slot >>> 3] & (1 << (slot & 7))) == 0) {
+                    continue;
+                }
+                byte[] item = in.readBytes(in.readVarInt());
+                if (slot < inventory.size()) {
+                    inventory.readNative(slot, item);
+                }
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to deserialize native inventory", e);
+        }
+    }
+
+    /**
+     * 僅讀取標頭中的背包大小
+     */
+    public static int readSize(String data) {
+        return readHeader(new BinaryInventoryCodec.Input(unwrap(data))).size();
+    }
+
+    /**
+     * 讀取寫入此負載的平台與資料版本
+     */
+    public static Header readHeader(String data) {
+        return readHeader(new BinaryInventoryCodec.Input(unwrap(data)));
+    }
+
+    private static byte[] unwrap(String data) {
+        if (!isNativePayload(data)) {
+            throw new IllegalArgumentException("Not a native inventory payload");
+        }
+        return Base64.getDecoder().decode(data.substring(PREFIX.length()));
+    }
+
+    private static Header readHeader(BinaryInventoryCodec.Input in) {
+        if (in.readByte() != 'I' || in.readByte() != 'N') {
+            throw new IllegalArgumentException("Invalid native inventory magic");
+        }
+        int format = in.readByte();
+        if (format != FORMAT_SLOTS && format != FORMAT_INVENTORY) {
+            throw new IllegalArgumentException("Unsupported native inventory version: " + format);
+        }
+        ServerEnvironment.Platform platform;
+        try {
+            platform = ServerEnvironment.Platform.valueOf(in.readString());
+        } catch (IllegalArgumentException e) {
+            platform = ServerEnvironment.Platform.UNKNOWN;
+        }
+        int size = in.readVarInt();
+        String version = in.readString();
+        int dataVersion = (int) BinaryInventoryCodec.unzigzag(in.readVarLong());
+        return new Header(format, platform, size, version, dataVersion);
+    }
+
+    /**
+     * 原生負載的標頭
+     */
+    public record Header(int format, ServerEnvironment.Platform platform, int size, String minecraftVersion, int dataVersion) {
+    }
+}
@@ -1,40 +1,92 @@
 package site.chococar.inventorybridge.common.sync;
 
+import site.chococar.inventorybridge.common.adapter.CapturedInventory;
+import site.chococar.inventorybridge.common.adapter.DecodedInventory;
 import site.chococar.inventorybridge.common.adapter.PlayerAdapter;
 import site.chococar.inventorybridge.common.config.ConfigurationManager;
 import site.chococar.inventorybridge.common.database.CommonDatabaseManager;
+import site.chococar.inventorybridge.common.database.ContentHash;
 import site.chococar.inventorybridge.common.database.InventoryDataRecord;
+import site.chococar.inventorybridge.common.database.InventoryFingerprint;
+import site.chococar.inventorybridge.common.environment.ServerEnvironment;
+import site.chococar.inventorybridge.common.serialization.InventoryPatch;
+import site.chococar.inventorybridge.common.serialization.NativeInventoryCodec;
 
+import java.sql.Timestamp;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * 通用背包同步管理器基類
  * 包含平台無關的同步邏輯
  */
 public abstract class BaseInventorySyncManager<T extends PlayerAdapter> {
+    /**
+     * 預載結果保留的最長時間，超過時視為玩家沒有加入
+     */
+    private static final long PREFETCH_EXPIRY_MILLIS = 60_000;
+    
     protected final CommonDatabaseManager databaseManager;
     protected final ConfigurationManager config;
     protected final Map<UUID, Long> lastSyncTimes = new ConcurrentHashMap<>();
     protected final Map<UUID, Boolean> syncInProgress = new ConcurrentHashMap<>();
+    protected final Map<UUID, CompletableFuture<Void>> autoSaves = new ConcurrentHashMap<>();
+    protected final Map<UUID, DeltaSnapshot> deltaSnapshots = new ConcurrentHashMap<>();
+    protected final InventoryRecordCache recordCache = new InventoryRecordCache();
+    protected final Map<UUID, Prefetch<T>> prefetches = new ConcurrentHashMap<>();
     protected volatile boolean hasScannedPlayerFiles = false;
     
     public BaseInventorySyncManager(CommonDatabaseManager databaseManager, ConfigurationManager config) {
         this.databaseManager = databaseManager;
         this.config = config;
+        this.recordCache.setMaxBytes(config.getInt("sync.recordCacheMegabytes", 0) * 1024L * 1024L);
     }
     
     /**
-     * 玩家加入時的同步邏輯
+     * 玩家登入階段預先查詢並解碼背包，加入時只剩套用
+     * 在登入執行緒呼叫，查詢與解碼交給背景執行緒
      */
-    public void onPlayerJoin(T player) {
-        if (!config.getBoolean("sync.syncOnJoin", true)) {
+    public void prefetch(UUID playerUuid) {
+        if (!config.getBoolean("sync.syncOnJoin", true) || !config.getBoolean("sync.prefetchOnLogin", false)) {
             return;
         }
         
+        long now = System.currentTimeMillis();
+        prefetches.values().removeIf(prefetch -> now - prefetch.startedAt() > PREFETCH_EXPIRY_MILLIS);
+        
+        String serverId = getServerId();
+        CompletableFuture<Prefetched<T>> result = CompletableFuture.supplyAsync(() -> {
+            InventoryDataRecord data = loadRecord(playerUuid, serverId);
+            return new Prefetched<>(data, data != null ? prepareInventory(data) : null);
+        });
+        prefetches.put(playerUuid, new Prefetch<>(result, now));
+    }
+    
+    /**
+     * 登入被拒絕時丟棄預載結果
+     */
+    public void cancelPrefetch(UUID playerUuid) {
+        prefetches.remove(playerUuid);
+    }
+    
+    /**
+     * 玩家加入時的同步邏輯，不阻塞呼叫端執行緒
+     * 預載完成後在背景執行緒解碼並排程到玩家所屬的執行緒套用；
+     * 預載最多等待 sync.prefetchTimeout 毫秒，逾時或失敗時改為直接查詢
+     */
+    public void onPlayerJoin(T player) {
         UUID playerUuid = player.getUniqueId();
+        Prefetch<T> prefetch = prefetches.remove(playerUuid);
+        
+        if (!config.getBoolean("sync.syncOnJoin", true)) {
+            return;
+        }
         
         if (syncInProgress.getOrDefault(playerUuid, false)) {
             return;
@@ -42,15 +94,25 @@ public abstract class BaseInventorySyncManager<T extends PlayerAdapter> {
         
         syncInProgress.put(playerUuid, true);
         
-        CompletableFuture.runAsync(() -> {
+        // 預載開始後本伺服器又保存過該玩家時，預載的內容可能已過期
+        if (prefetch != null && lastSyncTimes.getOrDefault(playerUuid, 0L) >= prefetch.startedAt()) {
+            prefetch = null;
+        }
+        
+        CompletableFuture<Void> load = prefetch != null
+                ? loadPrefetched(player, prefetch)
+                : CompletableFuture.runAsync(() -> loadPlayerInventory(player));
+        load.whenComplete((ignored, error) -> {
             try {
-                loadPlayerInventory(player);
-                databaseManager.logSync(playerUuid, getServerId(), "JOIN", "SUCCESS", null);
-                getLogger().info(String.format("成功載入玩家 %s 的背包", player.getName()));
-            } catch (Exception e) {
-                databaseManager.logSync(playerUuid, getServerId(), "JOIN", "FAILED", e.getMessage());
-                getLogger().severe(String.format("載入玩家 %s 的背包失敗", player.getName()));
-                logError("載入玩家背包失敗", e);
+                if (error == null) {
+                    databaseManager.logSync(playerUuid, getServerId(), "JOIN", "SUCCESS", null);
+                    getLogger().info(String.format("成功載入玩家 %s 的背包", player.getName()));
+                } else {
+                    Exception cause = unwrap(error);
+                    databaseManager.logSync(playerUuid, getServerId(), "JOIN", "FAILED", cause.getMessage());
+                    getLogger().severe(String.format("載入玩家 %s 的背包失敗", player.getName()));
+                    logError("載入玩家背包失敗", cause);
+                }
             } finally {
                 syncInProgress.put(playerUuid, false);
                 lastSyncTimes.put(playerUuid, System.currentTimeMillis());
@@ -58,8 +120,69 @@ public abstract class BaseInventorySyncManager<T extends PlayerAdapter> {
         });
     }
     
+    /**
+     * 預載完成後套用並確認資料列未被變更，逾時、失敗或套用失敗時改為直接查詢
+     */
+    private CompletableFuture<Void> loadPrefetched(T player, Prefetch<T> prefetch) {
+        return prefetch.result()
+                .completeOnTimeout(null, config.getInt("sync.prefetchTimeout", 3000), TimeUnit.MILLISECONDS)
+                .exceptionally(error -> null)
+                .thenComposeAsync(fetched -> {
+                    if (fetched == null) {
+                        getLogger().warning(String.format("玩家 %s 的背包預載逾時或失敗，改為直接載入", player.getName()));
+                        loadPlayerInventory(player);
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    return applyPrefetched(player, fetched).handleAsync((ignored, error) -> {
+                        if (error != null) {
+                            logError("套用預載的背包失敗", unwrap(error));
+                            loadPlayerInventory(player);
+                        } else {
+                            revalidatePrefetched(player, fetched);
+                        }
+                        return null;
+                    });
+                });
+    }
+    
+    private static Exception unwrap(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof Exception exception ? exception : new CompletionException(cause);
+    }
+    
+    /**
+     * 在呼叫端的背景執行緒完成解碼，只將套用排程到玩家所屬的執行緒
+     */
+    private CompletableFuture<Void> applyPrefetched(T player, Prefetched<T> fetched) {
+        deltaSnapshots.remove(player.getUniqueId());
+        if (fetched.data() == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        try {
+            LoadedInventory loaded = fetched.prepared() != null
+                    ? fetched.prepared().apply(player) : decodeInventory(player, fetched.data());
+            return runOnPlayerThread(player, () -> applyInventory(player, loaded));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
+    /**
+     * 確認預載後沒有其他伺服器寫入，例如切換伺服器時來源伺服器在登入後才完成離開保存
+     * 資料列已變更時重新載入，預載與確認時都沒有資料列則不需要重新載入
+     */
+    private void revalidatePrefetched(T player, Prefetched<T> applied) {
+        InventoryFingerprint current = databaseManager.loadFingerprint(player.getUniqueId(), getServerId());
+        if (applied.data() == null ? current == null : InventoryFingerprint.of(applied.data()).matches(current)) {
+            return;
+        }
+        loadPlayerInventory(player);
+    }
+    
     /**
      * 玩家離開時的同步邏輯
+     * 進行中的自動保存不會讓離開保存被略過，離開保存排在其後寫入
      */
     public void onPlayerLeave(T player) {
         if (!config.getBoolean("sync.syncOnLeave", true)) {
@@ -68,15 +191,23 @@ public abstract class BaseInventorySyncManager<T extends PlayerAdapter> {
         
         UUID playerUuid = player.getUniqueId();
         
+        // 載入尚未套用時保存會以舊內容覆蓋資料庫
         if (syncInProgress.getOrDefault(playerUuid, false)) {
             return;
         }
         
         syncInProgress.put(playerUuid, true);
         
-        CompletableFuture.runAsync(() -> {
+        // 在玩家所屬的執行緒擷取狀態，編碼與寫入交給背景執行緒
+        CompletableFuture<PlayerSnapshot> snapshot = captureOnPlayerThread(player);
+        CompletableFuture<Void> autoSave = autoSaves.getOrDefault(playerUuid, CompletableFuture.completedFuture(null));
+        autoSave.handle((ignored, error) -> null).thenRunAsync(() -> {
             try {
-                savePlayerInventory(player);
+                savePlayerSnapshot(playerUuid, snapshot.join(), false);
+                // 玩家可能正在前往其他伺服器，延遲寫入必須立即完成
+                if (!databaseManager.flush(playerUuid)) {
+                    throw new IllegalStateException("寫入延遲保存失敗，保存留在佇列中稍後重試");
+                }
                 databaseManager.logSync(playerUuid, getServerId(), "LEAVE", "SUCCESS", null);
                 getLogger().info(String.format("成功保存玩家 %s 的背包", player.getName()));
             } catch (Exception e) {
@@ -103,10 +234,14 @@ public abstract class BaseInventorySyncManager<T extends PlayerAdapter> {
         
         syncInProgress.put(playerUuid, true);
         
+        CompletableFuture<PlayerSnapshot> snapshot = save ? captureOnPlayerThread(player) : null;
         CompletableFuture.runAsync(() -> {
             try {
                 if (save) {
-                    savePlayerInventory(player);
+                    savePlayerSnapshot(playerUuid, snapshot.join(), false);
+                    if (!databaseManager.flush(playerUuid)) {
+                        throw new IllegalStateException("寫入延遲保存失敗，保存留在佇列中稍後重試");
+                    }
                 } else {
                     loadPlayerInventory(player);
                 }
@@ -126,30 +261,111 @@ public abstract class BaseInventorySyncManager<T extends PlayerAdapter> {
     }
     
     /**
-     * 保存玩家背包
+     * 定期自動保存邏輯
+     * 啟用差異保存時只寫入變更的槽位；不佔用 syncInProgress，離開保存會等待其完成
      */
-    protected void savePlayerInventory(T player) {
-        String serverId = getServerId();
+    public void autoSave(T player) {
+        UUID playerUuid = player.getUniqueId();
         
-        // 序列化主背包
-        String inventoryData = player.getInventory().serialize();
+        if (syncInProgress.getOrDefault(playerUuid, false)) {
+            return;
+        }
         
-        // 序列化終界箱（如果啟用）
-        String enderChestData = null;
-        if (config.getBoolean("sync.syncEnderChest", true)) {
-            enderChestData = player.getEnderChest().serialize();
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        if (autoSaves.putIfAbsent(playerUuid, done) != null) {
+            return;
         }
         
+        CompletableFuture<PlayerSnapshot> snapshot = captureOnPlayerThread(player);
+        CompletableFuture.runAsync(() -> {
+            try {
+                savePlayerSnapshot(playerUuid, snapshot.join(), true);
+                databaseManager.logSync(playerUuid, getServerId(), "AUTO", "SUCCESS", null);
+            } catch (Exception e) {
+                databaseManager.logSync(playerUuid, getServerId(), "AUTO", "FAILED", e.getMessage());
+                getLogger().severe(String.format("自動保存玩家 %s 的背包失敗", player.getName()));
+                logError("自動保存玩家背包失敗", e);
+            } finally {
+                lastSyncTimes.put(playerUuid, System.currentTimeMillis());
+                autoSaves.remove(playerUuid, done);
+                done.complete(null);
+            }
+        });
+    }
+    
+    /**
+     * 保存玩家背包（完整快照）
+     */
+    protected void savePlayerInventory(T player) {
+        savePlayerInventory(player, false);
+    }
+    
+    /**
+     * 保存玩家背包
+     * 在玩家所屬的執行緒擷取狀態後於呼叫端執行緒編碼並寫入
+     */
+    protected void savePlayerInventory(T player, boolean allowDelta) {
+        savePlayerSnapshot(player.getUniqueId(), captureOnPlayerThread(player).join(), allowDelta);
+    }
+    
+    /**
+     * 在玩家所屬的執行緒擷取狀態，已在該執行緒上時直接擷取
+     */
+    protected CompletableFuture<PlayerSnapshot> captureOnPlayerThread(T player) {
+        return callOnPlayerThread(player, () -> capturePlayerState(player));
+    }
+    
+    /**
+     * 擷取背包內容與玩家數值，必須在玩家所屬的執行緒呼叫
+     * 只複製物品與數值，不進行編碼
+     */
+    protected PlayerSnapshot capturePlayerState(T player) {
+        CapturedInventory inventory = player.getInventory().capture();
+        CapturedInventory enderChest = config.getBoolean("sync.syncEnderChest", true)
+                ? player.getEnderChest().capture() : null;
+        
         // 獲取經驗數據
-        int experience = config.getBoolean("sync.syncExperience", true) ? player.getTotalExperience() : 0;
-        int experienceLevel = config.getBoolean("sync.syncExperience", true) ? player.getLevel() : 0;
+        boolean syncExperience = config.getBoolean("sync.syncExperience", true);
+        int experience = syncExperience ? player.getTotalExperience() : 0;
+        int experienceLevel = syncExperience ? player.getLevel() : 0;
         
         // 獲取生命值和飢餓值數據
         double health = config.getBoolean("sync.syncHealth", false) ? player.getHealth() : 20.0;
         int hunger = config.getBoolean("sync.syncHunger", false) ? player.getFoodLevel() : 20;
         
-        databaseManager.saveInventory(
-                player.getUniqueId(),
+        return new PlayerSnapshot(inventory, enderChest, experience, experienceLevel, health, hunger);
+    }
+    
+    /**
+     * 編碼並保存擷取的狀態，可在任意執行緒呼叫
+     * allowDelta 為 true 且已有本次工作階段的完整快照時，只寫入相對快照變更的槽位；
+     * 累積 sync.deltaCompactAfter 次差異後改寫完整快照
+     */
+    protected void savePlayerSnapshot(UUID playerUuid, PlayerSnapshot snapshot, boolean allowDelta) {
+        String serverId = getServerId();
+        
+        String inventoryData = snapshot.inventory().encode();
+        String enderChestData = snapshot.enderChest() != null ? snapshot.enderChest().encode() : null;
+        int experience = snapshot.experience();
+        int experienceLevel = snapshot.experienceLevel();
+        double health = snapshot.health();
+        int hunger = snapshot.hunger();
+        
+        // 原生負載無法展開為槽位，一律完整保存
+        boolean deltaEnabled = config.getBoolean("sync.deltaSaves", false)
+                && !NativeInventoryCodec.isNativePayload(inventoryData)
+                && !NativeInventoryCodec.isNativePayload(enderChestData);
+        if (allowDelta && deltaEnabled
+                && saveDelta(playerUuid, serverId, inventoryData, enderChestData, experience, experienceLevel, health, hunger)) {
+            // 差異保存寫入完整內容的雜湊，快取的完整快照仍可由指紋確認
+            recordCache.put(playerUuid, new InventoryDataRecord(inventoryData, enderChestData, experience,
+                    experienceLevel, health, hunger, getCurrentVersion(), getCurrentDataVersion(),
+                    new Timestamp(System.currentTimeMillis())));
+            return;
+        }
+        
+        boolean saved = databaseManager.saveInventory(
+                playerUuid,
                 serverId,
                 inventoryData,
                 enderChestData,
@@ -160,29 +376,115 @@ public abstract class BaseInventorySyncManager<T extends PlayerAdapter> {
                 getCurrentVersion(),
                 getCurrentDataVersion()
         );
+        if (!saved) {
+            // 資料列不是這份快照，不能作為差異的基準或快取內容
+            deltaSnapshots.remove(playerUuid);
+            recordCache.invalidate(playerUuid);
+            throw new IllegalStateException("保存背包資料失敗");
+        }
+        recordCache.put(playerUuid, new InventoryDataRecord(inventoryData, enderChestData, experience, experienceLevel,
+                health, hunger, getCurrentVersion(), getCurrentDataVersion(), new Timestamp(System.currentTimeMillis())));
+        
+        // 記錄完整快照作為之後差異的基準；離開伺服器時不再需要
+        if (deltaEnabled && allowDelta) {
+            deltaSnapshots.put(playerUuid, new DeltaSnapshot(
+                InventoryPatch.slots(inventoryData), InventoryPatch.slots(enderChestData)));
+        } else {
+            deltaSnapshots.remove(playerUuid);
+        }
+    }
+    
+    /**
+     * 嘗試以差異方式保存，需要完整保存時返回 false
+     */
+    private boolean saveDelta(UUID playerUuid, String serverId, String inventoryData, String enderChestData,
+                              int experience, int experienceLevel, double health, int hunger) {
+        DeltaSnapshot snapshot = deltaSnapshots.get(playerUuid);
+        if (snapshot == null || snapshot.patchCount() >= config.getInt("sync.deltaCompactAfter", 10)) {
+            return false;
+        }
+        
+        String inventoryPatch = InventoryPatch.diff(snapshot.inventory(), InventoryPatch.slots(inventoryData));
+        String enderChestPatch = enderChestData == null ? null
+                : InventoryPatch.diff(snapshot.enderChest(), InventoryPatch.slots(enderChestData));
+        
+        if (!databaseManager.saveInventoryPatch(playerUuid, serverId, inventoryPatch, enderChestPatch,
+                ContentHash.hash(inventoryData), ContentHash.hash(enderChestData),
+                experience, experienceLevel, health, hunger)) {
+            return false;
+        }
+        
+        deltaSnapshots.put(playerUuid, snapshot.withPatchCount(snapshot.patchCount() + 1));
+        return true;
     }
     
     /**
      * 載入玩家背包
+     * 主背包與終界箱在背景執行緒平行解碼，完成後於玩家所屬的伺服器執行緒一次套用
      */
     protected void loadPlayerInventory(T player) {
         String serverId = getServerId();
         
-        InventoryDataRecord data = databaseManager.loadInventory(player.getUniqueId(), serverId);
+        // 載入後的狀態未必等於本伺服器的資料列，下次保存必須是完整快照
+        deltaSnapshots.remove(player.getUniqueId());
+        
+        InventoryDataRecord data = loadRecord(player.getUniqueId(), serverId);
         
         if (data == null) {
             getLogger().info(String.format("未找到玩家 %s 的保存背包", player.getName()));
             return;
         }
         
+        LoadedInventory loaded = decodeInventory(player, data);
+        runOnPlayerThread(player, () -> applyInventory(player, loaded)).join();
+    }
+    
+    /**
+     * 快取中的記錄與資料庫中的資料列相同時直接使用，否則從資料庫載入
+     */
+    private InventoryDataRecord loadRecord(UUID playerUuid, String serverId) {
+        InventoryDataRecord cached = recordCache.get(playerUuid,
+                () -> databaseManager.loadFingerprint(playerUuid, serverId));
+        if (cached != null) {
+            return cached;
+        }
+        return databaseManager.loadInventory(playerUuid, serverId);
+    }
+    
+    /**
+     * 在玩家實體建立前解碼背包內容，返回的函式於加入時將結果綁定到玩家
+     * 平台應覆寫此方法在預載的背景執行緒完成解碼；預設返回 null，改在加入後解碼
+     */
+    protected Function<T, LoadedInventory> prepareInventory(InventoryDataRecord data) {
+        return null;
+    }
+    
+    /**
+     * 解碼資料列中的背包內容，不修改玩家狀態
+     * 終界箱交給共用執行緒池與主背包同時解碼
+     */
+    protected LoadedInventory decodeInventory(T player, InventoryDataRecord data) {
+        CompletableFuture<DecodedInventory> enderChest = null;
+        if (config.getBoolean("sync.syncEnderChest", true) && data.enderChestData() != null) {
+            enderChest = CompletableFuture.supplyAsync(() -> player.getEnderChest().decode(data.enderChestData()));
+        }
+        
+        DecodedInventory inventory = player.getInventory().decode(data.inventoryData());
+        return new LoadedInventory(inventory, enderChest != null ? enderChest.join() : null, data);
+    }
+    
+    /**
+     * 將解碼完成的背包與狀態套用到玩家，於玩家所屬的伺服器執行緒呼叫
+     */
+    protected void applyInventory(T player, LoadedInventory loaded) {
+        InventoryDataRecord data = loaded.data();
+        
         // 載入主背包
-        player.getInventory().clear();
-        player.getInventory().deserialize(data.inventoryData());
+        loaded.inventory().apply();
         
         // 載入終界箱（如果啟用且數據存在）
-        if (config.getBoolean("sync.syncEnderChest", true) && data.enderChestData() != null) {
-            player.getEnderChest().clear();
-            player.getEnderChest().deserialize(data.enderChestData());
+        if (loaded.enderChest() != null) {
+            loaded.enderChest().apply();
         }
         
         // 載入經驗（如果啟用）
@@ -204,11 +506,40 @@ public abstract class BaseInventorySyncManager<T extends PlayerAdapter> {
         player.updateInventory();
     }
     
+    /**
+     * 在擁有該玩家的伺服器執行緒上執行工作
+     */
+    protected CompletableFuture<Void> runOnPlayerThread(T player, Runnable task) {
+        return callOnPlayerThread(player, () -> {
+            task.run();
+            return null;
+        });
+    }
+    
+    /**
+     * 在擁有該玩家的伺服器執行緒上執行工作並取得結果
+     * 平台應覆寫此方法排程到主執行緒或區域執行緒；預設實作直接在呼叫端執行
+     */
+    protected <R> CompletableFuture<R> callOnPlayerThread(T player, Supplier<R> task) {
+        try {
+            return CompletableFuture.completedFuture(task.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
     /**
      * 檢查同步是否正在進行
      */
     public boolean isSyncInProgress(UUID playerUuid) {
-        return syncInProgress.getOrDefault(playerUuid, false);
+        return syncInProgress.getOrDefault(playerUuid, false) || autoSaves.containsKey(playerUuid);
+    }
+    
+    /**
+     * 玩家背包記錄快取，供狀態指令顯示統計
+     */
+    public InventoryRecordCache getRecordCache() {
+        return recordCache;
     }
     
     /**
@@ -218,13 +549,63 @@ public abstract class BaseInventorySyncManager<T extends PlayerAdapter> {
         return lastSyncTimes.getOrDefault(playerUuid, 0L);
     }
     
+    /**
+     * 目前伺服器的 Minecraft 版本，取自啟動時解析的環境描述
+     */
+    protected String getCurrentVersion() {
+        return ServerEnvironment.current().minecraftVersion();
+    }
+    
+    /**
+     * 目前伺服器的資料版本，取自啟動時解析的環境描述
+     */
+    protected int getCurrentDataVersion() {
+        return ServerEnvironment.current().dataVersion();
+    }
+    
     // 抽象方法，由子類實現
     protected abstract String getServerId();
-    protected abstract String getCurrentVersion();
-    protected abstract int getCurrentDataVersion();
     protected abstract Logger getLogger();
     protected abstract void logError(String message, Exception e);
     
+    /**
+     * 差異保存的基準快照
+     */
+    protected record DeltaSnapshot(Map<Integer, String> inventory, Map<Integer, String> enderChest, int patchCount) {
+        DeltaSnapshot(Map<Integer, String> inventory, Map<Integer, String> enderChest) {
+            this(inventory, enderChest, 0);
+        }
+        
+        DeltaSnapshot withPatchCount(int count) {
+            return new DeltaSnapshot(inventory, enderChest, count);
+        }
+    }
+    
+    /**
+     * 在玩家所屬執行緒擷取、尚未編碼的玩家狀態
+     */
+    protected record PlayerSnapshot(CapturedInventory inventory, CapturedInventory enderChest,
+                                    int experience, int experienceLevel, double health, int hunger) {
+    }
+    
+    /**
+     * 已解碼、尚未套用的玩家背包
+     */
+    protected record LoadedInventory(DecodedInventory inventory, DecodedInventory enderChest, InventoryDataRecord data) {
+    }
+    
+    /**
+     * 預載的資料列與平台預先解碼的結果，玩家沒有資料時 data 為 null
+     */
+    protected record Prefetched<P>(InventoryDataRecord data, Function<P, LoadedInventory> prepared) {
+    }
+    
+    /**
+     * 登入階段開始的預載
+     */
+    protected record Prefetch<P>(CompletableFuture<Prefetched<P>> result, long startedAt) {
+    }
+    
     /**
      * 通用的日誌介面，避免平台依賴
      */
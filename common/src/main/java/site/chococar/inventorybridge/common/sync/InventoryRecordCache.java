@@ -0,0 +1,167 @@
+package site.chococar.inventorybridge.common.sync;
+
+import site.chococar.inventorybridge.common.database.InventoryDataRecord;
+import site.chococar.inventorybridge.common.database.InventoryFingerprint;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 依位元組數設定上限的玩家背包記錄 LRU 快取
+ * 保存每位玩家最後一次完整保存的記錄，使用前先以資料庫中資料列的指紋確認內容未被其他伺服器變更
+ */
+public final class InventoryRecordCache {
+    /** 每筆項目除負載外的估計大小 */
+    private static final long ENTRY_OVERHEAD = 160;
+
+    private final Map<UUID, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private long maxBytes;
+    private long residentBytes;
+
+    /**
+     * 設定容量上限，0 代表停用並清空快取
+     */
+    public void setMaxBytes(long maxBytes) {
+        synchronized (entries) {
+            this.maxBytes = Math.max(0, maxBytes);
+            evictOverflow();
+        }
+    }
+
+    public boolean isEnabled() {
+        synchronized (entries) {
+            return maxBytes > 0;
+        }
+    }
+
+    /**
+     * 記錄剛寫入資料庫的完整保存，超過單筆上限的記錄不快取
+     */
+    public void put(UUID playerUuid, InventoryDataRecord record) {
+        Entry entry = new Entry(record, InventoryFingerprint.of(record), estimateBytes(record));
+        synchronized (entries) {
+            if (maxBytes <= 0) {
+                return;
+            }
+            Entry previous = entries.remove(playerUuid);
+            if (previous != null) {
+                residentBytes -= previous.bytes();
+            }
+            if (entry.bytes() > maxBytes) {
+                return;
+            }
+            entries.put(playerUuid, entry);
+            residentBytes += entry.bytes();
+            evictOverflow();
+        }
+    }
+
+    /**
+     * 取得快取的記錄，指紋與資料庫中的資料列不同時移除並返回 null
+     * 指紋在鎖外查詢，只有快取中有該玩家時才會查詢
+     *
+     * @param current 查詢資料庫中資料列的指紋
+     */
+    public InventoryDataRecord get(UUID playerUuid, Supplier<InventoryFingerprint> current) {
+        Entry entry;
+        synchronized (entries) {
+            if (maxBytes <= 0) {
+                return null;
+            }
+            entry = entries.get(playerUuid);
+        }
+        if (entry != null && entry.fingerprint().matches(current.get())) {
+            hits.incrementAndGet();
+            return entry.record();
+        }
+
+        misses.incrementAndGet();
+        if (entry != null) {
+            synchronized (entries) {
+                if (entries.remove(playerUuid, entry)) {
+                    residentBytes -= entry.bytes();
+                }
+            }
+        }
+        return null;
+    }
+
+    public void invalidate(UUID playerUuid) {
+        synchronized (entries) {
+            Entry removed = entries.remove(playerUuid);
+            if (removed != null) {
+                residentBytes -= removed.bytes();
+            }
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (residentBytes > maxBytes && iterator.hasNext()) {
+            residentBytes -= iterator.next().bytes();
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * 估計記錄佔用的記憶體，字串以每字元兩位元組計算
+     */
+    static long estimateBytes(InventoryDataRecord record) {
+        return ENTRY_OVERHEAD + 2L * (length(record.inventoryData()) + length(record.enderChestData())
+            + length(record.minecraftVersion()));
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * 命中率，尚無查詢時為 0
+     */
+    public double getHitRate() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    public long getResidentBytes() {
+        synchronized (entries) {
+            return residentBytes;
+        }
+    }
+
+    public long getMaxBytes() {
+        synchronized (entries) {
+            return maxBytes;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private record Entry(InventoryDataRecord record, InventoryFingerprint fingerprint, long bytes) {
+    }
+}
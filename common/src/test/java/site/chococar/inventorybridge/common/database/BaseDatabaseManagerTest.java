@@ -0,0 +1,319 @@
+package site.chococar.inventorybridge.common.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import site.chococar.inventorybridge.common.config.ConfigurationManager;
+import site.chococar.inventorybridge.common.serialization.InventoryPatch;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BaseDatabaseManager 的測試單元
+ * 使用 MySQL 相容模式的 H2 內存數據庫執行與平台相同的 SQL
+ */
+class BaseDatabaseManagerTest {
+    
+    private static final String URL = "jdbc:h2:mem:base_manager;DB_CLOSE_DELAY=-1";
+    private static final String INVENTORY = "{\"size\":41,\"items\":{\"0\":{\"id\":\"minecraft:stone\",\"count\":1}}}";
+    
+    private BaseDatabaseManager manager;
+    private UUID playerId;
+    
+    @BeforeEach
+    void setUp() {
+        manager = new BaseDatabaseManager(new TestConfigManager()) {
+        };
+        manager.initialize();
+        playerId = UUID.randomUUID();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        manager.close();
+    }
+    
+    @Test
+    @DisplayName("測試以 H2 初始化不進入待機模式")
+    void testInitializeWithH2() {
+        assertFalse(manager.isStandbyMode(), manager.getLastConnectionError());
+    }
+    
+    @Test
+    @DisplayName("測試保存後載入相同內容")
+    void testSaveAndLoad() {
+        manager.saveInventory(playerId, "serverA", INVENTORY, null, 100, 10, 18.0, 17, "1.21.4", 4189);
+        
+        InventoryDataRecord record = manager.loadInventory(playerId, "serverA");
+        assertNotNull(record);
+        assertEquals(INVENTORY, record.inventoryData());
+        assertNull(record.enderChestData());
+        assertEquals(100, record.experience());
+        assertEquals(17, record.hunger());
+        assertTrue(manager.hasInventory(playerId, "serverA"));
+        assertFalse(manager.hasInventory(playerId, "serverB"));
+    }
+    
+    @Test
+    @DisplayName("測試其他伺服器沒有資料時載入最新的資料列")
+    void testCrossServerLoad() {
+        manager.saveInventory(playerId, "serverA", INVENTORY, null, 5, 1, 20.0, 20, "1.21.4", 4189);
+        
+        InventoryDataRecord record = manager.loadInventory(playerId, "serverB");
+        assertNotNull(record);
+        assertEquals(5, record.experience());
+    }
+    
+    @Test
+    @DisplayName("測試其他伺服器較新的資料優先於當前伺服器的資料")
+    void testNewerCrossServerRowPreferred() throws InterruptedException {
+        manager.saveInventory(playerId, "serverA", INVENTORY, null, 1, 0, 20.0, 20, "1.21.4", 4189);
+        Thread.sleep(10);
+        manager.saveInventory(playerId, "serverB", INVENTORY, null, 2, 0, 20.0, 20, "1.21.4", 4189);
+        
+        assertEquals(2, manager.loadInventory(playerId, "serverA").experience());
+        
+        // 回到 serverA 保存後又以 serverA 的資料為準
+        Thread.sleep(10);
+        manager.saveInventory(playerId, "serverA", INVENTORY, null, 3, 0, 20.0, 20, "1.21.4", 4189);
+        assertEquals(3, manager.loadInventory(playerId, "serverB").experience());
+    }
+    
+    @Test
+    @DisplayName("測試當前伺服器沒有資料時載入其他伺服器最新的資料")
+    void testLatestCrossServerRow() throws InterruptedException {
+        manager.saveInventory(playerId, "serverA", INVENTORY, null, 1, 0, 20.0, 20, "1.21.4", 4189);
+        Thread.sleep(10);
+        manager.saveInventory(playerId, "serverB", INVENTORY, null, 2, 0, 20.0, 20, "1.21.4", 4189);
+        
+        assertEquals(2, manager.loadInventory(playerId, "serverC").experience());
+        assertNull(manager.loadInventory(UUID.randomUUID(), "serverA"));
+    }
+    
+    @Test
+    @DisplayName("測試差異保存需要既有資料列")
+    void testPatchRequiresRow() {
+        assertFalse(manager.saveInventoryPatch(playerId, "serverA", "{}", null, 0, 0, 0, 0, 20.0, 20));
+        
+        manager.saveInventory(playerId, "serverA", INVENTORY, null, 0, 0, 20.0, 20, "1.21.4", 4189);
+        assertTrue(manager.saveInventoryPatch(playerId, "serverA", "{}", null,
+            ContentHash.hash(INVENTORY), ContentHash.NULL_HASH, 7, 1, 20.0, 20));
+        assertEquals(7, manager.loadInventory(playerId, "serverA").experience());
+    }
+
+    @Test
+    @DisplayName("測試差異後的完整保存成為下一次差異的基準")
+    void testFullSaveAfterPatchRewritesRow() {
+        String withDirt = "{\"size\":41,\"items\":{\"0\":{\"id\":\"minecraft:stone\",\"count\":1},"
+            + "\"1\":{\"id\":\"minecraft:dirt\",\"count\":1}}}";
+        String changed = "{\"size\":41,\"items\":{\"0\":{\"id\":\"minecraft:stone\",\"count\":2},"
+            + "\"1\":{\"id\":\"minecraft:dirt\",\"count\":1}}}";
+        manager.saveInventory(playerId, "serverA", INVENTORY, null, 0, 0, 20.0, 20, "1.21.4", 4189);
+        
+        String firstPatch = InventoryPatch.diff(InventoryPatch.slots(INVENTORY), InventoryPatch.slots(withDirt));
+        assertTrue(manager.saveInventoryPatch(playerId, "serverA", firstPatch, null,
+            ContentHash.hash(withDirt), ContentHash.NULL_HASH, 0, 0, 20.0, 20));
+        
+        // 內容與差異後的雜湊相同，仍必須重寫完整快照
+        manager.saveInventory(playerId, "serverA", withDirt, null, 0, 0, 20.0, 20, "1.21.4", 4189);
+        
+        String secondPatch = InventoryPatch.diff(InventoryPatch.slots(withDirt), InventoryPatch.slots(changed));
+        assertTrue(manager.saveInventoryPatch(playerId, "serverA", secondPatch, null,
+            ContentHash.hash(changed), ContentHash.NULL_HASH, 0, 0, 20.0, 20));
+        
+        InventoryDataRecord record = manager.loadInventory(playerId, "serverA");
+        assertEquals(InventoryPatch.slots(changed), InventoryPatch.slots(record.inventoryData()));
+    }
+    
+    @Test
+    @DisplayName("測試一次載入伺服器的玩家列表")
+    void testLoadPlayerKeys() {
+        UUID other = UUID.randomUUID();
+        manager.saveInventory(playerId, "serverA", INVENTORY, null, 0, 0, 20.0, 20, "1.21.4", 4189);
+        manager.saveInventory(other, "serverB", INVENTORY, null, 0, 0, 20.0, 20, "1.21.4", 4189);
+        
+        PlayerKeySet keys = manager.loadPlayerKeys("serverA");
+        assertNotNull(keys);
+        assertTrue(keys.contains(playerId));
+        assertFalse(keys.contains(other));
+    }
+    
+    @Test
+    @DisplayName("測試匯入玩家檔案時不覆蓋既有的資料列")
+    void testImportKeepsExistingRow() {
+        assertTrue(manager.importInventory(playerId, "serverA", INVENTORY, null, 1, 0, 20.0, 20, "1.21.4", 4189));
+        assertEquals(1, manager.loadInventory(playerId, "serverA").experience());
+        
+        manager.saveInventory(playerId, "serverA", INVENTORY, null, 2, 0, 20.0, 20, "1.21.4", 4189);
+        assertFalse(manager.importInventory(playerId, "serverA", INVENTORY, null, 3, 0, 20.0, 20, "1.21.4", 4189));
+        assertEquals(2, manager.loadInventory(playerId, "serverA").experience());
+        assertFalse(manager.hasPendingSave(playerId, "serverA"));
+    }
+    
+    @Test
+    @DisplayName("測試資料列指紋與保存的記錄相同")
+    void testLoadFingerprint() {
+        assertNull(manager.loadFingerprint(playerId, "serverA"));
+
+        manager.saveInventory(playerId, "serverA", INVENTORY, null, 5, 1, 18.5, 20, "1.21.4", 4189);
+        InventoryFingerprint fingerprint = manager.loadFingerprint(playerId, "serverA");
+        assertNotNull(fingerprint);
+        assertTrue(fingerprint.matches(InventoryFingerprint.of(manager.loadInventory(playerId, "serverA"))));
+
+        // 差異保存寫入套用差異後完整內容的雜湊
+        String updated = "{\"size\":41,\"items\":{\"0\":{\"id\":\"minecraft:stone\",\"count\":2}}}";
+        assertTrue(manager.saveInventoryPatch(playerId, "serverA", "{}", null,
+            ContentHash.hash(updated), ContentHash.NULL_HASH, 7, 1, 20.0, 20));
+        InventoryFingerprint patched = manager.loadFingerprint(playerId, "serverA");
+        assertTrue(patched.matches(InventoryFingerprint.of(
+            new InventoryDataRecord(updated, null, 7, 1, 20.0, 20, "1.21.4", 4189, null))));
+        assertFalse(patched.matches(fingerprint));
+    }
+
+    @Test
+    @DisplayName("測試合併提交時每位玩家的保存都寫入")
+    void testGroupCommitSavesEveryPlayer() {
+        manager.close();
+        manager = new BaseDatabaseManager(new TestConfigManager(16)) {
+        };
+        manager.initialize();
+        
+        List<UUID> players = IntStream.range(0, 40).mapToObj(i -> UUID.randomUUID()).toList();
+        CompletableFuture.allOf(players.stream()
+            .map(player -> CompletableFuture.runAsync(() ->
+                manager.saveInventory(player, "serverA", INVENTORY, null, 3, 1, 20.0, 20, "1.21.4", 4189)))
+            .toArray(CompletableFuture[]::new)).join();
+        
+        for (UUID player : players) {
+            InventoryDataRecord record = manager.loadInventory(player, "serverA");
+            assertNotNull(record);
+            assertEquals(INVENTORY, record.inventoryData());
+        }
+    }
+    
+    @Test
+    @DisplayName("測試關閉時寫入緩衝的同步日誌")
+    void testSyncLogFlushedOnClose() throws Exception {
+        manager.logSync(playerId, "serverA", "JOIN", "SUCCESS", null);
+        manager.logSync(playerId, "serverA", "LEAVE", "FAILED", "timeout");
+        manager.close();
+        
+        try (Connection conn = DriverManager.getConnection(URL, "sa", "");
+             PreparedStatement stmt = conn.prepareStatement(
+                 "SELECT COUNT(*) FROM base_sync_log WHERE player_key = ?")) {
+            stmt.setBytes(1, UuidBytes.toBytes(playerId));
+            try (ResultSet rs = stmt.executeQuery()) {
+                assertTrue(rs.next());
+                assertEquals(2, rs.getInt(1));
+            }
+        }
+    }
+    
+    @Test
+    @DisplayName("測試容器內容只寫入一次且停用後回收")
+    void testContainerBlobsWrittenOnceAndCollected() throws Exception {
+        StringBuilder contents = new StringBuilder();
+        for (int i = 0; i < 12; i++) {
+            contents.append(i > 0 ? "," : "").append('"').append(i).append("\":{\"id\":\"minecraft:diamond\",\"count\":64}");
+        }
+        String inventory = "{\"size\":41,\"items\":{\"0\":{\"id\":\"minecraft:shulker_box\",\"count\":1,"
+            + "\"components\":{\"container\":{\"size\":27,\"items\":{" + contents + "}}}}}}";
+        
+        ContainerBlobStore.setEnabled(true);
+        try {
+            manager.saveInventory(playerId, "serverA", inventory, null, 1, 1, 20.0, 20, "1.21.4", 4189);
+            assertEquals(1, count("SELECT COUNT(*) FROM base_container_blobs"));
+            assertEquals(1, countRefs());
+            
+            // 已存在的內容不再重寫
+            execute("UPDATE base_container_blobs SET last_referenced = TIMESTAMP '2000-01-01 00:00:00'");
+            manager.saveInventory(playerId, "serverA", inventory, null, 2, 1, 20.0, 20, "1.21.4", 4189);
+            assertEquals(1, count("SELECT COUNT(*) FROM base_container_blobs WHERE last_referenced < TIMESTAMP '2001-01-01 00:00:00'"));
+            assertEquals(1, countRefs());
+        } finally {
+            ContainerBlobStore.setEnabled(false);
+        }
+        
+        // 停用後以內嵌方式保存，舊參照移除且內容可被回收
+        manager.saveInventory(playerId, "serverA", inventory, null, 3, 1, 20.0, 20, "1.21.4", 4189);
+        assertEquals(0, countRefs());
+        assertEquals(1, new ContainerBlobStore(manager.databaseConnection).collectGarbage());
+        
+        InventoryDataRecord record = manager.loadInventory(playerId, "serverA");
+        assertEquals(inventory, record.inventoryData());
+    }
+    
+    private int countRefs() throws Exception {
+        try (Connection conn = DriverManager.getConnection(URL, "sa", "");
+             PreparedStatement stmt = conn.prepareStatement(
+                 "SELECT COUNT(*) FROM base_container_blob_refs WHERE player_key = ?")) {
+            stmt.setBytes(1, UuidBytes.toBytes(playerId));
+            try (ResultSet rs = stmt.executeQuery()) {
+                assertTrue(rs.next());
+                return rs.getInt(1);
+            }
+        }
+    }
+    
+    private static int count(String sql) throws Exception {
+        try (Connection conn = DriverManager.getConnection(URL, "sa", "");
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            assertTrue(rs.next());
+            return rs.getInt(1);
+        }
+    }
+    
+    private static void execute(String sql) throws Exception {
+        try (Connection conn = DriverManager.getConnection(URL, "sa", "");
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.executeUpdate();
+        }
+    }
+    
+    // 測試用的配置管理器
+    private static class TestConfigManager extends ConfigurationManager {
+        private final int groupCommitMaxBatch;
+        
+        TestConfigManager() {
+            this(1);
+        }
+        
+        TestConfigManager(int groupCommitMaxBatch) {
+            super(null);
+            this.groupCommitMaxBatch = groupCommitMaxBatch;
+        }
+        
+        @Override
+        public String getString(String key, String defaultValue) {
+            return switch (key) {
+                case "database.type" -> "h2";
+                case "database.host" -> URL;
+                case "database.username" -> "sa";
+                case "database.password" -> "";
+                case "database.tablePrefix" -> "base_";
+                default -> defaultValue;
+            };
+        }
+        
+        @Override
+        public int getInt(String key, int defaultValue) {
+            return "sync.groupCommitMaxBatch".equals(key) ? groupCommitMaxBatch : defaultValue;
+        }
+        
+        @Override
+        public boolean getBoolean(String key, boolean defaultValue) {
+            return defaultValue;
+        }
+    }
+}
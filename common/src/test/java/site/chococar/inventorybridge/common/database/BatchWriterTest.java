@@ -0,0 +1,146 @@
+package site.chococar.inventorybridge.common.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BatchWriter 的測試單元
+ */
+class BatchWriterTest {
+
+    private final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+    private final BatchWriter<Integer> writer = new BatchWriter<>("test-batch-writer",
+        batch -> batches.add(new ArrayList<>(batch)));
+
+    @AfterEach
+    void tearDown() {
+        writer.close();
+    }
+
+    @Test
+    @DisplayName("測試停用時立即寫入")
+    void testDisabledWritesInline() {
+        assertTrue(writer.submit(1));
+
+        assertFalse(writer.isEnabled());
+        assertEquals(List.of(List.of(1)), batches);
+    }
+
+    @Test
+    @DisplayName("測試等待期間的項目合併為一批")
+    void testLingerCollectsBatch() {
+        writer.configure(true, 10_000, 5, 100, BatchWriter.OverflowPolicy.DROP);
+        for (int i = 0; i < 5; i++) {
+            writer.submit(i);
+        }
+        writer.close();
+
+        assertEquals(List.of(List.of(0, 1, 2, 3, 4)), batches);
+    }
+
+    @Test
+    @DisplayName("測試關閉時寫入緩衝區中的項目")
+    void testCloseFlushesBuffer() {
+        writer.configure(true, 10_000, 100, 100, BatchWriter.OverflowPolicy.DROP);
+        writer.submit(1);
+        writer.submit(2);
+        writer.close();
+
+        assertEquals(2, batches.stream().mapToInt(List::size).sum());
+        assertFalse(writer.isEnabled());
+    }
+
+    @Test
+    @DisplayName("測試緩衝區已滿時丟棄新項目")
+    void testDropPolicy() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        BatchWriter<Integer> blocked = blockedWriter(release, BatchWriter.OverflowPolicy.DROP);
+
+        // 背景執行緒取走第一筆後卡住，緩衝區容量為 2
+        assertTrue(blocked.submit(0));
+        waitUntilTaken(blocked);
+        assertTrue(blocked.submit(1));
+        assertTrue(blocked.submit(2));
+        assertFalse(blocked.submit(3));
+        assertEquals(1, blocked.takeDropped());
+
+        release.countDown();
+        blocked.close();
+        assertEquals(List.of(0, 1, 2), batches.stream().flatMap(List::stream).toList());
+    }
+
+    @Test
+    @DisplayName("測試取樣策略以新項目取代最舊的項目")
+    void testSamplePolicy() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        BatchWriter<Integer> blocked = blockedWriter(release, BatchWriter.OverflowPolicy.SAMPLE);
+
+        blocked.submit(0);
+        waitUntilTaken(blocked);
+        blocked.submit(1);
+        blocked.submit(2);
+        for (int i = 3; i < 3 + BatchWriter.SAMPLE_RATE; i++) {
+            blocked.submit(i);
+        }
+
+        release.countDown();
+        blocked.close();
+        List<Integer> written = batches.stream().flatMap(List::stream).toList();
+        assertEquals(List.of(0, 2, 2 + BatchWriter.SAMPLE_RATE), written);
+    }
+
+    @Test
+    @DisplayName("測試阻塞策略等待緩衝區有空間")
+    void testBlockPolicy() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        BatchWriter<Integer> blocked = blockedWriter(release, BatchWriter.OverflowPolicy.BLOCK);
+
+        blocked.submit(0);
+        waitUntilTaken(blocked);
+        blocked.submit(1);
+        blocked.submit(2);
+        Thread producer = new Thread(() -> blocked.submit(3));
+        producer.start();
+        producer.join(200);
+        assertTrue(producer.isAlive());
+
+        release.countDown();
+        producer.join(5000);
+        assertFalse(producer.isAlive());
+        blocked.close();
+        assertEquals(List.of(0, 1, 2, 3), batches.stream().flatMap(List::stream).toList());
+    }
+
+    /**
+     * 每批一筆、容量為 2，且第一批寫入會等待 release 的寫入器
+     */
+    private BatchWriter<Integer> blockedWriter(CountDownLatch release, BatchWriter.OverflowPolicy overflow) {
+        BatchWriter<Integer> blocked = new BatchWriter<>("test-blocked-writer", batch -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            batches.add(new ArrayList<>(batch));
+        });
+        blocked.configure(true, 0, 1, 2, overflow);
+        return blocked;
+    }
+
+    private static void waitUntilTaken(BatchWriter<Integer> blocked) throws InterruptedException {
+        // 第一筆被背景執行緒取走後才能確定緩衝區狀態
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (blocked.bufferedCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
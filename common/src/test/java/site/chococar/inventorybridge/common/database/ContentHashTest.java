@@ -0,0 +1,72 @@
+package site.chococar.inventorybridge.common.database;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ContentHash 與 PersistedStateCache 的測試單元
+ */
+class ContentHashTest {
+
+    @Test
+    @DisplayName("測試 XXH64 參考值")
+    void testReferenceVectors() {
+        assertEquals(0xEF46DB3751D8E999L, ContentHash.xxh64(new byte[0], 0));
+        assertEquals(0xD24EC4F1A98C6E5BL, ContentHash.xxh64("a".getBytes(StandardCharsets.UTF_8), 0));
+        assertEquals(0x44BC2CF5AD770999L, ContentHash.xxh64("abc".getBytes(StandardCharsets.UTF_8), 0));
+        assertEquals(0xFBCEA83C8A378BF1L,
+            ContentHash.xxh64("Nobody inspects the spammish repetition".getBytes(StandardCharsets.UTF_8), 0));
+    }
+
+    @Test
+    @DisplayName("測試負載雜湊")
+    void testPayloadHash() {
+        String payload = "{\"size\":41,\"items\":{\"0\":{\"material\":\"STONE\",\"amount\":64}}}";
+        assertEquals(ContentHash.hash(payload), ContentHash.hash(new String(payload)));
+        assertNotEquals(ContentHash.hash(payload), ContentHash.hash(payload.replace("64", "63")));
+        assertEquals(ContentHash.NULL_HASH, ContentHash.hash(null));
+    }
+
+    @Test
+    @DisplayName("測試狀態雜湊包含玩家狀態")
+    void testStateHash() {
+        long base = ContentHash.stateHash(1, 2, 100, 5, 20.0, 20, "1.21.4", 4189);
+        assertEquals(base, ContentHash.stateHash(1, 2, 100, 5, 20.0, 20, "1.21.4", 4189));
+        assertNotEquals(base, ContentHash.stateHash(2, 1, 100, 5, 20.0, 20, "1.21.4", 4189));
+        assertNotEquals(base, ContentHash.stateHash(1, 2, 101, 5, 20.0, 20, "1.21.4", 4189));
+        assertNotEquals(base, ContentHash.stateHash(1, 2, 100, 5, 19.5, 20, "1.21.4", 4189));
+        assertNotEquals(base, ContentHash.stateHash(1, 2, 100, 5, 20.0, 20, "1.21.5", 4189));
+    }
+
+    @Test
+    @DisplayName("測試保存狀態紀錄")
+    void testPersistedStateCache() {
+        PersistedStateCache cache = new PersistedStateCache(2);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+
+        // 沒有紀錄時交由資料庫確認
+        assertTrue(cache.mayBeUnchanged(first, "server1", 42));
+
+        cache.record(first, "server1", 42);
+        assertTrue(cache.mayBeUnchanged(first, "server1", 42));
+        assertFalse(cache.mayBeUnchanged(first, "server1", 43));
+        assertTrue(cache.mayBeUnchanged(first, "server2", 43));
+
+        cache.invalidate(first, "server1");
+        assertTrue(cache.mayBeUnchanged(first, "server1", 43));
+
+        // 超過容量時移除最久未使用的紀錄
+        cache.record(first, "server1", 1);
+        cache.record(second, "server1", 2);
+        cache.record(third, "server1", 3);
+        assertTrue(cache.mayBeUnchanged(first, "server1", 99));
+        assertFalse(cache.mayBeUnchanged(third, "server1", 99));
+    }
+}
@@ -0,0 +1,162 @@
+package site.chococar.inventorybridge.common.database;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import site.chococar.inventorybridge.common.environment.ServerEnvironment;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PayloadCompression 的測試單元
+ */
+class PayloadCompressionTest {
+
+    private static final String[] ITEMS = {"diamond_sword", "stone", "golden_apple", "torch", "oak_log", "ender_pearl"};
+
+    private static String versionFields() {
+        ServerEnvironment environment = ServerEnvironment.current();
+        return "\"minecraft_version\":\"" + environment.minecraftVersion() + "\",\"data_version\":" + environment.dataVersion();
+    }
+
+    /**
+     * Paper 格式：大寫材質名稱並於每個物品寫入版本
+     */
+    private static String samplePayload() {
+        StringBuilder items = new StringBuilder();
+        for (int i = 0; i < 36; i++) {
+            if (i > 0) {
+                items.append(',');
+            }
+            items.append('"').append(i).append("\":{\"material\":\"").append(ITEMS[i % ITEMS.length].toUpperCase())
+                .append("\",\"amount\":").append(1 + i % 64).append(',').append(versionFields()).append('}');
+        }
+        return "{\"size\":41," + versionFields() + ",\"items\":{" + items + "}}";
+    }
+
+    /**
+     * Fabric 格式：命名空間ID
+     */
+    private static String sampleFabricPayload() {
+        StringBuilder items = new StringBuilder();
+        for (int i = 0; i < 36; i++) {
+            if (i > 0) {
+                items.append(',');
+            }
+            items.append('"').append(i).append("\":{\"id\":\"minecraft:").append(ITEMS[i % ITEMS.length])
+                .append("\",\"count\":").append(1 + i % 64).append('}');
+        }
+        return "{\"size\":41," + versionFields() + ",\"items\":{" + items + "}}";
+    }
+
+    @Test
+    @DisplayName("測試各壓縮方式往返")
+    void testRoundTrip() {
+        for (String payload : new String[] {samplePayload() + "中文名稱", sampleFabricPayload(), "IBB1:AAECAw=="}) {
+            for (PayloadCompression.Mode mode : PayloadCompression.Mode.values()) {
+                byte[] encoded = PayloadCompression.encode(payload, mode);
+                assertEquals(payload, PayloadCompression.decode(encoded), mode.name());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("測試標頭位元組")
+    void testHeaderByte() {
+        String payload = samplePayload();
+        assertEquals(PayloadCompression.HEADER_NONE, PayloadCompression.encode(payload, PayloadCompression.Mode.NONE)[0]);
+        assertEquals(PayloadCompression.HEADER_DEFLATE, PayloadCompression.encode(payload, PayloadCompression.Mode.DEFLATE)[0]);
+        byte[] dictionary = PayloadCompression.encode(payload, PayloadCompression.Mode.DICTIONARY);
+        assertEquals(PayloadCompression.HEADER_DEFLATE_DICTIONARY, dictionary[0]);
+        assertEquals(PayloadCompression.DICTIONARY_ID, dictionary[1]);
+
+        // Base64 二進位負載不使用字典
+        assertEquals(PayloadCompression.HEADER_DEFLATE,
+            PayloadCompression.encode("IBB1:AAECAw==", PayloadCompression.Mode.DICTIONARY)[0]);
+    }
+
+    @Test
+    @DisplayName("測試其他版本寫入的字典負載")
+    void testOtherVersionDictionary() {
+        ServerEnvironment original = ServerEnvironment.current();
+        String payload = samplePayload();
+        byte[] encoded;
+        try {
+            ServerEnvironment.initialize(new ServerEnvironment(ServerEnvironment.Platform.PAPER, "1.20.1", 3465));
+            encoded = PayloadCompression.encode(payload, PayloadCompression.Mode.DICTIONARY);
+        } finally {
+            ServerEnvironment.initialize(original);
+        }
+        assertEquals(payload, PayloadCompression.decode(encoded));
+    }
+
+    @Test
+    @DisplayName("測試舊版字典負載仍可讀取")
+    void testLegacyDictionary() {
+        // 以舊版字典 1 壓縮，驗證讀取時仍選用字典 1
+        String payload = samplePayload();
+        Deflater deflater = new Deflater();
+        deflater.setDictionary(PayloadCompression.DICTIONARY_V1);
+        deflater.setInput(payload.getBytes(StandardCharsets.UTF_8));
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(PayloadCompression.HEADER_DEFLATE_DICTIONARY);
+        out.write(PayloadCompression.LEGACY_DICTIONARY_ID);
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+            out.write(buffer, 0, deflater.deflate(buffer));
+        }
+        deflater.end();
+
+        assertEquals(payload, PayloadCompression.decode(out.toByteArray()));
+    }
+
+    @Test
+    @DisplayName("測試壓縮率與預設字典")
+    void testCompressionRatio() {
+        String payload = samplePayload();
+        int raw = PayloadCompression.encode(payload, PayloadCompression.Mode.NONE).length;
+        int deflate = PayloadCompression.encode(payload, PayloadCompression.Mode.DEFLATE).length;
+        int dictionary = PayloadCompression.encode(payload, PayloadCompression.Mode.DICTIONARY).length;
+
+        assertTrue(deflate * 4 < raw, "raw=" + raw + " deflate=" + deflate);
+        assertTrue(dictionary < deflate, "deflate=" + deflate + " dictionary=" + dictionary);
+
+        String fabric = sampleFabricPayload();
+        assertTrue(PayloadCompression.encode(fabric, PayloadCompression.Mode.DICTIONARY).length
+            < PayloadCompression.encode(fabric, PayloadCompression.Mode.DEFLATE).length);
+
+        // 單一小物品最能體現預設字典的效果
+        String small = "{\"material\":\"DIAMOND_SWORD\",\"amount\":1," + versionFields() + "}";
+        assertTrue(PayloadCompression.encode(small, PayloadCompression.Mode.DICTIONARY).length
+            < PayloadCompression.encode(small, PayloadCompression.Mode.DEFLATE).length);
+        String smallFabric = "{\"id\":\"minecraft:diamond_sword\",\"count\":1}";
+        assertTrue(PayloadCompression.encode(smallFabric, PayloadCompression.Mode.DICTIONARY).length
+            < PayloadCompression.encode(smallFabric, PayloadCompression.Mode.DEFLATE).length);
+    }
+
+    @Test
+    @DisplayName("測試無效的壓縮資料")
+    void testInvalidPayload() {
+        assertThrows(IllegalArgumentException.class, () -> PayloadCompression.decode(new byte[0]));
+        assertThrows(IllegalArgumentException.class, () -> PayloadCompression.decode(new byte[] {0x7F, 1, 2}));
+        assertThrows(IllegalArgumentException.class, () -> PayloadCompression.decode(new byte[] {0x02, 0x09, 1, 2}));
+        assertThrows(IllegalArgumentException.class, () -> PayloadCompression.decode(new byte[] {0x02, 0x02, 0, 0, 15, 1, 9, 1}));
+
+        byte[] encoded = PayloadCompression.encode(samplePayload(), PayloadCompression.Mode.DEFLATE);
+        byte[] truncated = java.util.Arrays.copyOf(encoded, encoded.length / 2);
+        assertThrows(IllegalArgumentException.class, () -> PayloadCompression.decode(truncated));
+    }
+
+    @Test
+    @DisplayName("測試配置字串解析")
+    void testModeFromString() {
+        assertEquals(PayloadCompression.Mode.NONE, PayloadCompression.Mode.fromString(null));
+        assertEquals(PayloadCompression.Mode.NONE, PayloadCompression.Mode.fromString("unknown"));
+        assertEquals(PayloadCompression.Mode.DEFLATE, PayloadCompression.Mode.fromString("DEFLATE"));
+        assertEquals(PayloadCompression.Mode.DICTIONARY, PayloadCompression.Mode.fromString("dictionary"));
+    }
+}
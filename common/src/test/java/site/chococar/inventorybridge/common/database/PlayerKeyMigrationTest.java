@@ -0,0 +1,276 @@
+package site.chococar.inventorybridge.common.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import site.chococar.inventorybridge.common.config.ConfigurationManager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 玩家 UUID 遷移為 BINARY(16) 的測試單元
+ * 以直接寫入 player_uuid 的資料列模擬舊版插件
+ */
+class PlayerKeyMigrationTest {
+
+    private static final String URL = "jdbc:h2:mem:player_key_migration;DB_CLOSE_DELAY=-1;MODE=MySQL";
+    private static final String INVENTORY = "{\"size\":41,\"items\":{}}";
+
+    private BaseDatabaseManager manager;
+    private UUID playerId;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(URL, "sa", "")) {
+            conn.createStatement().execute("DROP ALL OBJECTS");
+            createLegacyTables(conn);
+        }
+        manager = createManager(false);
+        playerId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        manager.close();
+    }
+
+    @Test
+    @DisplayName("測試 UUID 與位元組互相轉換")
+    void testUuidBytesRoundTrip() {
+        byte[] bytes = UuidBytes.toBytes(playerId);
+        assertEquals(16, bytes.length);
+        assertEquals(playerId, UuidBytes.fromBytes(bytes));
+        assertEquals(playerId.toString().replace("-", "").substring(0, 2), String.format("%02x", bytes[0]));
+    }
+
+    @Test
+    @DisplayName("測試新建立的資料表只有 player_key")
+    void testFreshTablesKeyOnly() throws SQLException {
+        manager.close();
+        try (Connection conn = DriverManager.getConnection(URL, "sa", "")) {
+            conn.createStatement().execute("DROP ALL OBJECTS");
+        }
+
+        manager = createManager(false);
+        DatabaseConnection connection = manager.getDatabaseConnection();
+        for (String table : new String[] {"inventories", "sync_log", "container_blob_refs"}) {
+            assertFalse(connection.hasColumn(table, "player_uuid"), table);
+            assertFalse(connection.hasLegacyUuidColumn(table), table);
+        }
+        assertFalse(connection.hasIndex("inventories", "unique_player_server"));
+        assertEquals("`player_key` = ?", connection.playerFilter("inventories"));
+
+        manager.saveInventory(playerId, "serverA", INVENTORY, null, 3, 1, 20.0, 20, "1.21.4", 4189);
+        assertEquals(3, manager.loadInventory(playerId, "serverA").experience());
+    }
+
+    @Test
+    @DisplayName("測試保留舊欄位時可讀取舊版插件寫入的資料列")
+    void testDualReadLegacyRow() throws SQLException {
+        insertLegacyRow(playerId, "serverA", 12);
+
+        assertTrue(manager.hasInventory(playerId, "serverA"));
+        assertTrue(manager.loadPlayerKeys("serverA").contains(playerId));
+        assertEquals(12, manager.loadInventory(playerId, "serverA").experience());
+
+        // 保存時經由舊的唯一鍵更新同一列並補上 player_key
+        manager.saveInventory(playerId, "serverA", INVENTORY, null, 20, 2, 20.0, 20, "1.21.4", 4189);
+        assertEquals(1, count("SELECT COUNT(*) FROM km_inventories WHERE player_uuid = '" + playerId + "'"));
+        assertEquals(0, count("SELECT COUNT(*) FROM km_inventories WHERE player_key IS NULL"));
+        assertEquals(20, manager.loadInventory(playerId, "serverA").experience());
+    }
+
+    @Test
+    @DisplayName("測試移除舊欄位後以 player_key 讀寫")
+    void testDropLegacyColumns() throws SQLException {
+        UUID legacyPlayer = UUID.randomUUID();
+        insertLegacyRow(legacyPlayer, "serverA", 7);
+        manager.saveInventory(playerId, "serverA", INVENTORY, null, 3, 1, 20.0, 20, "1.21.4", 4189);
+        manager.close();
+
+        manager = createManager(true);
+        DatabaseConnection connection = manager.getDatabaseConnection();
+        // 補上 player_key 並確認沒有遺漏後移除舊欄位
+        connection.getPlayerKeyMigration().join();
+        for (String table : new String[] {"inventories", "sync_log", "container_blob_refs"}) {
+            assertFalse(connection.hasColumn(table, "player_uuid"), table);
+            assertFalse(connection.hasLegacyUuidColumn(table), table);
+        }
+        assertFalse(connection.hasIndex("inventories", "unique_player_server"));
+        assertTrue(connection.hasIndex("inventories", "unique_player_key_server"));
+
+        assertEquals(7, manager.loadInventory(legacyPlayer, "serverA").experience());
+        assertEquals(3, manager.loadInventory(playerId, "serverB").experience());
+
+        manager.saveInventory(playerId, "serverA", INVENTORY, null, 4, 1, 20.0, 20, "1.21.4", 4189);
+        assertEquals(4, manager.loadInventory(playerId, "serverA").experience());
+        assertTrue(manager.saveInventoryPatch(playerId, "serverA", null, null, 0, 0, 5, 1, 20.0, 20));
+        assertEquals(2, count("SELECT COUNT(*) FROM km_inventories"));
+    }
+
+    @Test
+    @DisplayName("測試預設只補上 player_key 而保留舊欄位")
+    void testLegacyColumnsKeptByDefault() throws SQLException {
+        insertLegacyRow(playerId, "serverA", 7);
+        manager.close();
+
+        manager = createManager(false);
+        DatabaseConnection connection = manager.getDatabaseConnection();
+        connection.getPlayerKeyMigration().join();
+        for (String table : new String[] {"inventories", "sync_log", "container_blob_refs"}) {
+            assertTrue(connection.hasColumn(table, "player_uuid"), table);
+            assertTrue(connection.hasLegacyUuidColumn(table), table);
+        }
+        assertEquals(0, count("SELECT COUNT(*) FROM km_inventories WHERE player_key IS NULL"));
+        assertEquals(7, manager.loadInventory(playerId, "serverA").experience());
+    }
+
+    @Test
+    @DisplayName("測試其他伺服器移除舊欄位後改為只以 player_key 讀寫")
+    void testLegacyColumnDroppedByOtherServer() throws SQLException {
+        insertLegacyRow(playerId, "serverA", 7);
+        manager.getDatabaseConnection().getPlayerKeyMigration().join();
+        DatabaseConnection connection = manager.getDatabaseConnection();
+        assertTrue(connection.hasLegacyUuidColumn("inventories"));
+
+        BaseDatabaseManager other = createManager(true);
+        try {
+            other.getDatabaseConnection().getPlayerKeyMigration().join();
+        } finally {
+            other.close();
+        }
+
+        assertEquals(7, manager.loadInventory(playerId, "serverA").experience());
+        assertFalse(connection.hasLegacyUuidColumn("inventories"));
+        assertTrue(manager.saveInventory(playerId, "serverA", INVENTORY, null, 8, 1, 20.0, 20, "1.21.4", 4189));
+        assertEquals(8, manager.loadInventory(playerId, "serverA").experience());
+    }
+
+    /**
+     * 建立加入 player_key 之前的資料表
+     */
+    private static void createLegacyTables(Connection conn) throws SQLException {
+        conn.createStatement().execute("""
+            CREATE TABLE km_inventories (
+                id INT AUTO_INCREMENT PRIMARY KEY,
+                player_uuid VARCHAR(36) NOT NULL,
+                server_id VARCHAR(64) NOT NULL,
+                inventory_data LONGTEXT,
+                ender_chest_data LONGTEXT,
+                inventory_blob LONGBLOB,
+                ender_chest_blob LONGBLOB,
+                inventory_patch LONGTEXT,
+                ender_chest_patch LONGTEXT,
+                inventory_hash BIGINT,
+                ender_chest_hash BIGINT,
+                experience INT DEFAULT 0,
+                experience_level INT DEFAULT 0,
+                health FLOAT DEFAULT 20.0,
+                hunger INT DEFAULT 20,
+                minecraft_version VARCHAR(16) NOT NULL,
+                data_version INT NOT NULL,
+                last_updated TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+                UNIQUE KEY unique_player_server (player_uuid, server_id),
+                INDEX idx_player_uuid (player_uuid),
+                INDEX idx_last_updated (last_updated)
+            )
+            """);
+        conn.createStatement().execute("""
+            CREATE TABLE km_sync_log (
+                id INT AUTO_INCREMENT PRIMARY KEY,
+                player_uuid VARCHAR(36) NOT NULL,
+                server_id VARCHAR(64) NOT NULL,
+                sync_type ENUM('JOIN', 'LEAVE', 'MANUAL', 'AUTO', 'INITIAL_SYNC') NOT NULL,
+                status ENUM('SUCCESS', 'FAILED', 'PARTIAL') NOT NULL,
+                error_message TEXT,
+                sync_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                INDEX idx_sync_player_uuid (player_uuid),
+                INDEX idx_sync_time (sync_time)
+            )
+            """);
+        conn.createStatement().execute("""
+            CREATE TABLE km_container_blob_refs (
+                player_uuid VARCHAR(36) NOT NULL,
+                server_id VARCHAR(64) NOT NULL,
+                content_hash CHAR(64) NOT NULL,
+                PRIMARY KEY (player_uuid, server_id, content_hash),
+                INDEX idx_content_hash (content_hash)
+            )
+            """);
+    }
+
+    private void insertLegacyRow(UUID player, String serverId, int experience) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(URL, "sa", "");
+             PreparedStatement stmt = conn.prepareStatement("""
+                 INSERT INTO km_inventories (player_uuid, server_id, inventory_data, experience,
+                                             minecraft_version, data_version)
+                 VALUES (?, ?, ?, ?, '1.21.4', 4189)
+                 """)) {
+            stmt.setString(1, player.toString());
+            stmt.setString(2, serverId);
+            stmt.setString(3, INVENTORY);
+            stmt.setInt(4, experience);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static int count(String sql) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(URL, "sa", "");
+             ResultSet rs = conn.createStatement().executeQuery(sql)) {
+            assertTrue(rs.next());
+            return rs.getInt(1);
+        }
+    }
+
+    private static BaseDatabaseManager createManager(boolean dropLegacyColumns) {
+        BaseDatabaseManager created = new BaseDatabaseManager(new TestConfigManager(dropLegacyColumns)) {
+        };
+        created.initialize();
+        assertFalse(created.isStandbyMode(), created.getLastConnectionError());
+        return created;
+    }
+
+    // 測試用的配置管理器
+    private static class TestConfigManager extends ConfigurationManager {
+        private final boolean dropLegacyColumns;
+
+        TestConfigManager(boolean dropLegacyColumns) {
+            super(null);
+            this.dropLegacyColumns = dropLegacyColumns;
+        }
+
+        @Override
+        public String getString(String key, String defaultValue) {
+            return switch (key) {
+                case "database.type" -> "h2";
+                case "database.host" -> URL;
+                case "database.username" -> "sa";
+                case "database.password" -> "";
+                case "database.tablePrefix" -> "km_";
+                default -> defaultValue;
+            };
+        }
+
+        @Override
+        public int getInt(String key, int defaultValue) {
+            return defaultValue;
+        }
+
+        @Override
+        public boolean getBoolean(String key, boolean defaultValue) {
+            return switch (key) {
+                case "database.legacyUuidColumns" -> !dropLegacyColumns;
+                case "database.dropLegacyUuidColumns" -> dropLegacyColumns;
+                default -> defaultValue;
+            };
+        }
+    }
+}
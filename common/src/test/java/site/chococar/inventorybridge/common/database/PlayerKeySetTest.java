@@ -0,0 +1,65 @@
+package site.chococar.inventorybridge.common.database;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PlayerKeySet 的測試單元
+ */
+class PlayerKeySetTest {
+
+    @Test
+    @DisplayName("測試加入與查詢")
+    void testAddAndContains() {
+        PlayerKeySet keys = new PlayerKeySet();
+        UUID player = UUID.randomUUID();
+
+        assertFalse(keys.contains(player));
+        assertTrue(keys.add(player));
+        assertFalse(keys.add(player));
+        assertTrue(keys.contains(player));
+        assertTrue(keys.contains(UUID.fromString(player.toString())));
+        assertEquals(1, keys.size());
+    }
+
+    @Test
+    @DisplayName("測試擴充後仍可查到所有項目")
+    void testGrow() {
+        PlayerKeySet keys = new PlayerKeySet();
+        List<UUID> players = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            UUID player = UUID.randomUUID();
+            players.add(player);
+            keys.add(player);
+        }
+
+        assertEquals(players.size(), keys.size());
+        players.forEach(player -> assertTrue(keys.contains(player)));
+        assertFalse(keys.contains(UUID.randomUUID()));
+    }
+
+    @Test
+    @DisplayName("測試規律的 UUID 與全零 UUID")
+    void testSequentialAndZero() {
+        PlayerKeySet keys = new PlayerKeySet(4);
+        UUID zero = new UUID(0, 0);
+        assertFalse(keys.contains(zero));
+        assertTrue(keys.add(zero));
+        assertTrue(keys.contains(zero));
+
+        for (long i = 1; i <= 1000; i++) {
+            assertTrue(keys.add(new UUID(0, i)));
+            assertTrue(keys.add(new UUID(i, 0)));
+        }
+        assertEquals(2001, keys.size());
+        assertTrue(keys.contains(new UUID(0, 500)));
+        assertTrue(keys.contains(new UUID(500, 0)));
+        assertFalse(keys.contains(new UUID(500, 500)));
+    }
+}
@@ -0,0 +1,195 @@
+package site.chococar.inventorybridge.common.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * WriteBehindQueue 的測試單元
+ */
+class WriteBehindQueueTest {
+
+    private final List<WriteBehindQueue.PendingSave> writes = new CopyOnWriteArrayList<>();
+    private final WriteBehindQueue queue = new WriteBehindQueue(writes::add);
+    private final UUID playerId = UUID.randomUUID();
+
+    @AfterEach
+    void tearDown() {
+        queue.close();
+    }
+
+    @Test
+    @DisplayName("測試停用時立即寫入")
+    void testDisabledWritesInline() {
+        queue.setDelayMillis(0);
+        queue.submit(save(playerId, 1));
+
+        assertFalse(queue.isEnabled());
+        assertEquals(1, writes.size());
+        assertFalse(queue.hasPending(playerId, "server1"));
+    }
+
+    @Test
+    @DisplayName("測試較新的保存取代尚未寫入的保存")
+    void testCoalescesPendingSaves() {
+        queue.setDelayMillis(60_000);
+        queue.submit(save(playerId, 1));
+        queue.submit(save(playerId, 2));
+
+        assertTrue(queue.hasPending(playerId, "server1"));
+        assertTrue(writes.isEmpty());
+
+        assertTrue(queue.flush(playerId));
+        assertEquals(1, writes.size());
+        assertEquals(2, writes.get(0).experience());
+        assertFalse(queue.hasPending(playerId, "server1"));
+    }
+
+    @Test
+    @DisplayName("測試 flush 只寫入指定玩家")
+    void testFlushOnlyTargetsPlayer() {
+        UUID otherId = UUID.randomUUID();
+        queue.setDelayMillis(60_000);
+        queue.submit(save(playerId, 1));
+        queue.submit(save(otherId, 1));
+
+        queue.flush(playerId);
+        assertEquals(1, writes.size());
+        assertEquals(playerId, writes.get(0).playerUuid());
+        assertTrue(queue.hasPending(otherId, "server1"));
+    }
+
+    @Test
+    @DisplayName("測試延遲到期後寫入")
+    void testScheduledFlush() throws InterruptedException {
+        CountDownLatch written = new CountDownLatch(1);
+        WriteBehindQueue scheduled = new WriteBehindQueue(save -> {
+            written.countDown();
+            return true;
+        });
+        scheduled.setDelayMillis(20);
+        scheduled.submit(save(playerId, 1));
+
+        assertTrue(written.await(5, TimeUnit.SECONDS));
+        scheduled.close();
+    }
+
+    @Test
+    @DisplayName("測試關閉時寫入所有保存")
+    void testCloseFlushesEverything() {
+        queue.setDelayMillis(60_000);
+        queue.submit(save(playerId, 1));
+        queue.submit(save(UUID.randomUUID(), 1));
+
+        queue.close();
+        assertEquals(2, writes.size());
+    }
+
+    @Test
+    @DisplayName("測試寫入失敗的保存放回佇列")
+    void testFailedWriteRequeued() {
+        AtomicBoolean available = new AtomicBoolean(false);
+        WriteBehindQueue failing = new WriteBehindQueue(save -> available.get() && writes.add(save));
+        failing.setDelayMillis(60_000);
+        failing.submit(save(playerId, 1));
+
+        assertFalse(failing.flush(playerId));
+        assertTrue(writes.isEmpty());
+        assertTrue(failing.hasPending(playerId, "server1"));
+
+        available.set(true);
+        failing.close();
+        assertEquals(1, writes.size());
+        assertFalse(failing.hasPending(playerId, "server1"));
+    }
+
+    @Test
+    @DisplayName("測試關閉時等待進行中的寫入完成")
+    void testCloseWaitsForRunningWrite() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        WriteBehindQueue slow = new WriteBehindQueue(save -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                return false;
+            }
+            return writes.add(save);
+        });
+        slow.setDelayMillis(1);
+        slow.submit(save(playerId, 1));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        Thread closer = new Thread(slow::close);
+        closer.start();
+        Thread.sleep(50);
+        release.countDown();
+        closer.join(5000);
+
+        assertFalse(closer.isAlive());
+        assertEquals(1, writes.size());
+        assertFalse(slow.hasPending(playerId, "server1"));
+    }
+
+    @Test
+    @DisplayName("測試進行中的寫入不阻擋其他玩家，flush 等待該玩家的寫入完成")
+    void testRunningWriteOnlyBlocksItsPlayer() throws Exception {
+        UUID otherId = UUID.randomUUID();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        WriteBehindQueue slow = new WriteBehindQueue(save -> {
+            if (save.playerUuid().equals(playerId)) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    return false;
+                }
+            }
+            return writes.add(save);
+        });
+        slow.configure(1, 2);
+        slow.submit(save(playerId, 1));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(slow.hasPending(playerId, "server1"));
+
+        slow.submit(save(otherId, 1));
+        assertTrue(slow.flush(otherId));
+        assertEquals(otherId, writes.get(0).playerUuid());
+
+        CompletableFuture<Boolean> flushed = CompletableFuture.supplyAsync(() -> slow.flush(playerId));
+        Thread.sleep(50);
+        assertFalse(flushed.isDone());
+        release.countDown();
+        assertTrue(flushed.get(5, TimeUnit.SECONDS));
+        assertEquals(2, writes.size());
+        assertFalse(slow.hasPending(playerId, "server1"));
+        slow.close();
+    }
+
+    @Test
+    @DisplayName("測試停用時寫入尚未寫入的保存")
+    void testDisablingFlushesPending() {
+        queue.setDelayMillis(60_000);
+        queue.submit(save(playerId, 1));
+
+        queue.setDelayMillis(0);
+        assertEquals(1, writes.size());
+    }
+
+    private static WriteBehindQueue.PendingSave save(UUID playerUuid, int experience) {
+        return new WriteBehindQueue.PendingSave(playerUuid, "server1", "{}", null,
+            experience, 0, 20.0, 20, "1.21.4", 4189);
+    }
+}
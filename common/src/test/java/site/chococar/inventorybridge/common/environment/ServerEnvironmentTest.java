@@ -0,0 +1,65 @@
+package site.chococar.inventorybridge.common.environment;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import site.chococar.inventorybridge.common.Constants;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ServerEnvironment 與 DataVersionTable 的測試單元
+ */
+class ServerEnvironmentTest {
+
+    @AfterEach
+    void tearDown() {
+        ServerEnvironment.initialize(ServerEnvironment.resolve(ServerEnvironment.Platform.UNKNOWN, null));
+    }
+
+    @Test
+    @DisplayName("測試對照表資源已載入")
+    void testBundledTable() {
+        DataVersionTable table = DataVersionTable.load();
+        assertFalse(table.isEmpty());
+        assertEquals(4189, table.lookup("1.21.4", -1));
+        assertEquals(4440, table.lookup("1.21.8", -1));
+    }
+
+    @Test
+    @DisplayName("測試未列出的版本使用最接近的較舊版本")
+    void testFloorLookup() {
+        DataVersionTable table = new DataVersionTable(Map.of("1.21", 100, "1.21.4", 200, "1.21.10", 300));
+
+        assertEquals(200, table.lookup("1.21.4", -1));
+        assertEquals(200, table.lookup("1.21.4-R0.1-SNAPSHOT", -1));
+        assertEquals(200, table.lookup("1.21.9", -1));
+        assertEquals(300, table.lookup("1.21.11", -1));
+        assertEquals(100, table.lookup("1.21", -1));
+        assertEquals(-1, table.lookup("1.20.6", -1));
+        assertEquals(-1, table.lookup("unknown", -1));
+        assertEquals(-1, table.lookup(null, -1));
+    }
+
+    @Test
+    @DisplayName("測試解析並設定目前環境")
+    void testResolveAndInitialize() {
+        ServerEnvironment environment = ServerEnvironment.resolve(ServerEnvironment.Platform.FABRIC, "1.21.5");
+        assertEquals(ServerEnvironment.Platform.FABRIC, environment.platform());
+        assertEquals("1.21.5", environment.minecraftVersion());
+        assertEquals(4325, environment.dataVersion());
+
+        ServerEnvironment.initialize(environment);
+        assertSame(environment, ServerEnvironment.current());
+    }
+
+    @Test
+    @DisplayName("測試缺少版本時使用預設值")
+    void testMissingVersion() {
+        ServerEnvironment environment = ServerEnvironment.resolve(ServerEnvironment.Platform.PAPER, "");
+        assertEquals(Constants.CURRENT_MC_VERSION, environment.minecraftVersion());
+        assertEquals(Constants.CURRENT_DATA_VERSION, environment.dataVersion());
+    }
+}
@@ -8,6 +8,7 @@ import site.chococar.inventorybridge.common.config.ConfigurationManager;
 import site.chococar.inventorybridge.common.database.CommonDatabaseManager;
 import site.chococar.inventorybridge.common.database.DatabaseConnection;
 import site.chococar.inventorybridge.common.database.InventoryDataRecord;
+import site.chococar.inventorybridge.common.database.UuidBytes;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -121,9 +122,9 @@ class CrossServerSyncIntegrationTest {
         
         // 驗證日誌被正確記錄
         try (Connection conn = databaseConnection.getConnection()) {
-            String sql = "SELECT * FROM test_sync_log WHERE player_uuid = ? ORDER BY sync_time DESC";
+            String sql = "SELECT * FROM test_sync_log WHERE player_key = ? ORDER BY sync_time DESC";
             PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setString(1, testPlayerId.toString());
+            stmt.setBytes(1, UuidBytes.toBytes(testPlayerId));
             
             ResultSet rs = stmt.executeQuery();
             
@@ -220,12 +221,12 @@ class CrossServerSyncIntegrationTest {
         }
         
         @Override
-        public void saveInventory(UUID playerUuid, String serverId, String inventoryData,
+        public boolean saveInventory(UUID playerUuid, String serverId, String inventoryData,
                                 String enderChestData, int experience, int experienceLevel,
                                 double health, int hunger, String minecraftVersion, int dataVersion) {
             String sql = String.format("""
                 INSERT INTO `%sinventories` 
-                (`player_uuid`, `server_id`, `inventory_data`, `ender_chest_data`, 
+                (`player_key`, `server_id`, `inventory_data`, `ender_chest_data`, 
                  `experience`, `experience_level`, `health`, `hunger`, 
                  `minecraft_version`, `data_version`)
                 VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
@@ -243,7 +244,7 @@ class CrossServerSyncIntegrationTest {
             
             try (Connection conn = databaseConnection.getConnection();
                  PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, playerUuid.toString());
+                stmt.setBytes(1, UuidBytes.toBytes(playerUuid));
                 stmt.setString(2, serverId);
                 stmt.setString(3, inventoryData);
                 stmt.setString(4, enderChestData);
@@ -254,6 +255,7 @@ class CrossServerSyncIntegrationTest {
                 stmt.setString(9, minecraftVersion);
                 stmt.setInt(10, dataVersion);
                 stmt.executeUpdate();
+                return true;
             } catch (SQLException e) {
                 throw new RuntimeException("Failed to save inventory", e);
             }
@@ -261,51 +263,20 @@ class CrossServerSyncIntegrationTest {
         
         @Override
         public InventoryDataRecord loadInventory(UUID playerUuid, String serverId) {
-            // 首先嘗試從當前伺服器載入
-            String currentServerSql = String.format("""
-                SELECT `inventory_data`, `ender_chest_data`, `experience`, `experience_level`,
-                       `health`, `hunger`, `minecraft_version`, `data_version`, `last_updated`
-                FROM `%sinventories`
-                WHERE `player_uuid` = ? AND `server_id` = ?
-                """, databaseConnection.getTablePrefix());
-            
-            try (Connection conn = databaseConnection.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(currentServerSql)) {
-                stmt.setString(1, playerUuid.toString());
-                stmt.setString(2, serverId);
-                
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        return new InventoryDataRecord(
-                            rs.getString("inventory_data"),
-                            rs.getString("ender_chest_data"),
-                            rs.getInt("experience"),
-                            rs.getInt("experience_level"),
-                            rs.getDouble("health"),
-                            rs.getInt("hunger"),
-                            rs.getString("minecraft_version"),
-                            rs.getInt("data_version"),
-                            rs.getTimestamp("last_updated")
-                        );
-                    }
-                }
-            } catch (SQLException e) {
-                throw new RuntimeException("Failed to load from current server", e);
-            }
-            
-            // 如果當前伺服器沒有資料，從其他伺服器載入最新資料
-            String crossServerSql = String.format("""
+            // 與平台實作相同：載入所有伺服器中最新的資料，時間戳記相同時以當前伺服器為準
+            String sql = String.format("""
                 SELECT `inventory_data`, `ender_chest_data`, `experience`, `experience_level`,
                        `health`, `hunger`, `minecraft_version`, `data_version`, `last_updated`
                 FROM `%sinventories`
-                WHERE `player_uuid` = ?
-                ORDER BY `last_updated` DESC
+                WHERE `player_key` = ?
+                ORDER BY `last_updated` DESC, (`server_id` = ?) DESC
                 LIMIT 1
                 """, databaseConnection.getTablePrefix());
             
             try (Connection conn = databaseConnection.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(crossServerSql)) {
-                stmt.setString(1, playerUuid.toString());
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setBytes(1, UuidBytes.toBytes(playerUuid));
+                stmt.setString(2, serverId);
                 
                 try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
@@ -323,7 +294,7 @@ class CrossServerSyncIntegrationTest {
                     }
                 }
             } catch (SQLException e) {
-                throw new RuntimeException("Failed to load from other servers", e);
+                throw new RuntimeException("Failed to load inventory", e);
             }
             
             return null;
@@ -333,13 +304,13 @@ class CrossServerSyncIntegrationTest {
         public boolean hasInventory(UUID playerUuid, String serverId) {
             String sql = String.format("""
                 SELECT 1 FROM `%sinventories` 
-                WHERE `player_uuid` = ? AND `server_id` = ? 
+                WHERE `player_key` = ? AND `server_id` = ? 
                 LIMIT 1
                 """, databaseConnection.getTablePrefix());
             
             try (Connection conn = databaseConnection.getConnection();
                  PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, playerUuid.toString());
+                stmt.setBytes(1, UuidBytes.toBytes(playerUuid));
                 stmt.setString(2, serverId);
                 
                 try (ResultSet rs = stmt.executeQuery()) {
@@ -353,13 +324,13 @@ class CrossServerSyncIntegrationTest {
         @Override
         public void logSync(UUID playerUuid, String serverId, String syncType, String status, String errorMessage) {
             String sql = String.format("""
-                INSERT INTO `%ssync_log` (`player_uuid`, `server_id`, `sync_type`, `status`, `error_message`)
+                INSERT INTO `%ssync_log` (`player_key`, `server_id`, `sync_type`, `status`, `error_message`)
                 VALUES (?, ?, ?, ?, ?)
                 """, databaseConnection.getTablePrefix());
             
             try (Connection conn = databaseConnection.getConnection();
                  PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, playerUuid.toString());
+                stmt.setBytes(1, UuidBytes.toBytes(playerUuid));
                 stmt.setString(2, serverId);
                 stmt.setString(3, syncType);
                 stmt.setString(4, status);
@@ -0,0 +1,233 @@
+package site.chococar.inventorybridge.common.serialization;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BinaryInventoryCodec 的測試單元
+ */
+class BinaryInventoryCodecTest {
+
+    private static final String SHULKER_JSON = """
+        {"material":"SHULKER_BOX","amount":1,"minecraft_version":"1.21.4","data_version":4071,
+         "meta":{"display_name":"Kit","container":{"size":27,"items":{
+           "0":{"material":"DIAMOND","amount":64,"minecraft_version":"1.21.4","data_version":4071},
+           "3":{"material":"GOLDEN_APPLE","amount":16,"minecraft_version":"1.21.4","data_version":4071}}}}}
+        """;
+
+    private JsonItem[] items;
+
+    @BeforeEach
+    void setUp() {
+        items = new JsonItem[41];
+        items[0] = new JsonItem("""
+            {"material":"DIAMOND_SWORD","amount":1,"minecraft_version":"1.21.4","data_version":4071,
+             "meta":{"enchantments":{"minecraft:sharpness":5,"minecraft:unbreaking":3},"damage":12,
+                     "lore":["Legendary","Blade"]}}
+            """);
+        items[1] = new JsonItem("{\"material\":\"STONE\",\"amount\":64,\"minecraft_version\":\"1.21.4\",\"data_version\":4071}");
+        items[5] = new JsonItem(SHULKER_JSON);
+        items[40] = new JsonItem("{\"id\":\"minecraft:shield\",\"count\":1,\"components\":{\"damage\":3,\"ratio\":0.5}}");
+    }
+
+    @Test
+    @DisplayName("測試二進位格式往返")
+    void testRoundTrip() {
+        String encoded = CommonItemSerializer.serializeInventory(
+            CommonItemSerializer.PayloadFormat.BINARY, 41, "1.21.4", 4071, items);
+
+        assertTrue(BinaryInventoryCodec.isBinary(encoded));
+        assertEquals(41, CommonItemSerializer.readInventorySize(encoded, 0));
+
+        RecordingInventory inventory = new RecordingInventory(41);
+        CommonItemSerializer.deserializeInventory(encoded, inventory);
+
+        for (int i = 0; i < items.length; i++) {
+            if (items[i] == null) {
+                assertNull(inventory.items[i], "slot " + i + " should stay empty");
+            } else {
+                assertEquals(JsonParser.parseString(items[i].serialize()),
+                    JsonParser.parseString(inventory.items[i]), "slot " + i);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("測試巢狀容器與數值類型保留")
+    void testNestedContainerAndNumbers() {
+        String encoded = BinaryInventoryCodec.encodeToString(41, "1.21.4", 4071, items);
+        RecordingInventory inventory = new RecordingInventory(41);
+        BinaryInventoryCodec.decode(encoded, inventory);
+
+        JsonObject shulker = JsonParser.parseString(inventory.items[5]).getAsJsonObject();
+        JsonObject container = shulker.getAsJsonObject("meta").getAsJsonObject("container");
+        assertEquals(27, container.get("size").getAsInt());
+        assertEquals("GOLDEN_APPLE", container.getAsJsonObject("items").getAsJsonObject("3").get("material").getAsString());
+
+        JsonObject shield = JsonParser.parseString(inventory.items[40]).getAsJsonObject();
+        assertEquals(0.5, shield.getAsJsonObject("components").get("ratio").getAsDouble());
+    }
+
+    @Test
+    @DisplayName("測試二進位負載明顯小於 JSON")
+    void testPayloadSize() {
+        JsonItem[] full = new JsonItem[41];
+        for (int i = 0; i < 36; i++) {
+            full[i] = i % 4 == 0 ? new JsonItem(SHULKER_JSON) : items[i % 2];
+        }
+
+        String json = CommonItemSerializer.serializeInventory(
+            CommonItemSerializer.PayloadFormat.JSON, 41, "1.21.4", 4071, full);
+        String binary = CommonItemSerializer.serializeInventory(
+            CommonItemSerializer.PayloadFormat.BINARY, 41, "1.21.4", 4071, full);
+
+        assertTrue(binary.length() * 3 < json.length(),
+            "binary=" + binary.length() + " json=" + json.length());
+    }
+
+    @Test
+    @DisplayName("測試仍可讀取既有 JSON 負載")
+    void testJsonStillReadable() {
+        CommonItemSerializer.setPayloadFormat(CommonItemSerializer.PayloadFormat.BINARY);
+        try {
+            String json = CommonItemSerializer.serializeInventoryJson(41, "1.21.4", 4071, items);
+            RecordingInventory inventory = new RecordingInventory(41);
+            CommonItemSerializer.deserializeInventory(json, inventory);
+            assertNotNull(inventory.items[0]);
+            assertNotNull(inventory.items[5]);
+            assertEquals(41, CommonItemSerializer.readInventorySize(json, 0));
+        } finally {
+            CommonItemSerializer.setPayloadFormat(CommonItemSerializer.PayloadFormat.JSON);
+        }
+    }
+
+    @Test
+    @DisplayName("測試以讀取器直接解碼巢狀容器")
+    void testStreamingReadItem() {
+        // 物品紀錄格式不保留平台欄位名稱，由 ItemRecordTest 涵蓋
+        for (CommonItemSerializer.PayloadFormat format : new CommonItemSerializer.PayloadFormat[] {
+                CommonItemSerializer.PayloadFormat.JSON, CommonItemSerializer.PayloadFormat.BINARY}) {
+            String encoded = CommonItemSerializer.serializeInventory(format, 41, "1.21.4", 4071, items);
+            MaterialInventory inventory = new MaterialInventory(41);
+            CommonItemSerializer.deserializeInventory(encoded, inventory);
+
+            assertEquals("DIAMOND_SWORD", inventory.materials[0], format.name());
+            assertEquals("STONE", inventory.materials[1], format.name());
+            assertEquals("SHULKER_BOX[0=DIAMOND,3=GOLDEN_APPLE]", inventory.materials[5], format.name());
+            assertEquals("minecraft:shield", inventory.materials[40], format.name());
+            assertNull(inventory.materials[2], format.name());
+        }
+    }
+
+    @Test
+    @DisplayName("測試損毀的二進位負載")
+    void testCorruptPayload() {
+        RecordingInventory inventory = new RecordingInventory(41);
+        assertThrows(RuntimeException.class, () ->
+            CommonItemSerializer.deserializeInventory(BinaryInventoryCodec.PREFIX + "AAEC", inventory));
+    }
+
+    private record JsonItem(String json) implements CommonItemSerializer.ItemStackProvider {
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public String serialize() {
+            return json;
+        }
+    }
+
+    /**
+     * 直接從讀取器擷取物品種類的背包，模擬平台解碼器
+     */
+    private static class MaterialInventory implements CommonItemSerializer.InventoryProvider {
+        private final String[] materials;
+
+        MaterialInventory(int size) {
+            this.materials = new String[size];
+        }
+
+        @Override
+        public int size() {
+            return materials.length;
+        }
+
+        @Override
+        public void setItem(int slot, String itemData) {
+            throw new AssertionError("setItem should not be used on the streaming path");
+        }
+
+        @Override
+        public void readItem(int slot, JsonReader reader) throws IOException {
+            materials[slot] = readMaterial(reader);
+        }
+
+        private static String readMaterial(JsonReader reader) throws IOException {
+            String material = null;
+            StringBuilder container = new StringBuilder();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "material", "id" -> material = reader.nextString();
+                    case "amount", "count" -> reader.nextInt();
+                    case "meta" -> {
+                        reader.beginObject();
+                        while (reader.hasNext()) {
+                            if (reader.nextName().equals("container")) {
+                                reader.beginObject();
+                                while (reader.hasNext()) {
+                                    if (reader.nextName().equals("items")) {
+                                        reader.beginObject();
+                                        while (reader.hasNext()) {
+                                            String slot = reader.nextName();
+                                            container.append(container.length() == 0 ? "[" : ",")
+                                                .append(slot).append('=').append(readMaterial(reader));
+                                        }
+                                        reader.endObject();
+                                    } else {
+                                        reader.skipValue();
+                                    }
+                                }
+                                reader.endObject();
+                            } else {
+                                reader.skipValue();
+                            }
+                        }
+                        reader.endObject();
+                    }
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+            return container.length() == 0 ? material : material + container + "]";
+        }
+    }
+
+    private static class RecordingInventory implements CommonItemSerializer.InventoryProvider {
+        private final String[] items;
+
+        RecordingInventory(int size) {
+            this.items = new String[size];
+        }
+
+        @Override
+        public int size() {
+            return items.length;
+        }
+
+        @Override
+        public void setItem(int slot, String itemData) {
+            items[slot] = itemData;
+        }
+    }
+}
@@ -174,6 +174,39 @@ class CommonItemSerializerTest {
         });
     }
     
+    @Test
+    @DisplayName("測試串流寫入的物品提供者")
+    void testStreamingProvider() {
+        CommonItemSerializer.ItemStackProvider streaming = new CommonItemSerializer.ItemStackProvider() {
+            @Override
+            public boolean isEmpty() {
+                return false;
+            }
+            
+            @Override
+            public String serialize() {
+                throw new AssertionError("serialize() should not be called on the streaming path");
+            }
+            
+            @Override
+            public void writeTo(com.google.gson.stream.JsonWriter writer) throws java.io.IOException {
+                writer.beginObject();
+                writer.name("id").value("minecraft:golden_apple");
+                writer.name("count").value(16);
+                writer.endObject();
+            }
+        };
+        
+        CommonItemSerializer.ItemStackProvider[] items = new CommonItemSerializer.ItemStackProvider[41];
+        items[3] = streaming;
+        String serialized = CommonItemSerializer.serializeInventoryJson(41, "1.21.4", 4071, items);
+        
+        CommonItemSerializer.deserializeInventory(serialized, testInventory);
+        JsonObject item = JsonParser.parseString(testInventory.getItem(3)).getAsJsonObject();
+        assertEquals("minecraft:golden_apple", item.get("id").getAsString());
+        assertEquals(16, item.get("count").getAsInt());
+    }
+    
     // 測試用的 ItemStackProvider 實現
     private static class TestItemStackProvider implements CommonItemSerializer.ItemStackProvider {
         private final String id;
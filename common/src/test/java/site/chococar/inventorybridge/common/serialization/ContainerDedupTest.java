@@ -0,0 +1,113 @@
+package site.chococar.inventorybridge.common.serialization;
+
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ContainerDedup 的測試單元
+ */
+class ContainerDedupTest {
+
+    private static final String SHULKER = """
+        {"material":"SHULKER_BOX","amount":1,"minecraft_version":"1.21.4","data_version":4071,
+         "meta":{"display_name":"Kit","container":{"size":27,"items":{
+           "0":{"material":"DIAMOND","amount":64,"minecraft_version":"1.21.4","data_version":4071},
+           "1":{"material":"ENDER_PEARL","amount":16,"minecraft_version":"1.21.4","data_version":4071},
+           "3":{"material":"GOLDEN_APPLE","amount":16,"minecraft_version":"1.21.4","data_version":4071}}}}}
+        """;
+
+    private static final String SMALL_BUNDLE = """
+        {"id":"minecraft:bundle","count":1,"components":{"bundle_contents":{"items":[{"id":"minecraft:stick","count":1}]}}}
+        """;
+
+    private static String payload(CommonItemSerializer.PayloadFormat format) {
+        CommonItemSerializer.ItemStackProvider[] items = new CommonItemSerializer.ItemStackProvider[41];
+        items[0] = new InventoryPatch.JsonItem("{\"material\":\"STONE\",\"amount\":64}");
+        items[3] = new InventoryPatch.JsonItem(SHULKER);
+        items[4] = new InventoryPatch.JsonItem(SHULKER);
+        items[8] = new InventoryPatch.JsonItem(SMALL_BUNDLE);
+        return CommonItemSerializer.serializeInventory(format, 41, "1.21.4", 4071, items);
+    }
+
+    private static void assertSameSlots(String expected, String actual) {
+        Map<Integer, String> expectedSlots = InventoryPatch.slots(expected);
+        Map<Integer, String> actualSlots = InventoryPatch.slots(actual);
+        assertEquals(expectedSlots.keySet(), actualSlots.keySet());
+        for (Integer slot : expectedSlots.keySet()) {
+            assertEquals(JsonParser.parseString(expectedSlots.get(slot)),
+                JsonParser.parseString(actualSlots.get(slot)), "slot " + slot);
+        }
+    }
+
+    @Test
+    @DisplayName("測試相同的界伏盒內容只存放一次")
+    void testIdenticalContainersShareOneBlob() {
+        String original = payload(CommonItemSerializer.PayloadFormat.JSON);
+        ContainerDedup.Result result = ContainerDedup.externalize(original, "1.21.4", 4071);
+
+        assertEquals(1, result.blobs().size());
+        String hash = result.blobs().keySet().iterator().next();
+        assertEquals(ContainerDedup.hash(result.blobs().get(hash)), hash);
+        assertEquals(Set.of(hash), ContainerDedup.references(result.payload()));
+        assertTrue(result.payload().length() < original.length());
+        // 小型束包保留在負載中
+        assertTrue(result.payload().contains("minecraft:stick"));
+    }
+
+    @Test
+    @DisplayName("測試還原參照後與原始負載相同")
+    void testResolveRestoresOriginal() {
+        for (CommonItemSerializer.PayloadFormat format : new CommonItemSerializer.PayloadFormat[] {
+                CommonItemSerializer.PayloadFormat.JSON, CommonItemSerializer.PayloadFormat.BINARY}) {
+            String original = payload(format);
+            ContainerDedup.Result result = ContainerDedup.externalize(original, "1.21.4", 4071);
+
+            assertEquals(BinaryInventoryCodec.isBinary(original), BinaryInventoryCodec.isBinary(result.payload()));
+            assertTrue(ContainerDedup.mayContainReferences(result.payload()), format.name());
+            String resolved = ContainerDedup.resolve(result.payload(), result.blobs(), "1.21.4", 4071);
+            assertSameSlots(original, resolved);
+            assertEquals(41, CommonItemSerializer.readInventorySize(resolved, 0));
+        }
+    }
+
+    @Test
+    @DisplayName("測試沒有大型容器時原樣返回")
+    void testNoContainersUnchanged() {
+        CommonItemSerializer.ItemStackProvider[] items = new CommonItemSerializer.ItemStackProvider[41];
+        items[8] = new InventoryPatch.JsonItem(SMALL_BUNDLE);
+        String original = CommonItemSerializer.serializeInventoryJson(41, "1.21.4", 4071, items);
+
+        ContainerDedup.Result result = ContainerDedup.externalize(original, "1.21.4", 4071);
+        assertSame(original, result.payload());
+        assertTrue(result.blobs().isEmpty());
+        assertFalse(ContainerDedup.mayContainReferences(original));
+        assertSame(original, ContainerDedup.resolve(original, Map.of(), "1.21.4", 4071));
+    }
+
+    @Test
+    @DisplayName("測試參照的內容不存在時拋出例外")
+    void testMissingBlob() {
+        ContainerDedup.Result result = ContainerDedup.externalize(
+            payload(CommonItemSerializer.PayloadFormat.JSON), "1.21.4", 4071);
+        assertThrows(IllegalStateException.class,
+            () -> ContainerDedup.resolve(result.payload(), Map.of(), "1.21.4", 4071));
+    }
+
+    @Test
+    @DisplayName("測試使用者文字不會被誤認為參照")
+    void testUserTextIsNotReference() {
+        CommonItemSerializer.ItemStackProvider[] items = new CommonItemSerializer.ItemStackProvider[41];
+        String fake = "{\\\"$blob\\\":\\\"" + "0".repeat(64) + "\\\"}";
+        items[0] = new InventoryPatch.JsonItem("{\"material\":\"PAPER\",\"amount\":1,\"meta\":{\"display_name\":\"" + fake + "\"}}");
+        String original = CommonItemSerializer.serializeInventoryJson(41, "1.21.4", 4071, items);
+
+        assertTrue(ContainerDedup.references(original).isEmpty());
+        assertSame(original, ContainerDedup.resolve(original, Map.of(), "1.21.4", 4071));
+    }
+}
@@ -0,0 +1,77 @@
+package site.chococar.inventorybridge.common.serialization;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * EncodingCache 的測試單元
+ */
+class EncodingCacheTest {
+
+    @Test
+    @DisplayName("測試相等的物品重用編碼")
+    void testHitOnEqualItem() {
+        EncodingCache<List<String>> cache = new EncodingCache<>(16, ArrayList::new);
+        AtomicInteger encodes = new AtomicInteger();
+
+        List<String> first = new ArrayList<>(List.of("DIAMOND", "64"));
+        List<String> equal = new ArrayList<>(List.of("DIAMOND", "64"));
+
+        assertEquals("DIAMOND|64", cache.get(first, item -> encode(item, encodes)));
+        assertEquals("DIAMOND|64", cache.get(equal, item -> encode(item, encodes)));
+
+        assertEquals(1, encodes.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0.5, cache.getHitRate());
+    }
+
+    @Test
+    @DisplayName("測試修改後的物品不會命中舊編碼")
+    void testMutationAfterCaching() {
+        EncodingCache<List<String>> cache = new EncodingCache<>(16, ArrayList::new);
+        AtomicInteger encodes = new AtomicInteger();
+
+        List<String> stack = new ArrayList<>(List.of("STONE", "1"));
+        cache.get(stack, item -> encode(item, encodes));
+        stack.set(1, "2");
+
+        assertEquals("STONE|2", cache.get(stack, item -> encode(item, encodes)));
+        assertEquals(2, encodes.get());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    @DisplayName("測試容量上限與最近最少使用淘汰")
+    void testEviction() {
+        EncodingCache<List<String>> cache = new EncodingCache<>(2, ArrayList::new);
+        AtomicInteger encodes = new AtomicInteger();
+
+        cache.get(List.of("A"), item -> encode(item, encodes));
+        cache.get(List.of("B"), item -> encode(item, encodes));
+        cache.get(List.of("A"), item -> encode(item, encodes));
+        cache.get(List.of("C"), item -> encode(item, encodes));
+
+        assertEquals(2, cache.size());
+        cache.get(List.of("A"), item -> encode(item, encodes));
+        assertEquals(3, encodes.get(), "A should still be cached");
+        cache.get(List.of("B"), item -> encode(item, encodes));
+        assertEquals(4, encodes.get(), "B should have been evicted");
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.getMisses());
+    }
+
+    private static String encode(List<String> item, AtomicInteger encodes) {
+        encodes.incrementAndGet();
+        return String.join("|", item);
+    }
+}
@@ -0,0 +1,83 @@
+package site.chococar.inventorybridge.common.serialization;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * InventoryPatch 的測試單元
+ */
+class InventoryPatchTest {
+
+    private static final String BASE = """
+        {"size":41,"minecraft_version":"1.21.4","data_version":4071,"items":{
+          "0":{"id":"minecraft:diamond_sword","count":1},
+          "1":{"id":"minecraft:cobblestone","count":64},
+          "8":{"id":"minecraft:torch","count":32}}}
+        """;
+
+    private static final String CURRENT = """
+        {"size":41,"minecraft_version":"1.21.4","data_version":4071,"items":{
+          "0":{"id":"minecraft:diamond_sword","count":1},
+          "1":{"id":"minecraft:cobblestone","count":63},
+          "5":{"id":"minecraft:bread","count":3}}}
+        """;
+
+    @Test
+    @DisplayName("測試差異只包含變更的槽位")
+    void testDiffContainsOnlyChangedSlots() {
+        String patch = InventoryPatch.diff(InventoryPatch.slots(BASE), InventoryPatch.slots(CURRENT));
+        JsonObject items = JsonParser.parseString(patch).getAsJsonObject().getAsJsonObject("items");
+
+        assertEquals(3, items.size());
+        assertFalse(items.has("0"));
+        assertEquals(63, items.getAsJsonObject("1").get("count").getAsInt());
+        assertEquals("minecraft:bread", items.getAsJsonObject("5").get("id").getAsString());
+        assertTrue(items.get("8").isJsonNull());
+    }
+
+    @Test
+    @DisplayName("測試沒有變更時不產生差異")
+    void testNoChanges() {
+        assertNull(InventoryPatch.diff(InventoryPatch.slots(BASE), InventoryPatch.slots(BASE)));
+    }
+
+    @Test
+    @DisplayName("測試套用差異還原目前狀態")
+    void testApplyReconstructsCurrentState() {
+        String patch = InventoryPatch.diff(InventoryPatch.slots(BASE), InventoryPatch.slots(CURRENT));
+        String merged = InventoryPatch.apply(BASE, patch, "1.21.4", 4071);
+
+        assertEquals(InventoryPatch.slots(CURRENT), InventoryPatch.slots(merged));
+        assertEquals(41, CommonItemSerializer.readInventorySize(merged, 0));
+        assertSame(BASE, InventoryPatch.apply(BASE, null, "1.21.4", 4071));
+    }
+
+    @Test
+    @DisplayName("測試以二進位快照為基準")
+    void testBinaryBase() {
+        Map<Integer, String> baseSlots = InventoryPatch.slots(BASE);
+        CommonItemSerializer.ItemStackProvider[] items = new CommonItemSerializer.ItemStackProvider[41];
+        baseSlots.forEach((slot, json) -> items[slot] = new CommonItemSerializer.ItemStackProvider() {
+            @Override
+            public boolean isEmpty() {
+                return false;
+            }
+
+            @Override
+            public String serialize() {
+                return json;
+            }
+        });
+        String binaryBase = BinaryInventoryCodec.encodeToString(41, "1.21.4", 4071, items);
+
+        String patch = InventoryPatch.diff(InventoryPatch.slots(binaryBase), InventoryPatch.slots(CURRENT));
+        String merged = InventoryPatch.apply(binaryBase, patch, "1.21.4", 4071);
+        assertEquals(InventoryPatch.slots(CURRENT), InventoryPatch.slots(merged));
+    }
+}
@@ -0,0 +1,225 @@
+package site.chococar.inventorybridge.common.serialization;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ItemRecord、ItemRecordJson、二進位物品紀錄與舊版 ItemRecordCodec 的測試單元
+ */
+class ItemRecordTest {
+
+    private static final String PAPER_SHULKER = """
+        {"material":"SHULKER_BOX","amount":1,"minecraft_version":"1.21.4","data_version":4189,
+         "meta":{"display_name":"Kit","lore":["Starter","Pack"],
+           "enchantments":{"minecraft:unbreaking":3},
+           "container":{"size":27,"items":{
+             "0":{"material":"DIAMOND","amount":64,"minecraft_version":"1.21.4","data_version":4189},
+             "5":{"material":"BUNDLE","amount":1,"minecraft_version":"1.21.4","data_version":4189,
+                  "meta":{"bundle_items":["{\\"material\\":\\"STICK\\",\\"amount\\":3}"]}}}}}}
+        """;
+
+    private static final String FABRIC_SWORD = """
+        {"id":"minecraft:diamond_sword","count":1,
+         "components":{"damage":12,"max_damage":1561,"custom_name":"Blade",
+           "custom_name_component":"{\\"color\\":\\"gold\\",\\"text\\":\\"Blade\\"}","lore":["Sharp"]}}
+        """;
+
+    @AfterEach
+    void tearDown() {
+        CommonItemSerializer.setLazyContainers(false);
+        CommonItemSerializer.setPayloadFormat(CommonItemSerializer.PayloadFormat.JSON);
+    }
+
+    @Test
+    @DisplayName("測試讀取 Paper 格式的物品")
+    void testReadPaperDialect() {
+        ItemRecord item = ItemRecordJson.parse(PAPER_SHULKER);
+
+        assertEquals("minecraft:shulker_box", item.getId());
+        assertEquals("SHULKER_BOX", item.getMaterialName());
+        assertEquals("Kit", item.getName());
+        assertEquals(List.of("Starter", "Pack"), item.getLore());
+        assertEquals(Map.of("minecraft:unbreaking", 3), item.getEnchantments());
+        assertEquals(27, item.getContainerSize());
+        assertEquals(64, item.getContainerItems().get(0).getCount());
+
+        ItemRecord bundle = item.getContainerItems().get(5);
+        assertEquals(1, bundle.getBundleItems().size());
+        assertEquals("minecraft:stick", bundle.getBundleItems().get(0).getId());
+    }
+
+    @Test
+    @DisplayName("測試兩種格式互相轉換後內容相同")
+    void testCrossDialectRoundTrip() {
+        for (String json : new String[] {PAPER_SHULKER, FABRIC_SWORD}) {
+            ItemRecord item = ItemRecordJson.parse(json);
+            String fabric = ItemRecordJson.toJson(item, ItemRecordJson.Dialect.FABRIC);
+            String paper = ItemRecordJson.toJson(ItemRecordJson.parse(fabric), ItemRecordJson.Dialect.PAPER);
+
+            assertEquals(item, ItemRecordJson.parse(fabric));
+            assertEquals(item, ItemRecordJson.parse(paper));
+        }
+    }
+
+    @Test
+    @DisplayName("測試輸出維持各平台既有的欄位名稱")
+    void testDialectFieldNames() {
+        ItemRecord sword = ItemRecordJson.parse(FABRIC_SWORD);
+
+        JsonObject fabric = JsonParser.parseString(ItemRecordJson.toJson(sword, ItemRecordJson.Dialect.FABRIC)).getAsJsonObject();
+        assertEquals("minecraft:diamond_sword", fabric.get("id").getAsString());
+        assertEquals("Blade", fabric.getAsJsonObject("components").get("custom_name").getAsString());
+
+        JsonObject paper = JsonParser.parseString(ItemRecordJson.toJson(sword, ItemRecordJson.Dialect.PAPER)).getAsJsonObject();
+        assertEquals("DIAMOND_SWORD", paper.get("material").getAsString());
+        assertEquals("Blade", paper.getAsJsonObject("meta").get("display_name").getAsString());
+
+        ItemRecord bundle = ItemRecordJson.parse(PAPER_SHULKER).getContainerItems().get(5);
+        JsonObject paperBundle = JsonParser.parseString(ItemRecordJson.toJson(bundle, ItemRecordJson.Dialect.PAPER)).getAsJsonObject();
+        // 束包內容維持字串陣列
+        assertTrue(paperBundle.getAsJsonObject("meta").getAsJsonArray("bundle_items").get(0).isJsonPrimitive());
+    }
+
+    @Test
+    @DisplayName("測試二進位格式的物品紀錄往返")
+    void testRecordPayloadRoundTrip() {
+        CommonItemSerializer.ItemStackProvider[] items = new CommonItemSerializer.ItemStackProvider[41];
+        items[0] = new RecordItem(FABRIC_SWORD);
+        items[9] = new RecordItem(PAPER_SHULKER);
+        items[40] = new RecordItem("{\"id\":\"minecraft:shield\",\"count\":1}");
+
+        String payload = CommonItemSerializer.serializeInventory(
+            CommonItemSerializer.PayloadFormat.BINARY, 41, "1.21.4", 4189, items);
+        assertTrue(BinaryInventoryCodec.isBinary(payload));
+        assertEquals(41, CommonItemSerializer.readInventorySize(payload, 0));
+
+        ItemRecord[] decoded = new ItemRecord[41];
+        CommonItemSerializer.deserializeInventory(payload, new CommonItemSerializer.InventoryProvider() {
+            @Override
+            public int size() {
+                return decoded.length;
+            }
+
+            @Override
+            public void setItem(int slot, String itemData) {
+                fail("record payloads should be decoded through readRecord");
+            }
+
+            @Override
+            public void readRecord(int slot, ItemRecord item) {
+                decoded[slot] = item;
+            }
+        });
+
+        assertEquals(ItemRecordJson.parse(FABRIC_SWORD), decoded[0]);
+        assertEquals("{\"color\":\"gold\",\"text\":\"Blade\"}", decoded[0].getNameComponent());
+        assertEquals(ItemRecordJson.parse(PAPER_SHULKER), decoded[9]);
+        assertEquals("minecraft:shield", decoded[40].getId());
+        assertNull(decoded[1]);
+
+        // 未覆寫 readRecord 的讀取者仍可取得 JSON
+        Map<Integer, String> slots = InventoryPatch.slots(payload);
+        assertEquals(ItemRecordJson.parse(PAPER_SHULKER), ItemRecordJson.parse(slots.get(9)));
+    }
+
+    @Test
+    @DisplayName("測試物品紀錄比標記值編碼更小")
+    void testRecordPayloadIsCompact() {
+        CommonItemSerializer.ItemStackProvider[] json = new CommonItemSerializer.ItemStackProvider[41];
+        CommonItemSerializer.ItemStackProvider[] records = new CommonItemSerializer.ItemStackProvider[41];
+        for (int i = 0; i < 36; i++) {
+            String item = i % 2 == 0 ? FABRIC_SWORD : PAPER_SHULKER;
+            json[i] = new InventoryPatch.JsonItem(item);
+            records[i] = new RecordItem(item);
+        }
+        String tagged = CommonItemSerializer.serializeInventory(CommonItemSerializer.PayloadFormat.BINARY, 41, "1.21.4", 4189, json);
+        String record = CommonItemSerializer.serializeInventory(CommonItemSerializer.PayloadFormat.BINARY, 41, "1.21.4", 4189, records);
+
+        assertTrue(record.length() < tagged.length(), "record " + record.length() + " vs tagged " + tagged.length());
+    }
+
+    @Test
+    @DisplayName("測試二進位格式保留 JSON 物品中的容器參照")
+    void testBinaryKeepsReferences() {
+        String reference = "{\"id\":\"minecraft:shulker_box\",\"count\":1,\"components\":{\"container\":{\"$blob\":\""
+            + "a".repeat(64) + "\"}}}";
+        CommonItemSerializer.ItemStackProvider[] items = new CommonItemSerializer.ItemStackProvider[41];
+        items[0] = new RecordItem(FABRIC_SWORD);
+        items[1] = new InventoryPatch.JsonItem(reference);
+
+        String payload = CommonItemSerializer.serializeInventory(CommonItemSerializer.PayloadFormat.BINARY, 41, "1.21.4", 4189, items);
+        assertTrue(ContainerDedup.mayContainReferences(payload));
+        assertEquals(java.util.Set.of("a".repeat(64)), ContainerDedup.references(payload));
+    }
+
+    @Test
+    @DisplayName("測試格式設定 record 改為二進位格式")
+    void testRecordFormatMapsToBinary() {
+        assertEquals(CommonItemSerializer.PayloadFormat.BINARY, CommonItemSerializer.PayloadFormat.fromString("record"));
+    }
+
+    @Test
+    @DisplayName("測試舊版物品紀錄負載仍可讀取且延遲解碼的內容原樣保留")
+    void testPendingContentsPreserved() throws Exception {
+        JsonReader reader = new JsonReader(new StringReader(PAPER_SHULKER));
+        ItemRecord lazy = ItemRecordJson.read(reader, true);
+
+        assertFalse(lazy.hasContainer());
+        assertNotNull(lazy.getPendingContainer());
+
+        ItemRecord[] items = {lazy};
+        byte[] encoded = ItemRecordCodec.encode(1, "1.21.4", 4189, items);
+        String payload = ItemRecordCodec.PREFIX + java.util.Base64.getEncoder().encodeToString(encoded);
+        ItemRecord[] decoded = new ItemRecord[1];
+        ItemRecordCodec.decode(payload, new CommonItemSerializer.InventoryProvider() {
+            @Override
+            public int size() {
+                return 1;
+            }
+
+            @Override
+            public void setItem(int slot, String itemData) {
+            }
+
+            @Override
+            public void readRecord(int slot, ItemRecord item) {
+                decoded[slot] = item;
+            }
+        });
+        assertEquals(lazy, decoded[0]);
+
+        // 寫回後以完整模式讀取，內容與原物品相同
+        String written = ItemRecordJson.toJson(decoded[0], ItemRecordJson.Dialect.FABRIC);
+        assertEquals(ItemRecordJson.parse(PAPER_SHULKER), ItemRecordJson.parse(written));
+    }
+
+    /**
+     * 模擬平台物品：toRecord() 保留所有欄位
+     */
+    private record RecordItem(String json) implements CommonItemSerializer.ItemStackProvider {
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public String serialize() {
+            return json;
+        }
+
+        @Override
+        public boolean hasExactRecord() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package site.chococar.inventorybridge.common.serialization;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JsonStreams 的測試單元
+ */
+class JsonStreamsTest {
+
+    @Test
+    @DisplayName("測試重複使用緩衝區不殘留先前內容")
+    void testBufferReuse() throws IOException {
+        String first = JsonStreams.write(writer -> writer.beginObject().name("a").value(1).endObject());
+        String second = JsonStreams.write(writer -> writer.beginArray().value("b").endArray());
+
+        assertEquals("{\"a\":1}", first);
+        assertEquals("[\"b\"]", second);
+    }
+
+    @Test
+    @DisplayName("測試巢狀呼叫使用獨立的緩衝區")
+    void testNestedWrite() throws IOException {
+        String outer = JsonStreams.write(writer -> {
+            writer.beginObject();
+            String inner = JsonStreams.write(nested -> nested.beginObject().name("x").value(2).endObject());
+            writer.name("inner").jsonValue(inner);
+            writer.endObject();
+        });
+
+        assertEquals("{\"inner\":{\"x\":2}}", outer);
+    }
+
+    @Test
+    @DisplayName("測試寫入失敗後緩衝區仍可使用")
+    void testFailureReleasesBuffer() throws IOException {
+        assertThrows(IOException.class, () -> JsonStreams.write(writer -> {
+            writer.beginObject();
+            throw new IOException("boom");
+        }));
+
+        assertEquals("[]", JsonStreams.write(writer -> writer.beginArray().endArray()));
+    }
+}
@@ -0,0 +1,148 @@
+package site.chococar.inventorybridge.common.serialization;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import site.chococar.inventorybridge.common.environment.ServerEnvironment;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * NativeInventoryCodec 的測試單元
+ */
+class NativeInventoryCodecTest {
+
+    @AfterEach
+    void tearDown() {
+        ServerEnvironment.initialize(ServerEnvironment.resolve(ServerEnvironment.Platform.UNKNOWN, null));
+    }
+
+    /**
+     * 以固定位元組模擬平台原生序列化的物品
+     */
+    private record NativeItem(byte[] bytes) implements CommonItemSerializer.ItemStackProvider {
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public String serialize() {
+            return "{\"id\":\"minecraft:stone\",\"count\":1}";
+        }
+
+        @Override
+        public byte[] toNativeBytes() {
+            return bytes;
+        }
+    }
+
+    private static class NativeInventory implements CommonItemSerializer.InventoryProvider {
+        private final byte[][] items;
+        private byte[] inventory;
+        private final ServerEnvironment.Platform platform;
+        private final int dataVersion;
+
+        NativeInventory(int size, ServerEnvironment.Platform platform, int dataVersion) {
+            this.items = new byte[size][];
+            this.platform = platform;
+            this.dataVersion = dataVersion;
+        }
+
+        @Override
+        public int size() {
+            return items.length;
+        }
+
+        @Override
+        public void setItem(int slot, String itemData) {
+            fail("native payloads should be decoded through readNative");
+        }
+
+        @Override
+        public boolean acceptsNative(ServerEnvironment.Platform writer, int writerDataVersion) {
+            return writer == platform && writerDataVersion <= dataVersion;
+        }
+
+        @Override
+        public void readNative(int slot, byte[] data) {
+            items[slot] = data;
+        }
+
+        @Override
+        public void readNativeInventory(byte[] data) {
+            inventory = data;
+        }
+    }
+
+    private static String payload() {
+        ServerEnvironment.initialize(new ServerEnvironment(ServerEnvironment.Platform.PAPER, "1.21.4", 4189));
+        CommonItemSerializer.ItemStackProvider[] items = new CommonItemSerializer.ItemStackProvider[41];
+        items[0] = new NativeItem("sword".getBytes(StandardCharsets.UTF_8));
+        items[40] = new NativeItem(new byte[300]);
+        return CommonItemSerializer.serializeInventory(CommonItemSerializer.PayloadFormat.NATIVE, 41, "1.21.4", 4189, items);
+    }
+
+    @Test
+    @DisplayName("測試原生格式往返")
+    void testRoundTrip() {
+        String payload = payload();
+        assertTrue(NativeInventoryCodec.isNativePayload(payload));
+        assertEquals(41, CommonItemSerializer.readInventorySize(payload, 0));
+        assertEquals(ServerEnvironment.Platform.PAPER, NativeInventoryCodec.readHeader(payload).platform());
+
+        NativeInventory inventory = new NativeInventory(41, ServerEnvironment.Platform.PAPER, 4189);
+        CommonItemSerializer.deserializeInventory(payload, inventory);
+        assertArrayEquals("sword".getBytes(StandardCharsets.UTF_8), inventory.items[0]);
+        assertEquals(300, inventory.items[40].length);
+        assertNull(inventory.items[1]);
+    }
+
+    @Test
+    @DisplayName("測試整個背包一次編碼")
+    void testWholeInventory() {
+        ServerEnvironment.initialize(new ServerEnvironment(ServerEnvironment.Platform.FABRIC, "1.21.4", 4189));
+        byte[] nbt = new byte[] {10, 0, 0, 3, 0, 11, 'D', 'a', 't', 'a', 'V', 'e', 'r', 's', 'i', 'o', 'n', 0, 0, 16, 93, 0};
+        String payload = NativeInventoryCodec.encodeInventoryToString(41, "1.21.4", 4189, nbt);
+
+        assertEquals(41, CommonItemSerializer.readInventorySize(payload, 0));
+        assertEquals(NativeInventoryCodec.FORMAT_INVENTORY, NativeInventoryCodec.readHeader(payload).format());
+
+        NativeInventory inventory = new NativeInventory(41, ServerEnvironment.Platform.FABRIC, 4189);
+        CommonItemSerializer.deserializeInventory(payload, inventory);
+        assertArrayEquals(nbt, inventory.inventory);
+        assertNull(inventory.items[0]);
+    }
+
+    @Test
+    @DisplayName("測試其他平台或較舊版本拒絕讀取")
+    void testRejectsIncompatibleReader() {
+        String payload = payload();
+        assertThrows(IllegalStateException.class, () -> CommonItemSerializer.deserializeInventory(payload,
+            new NativeInventory(41, ServerEnvironment.Platform.FABRIC, 4189)));
+        assertThrows(IllegalStateException.class, () -> CommonItemSerializer.deserializeInventory(payload,
+            new NativeInventory(41, ServerEnvironment.Platform.PAPER, 4082)));
+    }
+
+    @Test
+    @DisplayName("測試平台不支援原生格式時退回 JSON")
+    void testFallsBackToJson() {
+        CommonItemSerializer.ItemStackProvider[] items = new CommonItemSerializer.ItemStackProvider[41];
+        items[0] = new InventoryPatch.JsonItem("{\"id\":\"minecraft:stone\",\"count\":1}");
+        String payload = CommonItemSerializer.serializeInventory(CommonItemSerializer.PayloadFormat.NATIVE, 41, "1.21.4", 4189, items);
+
+        assertFalse(NativeInventoryCodec.isNativePayload(payload));
+        assertTrue(InventoryPatch.slots(payload).get(0).contains("minecraft:stone"));
+    }
+
+    @Test
+    @DisplayName("測試原生負載不進行容器去重")
+    void testDedupSkipsNativePayload() {
+        String payload = payload();
+        ContainerDedup.Result result = ContainerDedup.externalize(payload, "1.21.4", 4189);
+        assertSame(payload, result.payload());
+        assertFalse(ContainerDedup.mayContainReferences(payload));
+    }
+}
@@ -6,17 +6,26 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.AfterEach;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import site.chococar.inventorybridge.common.adapter.CapturedInventory;
+import site.chococar.inventorybridge.common.adapter.DecodedInventory;
 import site.chococar.inventorybridge.common.adapter.InventoryAdapter;
 import site.chococar.inventorybridge.common.adapter.PlayerAdapter;
 import site.chococar.inventorybridge.common.config.ConfigurationManager;
 import site.chococar.inventorybridge.common.database.CommonDatabaseManager;
+import site.chococar.inventorybridge.common.database.ContentHash;
 import site.chococar.inventorybridge.common.database.InventoryDataRecord;
+import site.chococar.inventorybridge.common.database.InventoryFingerprint;
 import site.chococar.inventorybridge.common.util.Logger;
 
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -61,6 +70,13 @@ class BaseInventorySyncManagerTest {
         
         // 設置模擬背包
         when(mockInventory.serialize()).thenReturn("{\"size\":41,\"items\":{}}");
+        when(mockInventory.capture()).thenCallRealMethod();
+        when(mockInventory.decode(anyString())).thenCallRealMethod();
+        
+        // 設置模擬數據庫
+        when(mockDatabaseManager.saveInventory(any(UUID.class), anyString(), anyString(), any(),
+            anyInt(), anyInt(), anyDouble(), anyInt(), anyString(), anyInt())).thenReturn(true);
+        when(mockDatabaseManager.flush(any(UUID.class))).thenReturn(true);
         
         syncManager = new TestSyncManager(mockDatabaseManager, mockConfig);
     }
@@ -189,6 +205,357 @@ class BaseInventorySyncManagerTest {
         );
     }
     
+    @Test
+    @DisplayName("測試自動保存的差異模式與壓縮")
+    void testDeltaAutoSave() throws Exception {
+        when(mockConfig.getBoolean("sync.deltaSaves", false)).thenReturn(true);
+        when(mockConfig.getInt("sync.deltaCompactAfter", 10)).thenReturn(2);
+        when(mockDatabaseManager.saveInventoryPatch(any(UUID.class), anyString(), any(), any(),
+            anyLong(), anyLong(), anyInt(), anyInt(), anyDouble(), anyInt())).thenReturn(true);
+        when(mockInventory.serialize()).thenReturn(
+            "{\"size\":41,\"items\":{\"0\":{\"id\":\"minecraft:stone\",\"count\":1}}}",
+            "{\"size\":41,\"items\":{\"0\":{\"id\":\"minecraft:stone\",\"count\":2}}}");
+        
+        // 第一次自動保存沒有基準快照，寫入完整資料
+        autoSaveAndWait(1);
+        verify(mockDatabaseManager, times(1)).saveInventory(
+            eq(testPlayerId), eq("test_server"), anyString(), isNull(),
+            anyInt(), anyInt(), anyDouble(), anyInt(), anyString(), anyInt());
+        
+        // 之後只寫入變更的槽位與完整內容的雜湊
+        autoSaveAndWait(2);
+        verify(mockDatabaseManager).saveInventoryPatch(
+            eq(testPlayerId), eq("test_server"),
+            eq("{\"items\":{\"0\":{\"id\":\"minecraft:stone\",\"count\":2}}}"), isNull(),
+            eq(ContentHash.hash("{\"size\":41,\"items\":{\"0\":{\"id\":\"minecraft:stone\",\"count\":2}}}")),
+            eq(ContentHash.NULL_HASH), anyInt(), anyInt(), anyDouble(), anyInt());
+        
+        autoSaveAndWait(3);
+        verify(mockDatabaseManager, times(2)).saveInventoryPatch(any(UUID.class), anyString(), any(), any(),
+            anyLong(), anyLong(), anyInt(), anyInt(), anyDouble(), anyInt());
+        
+        // 達到壓縮門檻後改寫完整快照
+        autoSaveAndWait(4);
+        verify(mockDatabaseManager, times(2)).saveInventory(
+            eq(testPlayerId), eq("test_server"), anyString(), isNull(),
+            anyInt(), anyInt(), anyDouble(), anyInt(), anyString(), anyInt());
+        
+        // 離開伺服器永遠寫入完整快照
+        syncManager.onPlayerLeave(mockPlayer);
+        verify(mockDatabaseManager, timeout(1000).times(3)).saveInventory(
+            eq(testPlayerId), eq("test_server"), anyString(), isNull(),
+            anyInt(), anyInt(), anyDouble(), anyInt(), anyString(), anyInt());
+        verify(mockDatabaseManager, times(2)).saveInventoryPatch(any(UUID.class), anyString(), any(), any(),
+            anyLong(), anyLong(), anyInt(), anyInt(), anyDouble(), anyInt());
+    }
+    
+    @Test
+    @DisplayName("測試自動保存進行中離開伺服器仍寫入完整快照")
+    void testLeaveDuringAutoSave() throws Exception {
+        CountDownLatch autoSaveStarted = new CountDownLatch(1);
+        CountDownLatch releaseAutoSave = new CountDownLatch(1);
+        List<String> saves = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> {
+            if (saves.isEmpty()) {
+                saves.add("auto");
+                autoSaveStarted.countDown();
+                assertTrue(releaseAutoSave.await(5, TimeUnit.SECONDS));
+            } else {
+                saves.add("leave");
+            }
+            return true;
+        }).when(mockDatabaseManager).saveInventory(any(UUID.class), anyString(), anyString(), any(),
+            anyInt(), anyInt(), anyDouble(), anyInt(), anyString(), anyInt());
+        
+        syncManager.autoSave(mockPlayer);
+        assertTrue(autoSaveStarted.await(5, TimeUnit.SECONDS));
+        syncManager.onPlayerLeave(mockPlayer);
+        releaseAutoSave.countDown();
+        
+        verify(mockDatabaseManager, timeout(1000)).logSync(
+            eq(testPlayerId), eq("test_server"), eq("LEAVE"), eq("SUCCESS"), isNull());
+        verify(mockDatabaseManager).flush(testPlayerId);
+        assertEquals(List.of("auto", "leave"), saves);
+    }
+    
+    @Test
+    @DisplayName("測試延遲保存寫入失敗時記錄離開保存失敗")
+    void testLeaveFailsWhenFlushFails() {
+        when(mockDatabaseManager.flush(testPlayerId)).thenReturn(false);
+        
+        syncManager.onPlayerLeave(mockPlayer);
+        
+        verify(mockDatabaseManager, timeout(1000)).logSync(
+            eq(testPlayerId), eq("test_server"), eq("LEAVE"), eq("FAILED"), anyString());
+        verify(mockDatabaseManager, never()).logSync(
+            eq(testPlayerId), eq("test_server"), eq("LEAVE"), eq("SUCCESS"), any());
+    }
+    
+    @Test
+    @DisplayName("測試完整保存失敗時不作為差異的基準")
+    void testFailedFullSaveDropsDeltaBase() throws Exception {
+        when(mockConfig.getBoolean("sync.deltaSaves", false)).thenReturn(true);
+        when(mockConfig.getInt("sync.deltaCompactAfter", 10)).thenReturn(10);
+        when(mockDatabaseManager.saveInventoryPatch(any(UUID.class), anyString(), any(), any(),
+            anyLong(), anyLong(), anyInt(), anyInt(), anyDouble(), anyInt())).thenReturn(true);
+        when(mockDatabaseManager.saveInventory(any(UUID.class), anyString(), anyString(), any(),
+            anyInt(), anyInt(), anyDouble(), anyInt(), anyString(), anyInt())).thenReturn(false, true);
+        
+        syncManager.autoSave(mockPlayer);
+        verify(mockDatabaseManager, timeout(1000)).logSync(
+            eq(testPlayerId), eq("test_server"), eq("AUTO"), eq("FAILED"), anyString());
+        for (int i = 0; i < 50 && syncManager.isSyncInProgress(testPlayerId); i++) {
+            Thread.sleep(10);
+        }
+        
+        // 失敗後的下一次自動保存仍寫入完整快照
+        autoSaveAndWait(1);
+        verify(mockDatabaseManager, times(2)).saveInventory(
+            eq(testPlayerId), eq("test_server"), anyString(), isNull(),
+            anyInt(), anyInt(), anyDouble(), anyInt(), anyString(), anyInt());
+        verify(mockDatabaseManager, never()).saveInventoryPatch(any(UUID.class), anyString(), any(), any(),
+            anyLong(), anyLong(), anyInt(), anyInt(), anyDouble(), anyInt());
+    }
+    
+    @Test
+    @DisplayName("測試載入先解碼再於玩家執行緒一次套用")
+    void testLoadDecodesBeforeApply() {
+        when(mockConfig.getBoolean("sync.syncEnderChest", true)).thenReturn(true);
+        when(mockConfig.getBoolean("sync.syncExperience", true)).thenReturn(true);
+        InventoryDataRecord testData = new InventoryDataRecord(
+            "inventory", "ender", 100, 5, 20.0, 20,
+            "1.21.4", 4071, new Timestamp(System.currentTimeMillis())
+        );
+        when(mockDatabaseManager.loadInventory(testPlayerId, "test_server")).thenReturn(testData);
+        
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        when(mockPlayer.getInventory()).thenReturn(new RecordingInventory(events));
+        when(mockPlayer.getEnderChest()).thenReturn(new RecordingInventory(events));
+        doAnswer(invocation -> events.add("experience")).when(mockPlayer).setExperience(100, 5);
+        
+        TestSyncManager manager = new TestSyncManager(mockDatabaseManager, mockConfig) {
+            @Override
+            protected CompletableFuture<Void> runOnPlayerThread(PlayerAdapter player, Runnable task) {
+                events.add("schedule");
+                return super.runOnPlayerThread(player, task);
+            }
+        };
+        manager.loadPlayerInventory(mockPlayer);
+        
+        // 兩個區段都在排程前解碼完成，排程後才修改玩家
+        assertEquals(2, events.indexOf("schedule"));
+        assertTrue(events.subList(0, 2).containsAll(List.of("decode:inventory", "decode:ender")));
+        assertEquals(List.of("schedule", "apply:inventory", "apply:ender", "experience"), events.subList(2, events.size()));
+        verify(mockPlayer).updateInventory();
+    }
+    
+    @Test
+    @DisplayName("測試存檔在呼叫執行緒擷取、在背景執行緒編碼")
+    void testSaveCapturesBeforeEncode() {
+        Thread caller = Thread.currentThread();
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        InventoryAdapter inventory = new InventoryAdapter() {
+            @Override
+            public int size() {
+                return 41;
+            }
+            
+            @Override
+            public void clear() {
+            }
+            
+            @Override
+            public String serialize() {
+                fail("saves should go through capture");
+                return null;
+            }
+            
+            @Override
+            public void deserialize(String data) {
+            }
+            
+            @Override
+            public CapturedInventory capture() {
+                events.add(Thread.currentThread() == caller ? "capture:caller" : "capture:other");
+                return () -> {
+                    events.add(Thread.currentThread() == caller ? "encode:caller" : "encode:other");
+                    return "{\"size\":41,\"items\":{}}";
+                };
+            }
+        };
+        when(mockPlayer.getInventory()).thenReturn(inventory);
+        
+        syncManager.onPlayerLeave(mockPlayer);
+        verify(mockDatabaseManager, timeout(1000)).logSync(
+            eq(testPlayerId), eq("test_server"), eq("LEAVE"), eq("SUCCESS"), isNull());
+        
+        assertEquals(List.of("capture:caller", "encode:other"), events);
+    }
+    
+    @Test
+    @DisplayName("測試登入階段預載的背包在加入時直接套用")
+    void testPrefetchAppliedOnJoin() {
+        InventoryDataRecord testData = enablePrefetch();
+        when(mockDatabaseManager.loadFingerprint(testPlayerId, "test_server"))
+            .thenReturn(InventoryFingerprint.of(testData));
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        TestSyncManager manager = new PrefetchingSyncManager(events);
+        
+        manager.prefetch(testPlayerId);
+        manager.onPlayerJoin(mockPlayer);
+        
+        verify(mockDatabaseManager, timeout(1000)).logSync(
+            eq(testPlayerId), eq("test_server"), eq("JOIN"), eq("SUCCESS"), isNull());
+        assertEquals(List.of("prepare", "apply"), events);
+        verify(mockDatabaseManager, times(1)).loadInventory(testPlayerId, "test_server");
+        verify(mockPlayer).setExperience(100, 5);
+    }
+    
+    @Test
+    @DisplayName("測試加入事件不等待尚未完成的預載")
+    void testJoinDoesNotBlockOnPrefetch() throws Exception {
+        InventoryDataRecord testData = enablePrefetch();
+        when(mockDatabaseManager.loadFingerprint(testPlayerId, "test_server"))
+            .thenReturn(InventoryFingerprint.of(testData));
+        CountDownLatch release = new CountDownLatch(1);
+        when(mockDatabaseManager.loadInventory(testPlayerId, "test_server")).thenAnswer(invocation -> {
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return testData;
+        });
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        TestSyncManager manager = new PrefetchingSyncManager(events);
+        
+        manager.prefetch(testPlayerId);
+        manager.onPlayerJoin(mockPlayer);
+        
+        // 加入事件已返回，預載完成後才套用
+        assertTrue(events.isEmpty());
+        assertTrue(manager.isSyncInProgress(testPlayerId));
+        release.countDown();
+        
+        verify(mockDatabaseManager, timeout(1000)).logSync(
+            eq(testPlayerId), eq("test_server"), eq("JOIN"), eq("SUCCESS"), isNull());
+        assertEquals(List.of("prepare", "apply"), events);
+        verify(mockDatabaseManager, times(1)).loadInventory(testPlayerId, "test_server");
+    }
+    
+    @Test
+    @DisplayName("測試預載後資料列被其他伺服器更新時重新載入")
+    void testPrefetchReloadedWhenRowChanged() {
+        InventoryDataRecord testData = enablePrefetch();
+        InventoryDataRecord newer = new InventoryDataRecord(
+            testData.inventoryData(), null, 200, 7, 20.0, 20,
+            "1.21.4", 4071, new Timestamp(System.currentTimeMillis())
+        );
+        when(mockDatabaseManager.loadFingerprint(testPlayerId, "test_server"))
+            .thenReturn(InventoryFingerprint.of(newer));
+        TestSyncManager manager = new PrefetchingSyncManager(Collections.synchronizedList(new ArrayList<>()));
+        
+        manager.prefetch(testPlayerId);
+        when(mockDatabaseManager.loadInventory(testPlayerId, "test_server")).thenReturn(newer);
+        manager.onPlayerJoin(mockPlayer);
+        
+        verify(mockDatabaseManager, timeout(1000)).logSync(
+            eq(testPlayerId), eq("test_server"), eq("JOIN"), eq("SUCCESS"), isNull());
+        verify(mockPlayer).setExperience(200, 7);
+    }
+    
+    @Test
+    @DisplayName("測試新玩家預載後不重複載入")
+    void testPrefetchWithoutRowNotReloaded() {
+        enablePrefetch();
+        when(mockDatabaseManager.loadInventory(testPlayerId, "test_server")).thenReturn(null);
+        when(mockDatabaseManager.loadFingerprint(testPlayerId, "test_server")).thenReturn(null);
+        TestSyncManager manager = new PrefetchingSyncManager(Collections.synchronizedList(new ArrayList<>()));
+        
+        manager.prefetch(testPlayerId);
+        manager.onPlayerJoin(mockPlayer);
+        
+        verify(mockDatabaseManager, timeout(1000)).logSync(
+            eq(testPlayerId), eq("test_server"), eq("JOIN"), eq("SUCCESS"), isNull());
+        verify(mockDatabaseManager, times(1)).loadInventory(testPlayerId, "test_server");
+    }
+    
+    @Test
+    @DisplayName("測試停用預載時不查詢資料庫")
+    void testPrefetchDisabled() {
+        TestSyncManager manager = new PrefetchingSyncManager(new ArrayList<>());
+        manager.prefetch(testPlayerId);
+        assertTrue(manager.prefetches.isEmpty());
+        verifyNoInteractions(mockDatabaseManager);
+    }
+    
+    private InventoryDataRecord enablePrefetch() {
+        when(mockConfig.getBoolean("sync.prefetchOnLogin", false)).thenReturn(true);
+        when(mockConfig.getBoolean("sync.syncExperience", true)).thenReturn(true);
+        when(mockConfig.getInt("sync.prefetchTimeout", 3000)).thenReturn(3000);
+        InventoryDataRecord testData = new InventoryDataRecord(
+            "{\"size\":41,\"items\":{}}", null, 100, 5, 20.0, 20,
+            "1.21.4", 4071, new Timestamp(System.currentTimeMillis())
+        );
+        when(mockDatabaseManager.loadInventory(testPlayerId, "test_server")).thenReturn(testData);
+        return testData;
+    }
+    
+    /**
+     * 在預載時解碼並記錄套用順序的同步管理器
+     */
+    private class PrefetchingSyncManager extends TestSyncManager {
+        private final List<String> events;
+        
+        PrefetchingSyncManager(List<String> events) {
+            super(mockDatabaseManager, mockConfig);
+            this.events = events;
+        }
+        
+        @Override
+        protected Function<PlayerAdapter, LoadedInventory> prepareInventory(InventoryDataRecord data) {
+            events.add("prepare");
+            return player -> new LoadedInventory(() -> events.add("apply"), null, data);
+        }
+    }
+    
+    /**
+     * 記錄解碼與套用順序的背包
+     */
+    private record RecordingInventory(List<String> events) implements InventoryAdapter {
+        @Override
+        public int size() {
+            return 41;
+        }
+        
+        @Override
+        public void clear() {
+            events.add("clear");
+        }
+        
+        @Override
+        public String serialize() {
+            return "{}";
+        }
+        
+        @Override
+        public void deserialize(String data) {
+            events.add("deserialize:" + data);
+        }
+        
+        @Override
+        public DecodedInventory decode(String data) {
+            events.add("decode:" + data);
+            return () -> events.add("apply:" + data);
+        }
+    }
+    
+    private void autoSaveAndWait(int expectedAutoSaves) throws InterruptedException {
+        syncManager.autoSave(mockPlayer);
+        verify(mockDatabaseManager, timeout(1000).times(expectedAutoSaves)).logSync(
+            eq(testPlayerId), eq("test_server"), eq("AUTO"), eq("SUCCESS"), isNull());
+        // 等待 finally 區塊釋放同步鎖
+        for (int i = 0; i < 50 && syncManager.isSyncInProgress(testPlayerId); i++) {
+            Thread.sleep(10);
+        }
+    }
+    
     // 測試用的同步管理器實現
     private static class TestSyncManager extends BaseInventorySyncManager<PlayerAdapter> {
         
@@ -0,0 +1,127 @@
+package site.chococar.inventorybridge.common.sync;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import site.chococar.inventorybridge.common.database.InventoryDataRecord;
+import site.chococar.inventorybridge.common.database.InventoryFingerprint;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * InventoryRecordCache 的測試單元
+ */
+class InventoryRecordCacheTest {
+
+    private InventoryRecordCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new InventoryRecordCache();
+        cache.setMaxBytes(1024 * 1024);
+    }
+
+    @Test
+    @DisplayName("測試指紋相同時命中快取")
+    void testHitWhenFingerprintMatches() {
+        UUID player = UUID.randomUUID();
+        InventoryDataRecord record = record("{\"size\":41,\"items\":{}}", 10);
+        cache.put(player, record);
+
+        assertSame(record, cache.get(player, () -> InventoryFingerprint.of(record)));
+        assertEquals(1, cache.getHits());
+        assertEquals(0, cache.getMisses());
+        assertTrue(cache.getResidentBytes() > 0);
+    }
+
+    @Test
+    @DisplayName("測試指紋不同或資料列不存在時移除快取")
+    void testStaleEntryRemoved() {
+        UUID player = UUID.randomUUID();
+        cache.put(player, record("{\"size\":41,\"items\":{}}", 10));
+
+        // 其他伺服器寫入了不同的經驗值
+        InventoryFingerprint changed = InventoryFingerprint.of(record("{\"size\":41,\"items\":{}}", 11));
+        assertNull(cache.get(player, () -> changed));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getResidentBytes());
+
+        cache.put(player, record("{\"size\":41,\"items\":{}}", 10));
+        assertNull(cache.get(player, () -> null));
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    @DisplayName("測試快取中沒有玩家時不查詢指紋")
+    void testMissSkipsFingerprint() {
+        AtomicInteger lookups = new AtomicInteger();
+        assertNull(cache.get(UUID.randomUUID(), () -> {
+            lookups.incrementAndGet();
+            return null;
+        }));
+        assertEquals(0, lookups.get());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    @DisplayName("測試超過位元組上限時淘汰最久未使用的項目")
+    void testEvictsLeastRecentlyUsed() {
+        InventoryDataRecord record = record("x".repeat(100), 0);
+        long entryBytes = InventoryRecordCache.estimateBytes(record);
+        cache.setMaxBytes(entryBytes * 2);
+
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        cache.put(first, record);
+        cache.put(second, record);
+        // 存取 first 使 second 成為最久未使用
+        assertNotNull(cache.get(first, () -> InventoryFingerprint.of(record)));
+        cache.put(third, record);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertEquals(entryBytes * 2, cache.getResidentBytes());
+        assertNull(cache.get(second, () -> InventoryFingerprint.of(record)));
+        assertNotNull(cache.get(first, () -> InventoryFingerprint.of(record)));
+    }
+
+    @Test
+    @DisplayName("測試上限為 0 時停用快取")
+    void testDisabled() {
+        UUID player = UUID.randomUUID();
+        InventoryDataRecord record = record("{}", 0);
+        cache.put(player, record);
+        cache.setMaxBytes(0);
+
+        assertFalse(cache.isEnabled());
+        assertEquals(0, cache.size());
+        cache.put(player, record);
+        assertNull(cache.get(player, () -> InventoryFingerprint.of(record)));
+        assertEquals(0, cache.getResidentBytes());
+    }
+
+    @Test
+    @DisplayName("測試超過上限的單筆記錄不快取並移除舊項目")
+    void testOversizedRecordNotCached() {
+        UUID player = UUID.randomUUID();
+        InventoryDataRecord small = record("{}", 0);
+        cache.setMaxBytes(InventoryRecordCache.estimateBytes(small) + 10);
+        cache.put(player, small);
+        assertEquals(1, cache.size());
+
+        cache.put(player, record("x".repeat(1000), 0));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getResidentBytes());
+    }
+
+    private static InventoryDataRecord record(String inventory, int experience) {
+        return new InventoryDataRecord(inventory, null, experience, 1, 20.0, 20, "1.21.4", 4189,
+            new Timestamp(System.currentTimeMillis()));
+    }
+}
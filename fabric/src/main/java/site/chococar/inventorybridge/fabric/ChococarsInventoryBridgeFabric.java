@@ -1,13 +1,23 @@
 package site.chococar.inventorybridge.fabric;
 
 import net.fabricmc.api.ModInitializer;
+import net.fabricmc.loader.api.FabricLoader;
 import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.event.player.UseBlockCallback;
+import net.fabricmc.fabric.api.networking.v1.ServerConfigurationConnectionEvents;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import net.minecraft.registry.DynamicRegistryManager;
 import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.ActionResult;
+import site.chococar.inventorybridge.common.database.ContainerBlobStore;
+import site.chococar.inventorybridge.common.database.PayloadCompression;
+import site.chococar.inventorybridge.common.environment.ServerEnvironment;
+import site.chococar.inventorybridge.common.serialization.CommonItemSerializer;
 import site.chococar.inventorybridge.fabric.config.FabricConfigManager;
 import site.chococar.inventorybridge.fabric.database.FabricDatabaseManager;
+import site.chococar.inventorybridge.fabric.serialization.FabricItemSerializer;
 import site.chococar.inventorybridge.fabric.commands.InventoryBridgeCommand;
 import site.chococar.inventorybridge.fabric.sync.FabricInventorySyncManager;
 import site.chococar.inventorybridge.fabric.util.FabricLogger;
@@ -20,6 +30,7 @@ public class ChococarsInventoryBridgeFabric implements ModInitializer {
     private FabricConfigManager configManager;
     private FabricDatabaseManager databaseManager;
     private FabricInventorySyncManager syncManager;
+    private int ticksSinceAutoSave = 0;
     
     @Override
     public void onInitialize() {
@@ -29,6 +40,16 @@ public class ChococarsInventoryBridgeFabric implements ModInitializer {
         // 初始化配置
         configManager = new FabricConfigManager();
         configManager.loadConfig();
+        CommonItemSerializer.configure(configManager.getConfigurationManager());
+        PayloadCompression.configure(configManager.getConfigurationManager());
+        ContainerBlobStore.configure(configManager.getConfigurationManager());
+        
+        // 解析伺服器環境，之後的序列化都使用同一份版本資訊
+        String minecraftVersion = FabricLoader.getInstance().getModContainer("minecraft")
+            .map(container -> container.getMetadata().getVersion().getFriendlyString())
+            .orElse(configManager.getMinecraftVersion());
+        ServerEnvironment.initialize(ServerEnvironment.resolve(ServerEnvironment.Platform.FABRIC, minecraftVersion));
+        LOGGER.info("伺服器環境: " + ServerEnvironment.current());
         
         // 初始化資料庫連接
         databaseManager = new FabricDatabaseManager(configManager);
@@ -46,6 +67,26 @@ public class ChococarsInventoryBridgeFabric implements ModInitializer {
         ServerLifecycleEvents.SERVER_STARTED.register(this::onServerStarted);
         ServerLifecycleEvents.SERVER_STOPPING.register(this::onServerStopping);
         
+        // 註冊定期自動保存
+        ServerTickEvents.END_SERVER_TICK.register(this::onServerTick);
+        
+        // 放置或使用方塊前還原手上界伏盒的內容
+        UseBlockCallback.EVENT.register((player, world, hand, hitResult) -> {
+            FabricItemSerializer.hydrate(player.getStackInHand(hand));
+            return ActionResult.PASS;
+        });
+        
+        // 設定階段在驗證完成後、玩家實體建立前，於此預載背包
+        ServerConfigurationConnectionEvents.CONFIGURE.register((handler, server) -> {
+            if (!databaseManager.isStandbyMode()) {
+                syncManager.prefetch(handler.getDebugProfile().getId());
+            }
+        });
+        
+        ServerConfigurationConnectionEvents.DISCONNECT.register((handler, server) -> {
+            syncManager.cancelPrefetch(handler.getDebugProfile().getId());
+        });
+        
         // 註冊玩家連接事件
         ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> {
             if (!databaseManager.isStandbyMode()) {
@@ -87,6 +128,22 @@ public class ChococarsInventoryBridgeFabric implements ModInitializer {
         }
     }
     
+    private void onServerTick(MinecraftServer server) {
+        int interval = Math.max(20, configManager.getSyncIntervalTicks());
+        if (++ticksSinceAutoSave < interval) {
+            return;
+        }
+        ticksSinceAutoSave = 0;
+        
+        if (!configManager.getConfigurationManager().getBoolean("sync.autoSave", false)
+                || databaseManager.isStandbyMode()) {
+            return;
+        }
+        for (net.minecraft.server.network.ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
+            syncManager.autoSave(player);
+        }
+    }
+    
     private void onServerStopping(MinecraftServer server) {
         LOGGER.info("伺服器關閉中 - 關閉資料庫連接");
         if (databaseManager != null) {
@@ -135,6 +192,9 @@ public class ChococarsInventoryBridgeFabric implements ModInitializer {
         try {
             // 重新載入配置文件
             configManager.loadConfig();
+            CommonItemSerializer.configure(configManager.getConfigurationManager());
+            PayloadCompression.configure(configManager.getConfigurationManager());
+            ContainerBlobStore.configure(configManager.getConfigurationManager());
             LOGGER.info("配置文件重新載入成功");
             
             // 重新初始化同步管理器
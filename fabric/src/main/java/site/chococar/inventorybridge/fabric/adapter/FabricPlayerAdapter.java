@@ -1,11 +1,15 @@
 package site.chococar.inventorybridge.fabric.adapter;
 
+import net.minecraft.inventory.SimpleInventory;
 import net.minecraft.server.network.ServerPlayerEntity;
+import site.chococar.inventorybridge.common.adapter.CapturedInventory;
+import site.chococar.inventorybridge.common.adapter.DecodedInventory;
 import site.chococar.inventorybridge.common.adapter.InventoryAdapter;
 import site.chococar.inventorybridge.common.adapter.PlayerAdapter;
 import site.chococar.inventorybridge.fabric.serialization.FabricItemSerializer;
 
 import java.util.UUID;
+import java.util.concurrent.Executor;
 
 /**
  * Fabric版本的玩家適配器實現
@@ -37,6 +41,28 @@ public class FabricPlayerAdapter implements PlayerAdapter {
         return new FabricInventoryAdapter(player.getEnderChestInventory());
     }
     
+    /**
+     * 以登入階段預先解碼的物品取代背包內容
+     */
+    public DecodedInventory replaceInventory(SimpleInventory decoded) {
+        return FabricInventoryAdapter.replace(player.getInventory(), decoded);
+    }
+    
+    /**
+     * 以登入階段預先解碼的物品取代終界箱內容
+     */
+    public DecodedInventory replaceEnderChest(SimpleInventory decoded) {
+        return FabricInventoryAdapter.replace(player.getEnderChestInventory(), decoded);
+    }
+    
+    /**
+     * 在背景還原背包與終界箱中延遲解碼的容器內容，結果於主執行緒套用
+     */
+    public void hydrateContentsAsync(Executor mainThread) {
+        FabricItemSerializer.hydrateInventoryAsync(player.getInventory(), mainThread);
+        FabricItemSerializer.hydrateInventoryAsync(player.getEnderChestInventory(), mainThread);
+    }
+    
     @Override
     public int getTotalExperience() {
         return player.totalExperience;
@@ -107,5 +133,32 @@ public class FabricPlayerAdapter implements PlayerAdapter {
         public void deserialize(String data) {
             FabricItemSerializer.deserializeInventory(data, inventory);
         }
+        
+        /**
+         * 物品組件採寫入時複製，逐一 copy 的成本很低
+         */
+        @Override
+        public CapturedInventory capture() {
+            SimpleInventory captured = new SimpleInventory(inventory.size());
+            for (int i = 0; i < inventory.size(); i++) {
+                captured.setStack(i, inventory.getStack(i).copy());
+            }
+            return () -> FabricItemSerializer.serializeInventory(captured);
+        }
+        
+        @Override
+        public DecodedInventory decode(String data) {
+            SimpleInventory decoded = new SimpleInventory(inventory.size());
+            FabricItemSerializer.deserializeInventory(data, decoded);
+            return replace(inventory, decoded);
+        }
+        
+        static DecodedInventory replace(net.minecraft.inventory.Inventory inventory, SimpleInventory decoded) {
+            return () -> {
+                for (int i = 0; i < inventory.size(); i++) {
+                    inventory.setStack(i, i < decoded.size() ? decoded.getStack(i) : net.minecraft.item.ItemStack.EMPTY);
+                }
+            };
+        }
     }
 }
\ No newline at end of file
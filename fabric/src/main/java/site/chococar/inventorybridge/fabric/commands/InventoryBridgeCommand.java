@@ -10,6 +10,8 @@ import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
 import java.util.concurrent.CompletableFuture;
 import site.chococar.inventorybridge.common.Constants;
+import site.chococar.inventorybridge.common.environment.ServerEnvironment;
+import site.chococar.inventorybridge.common.sync.InventoryRecordCache;
 import site.chococar.inventorybridge.fabric.ChococarsInventoryBridgeFabric;
 
 public class InventoryBridgeCommand {
@@ -164,6 +166,15 @@ public class InventoryBridgeCommand {
                 .append(Text.literal("Never").formatted(Formatting.WHITE)), false);
         }
         
+        InventoryRecordCache records = ChococarsInventoryBridgeFabric.getInstance().getSyncManager().getRecordCache();
+        if (records.isEnabled()) {
+            String stats = String.format("%.1f%% hit (%d hits / %d misses, %d evictions, %d entries, %d/%d KB)",
+                records.getHitRate() * 100, records.getHits(), records.getMisses(), records.getEvictions(),
+                records.size(), records.getResidentBytes() / 1024, records.getMaxBytes() / 1024);
+            source.sendFeedback(() -> Text.literal("Inventory record cache: ").formatted(Formatting.YELLOW)
+                .append(Text.literal(stats).formatted(Formatting.WHITE)), false);
+        }
+        
         return 1;
     }
     
@@ -178,6 +189,10 @@ public class InventoryBridgeCommand {
             .append(Text.literal(Constants.PLUGIN_VERSION).formatted(Formatting.WHITE)), false);
         source.sendFeedback(() -> Text.literal("Author: ").formatted(Formatting.YELLOW)
             .append(Text.literal(Constants.PLUGIN_AUTHOR).formatted(Formatting.WHITE)), false);
+        source.sendFeedback(() -> Text.literal("Minecraft Version: ").formatted(Formatting.YELLOW)
+            .append(Text.literal(ServerEnvironment.current().minecraftVersion()).formatted(Formatting.WHITE)), false);
+        source.sendFeedback(() -> Text.literal("Data Version: ").formatted(Formatting.YELLOW)
+            .append(Text.literal(String.valueOf(ServerEnvironment.current().dataVersion())).formatted(Formatting.WHITE)), false);
         
         if (isStandby) {
             source.sendFeedback(() -> Text.literal("Status: ").formatted(Formatting.YELLOW)
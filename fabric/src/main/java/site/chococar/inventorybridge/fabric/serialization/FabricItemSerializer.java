@@ -1,36 +1,54 @@
 package site.chococar.inventorybridge.fabric.serialization;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import net.minecraft.component.DataComponentTypes;
 import net.minecraft.component.type.BundleContentsComponent;
 import net.minecraft.component.type.ContainerComponent;
+import net.minecraft.component.type.NbtComponent;
+import net.minecraft.inventory.Inventories;
 import net.minecraft.inventory.Inventory;
 import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.registry.DynamicRegistryManager;
 import net.minecraft.registry.Registries;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.collection.DefaultedList;
 import site.chococar.inventorybridge.common.compatibility.ItemMappings;
+import site.chococar.inventorybridge.common.environment.ServerEnvironment;
 import site.chococar.inventorybridge.common.serialization.CommonItemSerializer;
+import site.chococar.inventorybridge.common.serialization.ItemRecord;
+import site.chococar.inventorybridge.common.serialization.ItemRecordJson;
+import site.chococar.inventorybridge.common.serialization.NativeInventoryCodec;
 import site.chococar.inventorybridge.fabric.ChococarsInventoryBridgeFabric;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public class FabricItemSerializer {
-    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
-    // 動態獲取版本信息
+    /**
+     * 延遲解碼時暫存於自定義數據中的容器內容鍵名
+     */
+    private static final String PENDING_CONTAINER_KEY = "chococars_pending_container";
+    private static final String DATA_VERSION_KEY = "DataVersion";
+    // 版本資訊於啟動時解析一次
     private static String getCurrentVersion() {
-        // 使用預設值避免API兼容性問題
-        return "1.21.4";
+        return ServerEnvironment.current().minecraftVersion();
     }
     
     private static int getCurrentDataVersion() {
-        // 使用安全的預設值，避免API兼容性問題
-        return 4071; // 1.21.4 的數據版本
+        return ServerEnvironment.current().dataVersion();
     }
     
     public static String serializeItemStack(ItemStack itemStack) {
@@ -38,97 +56,76 @@ public class FabricItemSerializer {
             return null;
         }
         
-        JsonObject json = new JsonObject();
-        json.addProperty("id", Registries.ITEM.getId(itemStack.getItem()).toString());
-        json.addProperty("count", itemStack.getCount());
-        
-        // 序列化組件
-        JsonObject componentsJson = new JsonObject();
-        
-        // 處理自定義模型數據
-        if (itemStack.contains(DataComponentTypes.CUSTOM_MODEL_DATA)) {
-            // 注釋掉因為 API 已改變
-            // CustomModelDataComponent customModelData = itemStack.get(DataComponentTypes.CUSTOM_MODEL_DATA);
-            // componentsJson.addProperty("custom_model_data", customModelData.getValue());
+        return ItemRecordJson.toJson(toRecord(itemStack), ItemRecordJson.Dialect.FABRIC);
+    }
+    
+    /**
+     * 將物品寫入共享的 JsonWriter，不產生中間字串或 JSON 樹
+     */
+    public static void writeItemStack(ItemStack itemStack, JsonWriter writer) throws IOException {
+        if (itemStack.isEmpty()) {
+            writer.nullValue();
+        } else {
+            ItemRecordJson.write(toRecord(itemStack), writer, ItemRecordJson.Dialect.FABRIC);
         }
+    }
+    
+    /**
+     * 將物品轉為平台無關的 ItemRecord，界伏盒與束包內容遞迴轉換
+     */
+    public static ItemRecord toRecord(ItemStack itemStack) {
+        ItemRecord record = new ItemRecord(Registries.ITEM.getId(itemStack.getItem()).toString(), itemStack.getCount());
+        record.setVersion(getCurrentVersion());
+        record.setDataVersion(getCurrentDataVersion());
         
+        // 自定義模型數據與附魔因 API 改變暫不序列化
         // 處理束包內容 (1.21.2+)
-        if (itemStack.contains(DataComponentTypes.BUNDLE_CONTENTS)) {
-            BundleContentsComponent bundleContents = itemStack.get(DataComponentTypes.BUNDLE_CONTENTS);
-            JsonObject bundleJson = new JsonObject();
-            List<JsonObject> items = new ArrayList<>();
-            bundleContents.iterate().forEach(stack -> {
-                String serialized = serializeItemStack(stack);
-                if (serialized != null) {
-                    JsonObject itemObj = JsonParser.parseString(serialized).getAsJsonObject();
-                    items.add(itemObj);
+        BundleContentsComponent bundle = itemStack.get(DataComponentTypes.BUNDLE_CONTENTS);
+        if (bundle != null) {
+            for (ItemStack stack : bundle.iterate()) {
+                if (!stack.isEmpty()) {
+                    record.addBundleItem(toRecord(stack));
                 }
-            });
-            bundleJson.add("items", GSON.toJsonTree(items));
-            componentsJson.add("bundle_contents", bundleJson);
+            }
         }
         
-        // 處理容器內容（界伏盒等）
-        if (itemStack.contains(DataComponentTypes.CONTAINER)) {
-            ContainerComponent container = itemStack.get(DataComponentTypes.CONTAINER);
-            JsonObject containerJson = new JsonObject();
-            JsonObject containerItems = new JsonObject();
-            
-            for (int i = 0; i < container.stream().toList().size(); i++) {
-                ItemStack stack = container.stream().toList().get(i);
-                if (!stack.isEmpty()) {
-                    String serialized = serializeItemStack(stack);
-                    if (serialized != null) {
-                        JsonObject itemObj = JsonParser.parseString(serialized).getAsJsonObject();
-                        containerItems.add(String.valueOf(i), itemObj);
-                    }
+        // 處理容器內容（界伏盒等），尚未還原的內容原樣寫回
+        String pendingContainer = getPendingContainer(itemStack);
+        ContainerComponent container = itemStack.get(DataComponentTypes.CONTAINER);
+        if (pendingContainer != null) {
+            record.setPendingContainer(pendingContainer);
+        } else if (container != null) {
+            List<ItemStack> stacks = container.stream().toList();
+            record.setContainer(stacks.size());
+            for (int slot = 0; slot < stacks.size(); slot++) {
+                if (!stacks.get(slot).isEmpty()) {
+                    record.setContainerItem(slot, toRecord(stacks.get(slot)));
                 }
             }
-            
-            containerJson.add("items", containerItems);
-            containerJson.addProperty("size", container.stream().toList().size());
-            componentsJson.add("container", containerJson);
         }
         
-        // 處理耐久度
         if (itemStack.contains(DataComponentTypes.DAMAGE)) {
-            componentsJson.addProperty("damage", itemStack.get(DataComponentTypes.DAMAGE));
+            record.setDamage(itemStack.get(DataComponentTypes.DAMAGE));
         }
-        
-        // 處理最大耐久度
         if (itemStack.contains(DataComponentTypes.MAX_DAMAGE)) {
-            componentsJson.addProperty("max_damage", itemStack.get(DataComponentTypes.MAX_DAMAGE));
+            record.setMaxDamage(itemStack.get(DataComponentTypes.MAX_DAMAGE));
         }
-        
-        // 處理顯示名稱
         if (itemStack.contains(DataComponentTypes.CUSTOM_NAME)) {
-            componentsJson.addProperty("custom_name", itemStack.get(DataComponentTypes.CUSTOM_NAME).getString());
+            net.minecraft.text.Text customName = itemStack.get(DataComponentTypes.CUSTOM_NAME);
+            record.setName(customName.getString());
+            DynamicRegistryManager registries = ChococarsInventoryBridgeFabric.getCurrentRegistryManager();
+            if (registries != null) {
+                record.setNameComponent(net.minecraft.text.Text.Serialization.toJsonString(customName, registries));
+            }
         }
-        
-        // 處理描述
         if (itemStack.contains(DataComponentTypes.LORE)) {
-            List<String> loreList = new ArrayList<>();
-            itemStack.get(DataComponentTypes.LORE).lines().forEach(text -> loreList.add(text.getString()));
-            componentsJson.add("lore", GSON.toJsonTree(loreList));
-        }
-        
-        // 處理附魔 - 暫時注釋掉因為 API 改變
-        /*
-        if (itemStack.contains(DataComponentTypes.ENCHANTMENTS)) {
-            JsonObject enchantmentsJson = new JsonObject();
-            itemStack.get(DataComponentTypes.ENCHANTMENTS).getEnchantments().forEach((enchantment, level) -> {
-                String enchantmentId = enchantment.toString();
-                enchantmentsJson.addProperty(enchantmentId, level);
-            });
-            componentsJson.add("enchantments", enchantmentsJson);
-        }
-        */
-        
-        if (!componentsJson.entrySet().isEmpty()) {
-            json.add("components", componentsJson);
+            List<String> lore = new ArrayList<>();
+            for (net.minecraft.text.Text line : itemStack.get(DataComponentTypes.LORE).lines()) {
+                lore.add(line.getString());
+            }
+            record.setLore(lore);
         }
-        
-        return GSON.toJson(json);
+        return record;
     }
     
     public static ItemStack deserializeItemStack(String data) {
@@ -137,133 +134,221 @@ public class FabricItemSerializer {
         }
         
         try {
-            JsonObject json = JsonParser.parseString(data).getAsJsonObject();
-            
-            String itemId = json.get("id").getAsString();
-            int count = json.get("count").getAsInt();
-            
-            // 版本兼容性檢查
-            String version = json.has("minecraft_version") ? json.get("minecraft_version").getAsString() : "unknown";
-            
-            // 檢查物品兼容性
-            if (!ItemMappings.isItemAvailableInVersion(itemId, getCurrentVersion())) {
-                String compatibleId = ItemMappings.getCompatibleItem(itemId);
-                if (!compatibleId.equals(itemId)) {
-                    ChococarsInventoryBridgeFabric.getLogger().info(String.format("將物品 %s 轉換為 %s 以保持版本兼容", itemId, compatibleId));
-                    itemId = compatibleId;
-                }
+            JsonReader reader = new JsonReader(new StringReader(data));
+            reader.setLenient(true);
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                throw new IllegalStateException("Expected an item object but was " + reader.peek());
             }
-            
-            Identifier identifier = Identifier.tryParse(itemId);
-            if (identifier == null || !Registries.ITEM.containsId(identifier)) {
-                ChococarsInventoryBridgeFabric.getLogger().warn(String.format("未知物品ID: %s 來自版本 %s", itemId, version));
-                return ItemStack.EMPTY;
+            return readItemStack(reader);
+        } catch (Exception e) {
+            ChococarsInventoryBridgeFabric.getLogger().error("反序列化物品堆疊失敗", e);
+            return ItemStack.EMPTY;
+        }
+    }
+    
+    /**
+     * 從讀取器直接解碼物品，完整讀取該值
+     * 同時接受 Fabric 與 Paper 寫入的物品格式
+     */
+    public static ItemStack readItemStack(JsonReader reader) throws IOException {
+        return fromRecord(ItemRecordJson.read(reader));
+    }
+    
+    /**
+     * 將 ItemRecord 還原為 ItemStack
+     *
+     * @return 物品，物品ID無法辨識時返回 ItemStack.EMPTY
+     */
+    public static ItemStack fromRecord(ItemRecord record) {
+        if (record == null) {
+            return ItemStack.EMPTY;
+        }
+        String version = record.getVersion() != null ? record.getVersion() : "unknown";
+        
+        // 檢查物品兼容性
+        String resolvedId = record.getId();
+        if (!ItemMappings.isItemAvailable(resolvedId)) {
+            String compatibleId = ItemMappings.getCompatibleItem(resolvedId);
+            if (!compatibleId.equals(resolvedId)) {
+                ChococarsInventoryBridgeFabric.getLogger().info(String.format("將物品 %s 轉換為 %s 以保持版本兼容", resolvedId, compatibleId));
+                resolvedId = compatibleId;
             }
-            
-            ItemStack itemStack = new ItemStack(Registries.ITEM.get(identifier), count);
-            
-            // 應用組件（如果存在）
-            if (json.has("components")) {
-                JsonObject componentsJson = json.getAsJsonObject("components");
-                
-                // 應用自定義模型數據
-                if (componentsJson.has("custom_model_data")) {
-                    // 注釋掉因為 API 已改變
-                    // int customModelData = componentsJson.get("custom_model_data").getAsInt();
-                    // itemStack.set(DataComponentTypes.CUSTOM_MODEL_DATA, new CustomModelDataComponent(customModelData));
-                }
-                
-                // 應用耐久度
-                if (componentsJson.has("damage")) {
-                    int damage = componentsJson.get("damage").getAsInt();
-                    itemStack.set(DataComponentTypes.DAMAGE, damage);
-                }
-                
-                // 應用最大耐久度
-                if (componentsJson.has("max_damage")) {
-                    int maxDamage = componentsJson.get("max_damage").getAsInt();
-                    itemStack.set(DataComponentTypes.MAX_DAMAGE, maxDamage);
-                }
-                
-                // 應用自定義名稱
-                if (componentsJson.has("custom_name")) {
-                    String customName = componentsJson.get("custom_name").getAsString();
-                    itemStack.set(DataComponentTypes.CUSTOM_NAME, net.minecraft.text.Text.literal(customName));
-                }
-                
-                // 應用描述
-                if (componentsJson.has("lore")) {
-                    List<String> loreStrings = GSON.fromJson(componentsJson.get("lore"), new TypeToken<List<String>>(){}.getType());
-                    List<net.minecraft.text.Text> loreTexts = loreStrings.stream()
-                            .map(net.minecraft.text.Text::literal)
-                            .map(text -> (net.minecraft.text.Text) text)
-                            .toList();
-                    itemStack.set(DataComponentTypes.LORE, 
-                            new net.minecraft.component.type.LoreComponent(loreTexts));
-                }
-                
-                // 處理束包內容的向下兼容性
-                if (componentsJson.has("bundle_contents") && itemStack.getItem().toString().contains("bundle")) {
-                    JsonObject bundleJson = componentsJson.getAsJsonObject("bundle_contents");
-                    if (bundleJson.has("items")) {
-                        // 注釋掉因為 API 已改變
-                        // List<String> itemStrings = GSON.fromJson(bundleJson.get("items"), new TypeToken<List<String>>(){}.getType());
-                        // List<ItemStack> bundleItems = itemStrings.stream()
-                        //         .map(FabricItemSerializer::deserializeItemStack)
-                        //         .filter(stack -> !stack.isEmpty())
-                        //         .toList();
-                        // BundleContentsComponent.Builder builder = new BundleContentsComponent.Builder();
-                        // bundleItems.forEach(builder::add);
-                        // itemStack.set(DataComponentTypes.BUNDLE_CONTENTS, builder.build());
-                    }
+        }
+        
+        Identifier identifier = Identifier.tryParse(resolvedId);
+        if (identifier == null || !Registries.ITEM.containsId(identifier)) {
+            ChococarsInventoryBridgeFabric.getLogger().warn(String.format("未知物品ID: %s 來自版本 %s", resolvedId, version));
+            return ItemStack.EMPTY;
+        }
+        
+        ItemStack itemStack = new ItemStack(Registries.ITEM.get(identifier), record.getCount());
+        
+        // 應用耐久度
+        if (record.getDamage() != null) {
+            itemStack.set(DataComponentTypes.DAMAGE, record.getDamage());
+        }
+        
+        // 應用最大耐久度
+        if (record.getMaxDamage() != null) {
+            itemStack.set(DataComponentTypes.MAX_DAMAGE, record.getMaxDamage());
+        }
+        
+        // 應用自定義名稱，優先使用保留格式的組件 JSON
+        net.minecraft.text.Text customName = readCustomName(record);
+        if (customName != null) {
+            itemStack.set(DataComponentTypes.CUSTOM_NAME, customName);
+        }
+        
+        // 應用描述
+        if (record.getLore() != null) {
+            List<net.minecraft.text.Text> loreTexts = new ArrayList<>(record.getLore().size());
+            for (String line : record.getLore()) {
+                loreTexts.add(net.minecraft.text.Text.literal(line));
+            }
+            itemStack.set(DataComponentTypes.LORE, new net.minecraft.component.type.LoreComponent(loreTexts));
+        }
+        
+        // 處理容器內容（界伏盒等）
+        if (record.hasContainer()) {
+            applyContainerItems(itemStack, record.getContainerSize(), record.getContainerItems());
+        }
+        
+        // 延遲解碼的內容暫存於自定義數據，使用時再還原
+        if (record.getPendingContainer() != null) {
+            NbtCompound nbt = new NbtCompound();
+            nbt.putString(PENDING_CONTAINER_KEY, record.getPendingContainer());
+            itemStack.set(DataComponentTypes.CUSTOM_DATA, NbtComponent.of(nbt));
+        }
+        
+        // 自定義模型數據、附魔與束包內容因 API 改變暫不還原
+        return itemStack;
+    }
+    
+    private static net.minecraft.text.Text readCustomName(ItemRecord record) {
+        DynamicRegistryManager registries = ChococarsInventoryBridgeFabric.getCurrentRegistryManager();
+        if (record.getNameComponent() != null && registries != null) {
+            try {
+                net.minecraft.text.Text parsed = net.minecraft.text.Text.Serialization.fromJson(record.getNameComponent(), registries);
+                if (parsed != null) {
+                    return parsed;
                 }
-                
-                // 處理容器內容（界伏盒等）
-                if (componentsJson.has("container")) {
-                    JsonObject containerJson = componentsJson.getAsJsonObject("container");
-                    if (containerJson.has("items")) {
-                        try {
-                            JsonObject containerItems = containerJson.getAsJsonObject("items");
-                            int containerSize = containerJson.has("size") ? containerJson.get("size").getAsInt() : 27;
-                            
-                            // 初始化DefaultedList
-                            DefaultedList<ItemStack> stacks = DefaultedList.ofSize(containerSize, ItemStack.EMPTY);
-                            
-                            // 設置物品
-                            containerItems.entrySet().forEach(entry -> {
-                                try {
-                                    int slot = Integer.parseInt(entry.getKey());
-                                    if (slot < containerSize) {
-                                        String itemJsonString = GSON.toJson(entry.getValue());
-                                        ItemStack stack = deserializeItemStack(itemJsonString);
-                                        if (slot < stacks.size()) {
-                                            stacks.set(slot, stack);
-                                        }
-                                    }
-                                } catch (NumberFormatException e) {
-                                    ChococarsInventoryBridgeFabric.getLogger().warn("無效的容器槽位: " + entry.getKey());
-                                }
-                            });
-                            
-                            // 創建容器組件
-                            itemStack.set(DataComponentTypes.CONTAINER, ContainerComponent.fromStacks(stacks));
-                            
-                        } catch (Exception e) {
-                            ChococarsInventoryBridgeFabric.getLogger().warn("反序列化容器內容失敗: " + e.getMessage());
-                        }
-                    }
+            } catch (RuntimeException e) {
+                ChococarsInventoryBridgeFabric.getLogger().warn("無效的名稱組件: " + e.getMessage());
+            }
+        }
+        return record.getName() != null ? net.minecraft.text.Text.literal(record.getName()) : null;
+    }
+    
+    private static void applyContainerItems(ItemStack itemStack, int containerSize, Map<Integer, ItemRecord> containerItems) {
+        ContainerComponent container = toContainerComponent(containerSize, containerItems);
+        if (container != null) {
+            itemStack.set(DataComponentTypes.CONTAINER, container);
+        }
+    }
+    
+    private static ContainerComponent toContainerComponent(int containerSize, Map<Integer, ItemRecord> containerItems) {
+        try {
+            DefaultedList<ItemStack> stacks = DefaultedList.ofSize(containerSize, ItemStack.EMPTY);
+            for (Map.Entry<Integer, ItemRecord> entry : containerItems.entrySet()) {
+                if (entry.getKey() < stacks.size()) {
+                    stacks.set(entry.getKey(), fromRecord(entry.getValue()));
                 }
             }
-            
-            return itemStack;
-            
+            return ContainerComponent.fromStacks(stacks);
         } catch (Exception e) {
-            ChococarsInventoryBridgeFabric.getLogger().error("反序列化物品堆疊失敗", e);
-            return ItemStack.EMPTY;
+            ChococarsInventoryBridgeFabric.getLogger().warn("反序列化容器內容失敗: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    private static String getPendingContainer(ItemStack itemStack) {
+        NbtComponent customData = itemStack.get(DataComponentTypes.CUSTOM_DATA);
+        if (customData == null || !customData.contains(PENDING_CONTAINER_KEY)) {
+            return null;
+        }
+        return customData.copyNbt().getString(PENDING_CONTAINER_KEY);
+    }
+    
+    /**
+     * 檢查物品是否帶有尚未還原的容器內容
+     */
+    public static boolean hasPendingContents(ItemStack itemStack) {
+        NbtComponent customData = itemStack.get(DataComponentTypes.CUSTOM_DATA);
+        return customData != null && customData.contains(PENDING_CONTAINER_KEY);
+    }
+    
+    /**
+     * 還原延遲解碼的容器內容，直接修改傳入的物品
+     * 內層的界伏盒仍維持延遲狀態，直到它們本身被使用
+     *
+     * @return 物品是否有內容被還原
+     */
+    public static boolean hydrate(ItemStack itemStack) {
+        String pendingContainer = getPendingContainer(itemStack);
+        if (pendingContainer == null) {
+            return false;
+        }
+        
+        ContainerComponent container = decodePending(Registries.ITEM.getId(itemStack.getItem()).toString(), pendingContainer);
+        if (container == null) {
+            return false;
+        }
+        applyHydrated(itemStack, container);
+        return true;
+    }
+    
+    /**
+     * 在背景執行緒解碼背包中延遲的容器內容，解碼結果交由主執行緒套用
+     * 套用前確認物品仍帶有同一份待還原內容，期間已因使用而還原的物品直接略過
+     */
+    public static void hydrateInventoryAsync(Inventory inventory, Executor mainThread) {
+        for (int i = 0; i < inventory.size(); i++) {
+            ItemStack itemStack = inventory.getStack(i);
+            String pendingContainer = getPendingContainer(itemStack);
+            if (pendingContainer == null) {
+                continue;
+            }
+            String itemId = Registries.ITEM.getId(itemStack.getItem()).toString();
+            CompletableFuture.supplyAsync(() -> decodePending(itemId, pendingContainer))
+                .thenAcceptAsync(container -> {
+                    if (container != null && pendingContainer.equals(getPendingContainer(itemStack))) {
+                        applyHydrated(itemStack, container);
+                    }
+                }, mainThread);
+        }
+    }
+    
+    private static ContainerComponent decodePending(String itemId, String pendingContainer) {
+        ItemRecord container = new ItemRecord(itemId, 1);
+        try {
+            ItemRecordJson.readContainer(new JsonReader(new StringReader(pendingContainer)), container);
+        } catch (Exception e) {
+            ChococarsInventoryBridgeFabric.getLogger().error("還原容器內容失敗", e);
+            return null;
+        }
+        return toContainerComponent(container.getContainerSize(), container.getContainerItems());
+    }
+    
+    private static void applyHydrated(ItemStack itemStack, ContainerComponent container) {
+        NbtCompound nbt = itemStack.get(DataComponentTypes.CUSTOM_DATA).copyNbt();
+        nbt.remove(PENDING_CONTAINER_KEY);
+        if (nbt.isEmpty()) {
+            itemStack.remove(DataComponentTypes.CUSTOM_DATA);
+        } else {
+            itemStack.set(DataComponentTypes.CUSTOM_DATA, NbtComponent.of(nbt));
         }
+        itemStack.set(DataComponentTypes.CONTAINER, container);
     }
     
     public static String serializeInventory(Inventory inventory) {
+        if (CommonItemSerializer.getPayloadFormat() == CommonItemSerializer.PayloadFormat.NATIVE) {
+            byte[] nbt = encodeInventoryNbt(inventory);
+            if (nbt != null) {
+                return NativeInventoryCodec.encodeInventoryToString(
+                    inventory.size(), getCurrentVersion(), getCurrentDataVersion(), nbt);
+            }
+        }
+        
         // 創建適配器陣列
         CommonItemSerializer.ItemStackProvider[] items = new CommonItemSerializer.ItemStackProvider[inventory.size()];
         for (int i = 0; i < inventory.size(); i++) {
@@ -285,6 +370,50 @@ public class FabricItemSerializer {
         CommonItemSerializer.deserializeInventory(data, new FabricInventoryProvider(inventory));
     }
     
+    /**
+     * 以 Minecraft 的物品編解碼器將整個背包寫入單一 NBT 複合標籤
+     * 保留所有組件，包含自定義模型數據、附魔與束包內容
+     *
+     * @return 未壓縮的 NBT 位元組，伺服器尚未啟動時返回 null
+     */
+    private static byte[] encodeInventoryNbt(Inventory inventory) {
+        DynamicRegistryManager registries = ChococarsInventoryBridgeFabric.getCurrentRegistryManager();
+        if (registries == null) {
+            return null;
+        }
+        
+        DefaultedList<ItemStack> stacks = DefaultedList.ofSize(inventory.size(), ItemStack.EMPTY);
+        for (int i = 0; i < inventory.size(); i++) {
+            stacks.set(i, inventory.getStack(i));
+        }
+        NbtCompound nbt = new NbtCompound();
+        nbt.putInt(DATA_VERSION_KEY, getCurrentDataVersion());
+        Inventories.writeNbt(nbt, stacks, registries);
+        
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+            NbtIo.write(nbt, new DataOutputStream(bytes));
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            ChococarsInventoryBridgeFabric.getLogger().error("以 NBT 序列化背包失敗，改用 JSON", e);
+            return null;
+        }
+    }
+    
+    private static void decodeInventoryNbt(byte[] data, Inventory inventory) throws IOException {
+        DynamicRegistryManager registries = ChococarsInventoryBridgeFabric.getCurrentRegistryManager();
+        if (registries == null) {
+            throw new IOException("Registries are not available before the server starts");
+        }
+        
+        NbtCompound nbt = NbtIo.readCompound(new DataInputStream(new ByteArrayInputStream(data)));
+        DefaultedList<ItemStack> stacks = DefaultedList.ofSize(inventory.size(), ItemStack.EMPTY);
+        Inventories.readNbt(nbt, stacks, registries);
+        for (int i = 0; i < stacks.size(); i++) {
+            inventory.setStack(i, stacks.get(i));
+        }
+    }
+    
     /**
      * 序列化NBT格式的物品清單 (用於離線玩家檔案讀取)
      * 註：因 Fabric NBT API 兼容性問題暫時簡化
@@ -293,13 +422,13 @@ public class FabricItemSerializer {
         // 暫時返回空背包，避免 NBT API 兼容性問題
         ChococarsInventoryBridgeFabric.getLogger().warn("NBT 序列化功能因 API 兼容性問題暫時簡化");
         
-        JsonObject json = new JsonObject();
-        json.addProperty("size", 41); // 預設玩家背包大小
-        json.addProperty("minecraft_version", getCurrentVersion());
-        json.addProperty("data_version", getCurrentDataVersion());
-        json.add("items", new JsonObject()); // 空的物品清單
-        
-        return GSON.toJson(json);
+        // 預設玩家背包大小，空的物品清單
+        return CommonItemSerializer.serializeInventoryJson(
+            41,
+            getCurrentVersion(),
+            getCurrentDataVersion(),
+            new CommonItemSerializer.ItemStackProvider[0]
+        );
     }
     
     /**
@@ -321,6 +450,24 @@ public class FabricItemSerializer {
         public String serialize() {
             return serializeItemStack(itemStack);
         }
+        
+        @Override
+        public void writeTo(JsonWriter writer) throws IOException {
+            writeItemStack(itemStack, writer);
+        }
+        
+        @Override
+        public ItemRecord toRecord() {
+            return FabricItemSerializer.toRecord(itemStack);
+        }
+        
+        /**
+         * 物品的 JSON 由 toRecord() 產生，兩者內容相同
+         */
+        @Override
+        public boolean hasExactRecord() {
+            return true;
+        }
     }
     
     /**
@@ -347,5 +494,28 @@ public class FabricItemSerializer {
                 ChococarsInventoryBridgeFabric.getLogger().warn(String.format("無效的槽位號碼: %d", slot));
             }
         }
+        
+        @Override
+        public void readItem(int slot, JsonReader reader) throws IOException {
+            inventory.setStack(slot, readItemStack(reader));
+        }
+        
+        @Override
+        public void readRecord(int slot, ItemRecord record) {
+            inventory.setStack(slot, fromRecord(record));
+        }
+        
+        /**
+         * 未經 DataFixer 升級，只讀取相同資料版本寫入的 NBT
+         */
+        @Override
+        public boolean acceptsNative(ServerEnvironment.Platform platform, int dataVersion) {
+            return platform == ServerEnvironment.Platform.FABRIC && dataVersion == getCurrentDataVersion();
+        }
+        
+        @Override
+        public void readNativeInventory(byte[] data) throws IOException {
+            decodeInventoryNbt(data, inventory);
+        }
     }
 }
\ No newline at end of file
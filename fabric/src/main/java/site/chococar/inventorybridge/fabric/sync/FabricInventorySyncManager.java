@@ -1,7 +1,13 @@
 package site.chococar.inventorybridge.fabric.sync;
 
+import net.minecraft.entity.player.PlayerInventory;
+import net.minecraft.inventory.EnderChestInventory;
+import net.minecraft.inventory.SimpleInventory;
 import net.minecraft.server.network.ServerPlayerEntity;
 import site.chococar.inventorybridge.common.config.ConfigurationManager;
+import site.chococar.inventorybridge.common.database.InventoryDataRecord;
+import site.chococar.inventorybridge.common.database.PlayerKeySet;
+import site.chococar.inventorybridge.common.serialization.CommonItemSerializer;
 import site.chococar.inventorybridge.common.sync.BaseInventorySyncManager;
 import site.chococar.inventorybridge.fabric.ChococarsInventoryBridgeFabric;
 import site.chococar.inventorybridge.fabric.adapter.FabricPlayerAdapter;
@@ -11,9 +17,17 @@ import site.chococar.inventorybridge.fabric.serialization.FabricItemSerializer;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.Map;
 
 public class FabricInventorySyncManager extends BaseInventorySyncManager<FabricPlayerAdapter> {
+    /**
+     * 預先解碼時使用的容量，與玩家背包及終界箱的大小相同
+     */
+    private static final int INVENTORY_SIZE = PlayerInventory.OFF_HAND_SLOT + 1;
+    private static final int ENDER_CHEST_SIZE = new EnderChestInventory().size();
+    
     private static net.minecraft.server.MinecraftServer serverInstance;
     
     public FabricInventorySyncManager(FabricDatabaseManager databaseManager, ConfigurationManager config) {
@@ -32,22 +46,16 @@ public class FabricInventorySyncManager extends BaseInventorySyncManager<FabricP
         super.manualSync(new FabricPlayerAdapter(player), save);
     }
     
+    public void autoSave(ServerPlayerEntity player) {
+        super.autoSave(new FabricPlayerAdapter(player));
+    }
+    
     // 實現抽象方法
     @Override
     protected String getServerId() {
         return config.getString("sync.serverId", "server1");
     }
     
-    @Override
-    protected String getCurrentVersion() {
-        return config.getString("compatibility.minecraftVersion", "1.21.4");
-    }
-    
-    @Override
-    protected int getCurrentDataVersion() {
-        return 4071; // 1.21.4 的數據版本
-    }
-    
     @Override
     protected Logger getLogger() {
         return new Logger() {
@@ -73,6 +81,47 @@ public class FabricInventorySyncManager extends BaseInventorySyncManager<FabricP
         ChococarsInventoryBridgeFabric.getLogger().error(message, e);
     }
     
+    /**
+     * 交給伺服器主執行緒執行，已在主執行緒上時直接執行
+     */
+    @Override
+    protected <R> CompletableFuture<R> callOnPlayerThread(FabricPlayerAdapter player, Supplier<R> task) {
+        net.minecraft.server.MinecraftServer server = serverInstance;
+        if (server == null || server.isOnThread()) {
+            return super.callOnPlayerThread(player, task);
+        }
+        return CompletableFuture.supplyAsync(task, server);
+    }
+    
+    /**
+     * 解碼到與玩家背包同樣大小的暫存背包，於預載的背景執行緒完成
+     */
+    @Override
+    protected Function<FabricPlayerAdapter, LoadedInventory> prepareInventory(InventoryDataRecord data) {
+        SimpleInventory inventory = new SimpleInventory(INVENTORY_SIZE);
+        FabricItemSerializer.deserializeInventory(data.inventoryData(), inventory);
+        SimpleInventory enderChest = null;
+        if (config.getBoolean("sync.syncEnderChest", true) && data.enderChestData() != null) {
+            enderChest = new SimpleInventory(ENDER_CHEST_SIZE);
+            FabricItemSerializer.deserializeInventory(data.enderChestData(), enderChest);
+        }
+        SimpleInventory decodedEnderChest = enderChest;
+        return player -> new LoadedInventory(player.replaceInventory(inventory),
+            decodedEnderChest != null ? player.replaceEnderChest(decodedEnderChest) : null, data);
+    }
+    
+    /**
+     * Fabric 沒有背包點擊事件，延遲解碼的內容在套用背包後於背景解碼，再交回主執行緒還原
+     */
+    @Override
+    protected void applyInventory(FabricPlayerAdapter player, LoadedInventory loaded) {
+        super.applyInventory(player, loaded);
+        net.minecraft.server.MinecraftServer server = serverInstance;
+        if (server != null && CommonItemSerializer.isLazyContainers()) {
+            player.hydrateContentsAsync(server);
+        }
+    }
+    
     public static void setServerInstance(net.minecraft.server.MinecraftServer server) {
         serverInstance = server;
     }
@@ -117,6 +166,8 @@ public class FabricInventorySyncManager extends BaseInventorySyncManager<FabricP
                 int totalScanned = 0;
                 int totalSynced = 0;
                 String serverId = config.getString("sync.serverId", "server1");
+                // 一次載入已有資料的玩家，逐檔比對只在記憶體中進行
+                PlayerKeySet existing = databaseManager.loadPlayerKeys(serverId);
                 
                 for (java.io.File playerFile : playerFiles) {
                     try {
@@ -126,8 +177,11 @@ public class FabricInventorySyncManager extends BaseInventorySyncManager<FabricP
                         
                         totalScanned++;
                         
-                        // 檢查資料庫中是否已存在此玩家資料
-                        if (!databaseManager.hasInventory(playerUuid, serverId)) {
+                        // 以集合與尚未寫入的保存判斷，載入集合後才寫入的資料列由匯入時的唯一鍵略過
+                        boolean known = existing != null
+                                ? existing.contains(playerUuid) || databaseManager.hasPendingSave(playerUuid, serverId)
+                                : databaseManager.hasInventory(playerUuid, serverId);
+                        if (!known) {
                             // 嘗試從檔案同步玩家資料
                             if (syncPlayerFromFile(playerUuid, playerFile, serverId)) {
                                 totalSynced++;
@@ -224,12 +278,15 @@ public class FabricInventorySyncManager extends BaseInventorySyncManager<FabricP
                 }
             }
             
-            databaseManager.saveInventory(
+            if (!databaseManager.importInventory(
                 playerUuid, serverId, inventoryData, enderChestData,
                 experience, experienceLevel, health, hunger,
                 getCurrentVersion(),
                 getCurrentDataVersion()
-            );
+            )) {
+                // 掃描期間已有資料寫入或匯入失敗
+                return false;
+            }
             
             databaseManager.logSync(playerUuid, serverId, "INITIAL_SYNC", "SUCCESS", null);
             return true;
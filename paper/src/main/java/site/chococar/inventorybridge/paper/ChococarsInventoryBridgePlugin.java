@@ -1,12 +1,26 @@
 package site.chococar.inventorybridge.paper;
 
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockDispenseEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerItemHeldEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerSwapHandItemsEvent;
+import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.java.JavaPlugin;
+import site.chococar.inventorybridge.common.database.ContainerBlobStore;
+import site.chococar.inventorybridge.common.database.PayloadCompression;
+import site.chococar.inventorybridge.common.environment.ServerEnvironment;
+import site.chococar.inventorybridge.common.serialization.CommonItemSerializer;
 import site.chococar.inventorybridge.paper.config.PaperConfigManager;
 import site.chococar.inventorybridge.paper.database.PaperDatabaseManager;
+import site.chococar.inventorybridge.paper.serialization.PaperItemSerializer;
 import site.chococar.inventorybridge.paper.sync.PaperInventorySyncManager;
 import site.chococar.inventorybridge.paper.commands.InventoryBridgeCommand;
 
@@ -20,10 +34,17 @@ public class ChococarsInventoryBridgePlugin extends JavaPlugin implements Listen
     public void onEnable() {
         getLogger().info("Enabling Chococar's Inventory Bridge Plugin");
         
+        // 解析伺服器環境，之後的序列化都使用同一份版本資訊
+        ServerEnvironment.initialize(ServerEnvironment.resolve(ServerEnvironment.Platform.PAPER, getServer().getMinecraftVersion()));
+        getLogger().info("Server environment: " + ServerEnvironment.current());
+        
         try {
             // Initialize configuration
             configManager = new PaperConfigManager(this);
             configManager.loadConfig();
+            CommonItemSerializer.configure(configManager.getConfigurationManager());
+            PayloadCompression.configure(configManager.getConfigurationManager());
+            ContainerBlobStore.configure(configManager.getConfigurationManager());
             getLogger().info("Configuration loaded successfully");
             
             // Initialize database connection
@@ -61,6 +82,10 @@ public class ChococarsInventoryBridgePlugin extends JavaPlugin implements Listen
                 e.printStackTrace();
             }
             
+            // Schedule periodic auto save
+            long interval = Math.max(20L, configManager.getSyncIntervalTicks());
+            getServer().getScheduler().runTaskTimer(this, this::autoSaveOnlinePlayers, interval, interval);
+            
             // Scan and sync existing player files if database is available
             if (!databaseManager.isStandbyMode()) {
                 syncManager.scanAndSyncExistingPlayerFiles();
@@ -86,6 +111,31 @@ public class ChococarsInventoryBridgePlugin extends JavaPlugin implements Listen
         getLogger().info("Chococar's Inventory Bridge Plugin disabled");
     }
     
+    private void autoSaveOnlinePlayers() {
+        if (!configManager.getConfigurationManager().getBoolean("sync.autoSave", false)
+                || databaseManager.isStandbyMode()) {
+            return;
+        }
+        for (org.bukkit.entity.Player player : getServer().getOnlinePlayers()) {
+            syncManager.autoSave(player);
+        }
+    }
+    
+    // 其他插件決定是否允許登入後才開始預載
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onAsyncPlayerPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() == AsyncPlayerPreLoginEvent.Result.ALLOWED && !databaseManager.isStandbyMode()) {
+            syncManager.prefetch(event.getUniqueId());
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerLogin(PlayerLoginEvent event) {
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+            syncManager.cancelPrefetch(event.getPlayer().getUniqueId());
+        }
+    }
+    
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
         if (!databaseManager.isStandbyMode()) {
@@ -104,6 +154,62 @@ public class ChococarsInventoryBridgePlugin extends JavaPlugin implements Listen
         }
     }
     
+    // 延遲解碼的界伏盒與束包在實際使用前還原內容
+    
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerInteract(PlayerInteractEvent event) {
+        if (event.getHand() != null && event.getItem() != null && PaperItemSerializer.hasPendingContents(event.getItem())) {
+            // 手上物品為背包的鏡像，直接修改會反映到放置與使用流程
+            PaperItemSerializer.hydrate(event.getPlayer().getInventory().getItem(event.getHand()));
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerItemHeld(PlayerItemHeldEvent event) {
+        ItemStack item = event.getPlayer().getInventory().getItem(event.getNewSlot());
+        if (PaperItemSerializer.hydrate(item)) {
+            event.getPlayer().getInventory().setItem(event.getNewSlot(), item);
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerSwapHandItems(PlayerSwapHandItemsEvent event) {
+        ItemStack mainHand = event.getMainHandItem();
+        if (PaperItemSerializer.hydrate(mainHand)) {
+            event.setMainHandItem(mainHand);
+        }
+        ItemStack offHand = event.getOffHandItem();
+        if (PaperItemSerializer.hydrate(offHand)) {
+            event.setOffHandItem(offHand);
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onInventoryClick(InventoryClickEvent event) {
+        ItemStack current = event.getCurrentItem();
+        if (PaperItemSerializer.hydrate(current)) {
+            event.setCurrentItem(current);
+        }
+        ItemStack cursor = event.getCursor();
+        if (PaperItemSerializer.hydrate(cursor)) {
+            event.getView().setCursor(cursor);
+        }
+        if (event.getHotbarButton() >= 0) {
+            ItemStack hotbar = event.getWhoClicked().getInventory().getItem(event.getHotbarButton());
+            if (PaperItemSerializer.hydrate(hotbar)) {
+                event.getWhoClicked().getInventory().setItem(event.getHotbarButton(), hotbar);
+            }
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onBlockDispense(BlockDispenseEvent event) {
+        ItemStack item = event.getItem();
+        if (PaperItemSerializer.hydrate(item)) {
+            event.setItem(item);
+        }
+    }
+    
     public PaperConfigManager getConfigManager() {
         return configManager;
     }
@@ -126,6 +232,9 @@ public class ChococarsInventoryBridgePlugin extends JavaPlugin implements Listen
         try {
             // 重新載入配置文件
             configManager.loadConfig();
+            CommonItemSerializer.configure(configManager.getConfigurationManager());
+            PayloadCompression.configure(configManager.getConfigurationManager());
+            ContainerBlobStore.configure(configManager.getConfigurationManager());
             getLogger().info("配置文件重新載入成功");
             
             // 重新初始化資料庫連接（使用新配置）
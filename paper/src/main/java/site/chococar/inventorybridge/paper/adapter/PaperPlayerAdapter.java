@@ -1,6 +1,8 @@
 package site.chococar.inventorybridge.paper.adapter;
 
 import org.bukkit.entity.Player;
+import site.chococar.inventorybridge.common.adapter.CapturedInventory;
+import site.chococar.inventorybridge.common.adapter.DecodedInventory;
 import site.chococar.inventorybridge.common.adapter.InventoryAdapter;
 import site.chococar.inventorybridge.common.adapter.PlayerAdapter;
 import site.chococar.inventorybridge.paper.serialization.PaperItemSerializer;
@@ -17,6 +19,13 @@ public class PaperPlayerAdapter implements PlayerAdapter {
         this.player = player;
     }
     
+    /**
+     * 獲取 Bukkit 玩家
+     */
+    public Player getPlayer() {
+        return player;
+    }
+    
     @Override
     public UUID getUniqueId() {
         return player.getUniqueId();
@@ -37,6 +46,20 @@ public class PaperPlayerAdapter implements PlayerAdapter {
         return new PaperInventoryAdapter(player.getEnderChest());
     }
     
+    /**
+     * 以登入階段預先解碼的物品取代背包內容
+     */
+    public DecodedInventory replaceInventory(org.bukkit.inventory.ItemStack[] items) {
+        return PaperInventoryAdapter.replace(player.getInventory(), items);
+    }
+    
+    /**
+     * 以登入階段預先解碼的物品取代終界箱內容
+     */
+    public DecodedInventory replaceEnderChest(org.bukkit.inventory.ItemStack[] items) {
+        return PaperInventoryAdapter.replace(player.getEnderChest(), items);
+    }
+    
     @Override
     public int getTotalExperience() {
         return player.getTotalExperience();
@@ -110,5 +133,35 @@ public class PaperPlayerAdapter implements PlayerAdapter {
                 inventory.setContents(items);
             }
         }
+        
+        /**
+         * getContents 返回的是線上物品的鏡像，必須逐一複製才能在其他執行緒編碼
+         */
+        @Override
+        public CapturedInventory capture() {
+            org.bukkit.inventory.ItemStack[] contents = inventory.getContents();
+            for (int i = 0; i < contents.length; i++) {
+                if (contents[i] != null) {
+                    contents[i] = contents[i].clone();
+                }
+            }
+            return () -> PaperItemSerializer.serializeInventoryArray(contents);
+        }
+        
+        @Override
+        public DecodedInventory decode(String data) {
+            org.bukkit.inventory.ItemStack[] items = PaperItemSerializer.deserializeInventory(data);
+            if (items == null) {
+                throw new IllegalStateException("Failed to decode inventory data");
+            }
+            return replace(inventory, items);
+        }
+        
+        static DecodedInventory replace(org.bukkit.inventory.Inventory inventory, org.bukkit.inventory.ItemStack[] items) {
+            return () -> {
+                inventory.clear();
+                inventory.setContents(items);
+            };
+        }
     }
 }
\ No newline at end of file
@@ -7,9 +7,14 @@ import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
 import org.bukkit.scheduler.BukkitRunnable;
 import site.chococar.inventorybridge.common.Constants;
+import site.chococar.inventorybridge.common.environment.ServerEnvironment;
+import site.chococar.inventorybridge.common.serialization.EncodingCache;
+import site.chococar.inventorybridge.common.sync.InventoryRecordCache;
 import site.chococar.inventorybridge.paper.ChococarsInventoryBridgePlugin;
+import site.chococar.inventorybridge.paper.serialization.PaperItemSerializer;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -157,6 +162,21 @@ public class InventoryBridgeCommand implements CommandExecutor, TabCompleter {
                         .append(Component.text("Never").color(NamedTextColor.WHITE)));
                 }
                 
+                EncodingCache<ItemStack> cache = PaperItemSerializer.getEncodingCache();
+                sender.sendMessage(Component.text("Item encoding cache: ").color(NamedTextColor.YELLOW)
+                    .append(Component.text(String.format("%.1f%% hit (%d hits / %d misses, %d/%d entries)",
+                        cache.getHitRate() * 100, cache.getHits(), cache.getMisses(), cache.size(), cache.getCapacity()))
+                        .color(NamedTextColor.WHITE)));
+                
+                InventoryRecordCache records = plugin.getSyncManager().getRecordCache();
+                if (records.isEnabled()) {
+                    sender.sendMessage(Component.text("Inventory record cache: ").color(NamedTextColor.YELLOW)
+                        .append(Component.text(String.format("%.1f%% hit (%d hits / %d misses, %d evictions, %d entries, %d/%d KB)",
+                            records.getHitRate() * 100, records.getHits(), records.getMisses(), records.getEvictions(),
+                            records.size(), records.getResidentBytes() / 1024, records.getMaxBytes() / 1024))
+                            .color(NamedTextColor.WHITE)));
+                }
+                
                 return true;
             }
             
@@ -167,7 +187,9 @@ public class InventoryBridgeCommand implements CommandExecutor, TabCompleter {
                 sender.sendMessage(Component.text("Author: ").color(NamedTextColor.YELLOW)
                     .append(Component.text(Constants.PLUGIN_AUTHOR).color(NamedTextColor.WHITE)));
                 sender.sendMessage(Component.text("Minecraft Version: ").color(NamedTextColor.YELLOW)
-                    .append(Component.text(plugin.getConfigManager().getMinecraftVersion()).color(NamedTextColor.WHITE)));
+                    .append(Component.text(ServerEnvironment.current().minecraftVersion()).color(NamedTextColor.WHITE)));
+                sender.sendMessage(Component.text("Data Version: ").color(NamedTextColor.YELLOW)
+                    .append(Component.text(String.valueOf(ServerEnvironment.current().dataVersion())).color(NamedTextColor.WHITE)));
                 sender.sendMessage(Component.text("Server ID: ").color(NamedTextColor.YELLOW)
                     .append(Component.text(plugin.getConfigManager().getServerId()).color(NamedTextColor.WHITE)));
                 return true;
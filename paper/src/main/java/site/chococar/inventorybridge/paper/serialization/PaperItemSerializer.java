@@ -1,154 +1,156 @@
 package site.chococar.inventorybridge.paper.serialization;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import site.chococar.inventorybridge.common.environment.ServerEnvironment;
 import site.chococar.inventorybridge.common.serialization.CommonItemSerializer;
+import site.chococar.inventorybridge.common.serialization.EncodingCache;
+import site.chococar.inventorybridge.common.serialization.ItemRecord;
+import site.chococar.inventorybridge.common.serialization.ItemRecordJson;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
 import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
 import org.bukkit.enchantments.Enchantment;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.inventory.meta.BlockStateMeta;
 import org.bukkit.inventory.meta.BundleMeta;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Logger;
 
 public class PaperItemSerializer {
-    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
-    // 動態獲取版本信息
+    // 版本資訊於啟動時解析一次
     private static String getCurrentVersion() {
-        try {
-            return org.bukkit.Bukkit.getMinecraftVersion();
-        } catch (Exception e) {
-            logger.warning("無法獲取 Minecraft 版本，使用預設值: " + e.getMessage());
-            return "1.21.4";
-        }
+        return ServerEnvironment.current().minecraftVersion();
     }
     
     private static int getCurrentDataVersion() {
-        try {
-            String version = getCurrentVersion();
-            
-            // 根據版本號推斷數據版本
-            if (version.startsWith("1.21.4")) {
-                return 4071;
-            } else if (version.startsWith("1.21.5")) {
-                return 4073;
-            } else if (version.startsWith("1.21.6")) {
-                return 4076;
-            } else if (version.startsWith("1.21.7")) {
-                return 4079;
-            } else if (version.startsWith("1.21.8")) {
-                return 4082;
-            } else if (version.startsWith("1.21")) {
-                return 4071; // 預設為 1.21.4 的數據版本
-            } else {
-                logger.warning("未知的 Minecraft 版本: " + version + "，使用預設數據版本");
-                return 4071;
-            }
-        } catch (Exception e) {
-            logger.warning("無法獲取數據版本，使用預設值: " + e.getMessage());
-            return 4071;
-        }
+        return ServerEnvironment.current().dataVersion();
     }
+    
     private static final Logger logger = Logger.getLogger("ChococarsInventoryBridge");
     
+    /**
+     * 物品編碼快取上限，足以涵蓋數百名線上玩家的常見物品
+     */
+    private static final int ENCODING_CACHE_CAPACITY = 4096;
+    private static final EncodingCache<ItemStack> ENCODING_CACHE = new EncodingCache<>(ENCODING_CACHE_CAPACITY, ItemStack::clone);
+    
+    /**
+     * 延遲解碼時暫存尚未還原的界伏盒與束包內容
+     */
+    private static final NamespacedKey PENDING_CONTAINER_KEY = new NamespacedKey("chococarsinventorybridge", "pending_container");
+    private static final NamespacedKey PENDING_BUNDLE_KEY = new NamespacedKey("chococarsinventorybridge", "pending_bundle");
+    
     public static String serializeItemStack(ItemStack itemStack) {
         if (itemStack == null || itemStack.getType() == Material.AIR) {
             return null;
         }
         
-        JsonObject json = new JsonObject();
-        json.addProperty("material", itemStack.getType().name());
-        json.addProperty("amount", itemStack.getAmount());
-        json.addProperty("minecraft_version", getCurrentVersion());
-        json.addProperty("data_version", getCurrentDataVersion());
+        return ENCODING_CACHE.get(itemStack, PaperItemSerializer::encodeItemStack);
+    }
+    
+    /**
+     * 將物品寫入共享的 JsonWriter
+     * 未變更的物品直接重用快取中的編碼，界伏盒內容同樣逐一快取
+     */
+    public static void writeItemStack(ItemStack itemStack, JsonWriter writer) throws IOException {
+        String encoded = serializeItemStack(itemStack);
+        if (encoded == null) {
+            writer.nullValue();
+        } else {
+            writer.jsonValue(encoded);
+        }
+    }
+    
+    /**
+     * 取得物品編碼快取，用於查看命中統計
+     */
+    public static EncodingCache<ItemStack> getEncodingCache() {
+        return ENCODING_CACHE;
+    }
+    
+    private static String encodeItemStack(ItemStack itemStack) {
+        return ItemRecordJson.toJson(toRecord(itemStack), ItemRecordJson.Dialect.PAPER);
+    }
+    
+    /**
+     * 將物品轉為平台無關的 ItemRecord，界伏盒與束包內容遞迴轉換
+     */
+    public static ItemRecord toRecord(ItemStack itemStack) {
+        ItemRecord record = new ItemRecord(itemStack.getType().getKey().toString(), itemStack.getAmount());
+        record.setVersion(getCurrentVersion());
+        record.setDataVersion(getCurrentDataVersion());
+        if (!itemStack.hasItemMeta()) {
+            return record;
+        }
         
-        // Handle item meta
-        if (itemStack.hasItemMeta()) {
-            JsonObject metaJson = new JsonObject();
-            ItemMeta meta = itemStack.getItemMeta();
-            
-            // Custom model data
-            if (meta.hasCustomModelData()) {
-                metaJson.addProperty("custom_model_data", meta.getCustomModelData());
-            }
-            
-            // Display name
-            if (meta.hasDisplayName()) {
-                metaJson.addProperty("display_name", meta.displayName().toString());
-            }
-            
-            // Lore
-            if (meta.hasLore()) {
-                List<String> loreStrings = new ArrayList<>();
-                for (net.kyori.adventure.text.Component component : meta.lore()) {
-                    loreStrings.add(net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer.plainText().serialize(component));
-                }
-                metaJson.add("lore", GSON.toJsonTree(loreStrings));
-            }
-            
-            // Enchantments
-            if (meta.hasEnchants()) {
-                JsonObject enchantmentsJson = new JsonObject();
-                for (Map.Entry<Enchantment, Integer> entry : meta.getEnchants().entrySet()) {
-                    enchantmentsJson.addProperty(entry.getKey().getKey().toString(), entry.getValue());
-                }
-                metaJson.add("enchantments", enchantmentsJson);
+        ItemMeta meta = itemStack.getItemMeta();
+        if (meta.hasCustomModelData()) {
+            record.setCustomModelData(meta.getCustomModelData());
+        }
+        if (meta.hasDisplayName()) {
+            // 純文字供無法解析組件的讀取端使用，組件 JSON 保留顏色與格式
+            record.setName(PlainTextComponentSerializer.plainText().serialize(meta.displayName()));
+            record.setNameComponent(GsonComponentSerializer.gson().serialize(meta.displayName()));
+        }
+        if (meta.hasLore()) {
+            List<String> lore = new ArrayList<>();
+            for (Component component : meta.lore()) {
+                lore.add(PlainTextComponentSerializer.plainText().serialize(component));
             }
-            
-            // Handle bundle contents (1.21.2+)
-            if (meta instanceof BundleMeta bundleMeta) {
-                if (bundleMeta.hasItems()) {
-                    List<String> bundleItems = new ArrayList<>();
-                    for (ItemStack bundleItem : bundleMeta.getItems()) {
-                        String serializedItem = serializeItemStack(bundleItem);
-                        if (serializedItem != null) {
-                            bundleItems.add(serializedItem);
-                        }
-                    }
-                    metaJson.add("bundle_items", GSON.toJsonTree(bundleItems));
-                }
+            record.setLore(lore);
+        }
+        if (meta.hasEnchants()) {
+            for (Map.Entry<Enchantment, Integer> entry : meta.getEnchants().entrySet()) {
+                record.addEnchantment(entry.getKey().getKey().toString(), entry.getValue());
             }
-            
-            // Handle shulker box and other container contents
-            if (meta instanceof org.bukkit.inventory.meta.BlockStateMeta blockStateMeta) {
-                if (blockStateMeta.getBlockState() instanceof org.bukkit.block.ShulkerBox shulkerBox) {
-                    Inventory shulkerInventory = shulkerBox.getInventory();
-                    JsonObject containerJson = new JsonObject();
-                    containerJson.addProperty("size", shulkerInventory.getSize());
-                    
-                    JsonObject containerItems = new JsonObject();
-                    ItemStack[] contents = shulkerInventory.getContents();
-                    for (int i = 0; i < contents.length; i++) {
-                        if (contents[i] != null && contents[i].getType() != Material.AIR) {
-                            String serializedItem = serializeItemStack(contents[i]);
-                            if (serializedItem != null) {
-                                JsonObject itemObj = JsonParser.parseString(serializedItem).getAsJsonObject();
-                                containerItems.add(String.valueOf(i), itemObj);
-                            }
-                        }
-                    }
-                    containerJson.add("items", containerItems);
-                    metaJson.add("container", containerJson);
+        }
+        
+        // 尚未還原的內容原樣寫回
+        PersistentDataContainer pending = meta.getPersistentDataContainer();
+        String pendingBundle = pending.get(PENDING_BUNDLE_KEY, PersistentDataType.STRING);
+        String pendingContainer = pending.get(PENDING_CONTAINER_KEY, PersistentDataType.STRING);
+        
+        if (pendingBundle != null) {
+            record.setPendingBundle(pendingBundle);
+        } else if (meta instanceof BundleMeta bundleMeta && bundleMeta.hasItems()) {
+            for (ItemStack bundleItem : bundleMeta.getItems()) {
+                if (bundleItem != null && bundleItem.getType() != Material.AIR) {
+                    record.addBundleItem(toRecord(bundleItem));
                 }
             }
-            
-            // Damage for damageable items
-            if (meta instanceof org.bukkit.inventory.meta.Damageable damageable) {
-                if (damageable.hasDamage()) {
-                    metaJson.addProperty("damage", damageable.getDamage());
+        }
+        
+        if (pendingContainer != null) {
+            record.setPendingContainer(pendingContainer);
+        } else if (meta instanceof BlockStateMeta blockStateMeta
+                && blockStateMeta.getBlockState() instanceof org.bukkit.block.ShulkerBox shulkerBox) {
+            Inventory shulkerInventory = shulkerBox.getInventory();
+            record.setContainer(shulkerInventory.getSize());
+            ItemStack[] contents = shulkerInventory.getContents();
+            for (int i = 0; i < contents.length; i++) {
+                if (contents[i] != null && contents[i].getType() != Material.AIR) {
+                    record.setContainerItem(i, toRecord(contents[i]));
                 }
             }
-            
-            json.add("meta", metaJson);
         }
         
-        return GSON.toJson(json);
+        if (meta instanceof org.bukkit.inventory.meta.Damageable damageable && damageable.hasDamage()) {
+            record.setDamage(damageable.getDamage());
+        }
+        return record;
     }
     
     public static ItemStack deserializeItemStack(String data) {
@@ -157,145 +159,222 @@ public class PaperItemSerializer {
         }
         
         try {
-            JsonObject json = JsonParser.parseString(data).getAsJsonObject();
-            
-            String materialName = json.get("material").getAsString();
-            int amount = json.get("amount").getAsInt();
-            
-            // Version compatibility check
-            String version = json.has("minecraft_version") ? json.get("minecraft_version").getAsString() : "unknown";
-            
-            // Handle material compatibility
-            Material material = Material.matchMaterial(materialName);
+            JsonReader reader = new JsonReader(new StringReader(data));
+            reader.setLenient(true);
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                throw new IllegalStateException("Expected an item object but was " + reader.peek());
+            }
+            return readItemStack(reader);
+        } catch (Exception e) {
+            logger.severe("Failed to deserialize item stack: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * 從讀取器直接解碼物品，完整讀取該值
+     * 同時接受 Paper 與 Fabric 寫入的物品格式
+     */
+    public static ItemStack readItemStack(JsonReader reader) throws IOException {
+        return fromRecord(ItemRecordJson.read(reader));
+    }
+    
+    /**
+     * 將 ItemRecord 還原為 ItemStack
+     *
+     * @return 物品，材質無法辨識時返回 null
+     */
+    public static ItemStack fromRecord(ItemRecord record) {
+        if (record == null) {
+            return null;
+        }
+        String version = record.getVersion() != null ? record.getVersion() : "unknown";
+        
+        // Handle material compatibility
+        Material material = Material.matchMaterial(record.getId());
+        if (material == null) {
+            // Try to find compatible material for older versions
+            material = findCompatibleMaterial(record.getMaterialName(), version);
             if (material == null) {
-                // Try to find compatible material for older versions
-                material = findCompatibleMaterial(materialName, version);
-                if (material == null) {
-                    logger.warning("Unknown material: " + materialName + " from version " + version);
-                    return null;
+                logger.warning("Unknown material: " + record.getMaterialName() + " from version " + version);
+                return null;
+            }
+        }
+        
+        ItemStack itemStack = new ItemStack(material, record.getCount());
+        if (!record.hasProperties()) {
+            return itemStack;
+        }
+        
+        ItemMeta meta = itemStack.getItemMeta();
+        if (meta == null) {
+            return itemStack;
+        }
+        
+        // Custom model data
+        if (record.getCustomModelData() != null) {
+            meta.setCustomModelData(record.getCustomModelData());
+        }
+        
+        // Display name
+        Component displayName = readDisplayName(record);
+        if (displayName != null) {
+            meta.displayName(displayName);
+        }
+        
+        // Lore
+        if (record.getLore() != null) {
+            List<Component> loreComponents = new ArrayList<>(record.getLore().size());
+            for (String loreString : record.getLore()) {
+                loreComponents.add(Component.text(loreString));
+            }
+            meta.lore(loreComponents);
+        }
+        
+        // Enchantments
+        if (record.getEnchantments() != null) {
+            for (Map.Entry<String, Integer> entry : record.getEnchantments().entrySet()) {
+                try {
+                    org.bukkit.NamespacedKey key = org.bukkit.NamespacedKey.fromString(entry.getKey());
+                    io.papermc.paper.registry.RegistryAccess registryAccess = io.papermc.paper.registry.RegistryAccess.registryAccess();
+                    org.bukkit.Registry<Enchantment> enchantmentRegistry = registryAccess.getRegistry(io.papermc.paper.registry.RegistryKey.ENCHANTMENT);
+                    Enchantment enchantment = enchantmentRegistry.get(key);
+                    if (enchantment != null) {
+                        meta.addEnchant(enchantment, entry.getValue(), true);
+                    }
+                } catch (Exception e) {
+                    logger.warning("無法載入附魔: " + entry.getKey() + " - " + e.getMessage());
                 }
             }
-            
-            ItemStack itemStack = new ItemStack(material, amount);
-            
-            // Apply meta if present
-            if (json.has("meta")) {
-                JsonObject metaJson = json.getAsJsonObject("meta");
-                ItemMeta meta = itemStack.getItemMeta();
+        }
+        
+        // Damage
+        if (record.getDamage() != null && meta instanceof org.bukkit.inventory.meta.Damageable damageable) {
+            damageable.setDamage(record.getDamage());
+        }
+        
+        // Bundle items
+        if (record.hasBundle() && meta instanceof BundleMeta bundleMeta) {
+            bundleMeta.setItems(fromRecords(record.getBundleItems()));
+        }
+        
+        // Container contents (shulker boxes, etc.)
+        if (record.hasContainer() && meta instanceof BlockStateMeta blockStateMeta) {
+            applyContainerItems(blockStateMeta, record.getContainerItems());
+        }
+        
+        // 延遲解碼的內容暫存於物品上，使用時再還原
+        if (record.getPendingBundle() != null && meta instanceof BundleMeta) {
+            meta.getPersistentDataContainer().set(PENDING_BUNDLE_KEY, PersistentDataType.STRING, record.getPendingBundle());
+        }
+        if (record.getPendingContainer() != null && meta instanceof BlockStateMeta) {
+            meta.getPersistentDataContainer().set(PENDING_CONTAINER_KEY, PersistentDataType.STRING, record.getPendingContainer());
+        }
+        
+        itemStack.setItemMeta(meta);
+        return itemStack;
+    }
+    
+    private static List<ItemStack> fromRecords(List<ItemRecord> records) {
+        List<ItemStack> items = new ArrayList<>(records.size());
+        for (ItemRecord record : records) {
+            ItemStack item = fromRecord(record);
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+    
+    private static void applyContainerItems(BlockStateMeta blockStateMeta, Map<Integer, ItemRecord> containerItems) {
+        try {
+            if (blockStateMeta.getBlockState() instanceof org.bukkit.block.ShulkerBox shulkerBox) {
+                Inventory shulkerInventory = shulkerBox.getInventory();
                 
-                if (meta != null) {
-                    // Custom model data
-                    if (metaJson.has("custom_model_data")) {
-                        meta.setCustomModelData(metaJson.get("custom_model_data").getAsInt());
-                    }
-                    
-                    // Display name
-                    if (metaJson.has("display_name")) {
-                        meta.displayName(net.kyori.adventure.text.Component.text(metaJson.get("display_name").getAsString()));
-                    }
-                    
-                    // Lore
-                    if (metaJson.has("lore")) {
-                        List<String> loreStrings = GSON.fromJson(metaJson.get("lore"), 
-                            new com.google.gson.reflect.TypeToken<List<String>>(){}.getType());
-                        List<net.kyori.adventure.text.Component> loreComponents = new ArrayList<>();
-                        for (String loreString : loreStrings) {
-                            loreComponents.add(net.kyori.adventure.text.Component.text(loreString));
-                        }
-                        meta.lore(loreComponents);
-                    }
-                    
-                    // Enchantments
-                    if (metaJson.has("enchantments")) {
-                        JsonObject enchantmentsJson = metaJson.getAsJsonObject("enchantments");
-                        for (String enchantKey : enchantmentsJson.keySet()) {
-                            try {
-                                org.bukkit.NamespacedKey key = org.bukkit.NamespacedKey.fromString(enchantKey);
-                                io.papermc.paper.registry.RegistryAccess registryAccess = io.papermc.paper.registry.RegistryAccess.registryAccess();
-                                org.bukkit.Registry<Enchantment> enchantmentRegistry = registryAccess.getRegistry(io.papermc.paper.registry.RegistryKey.ENCHANTMENT);
-                                Enchantment enchantment = enchantmentRegistry.get(key);
-                                if (enchantment != null) {
-                                    int level = enchantmentsJson.get(enchantKey).getAsInt();
-                                    meta.addEnchant(enchantment, level, true);
-                                }
-                            } catch (Exception e) {
-                                logger.warning("無法載入附魔: " + enchantKey + " - " + e.getMessage());
-                            }
-                        }
-                    }
-                    
-                    // Damage
-                    if (metaJson.has("damage") && meta instanceof org.bukkit.inventory.meta.Damageable damageable) {
-                        damageable.setDamage(metaJson.get("damage").getAsInt());
-                    }
-                    
-                    // Bundle items
-                    if (metaJson.has("bundle_items") && meta instanceof BundleMeta bundleMeta) {
-                        List<String> bundleItemStrings = GSON.fromJson(metaJson.get("bundle_items"), 
-                            new com.google.gson.reflect.TypeToken<List<String>>(){}.getType());
-                        List<ItemStack> bundleItems = new ArrayList<>();
-                        for (String itemString : bundleItemStrings) {
-                            ItemStack bundleItem = deserializeItemStack(itemString);
-                            if (bundleItem != null) {
-                                bundleItems.add(bundleItem);
-                            }
-                        }
-                        bundleMeta.setItems(bundleItems);
-                    }
-                    
-                    // Container contents (shulker boxes, etc.)
-                    if (metaJson.has("container") && meta instanceof org.bukkit.inventory.meta.BlockStateMeta blockStateMeta) {
-                        try {
-                            JsonObject containerJson = metaJson.getAsJsonObject("container");
-                            if (containerJson.has("items") && blockStateMeta.getBlockState() instanceof org.bukkit.block.ShulkerBox shulkerBox) {
-                                JsonObject containerItems = containerJson.getAsJsonObject("items");
-                                Inventory shulkerInventory = shulkerBox.getInventory();
-                                
-                                // Clear existing contents
-                                shulkerInventory.clear();
-                                
-                                // Load items
-                                for (String slotStr : containerItems.keySet()) {
-                                    try {
-                                        int slot = Integer.parseInt(slotStr);
-                                        if (slot < shulkerInventory.getSize()) {
-                                            String itemData;
-                                            if (containerItems.get(slotStr).isJsonObject()) {
-                                                itemData = GSON.toJson(containerItems.get(slotStr));
-                                            } else {
-                                                itemData = containerItems.get(slotStr).getAsString();
-                                            }
-                                            ItemStack containerItem = deserializeItemStack(itemData);
-                                            if (containerItem != null) {
-                                                shulkerInventory.setItem(slot, containerItem);
-                                            }
-                                        }
-                                    } catch (NumberFormatException e) {
-                                        logger.warning("Invalid container slot: " + slotStr);
-                                    }
-                                }
-                                
-                                // Update the block state
-                                shulkerBox.update();
-                                blockStateMeta.setBlockState(shulkerBox);
-                            }
-                        } catch (Exception e) {
-                            logger.warning("Failed to deserialize container contents: " + e.getMessage());
+                // Clear existing contents
+                shulkerInventory.clear();
+                
+                // Load items
+                for (Map.Entry<Integer, ItemRecord> entry : containerItems.entrySet()) {
+                    if (entry.getKey() < shulkerInventory.getSize()) {
+                        ItemStack item = fromRecord(entry.getValue());
+                        if (item != null) {
+                            shulkerInventory.setItem(entry.getKey(), item);
                         }
                     }
-                    
-                    itemStack.setItemMeta(meta);
                 }
+                
+                // Update the block state
+                shulkerBox.update();
+                blockStateMeta.setBlockState(shulkerBox);
             }
-            
-            return itemStack;
-            
         } catch (Exception e) {
-            logger.severe("Failed to deserialize item stack: " + e.getMessage());
-            return null;
+            logger.warning("Failed to deserialize container contents: " + e.getMessage());
         }
     }
     
+    /**
+     * 檢查物品是否帶有尚未還原的界伏盒或束包內容
+     */
+    public static boolean hasPendingContents(ItemStack itemStack) {
+        if (itemStack == null || !itemStack.hasItemMeta()) {
+            return false;
+        }
+        PersistentDataContainer pending = itemStack.getItemMeta().getPersistentDataContainer();
+        return pending.has(PENDING_CONTAINER_KEY, PersistentDataType.STRING)
+            || pending.has(PENDING_BUNDLE_KEY, PersistentDataType.STRING);
+    }
+    
+    /**
+     * 還原延遲解碼的界伏盒與束包內容，直接修改傳入的物品
+     * 內層的界伏盒仍維持延遲狀態，直到它們本身被使用
+     *
+     * @return 物品是否有內容被還原
+     */
+    public static boolean hydrate(ItemStack itemStack) {
+        if (!hasPendingContents(itemStack)) {
+            return false;
+        }
+        
+        ItemMeta meta = itemStack.getItemMeta();
+        PersistentDataContainer pending = meta.getPersistentDataContainer();
+        String pendingBundle = pending.get(PENDING_BUNDLE_KEY, PersistentDataType.STRING);
+        String pendingContainer = pending.get(PENDING_CONTAINER_KEY, PersistentDataType.STRING);
+        pending.remove(PENDING_BUNDLE_KEY);
+        pending.remove(PENDING_CONTAINER_KEY);
+        
+        try {
+            if (pendingBundle != null && meta instanceof BundleMeta bundleMeta) {
+                bundleMeta.setItems(fromRecords(ItemRecordJson.readBundleItems(new JsonReader(new StringReader(pendingBundle)))));
+            }
+            if (pendingContainer != null && meta instanceof BlockStateMeta blockStateMeta) {
+                ItemRecord container = new ItemRecord(itemStack.getType().getKey().toString(), 1);
+                ItemRecordJson.readContainer(new JsonReader(new StringReader(pendingContainer)), container);
+                applyContainerItems(blockStateMeta, container.getContainerItems());
+            }
+        } catch (Exception e) {
+            logger.severe("Failed to hydrate container contents: " + e.getMessage());
+            return false;
+        }
+        
+        itemStack.setItemMeta(meta);
+        return true;
+    }
+    
+    /**
+     * 優先使用組件 JSON 還原顯示名稱，舊資料或無法解析時使用純文字
+     */
+    private static Component readDisplayName(ItemRecord record) {
+        if (record.getNameComponent() != null) {
+            try {
+                return GsonComponentSerializer.gson().deserialize(record.getNameComponent());
+            } catch (RuntimeException e) {
+                logger.warning("Invalid display name component: " + e.getMessage());
+            }
+        }
+        return record.getName() != null ? Component.text(record.getName()) : null;
+    }
+    
     private static Material findCompatibleMaterial(String materialName, String version) {
         // Handle common material changes between versions
         return switch (materialName) {
@@ -345,9 +424,8 @@ public class PaperItemSerializer {
         }
         
         try {
-            // 使用 Common 序列化器先獲取 size
-            JsonObject json = JsonParser.parseString(data).getAsJsonObject();
-            int size = json.has("size") ? json.get("size").getAsInt() : 41; // 預設背包大小
+            // 使用 Common 序列化器先獲取 size（支援 JSON 與二進位格式）
+            int size = CommonItemSerializer.readInventorySize(data, 41); // 預設背包大小
             ItemStack[] items = new ItemStack[size];
             
             // 完全交給 Common 序列化器處理
@@ -403,6 +481,29 @@ public class PaperItemSerializer {
         public String serialize() {
             return serializeItemStack(itemStack);
         }
+        
+        @Override
+        public void writeTo(JsonWriter writer) throws IOException {
+            writeItemStack(itemStack, writer);
+        }
+        
+        @Override
+        public ItemRecord toRecord() {
+            return PaperItemSerializer.toRecord(itemStack);
+        }
+        
+        /**
+         * 物品的 JSON 由 toRecord() 產生，兩者內容相同
+         */
+        @Override
+        public boolean hasExactRecord() {
+            return true;
+        }
+        
+        @Override
+        public byte[] toNativeBytes() {
+            return itemStack.serializeAsBytes();
+        }
     }
     
     /**
@@ -431,5 +532,36 @@ public class PaperItemSerializer {
                 logger.warning("Invalid slot number: " + slot);
             }
         }
+        
+        @Override
+        public void readItem(int slot, JsonReader reader) throws IOException {
+            ItemStack item = readItemStack(reader);
+            if (item != null && slot < items.length) {
+                items[slot] = item;
+            }
+        }
+        
+        @Override
+        public void readRecord(int slot, ItemRecord record) {
+            ItemStack item = fromRecord(record);
+            if (item != null && slot < items.length) {
+                items[slot] = item;
+            }
+        }
+        
+        /**
+         * Paper 會以 DataFixer 升級舊資料版本的物品，但無法讀取較新版本寫入的物品
+         */
+        @Override
+        public boolean acceptsNative(ServerEnvironment.Platform platform, int dataVersion) {
+            return platform == ServerEnvironment.Platform.PAPER && dataVersion <= getCurrentDataVersion();
+        }
+        
+        @Override
+        public void readNative(int slot, byte[] data) {
+            if (slot < items.length) {
+                items[slot] = ItemStack.deserializeBytes(data);
+            }
+        }
     }
 }
\ No newline at end of file
@@ -1,8 +1,14 @@
 package site.chococar.inventorybridge.paper.sync;
 
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
 import site.chococar.inventorybridge.common.config.ConfigurationManager;
+import site.chococar.inventorybridge.common.database.InventoryDataRecord;
+import site.chococar.inventorybridge.common.database.PlayerKeySet;
 import site.chococar.inventorybridge.common.sync.BaseInventorySyncManager;
+import site.chococar.inventorybridge.paper.ChococarsInventoryBridgePlugin;
 import site.chococar.inventorybridge.paper.adapter.PaperPlayerAdapter;
 import site.chococar.inventorybridge.paper.config.PaperConfigManager;
 import site.chococar.inventorybridge.paper.database.PaperDatabaseManager;
@@ -10,6 +16,8 @@ import site.chococar.inventorybridge.paper.serialization.PaperItemSerializer;
 
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class PaperInventorySyncManager extends BaseInventorySyncManager<PaperPlayerAdapter> {
     private final java.util.logging.Logger logger;
@@ -32,6 +40,10 @@ public class PaperInventorySyncManager extends BaseInventorySyncManager<PaperPla
         super.manualSync(new PaperPlayerAdapter(player), save);
     }
     
+    public void autoSave(Player player) {
+        super.autoSave(new PaperPlayerAdapter(player));
+    }
+    
     
     
     // 實現抽象方法
@@ -40,44 +52,6 @@ public class PaperInventorySyncManager extends BaseInventorySyncManager<PaperPla
         return getConfigManager().getServerId();
     }
     
-    @Override
-    protected String getCurrentVersion() {
-        try {
-            return org.bukkit.Bukkit.getMinecraftVersion();
-        } catch (Exception e) {
-            logger.warning("無法獲取 Minecraft 版本，使用預設值: " + e.getMessage());
-            return getConfigManager().getMinecraftVersion();
-        }
-    }
-    
-    @Override
-    protected int getCurrentDataVersion() {
-        try {
-            String version = getCurrentVersion();
-            
-            // 根據版本號推斷數據版本
-            if (version.startsWith("1.21.4")) {
-                return 4071;
-            } else if (version.startsWith("1.21.5")) {
-                return 4073;
-            } else if (version.startsWith("1.21.6")) {
-                return 4076;
-            } else if (version.startsWith("1.21.7")) {
-                return 4079;
-            } else if (version.startsWith("1.21.8")) {
-                return 4082;
-            } else if (version.startsWith("1.21")) {
-                return 4071;
-            } else {
-                logger.warning("未知的 Minecraft 版本: " + version + "，使用預設數據版本");
-                return 4071;
-            }
-        } catch (Exception e) {
-            logger.warning("無法獲取數據版本，使用預設值: " + e.getMessage());
-            return 4071;
-        }
-    }
-    
     @Override
     protected Logger getLogger() {
         return new Logger() {
@@ -104,6 +78,52 @@ public class PaperInventorySyncManager extends BaseInventorySyncManager<PaperPla
         e.printStackTrace();
     }
     
+    /**
+     * 透過實體排程器在玩家所屬的執行緒上執行，Paper 為主執行緒，Folia 為區域執行緒
+     */
+    @Override
+    protected <R> CompletableFuture<R> callOnPlayerThread(PaperPlayerAdapter player, Supplier<R> task) {
+        Player bukkitPlayer = player.getPlayer();
+        if (Bukkit.isOwnedByCurrentRegion(bukkitPlayer)) {
+            return super.callOnPlayerThread(player, task);
+        }
+        
+        CompletableFuture<R> future = new CompletableFuture<>();
+        Runnable retired = () -> future.completeExceptionally(
+            new IllegalStateException("玩家 " + bukkitPlayer.getName() + " 已離線"));
+        ScheduledTask scheduled = bukkitPlayer.getScheduler().run(ChococarsInventoryBridgePlugin.getInstance(), t -> {
+            try {
+                future.complete(task.get());
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }, retired);
+        if (scheduled == null) {
+            retired.run();
+        }
+        return future;
+    }
+    
+    /**
+     * 物品解碼不需要玩家實體，於預載的背景執行緒完成
+     */
+    @Override
+    protected Function<PaperPlayerAdapter, LoadedInventory> prepareInventory(InventoryDataRecord data) {
+        ItemStack[] inventory = decodeItems(data.inventoryData());
+        ItemStack[] enderChest = config.getBoolean("sync.syncEnderChest", true) && data.enderChestData() != null
+            ? decodeItems(data.enderChestData()) : null;
+        return player -> new LoadedInventory(player.replaceInventory(inventory),
+            enderChest != null ? player.replaceEnderChest(enderChest) : null, data);
+    }
+    
+    private static ItemStack[] decodeItems(String data) {
+        ItemStack[] items = PaperItemSerializer.deserializeInventory(data);
+        if (items == null) {
+            throw new IllegalStateException("Failed to decode inventory data");
+        }
+        return items;
+    }
+    
     private PaperConfigManager getConfigManager() {
         return site.chococar.inventorybridge.paper.ChococarsInventoryBridgePlugin.getInstance().getConfigManager();
     }
@@ -130,6 +150,8 @@ public class PaperInventorySyncManager extends BaseInventorySyncManager<PaperPla
                 int totalScanned = 0;
                 int totalSynced = 0;
                 PaperConfigManager config = getConfigManager();
+                // 一次載入已有資料的玩家，逐檔比對只在記憶體中進行
+                PlayerKeySet existing = databaseManager.loadPlayerKeys(config.getServerId());
                 
                 for (java.io.File worldDir : worldDirs) {
                     java.io.File playerDataDir = new java.io.File(worldDir, "playerdata");
@@ -148,8 +170,11 @@ public class PaperInventorySyncManager extends BaseInventorySyncManager<PaperPla
                             
                             totalScanned++;
                             
-                            // 檢查資料庫中是否已存在此玩家資料
-                            if (!databaseManager.hasInventory(playerUuid, config.getServerId())) {
+                            // 以集合與尚未寫入的保存判斷，載入集合後才寫入的資料列由匯入時的唯一鍵略過
+                            boolean known = existing != null
+                                    ? existing.contains(playerUuid) || databaseManager.hasPendingSave(playerUuid, config.getServerId())
+                                    : databaseManager.hasInventory(playerUuid, config.getServerId());
+                            if (!known) {
                                 // 嘗試從 NBT 檔案載入玩家資料
                                 if (syncPlayerFromFile(playerUuid, playerFile)) {
                                     totalSynced++;
@@ -250,7 +275,7 @@ public class PaperInventorySyncManager extends BaseInventorySyncManager<PaperPla
                     }
                 }
                 
-                databaseManager.saveInventory(
+                if (!databaseManager.importInventory(
                     playerUuid,
                     config.getServerId(),
                     inventoryData,
@@ -259,9 +284,12 @@ public class PaperInventorySyncManager extends BaseInventorySyncManager<PaperPla
                     experienceLevel,
                     health,
                     hunger,
-                    config.getMinecraftVersion(),
-                    getCurrentDataVersion() // 動態獲取當前數據版本
-                );
+                    getCurrentVersion(),
+                    getCurrentDataVersion()
+                )) {
+                    // 掃描期間已有資料寫入或匯入失敗
+                    return false;
+                }
                 
                 databaseManager.logSync(playerUuid, config.getServerId(), "INITIAL_SYNC", "SUCCESS", null);
                 return true;